@@ -14,6 +14,9 @@ import tools.refinery.generator.ProblemLoader;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +34,7 @@ public class GenerateCommand {
 	private List<String> scopes = new ArrayList<>();
 	private List<String> overrideScopes = new ArrayList<>();
 	private long randomSeed = 1;
+	private String queryStatisticsPath;
 
 	@Parameter(description = "input path", required = true)
 	public void setInputPath(String inputPath) {
@@ -57,13 +61,23 @@ public class GenerateCommand {
 		this.randomSeed = randomSeed;
 	}
 
+	@Parameter(names = {"-query-statistics"}, description = "Query statistics output path (- for standard error)")
+	public void setQueryStatisticsPath(String queryStatisticsPath) {
+		this.queryStatisticsPath = queryStatisticsPath;
+	}
+
 	public void run() throws IOException {
 		loader.extraPath(System.getProperty("user.dir"));
 		var problem = isStandardStream(inputPath) ? loader.loadStream(System.in) : loader.loadFile(inputPath);
 		problem = loader.loadScopeConstraints(problem, scopes, overrideScopes);
-		var generator = generatorFactory.createGenerator(problem);
+		var generator = generatorFactory
+				.collectQueryStatistics(queryStatisticsPath != null)
+				.createGenerator(problem);
 		generator.setRandomSeed(randomSeed);
 		generator.generate();
+		if (queryStatisticsPath != null) {
+			writeQueryStatistics(generator.getQueryStatistics().toJson());
+		}
 		var solution = generator.serializeSolution();
 		var solutionResource = solution.eResource();
 		var saveOptions = Map.of();
@@ -76,6 +90,14 @@ public class GenerateCommand {
 		}
 	}
 
+	private void writeQueryStatistics(String json) throws IOException {
+		if (queryStatisticsPath.equals("-")) {
+			printQueryStatistics(json);
+		} else {
+			Files.writeString(Path.of(queryStatisticsPath), json, StandardCharsets.UTF_8);
+		}
+	}
+
 	private boolean isStandardStream(String path) {
 		return path == null || path.equals("-");
 	}
@@ -85,4 +107,10 @@ public class GenerateCommand {
 	private void printSolution(Resource solutionResource, Map<?, ?> saveOptions) throws IOException {
 		solutionResource.save(System.out, saveOptions);
 	}
+
+	// We deliberately write to the standard error to keep the standard output reserved for the solution.
+	@SuppressWarnings("squid:S106")
+	private void printQueryStatistics(String json) {
+		System.err.println(json);
+	}
 }
@@ -11,6 +11,6 @@ plugins {
 dependencies {
 	api(project(":refinery-language-semantics"))
 	api(libs.eclipseCollections.api)
-	implementation(project(":refinery-store-query-interpreter"))
+	api(project(":refinery-store-query-interpreter"))
 	testImplementation(testFixtures(project(":refinery-language")))
 }
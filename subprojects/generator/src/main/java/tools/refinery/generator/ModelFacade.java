@@ -8,6 +8,8 @@ package tools.refinery.generator;
 import tools.refinery.language.semantics.ProblemTrace;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.interpreter.QueryInterpreterStatistics;
 import tools.refinery.store.reasoning.ReasoningAdapter;
 import tools.refinery.store.reasoning.ReasoningStoreAdapter;
 import tools.refinery.store.reasoning.interpretation.PartialInterpretation;
@@ -55,4 +57,8 @@ public abstract class ModelFacade {
 	public <A, C> PartialInterpretation<A, C> getPartialInterpretation(PartialSymbol<A, C> partialSymbol) {
 		return reasoningAdapter.getPartialInterpretation(concreteness, partialSymbol);
 	}
+
+	public QueryInterpreterStatistics getQueryStatistics() {
+		return model.getAdapter(QueryInterpreterAdapter.class).getStatistics();
+	}
 }
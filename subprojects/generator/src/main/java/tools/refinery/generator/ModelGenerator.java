@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -21,6 +21,7 @@ public class ModelGenerator extends ModelFacade {
 	private final Version initialVersion;
 	private final Provider<SolutionSerializer> solutionSerializerProvider;
 	private long randomSeed = 1;
+	private int numberOfExplorers = 1;
 	private boolean lastGenerationSuccessful;
 
 	ModelGenerator(ProblemTrace problemTrace, ModelStore store, ModelSeed modelSeed,
@@ -39,6 +40,17 @@ public class ModelGenerator extends ModelFacade {
 		this.lastGenerationSuccessful = false;
 	}
 
+	public int getNumberOfExplorers() {
+		return numberOfExplorers;
+	}
+
+	public void setNumberOfExplorers(int numberOfExplorers) {
+		if (numberOfExplorers < 1) {
+			throw new IllegalArgumentException("Number of explorers must be positive, got: " + numberOfExplorers);
+		}
+		this.numberOfExplorers = numberOfExplorers;
+	}
+
 	public boolean isLastGenerationSuccessful() {
 		return lastGenerationSuccessful;
 	}
@@ -49,7 +61,7 @@ public class ModelGenerator extends ModelFacade {
 		lastGenerationSuccessful = false;
 		randomSeed++;
 		var bestFirst = new BestFirstStoreManager(getModelStore(), 1);
-		bestFirst.startExploration(initialVersion, randomSeed);
+		bestFirst.startExploration(initialVersion, randomSeed, numberOfExplorers);
 		var solutions = bestFirst.getSolutionStore().getSolutions();
 		if (solutions.isEmpty()) {
 			return false;
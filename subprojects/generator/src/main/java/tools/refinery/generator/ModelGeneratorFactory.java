@@ -33,6 +33,8 @@ public final class ModelGeneratorFactory {
 
 	private boolean debugPartialInterpretations;
 
+	private boolean collectQueryStatistics;
+
 	public ModelGeneratorFactory cancellationToken(CancellationToken cancellationToken) {
 		this.cancellationToken = cancellationToken;
 		return this;
@@ -43,13 +45,19 @@ public final class ModelGeneratorFactory {
 		return this;
 	}
 
+	public ModelGeneratorFactory collectQueryStatistics(boolean collectQueryStatistics) {
+		this.collectQueryStatistics = collectQueryStatistics;
+		return this;
+	}
+
 	public ModelGenerator createGenerator(Problem problem) {
 		var initializer = initializerProvider.get();
 		initializer.readProblem(problem);
 		cancellationToken.checkCancelled();
 		var storeBuilder = ModelStore.builder()
 				.cancellationToken(cancellationToken)
-				.with(QueryInterpreterAdapter.builder())
+				.with(QueryInterpreterAdapter.builder()
+						.collectStatistics(collectQueryStatistics))
 				.with(PropagationAdapter.builder())
 				.with(StateCoderAdapter.builder())
 				.with(DesignSpaceExplorationAdapter.builder())
@@ -24,17 +24,25 @@ public final class ModelSemanticsFactory {
 
 	private CancellationToken cancellationToken = CancellationToken.NONE;
 
+	private boolean collectQueryStatistics;
+
 	public ModelSemanticsFactory cancellationToken(CancellationToken cancellationToken) {
 		this.cancellationToken = cancellationToken;
 		return this;
 	}
 
+	public ModelSemanticsFactory collectQueryStatistics(boolean collectQueryStatistics) {
+		this.collectQueryStatistics = collectQueryStatistics;
+		return this;
+	}
+
 	public ModelSemantics createSemantics(Problem problem) {
 		var initializer = initializerProvider.get();
 		initializer.readProblem(problem);
 		var storeBuilder = ModelStore.builder()
 				.cancellationToken(cancellationToken)
-				.with(QueryInterpreterAdapter.builder())
+				.with(QueryInterpreterAdapter.builder()
+						.collectStatistics(collectQueryStatistics))
 				.with(PropagationAdapter.builder())
 				.with(ReasoningAdapter.builder()
 						.requiredInterpretations(Set.of(Concreteness.PARTIAL)));
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2014, Marton Bur, Akos Horvath, Zoltan Ujhelyi, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -14,6 +15,7 @@ import tools.refinery.interpreter.localsearch.operations.ISearchOperation;
 import tools.refinery.interpreter.localsearch.profiler.LocalSearchProfilerAdapter;
 import tools.refinery.interpreter.localsearch.ExecutionLoggerAdapter;
 import tools.refinery.interpreter.localsearch.MatchingFrame;
+import tools.refinery.interpreter.localsearch.plan.IPlanDescriptor;
 import tools.refinery.interpreter.localsearch.plan.SearchPlan;
 
 
@@ -117,4 +119,16 @@ public interface ILocalSearchAdapter {
      * @since 2.0
      */
     default void executorInitializing(SearchPlan searchPlan, MatchingFrame frame) {};
+
+    /**
+     * Callback method to indicate that a cached search plan was replaced by adaptive re-planning, because its observed
+     * cost diverged from the estimate of the planner.
+     *
+     * @param oldPlan the plan that was replaced
+     * @param newPlan the plan that will be used by subsequently created matchers
+     * @param estimatedCost the cost of the old plan estimated by the planner
+     * @param observedCost the average cost of the old plan observed during its executions
+     */
+    default void planReplaced(IPlanDescriptor oldPlan, IPlanDescriptor newPlan, double estimatedCost,
+            double observedCost) {}
 }
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2013, Zoltan Ujhelyi, Marton Bur, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -16,14 +17,18 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import tools.refinery.interpreter.localsearch.MatchingFrame;
+import tools.refinery.interpreter.localsearch.operations.IPatternMatcherOperation;
+import tools.refinery.interpreter.localsearch.operations.ISearchOperation;
 import tools.refinery.interpreter.localsearch.plan.IPlanDescriptor;
 import tools.refinery.interpreter.localsearch.plan.SearchPlan;
 import tools.refinery.interpreter.localsearch.plan.SearchPlanExecutor;
@@ -41,6 +46,7 @@ import tools.refinery.interpreter.matchers.util.Preconditions;
 public final class LocalSearchMatcher implements ILocalSearchAdaptable {
 
     private final List<SearchPlanExecutor> plan;
+    private final ISearchContext searchContext;
     private final IPlanDescriptor planDescriptor;
     private final List<ILocalSearchAdapter> adapters;
 
@@ -161,24 +167,29 @@ public final class LocalSearchMatcher implements ILocalSearchAdaptable {
         protected boolean initializeMatchingFrame(SearchPlanExecutor nextPlan) {
             frame = new MatchingFrame(nextPlan.getVariableMapping().size());
             parametersOfFrameView = new VolatileModifiableMaskedTuple(frame, nextPlan.getParameterMask());
-            for (int i = 0; i < parameterValues.length; i++) {
-                Object valueToSet = parameterValues[i];
-                if (valueToSet != null) {
-                    Object oldValue = parametersOfFrameView.get(i);
-                    if (oldValue == null) {
-                        parametersOfFrameView.set(i, valueToSet);
-                    } else if (!Objects.equals(valueToSet, oldValue)) {
-                        // Initial value setting resulted in contradictory values. This can happen because two parameter
-                        // variables have been unified but the call provides different values for the parameters.
-                        return false;
-                    }
-                    // If oldValue is not null but equal to newValue, the setting can be ignored
+            return setParameterValues(parametersOfFrameView, parameterValues);
+        }
+    }
+
+    private static boolean setParameterValues(VolatileModifiableMaskedTuple parametersOfFrameView,
+            Object[] parameterValues) {
+        for (int i = 0; i < parameterValues.length; i++) {
+            Object valueToSet = parameterValues[i];
+            if (valueToSet != null) {
+                Object oldValue = parametersOfFrameView.get(i);
+                if (oldValue == null) {
+                    parametersOfFrameView.set(i, valueToSet);
+                } else if (!Objects.equals(valueToSet, oldValue)) {
+                    // Initial value setting resulted in contradictory values. This can happen because two parameter
+                    // variables have been unified but the call provides different values for the parameters.
+                    return false;
                 }
+                // If oldValue is not null but equal to newValue, the setting can be ignored
             }
-
-            return true;
         }
+        return true;
     }
+
     private class PlanExecutionIteratorWithTupleParameters extends PlanExecutionIterator {
 
         private final ITuple parameterValues;
@@ -220,6 +231,7 @@ public final class LocalSearchMatcher implements ILocalSearchAdaptable {
     public LocalSearchMatcher(ISearchContext searchContext, IPlanDescriptor planDescriptor, List<SearchPlan> plan) {
         Preconditions.checkArgument(planDescriptor != null, "Cannot initialize matcher with null query.");
         this.planDescriptor = planDescriptor;
+        this.searchContext = searchContext;
         this.plan = plan.stream().map(p -> new SearchPlanExecutor(p, searchContext)).collect(Collectors.toList());
         this.adapters = new LinkedList<>();
     }
@@ -283,6 +295,88 @@ public final class LocalSearchMatcher implements ILocalSearchAdaptable {
                 Spliterator.IMMUTABLE | Spliterator.NONNULL | Spliterator.DISTINCT), false);
     }
 
+    /**
+     * Enumerates all matches by splitting the candidate domain of the first enumerating search operation of each body
+     * into chunks and searching each chunk in a separate fork-join task.
+     * <p>
+     * The model must not be modified until the returned stream is consumed. Matches are collected eagerly, so this
+     * method is only beneficial if all matches are needed. If the plan calls other patterns or adapters are
+     * registered (which may not be thread-safe), the matches are enumerated on the calling thread instead.
+     *
+     * @param parameterValues The values of the bound parameters, or {@code null} for unbound ones.
+     * @param chunkCount The number of chunks to split the candidate domain into.
+     * @return The matches of the pattern.
+     */
+    public Stream<Tuple> streamMatchesInParallel(final Object[] parameterValues, int chunkCount) {
+        if (chunkCount <= 1 || !adapters.isEmpty() || !isParallelizable()) {
+            return streamMatches(parameterValues);
+        }
+        List<ForkJoinTask<List<Tuple>>> tasks = new ArrayList<>();
+        for (SearchPlanExecutor bodyPlan : plan) {
+            SearchPlan searchPlan = bodyPlan.getSearchPlan();
+            for (int i = 0; i < chunkCount; i++) {
+                SearchPlanExecutor chunkPlan = new SearchPlanExecutor(searchPlan, searchContext);
+                boolean splittable = chunkPlan.restrictToChunk(i, chunkCount);
+                tasks.add(ForkJoinTask.adapt(() -> executeChunk(chunkPlan, parameterValues)));
+                if (!splittable) {
+                    // The body has at most a single match, so there is nothing to distribute.
+                    break;
+                }
+            }
+        }
+        ForkJoinTask.invokeAll(tasks);
+        Set<Tuple> matches = new LinkedHashSet<>();
+        for (ForkJoinTask<List<Tuple>> task : tasks) {
+            matches.addAll(task.join());
+        }
+        return matches.stream();
+    }
+
+    /**
+     * Enumerates all matches in parallel.
+     *
+     * @param parameterSeedMask The mask of the bound parameters.
+     * @param parameterValues The values of the bound parameters.
+     * @param chunkCount The number of chunks to split the candidate domain into.
+     * @return The matches of the pattern.
+     * @see #streamMatchesInParallel(Object[], int)
+     */
+    public Stream<Tuple> streamMatchesInParallel(TupleMask parameterSeedMask, final ITuple parameterValues,
+            int chunkCount) {
+        Object[] parameterArray = new Object[getParameterCount()];
+        for (int i = 0; i < parameterSeedMask.getSize(); i++) {
+            parameterArray[parameterSeedMask.indices[i]] = parameterValues.get(i);
+        }
+        return streamMatchesInParallel(parameterArray, chunkCount);
+    }
+
+    private boolean isParallelizable() {
+        for (SearchPlanExecutor bodyPlan : plan) {
+            for (ISearchOperation operation : bodyPlan.getSearchPlan().getOperations()) {
+                if (operation instanceof IPatternMatcherOperation) {
+                    // Called matchers are created lazily by the (single-threaded) query backends.
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<Tuple> executeChunk(SearchPlanExecutor chunkPlan, Object[] parameterValues) {
+        MatchingFrame frame = new MatchingFrame(chunkPlan.getVariableMapping().size());
+        VolatileModifiableMaskedTuple parametersOfFrameView = new VolatileModifiableMaskedTuple(frame,
+                chunkPlan.getParameterMask());
+        List<Tuple> matches = new ArrayList<>();
+        if (!setParameterValues(parametersOfFrameView, parameterValues)) {
+            return matches;
+        }
+        chunkPlan.resetPlan();
+        while (chunkPlan.execute(frame)) {
+            matches.add(parametersOfFrameView.toImmutable());
+        }
+        return matches;
+    }
+
     /**
      * Returns the query specification this matcher used as source for the implementation
      * @return never null
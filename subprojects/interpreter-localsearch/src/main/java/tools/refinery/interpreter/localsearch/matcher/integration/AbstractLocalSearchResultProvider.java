@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2017, Zoltan Ujhelyi, IncQuery Labs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -10,10 +11,12 @@ package tools.refinery.interpreter.localsearch.matcher.integration;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,12 +33,14 @@ import java.util.stream.Stream;
 import tools.refinery.interpreter.localsearch.exceptions.LocalSearchException;
 import tools.refinery.interpreter.localsearch.planner.compiler.IOperationCompiler;
 import tools.refinery.interpreter.localsearch.matcher.CallWithAdornment;
+import tools.refinery.interpreter.localsearch.matcher.ILocalSearchAdapter;
 import tools.refinery.interpreter.localsearch.matcher.ISearchContext;
 import tools.refinery.interpreter.localsearch.matcher.LocalSearchMatcher;
 import tools.refinery.interpreter.localsearch.matcher.MatcherReference;
 import tools.refinery.interpreter.localsearch.plan.IPlanDescriptor;
 import tools.refinery.interpreter.localsearch.plan.IPlanProvider;
 import tools.refinery.interpreter.localsearch.plan.SearchPlan;
+import tools.refinery.interpreter.localsearch.plan.SearchPlanExecutor;
 import tools.refinery.interpreter.localsearch.plan.SearchPlanForBody;
 import tools.refinery.interpreter.matchers.InterpreterRuntimeException;
 import tools.refinery.interpreter.matchers.backend.IMatcherCapability;
@@ -80,6 +85,11 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
     private static final String PLAN_CACHE_KEY = AbstractLocalSearchResultProvider.class.getName() + "#planCache";
     private final Map<MatcherReference, IPlanDescriptor> planCache;
     protected final ISearchContext searchContext;
+    private int parallelEnumerationChunks = -1;
+    private double replanningCostFactor = -1;
+    private final Map<MatcherReference, Integer> replanningCounts = new HashMap<>();
+    private LocalSearchMatchMemo matchMemo;
+    private boolean matchMemoInitialized;
     /**
      * @since 2.1
      */
@@ -114,7 +124,14 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
                 .map(input -> new SearchPlan(input.getBody(), input.getCompiledOperations(), input.calculateParameterMask(),
                         input.getVariableKeys()))
                 .collect(Collectors.toList());
-        return new LocalSearchMatcher(searchContext, plan, executors);
+        LocalSearchMatcher matcher = new LocalSearchMatcher(searchContext, plan, executors);
+        if (isReplanningEnabled()) {
+            Iterator<SearchPlanExecutor> executorIterator = matcher.getPlan().iterator();
+            for (SearchPlanForBody body : plan.getPlan()) {
+                executorIterator.next().setObservedCost(body.getObservedCost());
+            }
+        }
+        return matcher;
     }
 
     private IPlanDescriptor getOrCreatePlan(MatcherReference key, IQueryBackendContext backendContext, IOperationCompiler compiler, LocalSearchHints configuration, IPlanProvider planProvider) {
@@ -130,7 +147,11 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
 
     private IPlanDescriptor getOrCreatePlan(MatcherReference key, IPlanProvider planProvider) {
         if (planCache.containsKey(key)){
-            return planCache.get(key);
+            IPlanDescriptor plan = planCache.get(key);
+            if (isReplanningEnabled()) {
+                plan = replanIfObsolete(key, plan, planProvider);
+            }
+            return plan;
         } else {
             LocalSearchHints configuration = overrideDefaultHints(key.getQuery());
             IOperationCompiler compiler = getOperationCompiler(backendContext, configuration);
@@ -141,6 +162,46 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
         }
     }
 
+    private boolean isReplanningEnabled() {
+        if (replanningCostFactor < 0) {
+            replanningCostFactor = LocalSearchHintOptions.REPLANNING_COST_FACTOR.getValueOrDefault(
+                    computeOverridingHints(query));
+        }
+        return replanningCostFactor > 1;
+    }
+
+    private IPlanDescriptor replanIfObsolete(MatcherReference key, IPlanDescriptor plan, IPlanProvider planProvider) {
+        QueryEvaluationHint hints = computeOverridingHints(key.getQuery());
+        int replanningCount = replanningCounts.getOrDefault(key, 0);
+        long minRuns = (long) LocalSearchHintOptions.REPLANNING_MIN_RUNS.getValueOrDefault(hints) <<
+                Math.min(replanningCount, Integer.SIZE);
+        double estimatedCost = 0;
+        double observedCost = 0;
+        for (SearchPlanForBody body : plan.getPlan()) {
+            if (body.getObservedCost().getRunCount() < minRuns) {
+                return plan;
+            }
+            estimatedCost += body.getCost();
+            observedCost += body.getObservedCost().getAverageCost();
+        }
+        // Treat costs below a single operation execution as equal to avoid re-planning trivial plans.
+        double ratio = Math.max(observedCost, 1) / Math.max(estimatedCost, 1);
+        if (ratio <= replanningCostFactor && ratio * replanningCostFactor >= 1) {
+            return plan;
+        }
+        LocalSearchHints configuration = LocalSearchHints.getDefaultOverriddenBy(hints);
+        configuration.setCostFunction(LocalSearchHintOptions.REPLANNING_COST_FUNCTION.getValueOrDefault(hints));
+        IOperationCompiler compiler = getOperationCompiler(backendContext, configuration);
+        IPlanDescriptor newPlan = planProvider.getPlan(backendContext, compiler, resultProviderRequestor,
+                configuration, key);
+        planCache.put(key, newPlan);
+        replanningCounts.put(key, replanningCount + 1);
+        for (ILocalSearchAdapter adapter : backend.getAdapters()) {
+            adapter.planReplaced(plan, newPlan, estimatedCost, observedCost);
+        }
+        return newPlan;
+    }
+
     private LocalSearchHints overrideDefaultHints(PQuery pQuery) {
         if (hintCache.containsKey(pQuery)) {
             return hintCache.get(pQuery);
@@ -335,32 +396,83 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
         });
     }
 
+    /**
+     * Returns the memo of matches if enabled by {@link LocalSearchHintOptions#MEMOIZE_MATCHES}.
+     *
+     * @return The memo of matches, or {@code null} if matches should not be memoized.
+     */
+    private LocalSearchMatchMemo getMatchMemo() {
+        if (!matchMemoInitialized) {
+            matchMemoInitialized = true;
+            if (LocalSearchHintOptions.MEMOIZE_MATCHES.getValueOrDefault(computeOverridingHints(query))) {
+                LocalSearchMatchMemo memo = new LocalSearchMatchMemo(runtimeContext, query);
+                if (memo.isEnabled()) {
+                    matchMemo = memo;
+                }
+            }
+        }
+        return matchMemo;
+    }
+
     @Override
     public boolean hasMatch(Object[] parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            // Only use remembered matches, because the search can stop at the first match otherwise.
+            List<Tuple> matches = memo.getRememberedMatches(parameters);
+            if (matches != null) {
+                return !matches.isEmpty();
+            }
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
         return matcher.streamMatches(parameters).findAny().isPresent();
     }
 
     @Override
     public boolean hasMatch(TupleMask parameterSeedMask, ITuple parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            List<Tuple> matches = memo.getRememberedMatches(parameterSeedMask, parameters);
+            if (matches != null) {
+                return !matches.isEmpty();
+            }
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameterSeedMask);
         return matcher.streamMatches(parameterSeedMask, parameters).findAny().isPresent();
     }
 
     @Override
     public Optional<Tuple> getOneArbitraryMatch(Object[] parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            List<Tuple> matches = memo.getRememberedMatches(parameters);
+            if (matches != null) {
+                return matches.stream().findFirst();
+            }
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
         return matcher.streamMatches(parameters).findAny();
     }
 
     @Override
     public Optional<Tuple> getOneArbitraryMatch(TupleMask parameterSeedMask, ITuple parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            List<Tuple> matches = memo.getRememberedMatches(parameterSeedMask, parameters);
+            if (matches != null) {
+                return matches.stream().findFirst();
+            }
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameterSeedMask);
         return matcher.streamMatches(parameterSeedMask, parameters).findAny();
     }
 
     @Override
     public int countMatches(Object[] parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            return memo.getMatches(parameters, () -> searchAllMatches(parameters)).size();
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
         // Count returns long; casting to int - in case of integer overflow casting will throw the exception
         return (int) matcher.streamMatches(parameters).count();
@@ -368,6 +480,11 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
 
     @Override
     public int countMatches(TupleMask parameterSeedMask, ITuple parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            return memo.getMatches(parameterSeedMask, parameters,
+                    () -> searchAllMatches(parameterSeedMask, parameters)).size();
+        }
         final LocalSearchMatcher matcher = initializeMatcher(parameterSeedMask);
         // Count returns long; casting to int - in case of integer overflow casting will throw the exception
         return (int) matcher.streamMatches(parameterSeedMask, parameters).count();
@@ -474,15 +591,50 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
     }
 
 
+    private int getParallelEnumerationChunks() {
+        if (parallelEnumerationChunks < 0) {
+            parallelEnumerationChunks = LocalSearchHintOptions.PARALLEL_ENUMERATION_CHUNKS.getValueOrDefault(
+                    computeOverridingHints(query));
+        }
+        return parallelEnumerationChunks;
+    }
+
     @Override
     public Stream<Tuple> getAllMatches(Object[] parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            return memo.getMatches(parameters, () -> searchAllMatches(parameters)).stream();
+        }
+        return searchAllMatches(parameters);
+    }
+
+    private Stream<Tuple> searchAllMatches(Object[] parameters) {
         final LocalSearchMatcher matcher = initializeMatcher(parameters);
+        int chunkCount = getParallelEnumerationChunks();
+        // Only enumerate unselective queries in parallel, because lookups with bound parameters tend to be cheap.
+        if (chunkCount > 1 && Arrays.stream(parameters).allMatch(Objects::isNull)) {
+            return matcher.streamMatchesInParallel(parameters, chunkCount);
+        }
         return matcher.streamMatches(parameters);
     }
 
     @Override
     public Stream<Tuple> getAllMatches(TupleMask parameterSeedMask, ITuple parameters) {
+        LocalSearchMatchMemo memo = getMatchMemo();
+        if (memo != null) {
+            return memo.getMatches(parameterSeedMask, parameters,
+                    () -> searchAllMatches(parameterSeedMask, parameters)).stream();
+        }
+        return searchAllMatches(parameterSeedMask, parameters);
+    }
+
+    private Stream<Tuple> searchAllMatches(TupleMask parameterSeedMask, ITuple parameters) {
         final LocalSearchMatcher matcher = initializeMatcher(parameterSeedMask);
+        int chunkCount = getParallelEnumerationChunks();
+        // Only enumerate unselective queries in parallel, because lookups with bound parameters tend to be cheap.
+        if (chunkCount > 1 && parameterSeedMask.getSize() == 0) {
+            return matcher.streamMatchesInParallel(parameterSeedMask, parameters, chunkCount);
+        }
         return matcher.streamMatches(parameterSeedMask, parameters);
     }
 
@@ -519,6 +671,18 @@ public abstract class AbstractLocalSearchResultProvider implements IQueryResultP
         planCache.clear();
     }
 
+    /**
+     * Unsubscribes from model updates and forgets all memoized matches.
+     *
+     * @noreference This method is not intended to be referenced by clients; it should only used by {@link LocalSearchBackend}.
+     */
+    public void dispose() {
+        if (matchMemo != null) {
+            matchMemo.dispose();
+            matchMemo = null;
+        }
+    }
+
     /**
      * Returns a search plan for a given adornment if exists
      *
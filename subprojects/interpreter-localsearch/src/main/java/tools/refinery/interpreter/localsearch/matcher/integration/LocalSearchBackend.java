@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2015, Marton Bur, Zoltan Ujhelyi, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -121,6 +122,11 @@ public abstract class LocalSearchBackend implements IQueryBackend {
 
     @Override
     public void dispose() {
+        for (List<AbstractLocalSearchResultProvider> resultProviders : resultProviderCache.values()) {
+            for (AbstractLocalSearchResultProvider resultProvider : resultProviders) {
+                resultProvider.dispose();
+            }
+        }
         resultProviderCache.clear();
         generalCache.purge();
     }
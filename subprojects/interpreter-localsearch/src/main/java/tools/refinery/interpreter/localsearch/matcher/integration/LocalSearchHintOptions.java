@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Gabor Bergmann, IncQueryLabs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -8,6 +9,7 @@
  *******************************************************************************/
 package tools.refinery.interpreter.localsearch.matcher.integration;
 
+import tools.refinery.interpreter.localsearch.matcher.ILocalSearchAdapter;
 import tools.refinery.interpreter.localsearch.planner.cost.ICostFunction;
 import tools.refinery.interpreter.localsearch.planner.cost.impl.IndexerBasedConstraintCostFunction;
 import tools.refinery.interpreter.matchers.backend.ICallDelegationStrategy;
@@ -63,6 +65,52 @@ public final class LocalSearchHintOptions {
     public static final QueryHintOption<IAdornmentProvider> ADORNMENT_PROVIDER =
             hintOption("ADORNMENT_PROVIDER", new AllValidAdornments());
 
+    /**
+     * The number of chunks to split the candidates of the first enumerating search operation into when all matches of
+     * a pattern are requested. Each chunk is searched in a separate task of the common fork-join pool. Values less than
+     * 2 disable parallel enumeration.
+     * <p>
+     * The model must not be modified while the matches are enumerated, e.g., this is safe when exporting or scoring a
+     * model. Patterns that call other patterns are always enumerated on the calling thread.
+     */
+    public static final QueryHintOption<Integer> PARALLEL_ENUMERATION_CHUNKS =
+            hintOption("PARALLEL_ENUMERATION_CHUNKS", 1);
+
+    /**
+     * Enables adaptive re-planning if greater than 1. A search plan is re-planned if the average number of successful
+     * operation executions observed in its completed runs differs from the cost estimated by the planner by more than
+     * this factor. Plan switches are reported to {@link ILocalSearchAdapter#planReplaced}.
+     */
+    public static final QueryHintOption<Double> REPLANNING_COST_FACTOR =
+            hintOption("REPLANNING_COST_FACTOR", 0.0);
+
+    /**
+     * The number of completed runs to observe before comparing the cost of a plan to its estimate. The number is
+     * doubled after each re-planning of the same plan to avoid switching plans repeatedly if the cost function cannot
+     * estimate the cost accurately.
+     */
+    public static final QueryHintOption<Integer> REPLANNING_MIN_RUNS =
+            hintOption("REPLANNING_MIN_RUNS", 16);
+
+    /**
+     * Cost function to be used when re-planning. Unlike {@link #PLANNER_COST_FUNCTION}, which may have to plan for an
+     * empty model, this cost function should rely on the statistics of the current model.
+     */
+    public static final QueryHintOption<ICostFunction> REPLANNING_COST_FUNCTION =
+            hintOption("REPLANNING_COST_FUNCTION", new IndexerBasedConstraintCostFunction());
+
+    /**
+     * Remembers the matches found for each adornment and bound parameter values until an input key enumerated by the
+     * pattern or the patterns called by it is updated. Repeated lookups between model updates are answered without
+     * searching. Only enumerations and counts of matches are remembered, while existence checks and single match
+     * lookups stop at the first match found unless the matches are already remembered.
+     * <p>
+     * The memo subscribes to updates of the input keys, which incurs some overhead on every model update. Therefore,
+     * memoization is only worth enabling for patterns that are evaluated several times between model updates.
+     */
+    public static final QueryHintOption<Boolean> MEMOIZE_MATCHES =
+            hintOption("MEMOIZE_MATCHES", false);
+
     // internal helper for conciseness
     private static <T, V extends T> QueryHintOption<T> hintOption(String hintKeyLocalName, V defaultValue) {
         return new QueryHintOption<>(LocalSearchHintOptions.class, hintKeyLocalName, defaultValue);
@@ -0,0 +1,160 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.localsearch.matcher.integration;
+
+import tools.refinery.interpreter.matchers.context.IInputKey;
+import tools.refinery.interpreter.matchers.context.IQueryRuntimeContext;
+import tools.refinery.interpreter.matchers.context.IQueryRuntimeContextListener;
+import tools.refinery.interpreter.matchers.context.IndexingService;
+import tools.refinery.interpreter.matchers.psystem.queries.PQueries;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
+import tools.refinery.interpreter.matchers.tuple.ITuple;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Remembers the matches of a pattern for each adornment and bound parameter values until the model changes.
+ * <p>
+ * The memo subscribes to the input keys the pattern and the patterns called by it enumerate. Each update of these
+ * keys increments the version of the memo, which causes the remembered matches to be forgotten upon the next lookup.
+ * Updates of other input keys do not affect the memo. If some input key can not be subscribed to, the memo stays
+ * disabled and every lookup executes the search.
+ * <p>
+ * At most {@link #MAX_ENTRIES} lookups are remembered at a time, and the least recently used ones are forgotten
+ * first.
+ */
+final class LocalSearchMatchMemo implements IQueryRuntimeContextListener {
+    private static final int MAX_ENTRIES = 1024;
+
+    private final IQueryRuntimeContext runtimeContext;
+    private final Set<IInputKey> inputKeys = new LinkedHashSet<>();
+    private final Map<MemoKey, List<Tuple>> matches = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MemoKey, List<Tuple>> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final boolean enabled;
+    private long version;
+    private long memoVersion;
+
+    LocalSearchMatchMemo(IQueryRuntimeContext runtimeContext, PQuery query) {
+        this.runtimeContext = runtimeContext;
+        PQueries.directlyRequiredTypesOfQuery(query, true).forEach(inputKeys::add);
+        for (PQuery referredQuery : query.getAllReferredQueries()) {
+            PQueries.directlyRequiredTypesOfQuery(referredQuery, true).forEach(inputKeys::add);
+        }
+        enabled = inputKeys.stream().allMatch(key -> runtimeContext.isIndexed(key, IndexingService.INSTANCES));
+        if (enabled) {
+            for (IInputKey key : inputKeys) {
+                runtimeContext.addUpdateListener(key, getUnboundSeed(key), this);
+            }
+        }
+    }
+
+    private static Tuple getUnboundSeed(IInputKey key) {
+        return Tuples.flatTupleOf(new Object[key.getArity()]);
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void update(IInputKey key, Tuple updateTuple, boolean isInsertion) {
+        version++;
+    }
+
+    /**
+     * Returns the matches of the pattern for the given parameter values, executing the search only if the matches
+     * are not remembered or any of the subscribed input keys changed since they were found.
+     *
+     * @param parameters The parameter values, with {@code null} for unbound parameters.
+     * @param search     Executes the search if the matches are not remembered.
+     * @return The list of matches.
+     */
+    List<Tuple> getMatches(Object[] parameters, Supplier<Stream<Tuple>> search) {
+        return getMatches(toMemoKey(parameters), search);
+    }
+
+    /**
+     * Returns the matches of the pattern for the given parameter values, executing the search only if the matches
+     * are not remembered or any of the subscribed input keys changed since they were found.
+     *
+     * @param parameterSeedMask The mask selecting the bound parameters.
+     * @param parameters        The values of the bound parameters.
+     * @param search            Executes the search if the matches are not remembered.
+     * @return The list of matches.
+     */
+    List<Tuple> getMatches(TupleMask parameterSeedMask, ITuple parameters, Supplier<Stream<Tuple>> search) {
+        return getMatches(new MemoKey(parameterSeedMask, parameters.toImmutable()), search);
+    }
+
+    /**
+     * Returns the remembered matches of the pattern for the given parameter values without executing the search.
+     *
+     * @param parameters The parameter values, with {@code null} for unbound parameters.
+     * @return The list of matches, or {@code null} if the matches are not remembered.
+     */
+    List<Tuple> getRememberedMatches(Object[] parameters) {
+        return getRememberedMatches(toMemoKey(parameters));
+    }
+
+    /**
+     * Returns the remembered matches of the pattern for the given parameter values without executing the search.
+     *
+     * @param parameterSeedMask The mask selecting the bound parameters.
+     * @param parameters        The values of the bound parameters.
+     * @return The list of matches, or {@code null} if the matches are not remembered.
+     */
+    List<Tuple> getRememberedMatches(TupleMask parameterSeedMask, ITuple parameters) {
+        return getRememberedMatches(new MemoKey(parameterSeedMask, parameters.toImmutable()));
+    }
+
+    private static MemoKey toMemoKey(Object[] parameters) {
+        Tuple parameterTuple = Tuples.flatTupleOf(parameters);
+        TupleMask parameterSeedMask = TupleMask.fromNonNullIndices(parameterTuple);
+        return new MemoKey(parameterSeedMask, parameterSeedMask.transform(parameterTuple));
+    }
+
+    private List<Tuple> getMatches(MemoKey key, Supplier<Stream<Tuple>> search) {
+        List<Tuple> result = getRememberedMatches(key);
+        if (result == null) {
+            result = search.get().toList();
+            matches.put(key, result);
+        }
+        return result;
+    }
+
+    private List<Tuple> getRememberedMatches(MemoKey key) {
+        if (memoVersion != version) {
+            matches.clear();
+            memoVersion = version;
+        }
+        return matches.get(key);
+    }
+
+    void dispose() {
+        if (enabled) {
+            for (IInputKey key : inputKeys) {
+                runtimeContext.removeUpdateListener(key, getUnboundSeed(key), this);
+            }
+        }
+        matches.clear();
+    }
+
+    private record MemoKey(TupleMask parameterSeedMask, Tuple parameters) {
+    }
+}
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2013, Zoltan Ujhelyi, Akos Horvath, Istvan Rath and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools/>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -23,6 +23,9 @@ import java.util.Iterator;
 public abstract class ExtendOperationExecutor<T> implements ISearchOperation.ISearchOperationExecutor {
 
     private Iterator<? extends T> it;
+    private int chunkIndex = 0;
+    private int chunkCount = 1;
+    private int candidateIndex;
 
     /**
      * Returns an iterator with the possible options from the current state
@@ -45,9 +48,28 @@ public abstract class ExtendOperationExecutor<T> implements ISearchOperation.ISe
      */
     protected abstract void cleanup(MatchingFrame frame, ISearchContext context);
 
+    /**
+     * Restricts this executor to the candidates at positions congruent to {@code chunkIndex} modulo
+     * {@code chunkCount} in the iterator returned by {@link #getIterator(MatchingFrame, ISearchContext)}.
+     * <p>
+     * If the iteration order is deterministic, executors restricted to each chunk of the same candidate domain
+     * together enumerate every candidate exactly once.
+     *
+     * @param chunkIndex The index of the chunk to enumerate.
+     * @param chunkCount The number of chunks the candidates are distributed between.
+     */
+    public void restrictToChunk(int chunkIndex, int chunkCount) {
+        if (chunkCount < 1 || chunkIndex < 0 || chunkIndex >= chunkCount) {
+            throw new IllegalArgumentException("Invalid chunk %d of %d".formatted(chunkIndex, chunkCount));
+        }
+        this.chunkIndex = chunkIndex;
+        this.chunkCount = chunkCount;
+    }
+
     @Override
     public void onInitialize(MatchingFrame frame, ISearchContext context) {
         it = getIterator(frame, context);
+        candidateIndex = 0;
     }
 
     @Override
@@ -66,6 +88,9 @@ public abstract class ExtendOperationExecutor<T> implements ISearchOperation.ISe
 	public boolean execute(MatchingFrame frame, ISearchContext context) {
 		while (it.hasNext()) {
 			var newValue = it.next();
+			if (chunkCount > 1 && candidateIndex++ % chunkCount != chunkIndex) {
+				continue;
+			}
 			if (fillInValue(newValue, frame, context)) {
 				return true;
 			}
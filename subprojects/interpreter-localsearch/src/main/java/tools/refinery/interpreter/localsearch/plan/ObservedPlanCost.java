@@ -0,0 +1,65 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.localsearch.plan;
+
+/**
+ * Accumulates the number of successful executions of each operation of a search plan over all of its completed runs.
+ * <p>
+ * The cost estimated by the planner is the expected number of successful operation executions in a single run of
+ * the plan, i.e., the sum of the products of the branching factors of the operations up to each operation. This
+ * class provides the observed counterpart of the estimate, so that plans made with misleading statistics can be
+ * detected. Runs may be recorded by executors on different threads.
+ */
+public final class ObservedPlanCost {
+	private final long[] successCounts;
+	private long runCount;
+
+	public ObservedPlanCost(int operationCount) {
+		successCounts = new long[operationCount];
+	}
+
+	synchronized void record(long[] runSuccessCounts) {
+		for (int i = 0; i < successCounts.length; i++) {
+			successCounts[i] += runSuccessCounts[i];
+		}
+		runCount++;
+	}
+
+	public synchronized long getRunCount() {
+		return runCount;
+	}
+
+	/**
+	 * Returns the average number of successful operation executions in a run of the plan.
+	 *
+	 * @return The observed cost, or {@code 0} if no runs were recorded.
+	 */
+	public synchronized double getAverageCost() {
+		if (runCount == 0) {
+			return 0;
+		}
+		long total = 0;
+		for (long successCount : successCounts) {
+			total += successCount;
+		}
+		return (double) total / runCount;
+	}
+
+	/**
+	 * Returns the average number of successful executions of an operation after each successful execution of the
+	 * previous operation.
+	 *
+	 * @param operationIndex The index of the operation in the plan.
+	 * @return The observed branching factor of the operation, or {@code 0} if it was never reached.
+	 */
+	public synchronized double getFanOut(int operationIndex) {
+		long previousCount = operationIndex == 0 ? runCount : successCounts[operationIndex - 1];
+		if (previousCount == 0) {
+			return 0;
+		}
+		return (double) successCounts[operationIndex] / previousCount;
+	}
+}
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2004-2008 Akos Horvath, Gergely Varro Zoltan Ujhelyi and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -10,6 +11,7 @@
  package tools.refinery.interpreter.localsearch.plan;
 
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -21,7 +23,9 @@ import tools.refinery.interpreter.localsearch.exceptions.LocalSearchException;
 import tools.refinery.interpreter.localsearch.matcher.ILocalSearchAdaptable;
 import tools.refinery.interpreter.localsearch.matcher.ILocalSearchAdapter;
 import tools.refinery.interpreter.localsearch.matcher.ISearchContext;
+import tools.refinery.interpreter.localsearch.operations.ExtendOperationExecutor;
 import tools.refinery.interpreter.localsearch.operations.ISearchOperation;
+import tools.refinery.interpreter.localsearch.operations.extend.SingleValueExtendOperationExecutor;
 import tools.refinery.interpreter.localsearch.MatchingFrame;
 import tools.refinery.interpreter.matchers.InterpreterRuntimeException;
 import tools.refinery.interpreter.matchers.psystem.PVariable;
@@ -39,6 +43,8 @@ public class SearchPlanExecutor implements ILocalSearchAdaptable {
     private final SearchPlan plan;
     private final ISearchContext context;
     private final List<ILocalSearchAdapter> adapters = new CopyOnWriteArrayList<>();
+    private ObservedPlanCost observedCost;
+    private long[] runSuccessCounts;
 
     /**
      * @since 2.0
@@ -93,6 +99,17 @@ public class SearchPlanExecutor implements ILocalSearchAdaptable {
     }
 
 
+    /**
+     * Records the number of successful executions of each operation into the given accumulator whenever a run of the
+     * plan is completed, i.e., all matches were enumerated.
+     *
+     * @param observedCost The accumulator, or {@code null} to stop observing the plan.
+     */
+    public void setObservedCost(ObservedPlanCost observedCost) {
+        this.observedCost = observedCost;
+        runSuccessCounts = observedCost == null ? null : new long[operations.size()];
+    }
+
     private void init(MatchingFrame frame) {
         if (currentOperation == -1) {
             currentOperation++;
@@ -128,6 +145,9 @@ public class SearchPlanExecutor implements ILocalSearchAdaptable {
         operationSelected(frame, currentOperation, false);
         while (currentOperation >= 0 && currentOperation <= upperBound) {
             if (operations.get(currentOperation).execute(frame, context)) {
+                if (runSuccessCounts != null) {
+                    runSuccessCounts[currentOperation]++;
+                }
                 operationExecuted(frame, currentOperation, true);
                 currentOperation++;
                 operationSelected(frame, currentOperation, false);
@@ -144,6 +164,10 @@ public class SearchPlanExecutor implements ILocalSearchAdaptable {
             }
         }
         boolean matchFound = currentOperation > upperBound;
+        if (!matchFound && runSuccessCounts != null) {
+            observedCost.record(runSuccessCounts);
+            Arrays.fill(runSuccessCounts, 0);
+        }
         if (matchFound && !adapters.isEmpty()) {
             for (ILocalSearchAdapter adapter : adapters) {
                 adapter.matchFound(plan, frame);
@@ -152,8 +176,32 @@ public class SearchPlanExecutor implements ILocalSearchAdaptable {
         return matchFound;
     }
 
+    /**
+     * Restricts the first operation of the plan that enumerates multiple candidates to a single chunk of its candidate
+     * domain. Executors of the same plan restricted to each chunk enumerate disjoint sets of matches, which together
+     * contain every match, as long as the model is not modified.
+     *
+     * @param chunkIndex The index of the chunk to enumerate.
+     * @param chunkCount The number of chunks.
+     * @return {@code false} if the plan enumerates at most a single match, so it cannot be split into chunks.
+     */
+    public boolean restrictToChunk(int chunkIndex, int chunkCount) {
+        for (ISearchOperation.ISearchOperationExecutor operation : operations) {
+            if (operation instanceof ExtendOperationExecutor<?> extendOperation &&
+                    !(operation instanceof SingleValueExtendOperationExecutor<?>)) {
+                extendOperation.restrictToChunk(chunkIndex, chunkCount);
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void resetPlan() {
         currentOperation = -1;
+        if (runSuccessCounts != null) {
+            // Forget incomplete runs, because they underestimate the cost of the plan.
+            Arrays.fill(runSuccessCounts, 0);
+        }
     }
 
     public void printDebugInformation() {
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Zoltan Ujhelyi, IncQuery Labs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -37,6 +38,7 @@ public class SearchPlanForBody {
     private final Collection<CallWithAdornment> dependencies;
     private final double cost;
     private final Object internalRepresentation;
+    private final ObservedPlanCost observedCost;
 
     /**
      * @since 2.1
@@ -59,6 +61,7 @@ public class SearchPlanForBody {
         this.compiledOperations.addAll(compiledOperations);
 
         this.dependencies = new ArrayList<>(dependencies);
+        observedCost = new ObservedPlanCost(compiledOperations.size());
     }
 
     public PBody getBody() {
@@ -101,6 +104,15 @@ public class SearchPlanForBody {
         return cost;
     }
 
+    /**
+     * Returns the cost of this plan observed by the executors that were set up to record it.
+     *
+     * @see SearchPlanExecutor#setObservedCost(ObservedPlanCost)
+     */
+    public ObservedPlanCost getObservedCost() {
+        return observedCost;
+    }
+
     /**
      * @return The internal representation of the search plan, if any, for traceability
      * @since 2.1
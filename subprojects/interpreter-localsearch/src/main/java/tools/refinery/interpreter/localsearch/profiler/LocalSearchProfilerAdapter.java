@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Grill Balázs, IncQueryLabs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -8,7 +9,9 @@
  *******************************************************************************/
 package tools.refinery.interpreter.localsearch.profiler;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -18,8 +21,10 @@ import tools.refinery.interpreter.localsearch.MatchingFrame;
 import tools.refinery.interpreter.localsearch.matcher.ILocalSearchAdapter;
 import tools.refinery.interpreter.localsearch.matcher.LocalSearchMatcher;
 import tools.refinery.interpreter.localsearch.matcher.MatcherReference;
+import tools.refinery.interpreter.localsearch.plan.IPlanDescriptor;
 import tools.refinery.interpreter.localsearch.plan.SearchPlan;
 import tools.refinery.interpreter.localsearch.plan.SearchPlanExecutor;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 
 /**
  * This is a simple {@link ILocalSearchAdapter} which capable of counting
@@ -36,11 +41,21 @@ public class LocalSearchProfilerAdapter implements ILocalSearchAdapter {
     private final Map<ISearchOperation, Integer> successfulOperationCounts = new HashMap<>();
     private final Map<ISearchOperation, Integer> failedOperationCounts = new HashMap<>();
 
+    private final Map<PQuery, QueryStatistics> queryStatistics = new HashMap<>();
+    private final Map<SearchPlan, Long> operationStartTimes = new IdentityHashMap<>();
+    private final List<String> planSwitches = new ArrayList<>();
+
     @Override
     public void patternMatchingStarted(LocalSearchMatcher lsMatcher) {
         MatcherReference key = new MatcherReference(lsMatcher.getPlanDescriptor().getQuery(),
                 lsMatcher.getPlanDescriptor().getAdornment());
         planReference.put(key, lsMatcher.getPlan().stream().map(SearchPlanExecutor::getSearchPlan).collect(Collectors.toList()));
+        getQueryStatistics(lsMatcher.getQuerySpecification()).executionCount++;
+    }
+
+    @Override
+    public void operationSelected(SearchPlan plan, ISearchOperation operation, MatchingFrame frame, boolean isBacktrack) {
+        operationStartTimes.put(plan, System.nanoTime());
     }
 
     @Override
@@ -49,6 +64,73 @@ public class LocalSearchProfilerAdapter implements ILocalSearchAdapter {
         counts.merge(operation,
                 /*no previous entry*/1,
                 /*increase previous value*/(oldValue, v) -> oldValue + 1);
+        Long startTime = operationStartTimes.remove(plan);
+        if (startTime != null) {
+            getQueryStatistics(plan.getSourceBody().getPattern()).executionTimeNanos += System.nanoTime() - startTime;
+        }
+    }
+
+    @Override
+    public void matchFound(SearchPlan plan, MatchingFrame frame) {
+        getQueryStatistics(plan.getSourceBody().getPattern()).matchCount++;
+    }
+
+    @Override
+    public void planReplaced(IPlanDescriptor oldPlan, IPlanDescriptor newPlan, double estimatedCost,
+            double observedCost) {
+        getQueryStatistics(oldPlan.getQuery()).replanningCount++;
+        planSwitches.add(String.format("%s: replaced plan with estimated cost %.2f and observed cost %.2f%n%s%n" +
+                        "with%n%s", oldPlan.getQuery().getFullyQualifiedName(), estimatedCost, observedCost, oldPlan,
+                newPlan));
+    }
+
+    private QueryStatistics getQueryStatistics(PQuery query) {
+        return queryStatistics.computeIfAbsent(query, key -> new QueryStatistics());
+    }
+
+    /**
+     * Returns the number of times a matcher for the given query was started.
+     */
+    public long getExecutionCount(PQuery query) {
+        QueryStatistics statistics = queryStatistics.get(query);
+        return statistics == null ? 0 : statistics.executionCount;
+    }
+
+    /**
+     * Returns the number of matches found for the given query, including matches later found to be duplicates.
+     */
+    public long getMatchCount(PQuery query) {
+        QueryStatistics statistics = queryStatistics.get(query);
+        return statistics == null ? 0 : statistics.matchCount;
+    }
+
+    /**
+     * Returns the total time spent executing the search operations of the given query in nanoseconds. Time spent in
+     * the search plans of called queries is also included.
+     */
+    public long getExecutionTimeNanos(PQuery query) {
+        QueryStatistics statistics = queryStatistics.get(query);
+        return statistics == null ? 0 : statistics.executionTimeNanos;
+    }
+
+    /**
+     * Returns the number of times the search plans of the given query were replaced by adaptive re-planning.
+     */
+    public long getReplanningCount(PQuery query) {
+        QueryStatistics statistics = queryStatistics.get(query);
+        return statistics == null ? 0 : statistics.replanningCount;
+    }
+
+    /**
+     * Forgets all collected statistics.
+     */
+    public void reset() {
+        planReference.clear();
+        successfulOperationCounts.clear();
+        failedOperationCounts.clear();
+        queryStatistics.clear();
+        operationStartTimes.clear();
+        planSwitches.clear();
     }
 
     @Override
@@ -77,7 +159,18 @@ public class LocalSearchProfilerAdapter implements ILocalSearchAdapter {
             }
             sb.append("}\n");
         }
+        for (String planSwitch : planSwitches) {
+            sb.append(planSwitch);
+            sb.append("\n");
+        }
         return sb.toString();
     }
 
+    private static final class QueryStatistics {
+        private long executionCount;
+        private long matchCount;
+        private long executionTimeNanos;
+        private long replanningCount;
+    }
+
 }
@@ -11,5 +11,7 @@ plugins {
 dependencies {
 	implementation(project(":refinery-interpreter"))
 	implementation(project(":refinery-interpreter-rete-recipes"))
+	implementation(libs.eclipseCollections.api)
+	runtimeOnly(libs.eclipseCollections)
 	implementation(libs.slf4j.log4j)
 }
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Gabor Bergmann, IncQueryLabs Ltd.
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -24,6 +24,7 @@ import tools.refinery.interpreter.rete.network.communication.Timestamp;
 import tools.refinery.interpreter.rete.network.communication.timeless.RecursiveCommunicationGroup;
 import tools.refinery.interpreter.rete.network.mailbox.Mailbox;
 import tools.refinery.interpreter.rete.network.mailbox.timeless.BehaviorChangingMailbox;
+import tools.refinery.interpreter.rete.network.mailbox.timeless.CoalescingMailbox;
 import tools.refinery.interpreter.rete.network.mailbox.timeless.DefaultMailbox;
 import tools.refinery.interpreter.rete.network.mailbox.timeless.PosetAwareMailbox;
 
@@ -126,6 +127,9 @@ public class ColumnAggregatorNode<Domain, Accumulator, AggregateResult>
 			return new BehaviorChangingMailbox(this, this.reteContainer);
 		} else {
 			// Disable fall-through to enabled batched updates.
+			if (this.reteContainer.isUpdateCoalescingEnabled()) {
+				return new CoalescingMailbox(this, this.reteContainer);
+			}
 			return new DefaultMailbox(this, this.reteContainer);
 		}
 	}
@@ -66,6 +66,13 @@ public abstract class IndexerBasedAggregatorNode extends StandardNode implements
         super.networkStructureChanged();
     }
 
+    /**
+     * @return the projection indexer whose tuple groups are aggregated
+     */
+    public ProjectionIndexer getProjection() {
+        return projection;
+    }
+
     /**
      * @param projection
      *            the projection indexer whose tuple groups should be aggregated
@@ -23,6 +23,7 @@ import tools.refinery.interpreter.matchers.util.Direction;
 import tools.refinery.interpreter.matchers.util.timeline.Timeline;
 import tools.refinery.interpreter.rete.matcher.ReteEngine;
 import tools.refinery.interpreter.rete.network.Network;
+import tools.refinery.interpreter.rete.network.NetworkStatistics;
 import tools.refinery.interpreter.rete.network.Receiver;
 import tools.refinery.interpreter.rete.network.ReteContainer;
 import tools.refinery.interpreter.rete.network.StandardNode;
@@ -162,6 +163,10 @@ public class ExternalInputEnumeratorNode extends StandardNode
         } else {
             if (qBackendContext.areUpdatesDelayed()) {
                 // post the update into the mailbox of the node
+                final NetworkStatistics statistics = reteContainer.getStatistics();
+                if (statistics != null) {
+                    statistics.messageReceived(this);
+                }
                 mailbox.postMessage(direction(isInsertion), update, Timestamp.ZERO);
             } else {
                 // just propagate the input
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2014, Bergmann Gabor, Istvan Rath and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -27,6 +27,7 @@ import tools.refinery.interpreter.matchers.psystem.aggregations.IMultisetAggrega
 import tools.refinery.interpreter.matchers.psystem.analysis.QueryAnalyzer;
 import tools.refinery.interpreter.matchers.psystem.basicdeferred.*;
 import tools.refinery.interpreter.matchers.psystem.basicenumerables.*;
+import tools.refinery.interpreter.matchers.psystem.queries.PDisjunction;
 import tools.refinery.interpreter.matchers.psystem.queries.PParameter;
 import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 import tools.refinery.interpreter.matchers.psystem.queries.PVisibility;
@@ -73,6 +74,8 @@ public class ReteRecipeCompiler {
      */
     protected final TimelyConfiguration timelyEvaluation;
 
+    private final SharedPlanCache sharedPlanCache;
+
     /**
      * @since 1.5
      */
@@ -87,7 +90,20 @@ public class ReteRecipeCompiler {
     public ReteRecipeCompiler(IQueryPlannerStrategy plannerStrategy, Logger logger, IQueryMetaContext metaContext,
             IQueryCacheContext queryCacheContext, IQueryBackendHintProvider hintProvider, QueryAnalyzer queryAnalyzer,
             boolean deleteAndRederiveEvaluation, TimelyConfiguration timelyEvaluation) {
+        this(plannerStrategy, logger, metaContext, queryCacheContext, hintProvider, queryAnalyzer,
+                deleteAndRederiveEvaluation, timelyEvaluation, null);
+    }
+
+    /**
+     * Creates a compiler that reuses the normalized queries and query plans of the given cache, if it is not
+     * {@code null}. Recipes are always compiled separately by each compiler.
+     */
+    public ReteRecipeCompiler(IQueryPlannerStrategy plannerStrategy, Logger logger, IQueryMetaContext metaContext,
+            IQueryCacheContext queryCacheContext, IQueryBackendHintProvider hintProvider, QueryAnalyzer queryAnalyzer,
+            boolean deleteAndRederiveEvaluation, TimelyConfiguration timelyEvaluation,
+            SharedPlanCache sharedPlanCache) {
         super();
+        this.sharedPlanCache = sharedPlanCache;
         this.deleteAndRederiveEvaluation = deleteAndRederiveEvaluation;
         this.timelyEvaluation = timelyEvaluation;
         this.plannerStrategy = plannerStrategy;
@@ -203,7 +219,7 @@ public class ReteRecipeCompiler {
                         "Planning-level recursion unsupported: " + pBody.getPattern().getFullyQualifiedName());
             } else { // not reentrant, therefore no recursion, do the planning
                 try {
-                    plan = plannerStrategy.plan(pBody, logger, metaContext);
+                    plan = doPlan(pBody);
                     plannerCache.put(pBody, plan);
                 } finally {
                     planningInProgress.remove(pBody);
@@ -213,11 +229,25 @@ public class ReteRecipeCompiler {
         return plan;
     }
 
+    private SubPlan doPlan(PBody pBody) {
+        if (sharedPlanCache == null) {
+            return plannerStrategy.plan(pBody, logger, metaContext);
+        }
+        return sharedPlanCache.getPlan(pBody, body -> plannerStrategy.plan(body, logger, metaContext));
+    }
+
+    private PDisjunction normalize(PQuery query) {
+        if (sharedPlanCache == null) {
+            return normalizer.rewrite(query);
+        }
+        return sharedPlanCache.getNormalizedForm(query, normalizer::rewrite);
+    }
+
     private CompiledQuery compileProduction(PQuery query) {
         Collection<SubPlan> bodyPlans = new ArrayList<SubPlan>();
         normalizer.setTraceCollector(CommonQueryHintOptions.normalizationTraceCollector
                 .getValueOrDefault(hintProvider.getQueryEvaluationHint(query)));
-        for (PBody pBody : normalizer.rewrite(query).getBodies()) {
+        for (PBody pBody : normalize(query).getBodies()) {
             SubPlan bodyPlan = getPlan(pBody);
             bodyPlans.add(bodyPlan);
         }
@@ -890,7 +920,7 @@ public class ReteRecipeCompiler {
     private RecipeTraceInfo originalTraceOfReferredQuery(PQuery query) {
         // eliminate superfluous production node?
         if (PVisibility.EMBEDDED == query.getVisibility()) { // currently inline patterns only
-            Set<PBody> rewrittenBodies = normalizer.rewrite(query).getBodies();
+            Set<PBody> rewrittenBodies = normalize(query).getBodies();
             if (1 == rewrittenBodies.size()) { // non-disjunctive
                 // TODO in the future, check if non-recursive - (not currently permitted)
 
@@ -0,0 +1,64 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.construction.plancompiler;
+
+import tools.refinery.interpreter.matchers.planning.SubPlan;
+import tools.refinery.interpreter.matchers.psystem.PBody;
+import tools.refinery.interpreter.matchers.psystem.queries.PDisjunction;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Normalized queries and query plans shared by the {@link ReteRecipeCompiler} instances of every Rete engine created
+ * with the same {@link tools.refinery.interpreter.matchers.backend.SharedBackendState}.
+ * <p>
+ * Normalization and planning only depend on the query, its hints, and the meta context, so their results can be
+ * reused by every model of a model store. Recipes, on the other hand, are still compiled separately for each engine,
+ * because constructing the nodes of a Rete network mutates its recipes. Hence, the compiler and the network stay
+ * confined to their engine, while the plans are shared.
+ * <p>
+ * Normalized bodies and plans are only created while holding the lock of the cache, but are read concurrently
+ * afterwards. Their lazily computed type information ({@link PBody#getAllUnaryTypeRestrictions} and
+ * {@link SubPlan#getAllImpliedTypeJudgements}) is synchronized for this reason.
+ */
+public final class SharedPlanCache {
+	private final Map<PQuery, PDisjunction> normalizedForms = new HashMap<>();
+	private final Map<PBody, SubPlan> plans = new HashMap<>();
+
+	public synchronized PDisjunction getNormalizedForm(PQuery query, Function<PQuery, PDisjunction> normalizer) {
+		var normalizedForm = normalizedForms.get(query);
+		if (normalizedForm == null) {
+			normalizedForm = normalizer.apply(query);
+			for (var body : normalizedForm.getBodies()) {
+				// Initialize the lazily created parameter list before other engines can see the body.
+				body.getSymbolicParameters();
+			}
+			normalizedForms.put(query, normalizedForm);
+		}
+		return normalizedForm;
+	}
+
+	public synchronized SubPlan getPlan(PBody body, Function<PBody, SubPlan> planner) {
+		var plan = plans.get(body);
+		if (plan == null) {
+			plan = planner.apply(body);
+			plans.put(body, plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns the number of cached query plans.
+	 *
+	 * @return The number of query bodies planned so far.
+	 */
+	public synchronized int getPlanCount() {
+		return plans.size();
+	}
+}
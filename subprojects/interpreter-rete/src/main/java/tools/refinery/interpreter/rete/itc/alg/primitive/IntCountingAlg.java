@@ -0,0 +1,177 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.primitive;
+
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.factory.primitive.LongIntMaps;
+import org.eclipse.collections.api.factory.primitive.LongLists;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+import org.eclipse.collections.api.set.primitive.IntSet;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import tools.refinery.interpreter.rete.itc.graphimpl.IntGraph;
+import tools.refinery.interpreter.rete.itc.igraph.IntTcObserver;
+
+import java.util.Arrays;
+
+/**
+ * The counting algorithm for the transitive closure of an acyclic {@link IntGraph}.
+ * <p>
+ * This is the {@code int} specialization of
+ * {@link tools.refinery.interpreter.rete.itc.alg.counting.CountingAlg CountingAlg}. The number of derivations of
+ * each reachable pair of nodes is stored in a single table keyed by the pair, while the reachable targets and sources
+ * of each node are indexed by the node.
+ * <p>
+ * The graph is not observed. Instead, {@link #edgeChanged(int, int, int)} must be called after the edges of the
+ * graph have been modified.
+ */
+public class IntCountingAlg {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final IntSet EMPTY_SET = IntSets.immutable.empty();
+
+	private final IntGraph graph;
+	private final MutableLongIntMap derivationCounts = LongIntMaps.mutable.empty();
+	private MutableIntSet[] tupleEnds = new MutableIntSet[INITIAL_CAPACITY];
+	private MutableIntSet[] tupleStarts = new MutableIntSet[INITIAL_CAPACITY];
+	private IntTcObserver observer;
+
+	public IntCountingAlg(IntGraph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Sets the observer to notify about changes of the transitive closure relation.
+	 *
+	 * @param observer The observer, or {@code null} to disable notifications.
+	 */
+	public void setObserver(IntTcObserver observer) {
+		this.observer = observer;
+	}
+
+	public boolean isReachable(int source, int target) {
+		return derivationCounts.containsKey(tupleKey(source, target));
+	}
+
+	/**
+	 * Returns the nodes reachable from a node. The returned set must not be retained across graph modifications.
+	 */
+	public IntSet getAllReachableTargets(int source) {
+		return getOrEmpty(tupleEnds, source);
+	}
+
+	/**
+	 * Returns the nodes a node is reachable from. The returned set must not be retained across graph modifications.
+	 */
+	public IntSet getAllReachableSources(int target) {
+		return getOrEmpty(tupleStarts, target);
+	}
+
+	/**
+	 * Updates the transitive closure relation after edges have been inserted into or deleted from the graph.
+	 *
+	 * @param source The source of the changed edges.
+	 * @param target The target of the changed edges.
+	 * @param delta  The number of inserted edges if positive, the number of deleted edges if negative.
+	 */
+	public void edgeChanged(int source, int target, int delta) {
+		if (source == target || delta == 0) {
+			return;
+		}
+		MutableLongList changedTuples = LongLists.mutable.empty();
+		// 1. d(tc(x,y)) :- d(l(x,y))
+		updateTuple(source, target, delta, changedTuples);
+		// 2. d(tc(x,y)) :- d(l(x,z)) & tc(z,y)
+		var targetEnds = getOrEmpty(tupleEnds, target);
+		if (!targetEnds.isEmpty()) {
+			var iterator = targetEnds.intIterator();
+			while (iterator.hasNext()) {
+				int tupleEnd = iterator.next();
+				if (tupleEnd != source) {
+					updateTuple(source, tupleEnd, delta, changedTuples);
+				}
+			}
+		}
+		// 3. d(tc(x,y)) :- lv(x,z) & d(tc(z,y))
+		int sign = delta > 0 ? 1 : -1;
+		MutableLongList newTuples = LongLists.mutable.empty();
+		while (!changedTuples.isEmpty()) {
+			int size = changedTuples.size();
+			for (int i = 0; i < size; i++) {
+				long tuple = changedTuples.get(i);
+				int tupleStart = (int) (tuple >>> 32);
+				int tupleEnd = (int) tuple;
+				int sourceCount = graph.getSourceCount(tupleStart);
+				for (int j = 0; j < sourceCount; j++) {
+					int newStart = graph.getSource(tupleStart, j);
+					if (newStart != tupleEnd) {
+						updateTuple(newStart, tupleEnd, sign * graph.getSourceMultiplicity(tupleStart, j),
+								newTuples);
+					}
+				}
+			}
+			var swap = changedTuples;
+			changedTuples = newTuples;
+			newTuples = swap;
+			newTuples.clear();
+		}
+	}
+
+	private void updateTuple(int source, int target, int delta, MutableLongList changedTuples) {
+		long key = tupleKey(source, target);
+		int oldCount = derivationCounts.getIfAbsent(key, 0);
+		int newCount = oldCount + delta;
+		if (newCount > 0) {
+			derivationCounts.put(key, newCount);
+			if (oldCount > 0) {
+				return;
+			}
+			tupleEnds = ensureCapacity(tupleEnds, source);
+			getOrCreate(tupleEnds, source).add(target);
+			tupleStarts = ensureCapacity(tupleStarts, target);
+			getOrCreate(tupleStarts, target).add(source);
+			changedTuples.add(key);
+			if (observer != null) {
+				observer.tupleInserted(source, target);
+			}
+		} else if (oldCount > 0) {
+			derivationCounts.remove(key);
+			tupleEnds[source].remove(target);
+			tupleStarts[target].remove(source);
+			changedTuples.add(key);
+			if (observer != null) {
+				observer.tupleDeleted(source, target);
+			}
+		}
+	}
+
+	private static MutableIntSet getOrCreate(MutableIntSet[] sets, int node) {
+		var set = sets[node];
+		if (set == null) {
+			set = IntSets.mutable.empty();
+			sets[node] = set;
+		}
+		return set;
+	}
+
+	private static MutableIntSet[] ensureCapacity(MutableIntSet[] sets, int node) {
+		if (node < sets.length) {
+			return sets;
+		}
+		return Arrays.copyOf(sets, Math.max(sets.length * 2, node + 1));
+	}
+
+	private static IntSet getOrEmpty(MutableIntSet[] sets, int node) {
+		if (node >= sets.length) {
+			return EMPTY_SET;
+		}
+		var set = sets[node];
+		return set == null ? EMPTY_SET : set;
+	}
+
+	private static long tupleKey(int source, int target) {
+		return ((long) source << 32) | (target & 0xffffffffL);
+	}
+}
@@ -0,0 +1,451 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.primitive;
+
+import org.eclipse.collections.api.block.procedure.primitive.IntIntProcedure;
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.set.primitive.IntSet;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory;
+import tools.refinery.interpreter.rete.itc.graphimpl.IntGraph;
+import tools.refinery.interpreter.rete.itc.igraph.IntTcObserver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental SCC maintenance and counting algorithm over non-negative {@code int} nodes.
+ * <p>
+ * This is the {@code int} specialization of {@link tools.refinery.interpreter.rete.itc.alg.incscc.IncSCCAlg
+ * IncSCCAlg}. The graph is stored in adjacency arrays, the strongly connected components in an {@link IntUnionFind},
+ * and the transitive closure of the graph of strongly connected components is maintained by an
+ * {@link IntCountingAlg}. Edges between components in the reduced graph have the total multiplicity of the edges
+ * between the members of the components.
+ * <p>
+ * Unlike {@code IncSCCAlg}, this class owns its graph, which must be modified through
+ * {@link #insertEdge(int, int)}, {@link #deleteEdgeIfExists(int, int)}, and {@link #deleteNode(int)}.
+ */
+public class IntIncSCCAlg {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final IntGraph graph = new IntGraph();
+	private final IntUnionFind sccs = new IntUnionFind();
+	private final IntGraph reducedGraph = new IntGraph();
+	private final IntCountingAlg counting = new IntCountingAlg(reducedGraph);
+	private final List<IntTcObserver> observers = CollectionsFactory.createObserverList();
+	private final IntTcObserver countingListener = new IntTcObserver() {
+		@Override
+		public void tupleInserted(int source, int target) {
+			notifyTcObservers(source, target, true);
+		}
+
+		@Override
+		public void tupleDeleted(int source, int target) {
+			notifyTcObservers(source, target, false);
+		}
+	};
+	// Scratch space for traversing the members of a single strongly connected component.
+	private int[] marks = new int[INITIAL_CAPACITY];
+	private int[] positions = new int[INITIAL_CAPACITY];
+	private int currentMark;
+
+	public void attachObserver(IntTcObserver observer) {
+		observers.add(observer);
+	}
+
+	public void detachObserver(IntTcObserver observer) {
+		observers.remove(observer);
+	}
+
+	public void insertEdge(int source, int target) {
+		ensureNode(source);
+		ensureNode(target);
+		int edgeCount = graph.insertEdge(source, target, 1);
+		int sourceRoot = sccs.find(source);
+		int targetRoot = sccs.find(target);
+		if (sourceRoot == targetRoot) {
+			// Notifications about self-loops.
+			if (!observers.isEmpty() && sccs.getSize(sourceRoot) == 1 && edgeCount == 1) {
+				notifyTcObservers(source, source, true);
+			}
+			return;
+		}
+		if (!counting.isReachable(targetRoot, sourceRoot)) {
+			insertReducedEdge(sourceRoot, targetRoot, 1, true);
+			return;
+		}
+		// The new edge closes a cycle, so we have to merge all components along the cycle.
+		var predecessorRoots = IntSets.mutable.withAll(counting.getAllReachableSources(sourceRoot));
+		predecessorRoots.add(sourceRoot);
+		var successorRoots = IntSets.mutable.withAll(counting.getAllReachableTargets(targetRoot));
+		successorRoots.add(targetRoot);
+		if (!observers.isEmpty()) {
+			// Notifications must be issued before union-find modifications.
+			notifyNewlyChangedTuples(predecessorRoots, successorRoots, true);
+		}
+		var mergedRoots = predecessorRoots.select(successorRoots::contains);
+		var iterator = mergedRoots.intIterator();
+		while (iterator.hasNext()) {
+			deleteReducedEdges(iterator.next());
+		}
+		int newRoot = sourceRoot;
+		iterator = mergedRoots.intIterator();
+		while (iterator.hasNext()) {
+			newRoot = sccs.union(newRoot, iterator.next());
+		}
+		insertReducedEdges(newRoot, false);
+	}
+
+	public void deleteEdgeIfExists(int source, int target) {
+		if (!sccs.contains(source) || !sccs.contains(target)) {
+			return;
+		}
+		int edgeCount = graph.deleteEdgeIfExists(source, target, 1);
+		if (edgeCount < 0) {
+			return;
+		}
+		int sourceRoot = sccs.find(source);
+		int targetRoot = sccs.find(target);
+		if (sourceRoot != targetRoot) {
+			deleteReducedEdge(sourceRoot, targetRoot, 1, true);
+			return;
+		}
+		if (sccs.getSize(sourceRoot) == 1) {
+			// Only handle self-loop notifications.
+			if (!observers.isEmpty() && edgeCount == 0) {
+				notifyTcObservers(source, source, false);
+			}
+			return;
+		}
+		if (edgeCount > 0 || source == target || isReachableInComponent(source, target, sourceRoot)) {
+			return;
+		}
+		// The component fell apart, so we have to compute the new components from its members.
+		deleteReducedEdges(sourceRoot);
+		var members = getMembers(sourceRoot);
+		sccs.deleteSet(sourceRoot);
+		var newRoots = computeComponents(members);
+		int mark = nextMark();
+		int newRootCount = newRoots.size();
+		for (int i = 0; i < newRootCount; i++) {
+			marks[newRoots.get(i)] = mark;
+		}
+		for (int i = 0; i < newRootCount; i++) {
+			insertReducedEdges(newRoots.get(i), true);
+		}
+		if (!observers.isEmpty()) {
+			// Notifications must be issued after union-find modifications.
+			int newSourceRoot = sccs.find(source);
+			var predecessorRoots = IntSets.mutable.withAll(counting.getAllReachableSources(newSourceRoot));
+			predecessorRoots.add(newSourceRoot);
+			int newTargetRoot = sccs.find(target);
+			var successorRoots = IntSets.mutable.withAll(counting.getAllReachableTargets(newTargetRoot));
+			successorRoots.add(newTargetRoot);
+			notifyNewlyChangedTuples(predecessorRoots, successorRoots, false);
+		}
+	}
+
+	/**
+	 * Deletes an isolated node.
+	 *
+	 * @param node The node to delete.
+	 * @throws IllegalArgumentException If the node still has incident edges.
+	 */
+	public void deleteNode(int node) {
+		if (!isIsolated(node)) {
+			throw new IllegalArgumentException("Cannot delete node with incident edges: " + node);
+		}
+		if (sccs.contains(node)) {
+			sccs.remove(node);
+		}
+	}
+
+	public boolean isIsolated(int node) {
+		return graph.isIsolated(node);
+	}
+
+	public boolean isReachable(int source, int target) {
+		if (!sccs.contains(source) || !sccs.contains(target)) {
+			return false;
+		}
+		int sourceRoot = sccs.find(source);
+		int targetRoot = sccs.find(target);
+		if (sourceRoot == targetRoot) {
+			return source != target || isSelfReachable(sourceRoot);
+		}
+		return counting.isReachable(sourceRoot, targetRoot);
+	}
+
+	/**
+	 * Calls the given procedure with every pair of nodes in the transitive closure relation.
+	 */
+	public void forEachTcTuple(IntIntProcedure procedure) {
+		int capacity = sccs.getCapacity();
+		for (int sourceRoot = 0; sourceRoot < capacity; sourceRoot++) {
+			if (!sccs.contains(sourceRoot) || sccs.find(sourceRoot) != sourceRoot) {
+				continue;
+			}
+			if (isSelfReachable(sourceRoot)) {
+				forEachPair(sourceRoot, sourceRoot, procedure);
+			}
+			var iterator = counting.getAllReachableTargets(sourceRoot).intIterator();
+			while (iterator.hasNext()) {
+				forEachPair(sourceRoot, iterator.next(), procedure);
+			}
+		}
+	}
+
+	private void ensureNode(int node) {
+		if (!sccs.contains(node)) {
+			sccs.makeSet(node);
+		}
+	}
+
+	private boolean isSelfReachable(int root) {
+		// A singleton component is only reachable from itself if its only member has a self-loop.
+		return sccs.getSize(root) > 1 || graph.getEdgeCount(root, root) > 0;
+	}
+
+	private void notifyNewlyChangedTuples(IntSet sourceRoots, IntSet targetRoots, boolean isInsertion) {
+		var sourceIterator = sourceRoots.intIterator();
+		while (sourceIterator.hasNext()) {
+			int sourceRoot = sourceIterator.next();
+			var targetIterator = targetRoots.intIterator();
+			while (targetIterator.hasNext()) {
+				int targetRoot = targetIterator.next();
+				// If the components were already reachable, or the component is already reachable from itself
+				// (because it has multiple members or a self-loop), there is no change to notify about.
+				if (!counting.isReachable(sourceRoot, targetRoot) &&
+						(sourceRoot != targetRoot || !isSelfReachable(sourceRoot))) {
+					notifyTcObservers(sourceRoot, targetRoot, isInsertion);
+				}
+			}
+		}
+	}
+
+	private void notifyTcObservers(int sourceRoot, int targetRoot, boolean isInsertion) {
+		forEachPair(sourceRoot, targetRoot, (source, target) -> {
+			for (var observer : observers) {
+				if (isInsertion) {
+					observer.tupleInserted(source, target);
+				} else {
+					observer.tupleDeleted(source, target);
+				}
+			}
+		});
+	}
+
+	private void forEachPair(int sourceRoot, int targetRoot, IntIntProcedure procedure) {
+		int source = sourceRoot;
+		do {
+			int target = targetRoot;
+			do {
+				procedure.value(source, target);
+				target = sccs.getNext(target);
+			} while (target != targetRoot);
+			source = sccs.getNext(source);
+		} while (source != sourceRoot);
+	}
+
+	private void insertReducedEdge(int sourceRoot, int targetRoot, int count, boolean notify) {
+		reducedGraph.insertEdge(sourceRoot, targetRoot, count);
+		updateCounting(sourceRoot, targetRoot, count, notify);
+	}
+
+	private void deleteReducedEdge(int sourceRoot, int targetRoot, int count, boolean notify) {
+		reducedGraph.deleteEdgeIfExists(sourceRoot, targetRoot, count);
+		updateCounting(sourceRoot, targetRoot, -count, notify);
+	}
+
+	private void updateCounting(int sourceRoot, int targetRoot, int delta, boolean notify) {
+		if (notify && !observers.isEmpty()) {
+			counting.setObserver(countingListener);
+		}
+		try {
+			counting.edgeChanged(sourceRoot, targetRoot, delta);
+		} finally {
+			counting.setObserver(null);
+		}
+	}
+
+	/**
+	 * Deletes all edges of a component from the reduced graph without notifying the observers.
+	 */
+	private void deleteReducedEdges(int root) {
+		int targetCount;
+		while ((targetCount = reducedGraph.getTargetCount(root)) > 0) {
+			int index = targetCount - 1;
+			deleteReducedEdge(root, reducedGraph.getTarget(root, index),
+					reducedGraph.getTargetMultiplicity(root, index), false);
+		}
+		int sourceCount;
+		while ((sourceCount = reducedGraph.getSourceCount(root)) > 0) {
+			int index = sourceCount - 1;
+			deleteReducedEdge(reducedGraph.getSource(root, index), root,
+					reducedGraph.getSourceMultiplicity(root, index), false);
+		}
+	}
+
+	/**
+	 * Inserts all edges of a component into the reduced graph without notifying the observers.
+	 *
+	 * @param root               The representative of the component.
+	 * @param skipMarkedSources  Whether to skip incoming edges from components with marked representatives, because
+	 *                           they will be inserted as outgoing edges of those components.
+	 */
+	private void insertReducedEdges(int root, boolean skipMarkedSources) {
+		int member = root;
+		do {
+			int targetCount = graph.getTargetCount(member);
+			for (int i = 0; i < targetCount; i++) {
+				int targetRoot = sccs.find(graph.getTarget(member, i));
+				if (targetRoot != root) {
+					insertReducedEdge(root, targetRoot, graph.getTargetMultiplicity(member, i), false);
+				}
+			}
+			int sourceCount = graph.getSourceCount(member);
+			for (int i = 0; i < sourceCount; i++) {
+				int sourceRoot = sccs.find(graph.getSource(member, i));
+				if (sourceRoot != root && !(skipMarkedSources && marks[sourceRoot] == currentMark)) {
+					insertReducedEdge(sourceRoot, root, graph.getSourceMultiplicity(member, i), false);
+				}
+			}
+			member = sccs.getNext(member);
+		} while (member != root);
+	}
+
+	private int[] getMembers(int root) {
+		var members = new int[sccs.getSize(root)];
+		int member = root;
+		int i = 0;
+		do {
+			members[i] = member;
+			i++;
+			member = sccs.getNext(member);
+		} while (member != root);
+		return members;
+	}
+
+	private int nextMark() {
+		int capacity = sccs.getCapacity();
+		if (marks.length < capacity) {
+			marks = Arrays.copyOf(marks, capacity);
+			positions = Arrays.copyOf(positions, capacity);
+		}
+		currentMark++;
+		if (currentMark == 0) {
+			// Avoid confusing unmarked nodes with marked ones after an overflow.
+			Arrays.fill(marks, 0);
+			currentMark = 1;
+		}
+		return currentMark;
+	}
+
+	/**
+	 * Determines whether the target is reachable from the source along the edges inside a component with a
+	 * depth-first search.
+	 */
+	private boolean isReachableInComponent(int source, int target, int root) {
+		int mark = nextMark();
+		var stack = new int[sccs.getSize(root)];
+		int stackSize = 0;
+		marks[source] = mark;
+		stack[stackSize++] = source;
+		while (stackSize > 0) {
+			int node = stack[--stackSize];
+			int targetCount = graph.getTargetCount(node);
+			for (int i = 0; i < targetCount; i++) {
+				int next = graph.getTarget(node, i);
+				if (next == target) {
+					return true;
+				}
+				if (marks[next] != mark && sccs.find(next) == root) {
+					marks[next] = mark;
+					stack[stackSize++] = next;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Computes the strongly connected components of the subgraph induced by the given singleton members with an
+	 * iterative version of Tarjan's algorithm and merges them in the union-find data structure.
+	 *
+	 * @return The representatives of the new components.
+	 */
+	private MutableIntList computeComponents(int[] members) {
+		int mark = nextMark();
+		int memberCount = members.length;
+		for (int i = 0; i < memberCount; i++) {
+			int member = members[i];
+			marks[member] = mark;
+			positions[member] = i;
+		}
+		var indices = new int[memberCount];
+		Arrays.fill(indices, -1);
+		var lowLinks = new int[memberCount];
+		var edgeIndices = new int[memberCount];
+		var onStack = new boolean[memberCount];
+		var componentStack = new int[memberCount];
+		int componentStackSize = 0;
+		var callStack = new int[memberCount];
+		int callStackSize = 0;
+		int nextIndex = 0;
+		MutableIntList newRoots = IntLists.mutable.empty();
+		for (int start = 0; start < memberCount; start++) {
+			if (indices[start] >= 0) {
+				continue;
+			}
+			indices[start] = nextIndex;
+			lowLinks[start] = nextIndex;
+			nextIndex++;
+			componentStack[componentStackSize++] = start;
+			onStack[start] = true;
+			callStack[callStackSize++] = start;
+			while (callStackSize > 0) {
+				int current = callStack[callStackSize - 1];
+				int node = members[current];
+				if (edgeIndices[current] < graph.getTargetCount(node)) {
+					int next = graph.getTarget(node, edgeIndices[current]);
+					edgeIndices[current]++;
+					if (marks[next] != mark) {
+						continue;
+					}
+					int nextPosition = positions[next];
+					if (indices[nextPosition] < 0) {
+						indices[nextPosition] = nextIndex;
+						lowLinks[nextPosition] = nextIndex;
+						nextIndex++;
+						componentStack[componentStackSize++] = nextPosition;
+						onStack[nextPosition] = true;
+						callStack[callStackSize++] = nextPosition;
+					} else if (onStack[nextPosition]) {
+						lowLinks[current] = Math.min(lowLinks[current], indices[nextPosition]);
+					}
+					continue;
+				}
+				callStackSize--;
+				if (callStackSize > 0) {
+					int caller = callStack[callStackSize - 1];
+					lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[current]);
+				}
+				if (lowLinks[current] == indices[current]) {
+					int componentRoot = node;
+					int popped;
+					do {
+						popped = componentStack[--componentStackSize];
+						onStack[popped] = false;
+						componentRoot = sccs.union(componentRoot, members[popped]);
+					} while (popped != current);
+					newRoots.add(componentRoot);
+				}
+			}
+		}
+		return newRoots;
+	}
+}
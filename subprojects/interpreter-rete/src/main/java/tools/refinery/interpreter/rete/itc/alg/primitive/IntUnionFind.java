@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Union-find data structure over non-negative {@code int} elements that supports splitting a set back into
+ * singletons.
+ * <p>
+ * The members of each set are linked into a circular list, which can be traversed from any member with
+ * {@link #getNext(int)}. Sets are merged by size, and {@link #find(int)} halves the paths it traverses.
+ */
+public class IntUnionFind {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int ABSENT = -1;
+
+	private int[] parents = new int[INITIAL_CAPACITY];
+	private int[] sizes = new int[INITIAL_CAPACITY];
+	private int[] next = new int[INITIAL_CAPACITY];
+
+	public IntUnionFind() {
+		Arrays.fill(parents, ABSENT);
+	}
+
+	/**
+	 * Adds a new element as a singleton set.
+	 *
+	 * @param element The element to add.
+	 * @throws IllegalArgumentException If the element is already present.
+	 */
+	public void makeSet(int element) {
+		ensureCapacity(element);
+		if (parents[element] != ABSENT) {
+			throw new IllegalArgumentException("Element already present: " + element);
+		}
+		makeSingleton(element);
+	}
+
+	public boolean contains(int element) {
+		return element >= 0 && element < parents.length && parents[element] != ABSENT;
+	}
+
+	/**
+	 * Removes an element that forms a singleton set.
+	 *
+	 * @param element The element to remove.
+	 * @throws IllegalArgumentException If the element is not present or is not a singleton.
+	 */
+	public void remove(int element) {
+		if (!contains(element) || sizes[find(element)] != 1) {
+			throw new IllegalArgumentException("Not a singleton element: " + element);
+		}
+		parents[element] = ABSENT;
+	}
+
+	/**
+	 * Finds the representative element of the set containing the given element.
+	 */
+	public int find(int element) {
+		int current = element;
+		while (parents[current] != current) {
+			int grandparent = parents[parents[current]];
+			parents[current] = grandparent;
+			current = grandparent;
+		}
+		return current;
+	}
+
+	/**
+	 * Merges the sets containing the given elements.
+	 *
+	 * @return The representative element of the merged set.
+	 */
+	public int union(int first, int second) {
+		int firstRoot = find(first);
+		int secondRoot = find(second);
+		if (firstRoot == secondRoot) {
+			return firstRoot;
+		}
+		if (sizes[firstRoot] < sizes[secondRoot]) {
+			int swap = firstRoot;
+			firstRoot = secondRoot;
+			secondRoot = swap;
+		}
+		parents[secondRoot] = firstRoot;
+		sizes[firstRoot] += sizes[secondRoot];
+		// Splice the circular member lists together.
+		int swap = next[firstRoot];
+		next[firstRoot] = next[secondRoot];
+		next[secondRoot] = swap;
+		return firstRoot;
+	}
+
+	/**
+	 * Returns the number of elements in a set.
+	 *
+	 * @param root The representative element of the set.
+	 */
+	public int getSize(int root) {
+		return sizes[root];
+	}
+
+	/**
+	 * Returns the next member of the set containing the given element. Repeatedly calling this method visits every
+	 * member of the set once before returning to the original element.
+	 */
+	public int getNext(int element) {
+		return next[element];
+	}
+
+	/**
+	 * Splits a set into singleton sets.
+	 *
+	 * @param root The representative element of the set.
+	 */
+	public void deleteSet(int root) {
+		int current = root;
+		do {
+			int following = next[current];
+			makeSingleton(current);
+			current = following;
+		} while (current != root);
+	}
+
+	/**
+	 * Returns an upper bound on the elements present in this data structure.
+	 */
+	public int getCapacity() {
+		return parents.length;
+	}
+
+	private void makeSingleton(int element) {
+		parents[element] = element;
+		sizes[element] = 1;
+		next[element] = element;
+	}
+
+	private void ensureCapacity(int element) {
+		int oldCapacity = parents.length;
+		if (element < oldCapacity) {
+			return;
+		}
+		int newCapacity = Math.max(oldCapacity * 2, element + 1);
+		parents = Arrays.copyOf(parents, newCapacity);
+		sizes = Arrays.copyOf(sizes, newCapacity);
+		next = Arrays.copyOf(next, newCapacity);
+		Arrays.fill(parents, oldCapacity, newCapacity, ABSENT);
+	}
+}
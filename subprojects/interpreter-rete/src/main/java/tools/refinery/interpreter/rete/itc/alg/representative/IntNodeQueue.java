@@ -0,0 +1,59 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+import java.util.Arrays;
+
+/**
+ * Reusable first-in first-out queue of nodes for breadth-first searches.
+ * <p>
+ * Polled nodes are retained until the queue is cleared, so the queue also records every node visited by the search.
+ */
+class IntNodeQueue {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] nodes = new int[INITIAL_CAPACITY];
+	private int head;
+	private int tail;
+
+	public void clear() {
+		head = 0;
+		tail = 0;
+	}
+
+	public void add(int node) {
+		if (tail == nodes.length) {
+			nodes = Arrays.copyOf(nodes, tail * 2);
+		}
+		nodes[tail] = node;
+		tail++;
+	}
+
+	public boolean isEmpty() {
+		return head == tail;
+	}
+
+	public int poll() {
+		int node = nodes[head];
+		head++;
+		return node;
+	}
+
+	/**
+	 * Returns the array of nodes added since the last {@link #clear()}. Only the first {@link #size()} elements are
+	 * valid.
+	 */
+	public int[] getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of nodes added since the last {@link #clear()}.
+	 */
+	public int size() {
+		return tail;
+	}
+}
@@ -0,0 +1,297 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+import org.eclipse.collections.api.block.procedure.primitive.IntIntProcedure;
+import tools.refinery.interpreter.matchers.util.Direction;
+import tools.refinery.interpreter.rete.itc.graphimpl.IntGraph;
+
+import java.util.Arrays;
+
+/**
+ * Representative election over non-negative {@code int} nodes.
+ * <p>
+ * This is the {@code int} specialization of {@link RepresentativeElectionAlgorithm}. Instead of a union-find
+ * structure with path compression, every node stores the representative of its component directly, and the members of
+ * each component are linked into a circular doubly linked list. Merging two components relabels the smaller one, while
+ * splitting a component relabels only the part that does not contain the old representative. Thus, the work done is
+ * proportional to the number of nodes whose representative changes, which have to be sent to the observer anyway.
+ * <p>
+ * The algorithm owns its graph, which must be modified through {@link #insertEdge(int, int)},
+ * {@link #deleteEdgeIfExists(int, int)}, and {@link #deleteNode(int)}.
+ */
+public abstract class IntRepresentativeElectionAlgorithm {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int ABSENT = -1;
+
+	protected final IntGraph graph = new IntGraph();
+	private int[] representatives = new int[INITIAL_CAPACITY];
+	private int[] sizes = new int[INITIAL_CAPACITY];
+	private int[] next = new int[INITIAL_CAPACITY];
+	private int[] previous = new int[INITIAL_CAPACITY];
+	private int[] marks = new int[INITIAL_CAPACITY];
+	private int currentMark;
+	private IntRepresentativeObserver observer;
+
+	protected IntRepresentativeElectionAlgorithm() {
+		Arrays.fill(representatives, ABSENT);
+	}
+
+	public void setObserver(IntRepresentativeObserver observer) {
+		this.observer = observer;
+	}
+
+	public void insertEdge(int source, int target) {
+		ensureNode(source);
+		ensureNode(target);
+		int edgeCount = graph.insertEdge(source, target, 1);
+		edgeInserted(source, target, edgeCount);
+	}
+
+	public void deleteEdgeIfExists(int source, int target) {
+		if (!contains(source) || !contains(target)) {
+			return;
+		}
+		int edgeCount = graph.deleteEdgeIfExists(source, target, 1);
+		if (edgeCount >= 0) {
+			edgeDeleted(source, target, edgeCount);
+		}
+	}
+
+	/**
+	 * Deletes an isolated node.
+	 *
+	 * @param node The node to delete.
+	 * @throws IllegalStateException If the node still has incident edges.
+	 */
+	public void deleteNode(int node) {
+		if (!contains(node)) {
+			return;
+		}
+		if (!isIsolated(node) || sizes[node] != 1) {
+			throw new IllegalStateException("Trying to delete node with dangling edges");
+		}
+		representatives[node] = ABSENT;
+		notifyToObservers(node, node, Direction.DELETE);
+	}
+
+	public boolean isIsolated(int node) {
+		return graph.isIsolated(node);
+	}
+
+	public boolean contains(int node) {
+		return node >= 0 && node < representatives.length && representatives[node] != ABSENT;
+	}
+
+	public int getRepresentative(int node) {
+		return representatives[node];
+	}
+
+	/**
+	 * Returns the number of nodes in a component.
+	 *
+	 * @param representative The representative of the component.
+	 */
+	public int getComponentSize(int representative) {
+		return sizes[representative];
+	}
+
+	/**
+	 * Calls the given procedure with every node and its representative.
+	 */
+	public void forEachRepresentative(IntIntProcedure procedure) {
+		int capacity = representatives.length;
+		for (int node = 0; node < capacity; node++) {
+			int representative = representatives[node];
+			if (representative != ABSENT) {
+				procedure.value(node, representative);
+			}
+		}
+	}
+
+	/**
+	 * Handles the insertion of a new node, which forms a singleton component.
+	 */
+	protected void nodeInserted(int node) {
+		// Subclasses may maintain additional information about components.
+	}
+
+	/**
+	 * Handles the insertion of an edge after the graph has been updated.
+	 *
+	 * @param edgeCount The number of parallel edges between the nodes after the insertion.
+	 */
+	protected abstract void edgeInserted(int source, int target, int edgeCount);
+
+	/**
+	 * Handles the deletion of an edge after the graph has been updated.
+	 *
+	 * @param edgeCount The number of parallel edges between the nodes after the deletion.
+	 */
+	protected abstract void edgeDeleted(int source, int target, int edgeCount);
+
+	/**
+	 * Merges two components by relabeling the smaller one.
+	 *
+	 * @return The representative of the merged component.
+	 */
+	protected int merge(int leftRepresentative, int rightRepresentative) {
+		if (leftRepresentative == rightRepresentative) {
+			return leftRepresentative;
+		}
+		int preservedRepresentative;
+		int removedRepresentative;
+		if (sizes[leftRepresentative] < sizes[rightRepresentative]) {
+			preservedRepresentative = rightRepresentative;
+			removedRepresentative = leftRepresentative;
+		} else {
+			preservedRepresentative = leftRepresentative;
+			removedRepresentative = rightRepresentative;
+		}
+		int node = removedRepresentative;
+		do {
+			representatives[node] = preservedRepresentative;
+			notifyToObservers(node, removedRepresentative, preservedRepresentative);
+			node = next[node];
+		} while (node != removedRepresentative);
+		sizes[preservedRepresentative] += sizes[removedRepresentative];
+		// Splice the circular member lists together.
+		int preservedLast = previous[preservedRepresentative];
+		int removedLast = previous[removedRepresentative];
+		next[preservedLast] = removedRepresentative;
+		previous[removedRepresentative] = preservedLast;
+		next[removedLast] = preservedRepresentative;
+		previous[preservedRepresentative] = removedLast;
+		return preservedRepresentative;
+	}
+
+	/**
+	 * Splits a part of a component off into a new component.
+	 * <p>
+	 * If the part contains the representative of the component, the rest of the component is split off instead, so
+	 * that the representative of the part does not change.
+	 *
+	 * @param representative The representative of the component.
+	 * @param part           The nodes of the part, which must be marked with the current mark.
+	 * @param partSize       The number of nodes in the part.
+	 * @return The representative of the new component.
+	 */
+	protected int split(int representative, int[] part, int partSize) {
+		int size = sizes[representative];
+		if (partSize <= 0 || partSize >= size) {
+			throw new IllegalArgumentException("Invalid split of component " + representative);
+		}
+		if (marks[representative] != currentMark) {
+			return moveToNewComponent(representative, part, partSize);
+		}
+		int restSize = size - partSize;
+		var rest = new int[restSize];
+		int restIndex = 0;
+		int node = next[representative];
+		while (node != representative) {
+			if (marks[node] != currentMark) {
+				rest[restIndex] = node;
+				restIndex++;
+			}
+			node = next[node];
+		}
+		return moveToNewComponent(representative, rest, restSize);
+	}
+
+	private int moveToNewComponent(int oldRepresentative, int[] nodes, int count) {
+		for (int i = 0; i < count; i++) {
+			int node = nodes[i];
+			next[previous[node]] = next[node];
+			previous[next[node]] = previous[node];
+		}
+		int newRepresentative = nodes[0];
+		int last = nodes[count - 1];
+		for (int i = 0; i < count; i++) {
+			int node = nodes[i];
+			next[last] = node;
+			previous[node] = last;
+			last = node;
+			representatives[node] = newRepresentative;
+			notifyToObservers(node, oldRepresentative, newRepresentative);
+		}
+		sizes[oldRepresentative] -= count;
+		sizes[newRepresentative] = count;
+		return newRepresentative;
+	}
+
+	/**
+	 * Returns the next member of the component of a node. Repeatedly calling this method visits every member of the
+	 * component once before returning to the original node.
+	 */
+	protected int getNextMember(int node) {
+		return next[node];
+	}
+
+	/**
+	 * Starts a new traversal by returning a mark that is not assigned to any node yet.
+	 */
+	protected int nextMark() {
+		if (marks.length < representatives.length) {
+			marks = Arrays.copyOf(marks, representatives.length);
+		}
+		currentMark++;
+		if (currentMark == 0) {
+			// Avoid confusing unmarked nodes with marked ones after an overflow.
+			Arrays.fill(marks, 0);
+			currentMark = 1;
+		}
+		return currentMark;
+	}
+
+	protected boolean isMarked(int node, int mark) {
+		return marks[node] == mark;
+	}
+
+	protected void mark(int node, int mark) {
+		marks[node] = mark;
+	}
+
+	protected int getCapacity() {
+		return representatives.length;
+	}
+
+	private void ensureNode(int node) {
+		if (node >= representatives.length) {
+			int oldCapacity = representatives.length;
+			int newCapacity = Math.max(oldCapacity * 2, node + 1);
+			representatives = Arrays.copyOf(representatives, newCapacity);
+			sizes = Arrays.copyOf(sizes, newCapacity);
+			next = Arrays.copyOf(next, newCapacity);
+			previous = Arrays.copyOf(previous, newCapacity);
+			Arrays.fill(representatives, oldCapacity, newCapacity, ABSENT);
+		}
+		if (representatives[node] != ABSENT) {
+			return;
+		}
+		representatives[node] = node;
+		sizes[node] = 1;
+		next[node] = node;
+		previous[node] = node;
+		nodeInserted(node);
+		notifyToObservers(node, node, Direction.INSERT);
+	}
+
+	private void notifyToObservers(int node, int oldRepresentative, int newRepresentative) {
+		notifyToObservers(node, oldRepresentative, Direction.DELETE);
+		notifyToObservers(node, newRepresentative, Direction.INSERT);
+	}
+
+	private void notifyToObservers(int node, int representative, Direction direction) {
+		if (observer != null) {
+			observer.tupleChanged(node, representative, direction);
+		}
+	}
+
+	@FunctionalInterface
+	public interface Factory {
+		IntRepresentativeElectionAlgorithm create();
+	}
+}
@@ -0,0 +1,12 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+import tools.refinery.interpreter.matchers.util.Direction;
+
+public interface IntRepresentativeObserver {
+	void tupleChanged(int node, int representative, Direction direction);
+}
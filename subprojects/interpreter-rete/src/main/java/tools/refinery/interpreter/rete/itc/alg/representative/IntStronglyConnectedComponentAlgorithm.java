@@ -0,0 +1,448 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+import java.util.Arrays;
+
+/**
+ * Maintains the strongly connected components of a graph over {@code int} nodes.
+ * <p>
+ * The components are kept in a topological order, where each component owns a disjoint interval of {@code long}
+ * labels, and the interval of a component precedes the intervals of its successors. An inserted edge that agrees with
+ * the order cannot close a cycle, so it needs no search at all. Otherwise, only components between the target and the
+ * source in the order may lie on a new cycle, so the searches from the endpoints of the edge are restricted to them,
+ * and the affected components are reordered among their own labels, as in the algorithm of Pearce and Kelly.
+ * <p>
+ * Reachability checks upon deletion run a forward search and a backward search in lockstep, and stop as soon as they
+ * meet or either of them runs out of nodes. When the deletion of an edge {@code (s, t)} splits a component, every
+ * member of the component can still reach {@code s} and is still reachable from {@code t}. Hence, the search that runs
+ * out of nodes first has found the new component of {@code s} or {@code t}, and only the rest of the old component
+ * has to be decomposed again. The new components divide the interval of the old one among themselves.
+ */
+public class IntStronglyConnectedComponentAlgorithm extends IntRepresentativeElectionAlgorithm {
+	private static final long INITIAL_WIDTH = 1L << 24;
+	private static final long MAX_ORDER = Long.MAX_VALUE / 2;
+
+	private final IntNodeQueue forwardQueue = new IntNodeQueue();
+	private final IntNodeQueue backwardQueue = new IntNodeQueue();
+	private int[] positions = new int[0];
+	// Only valid for representatives.
+	private long[] orders = new long[0];
+	private long[] widths = new long[0];
+	private long nextOrder;
+
+	@Override
+	protected void nodeInserted(int node) {
+		int capacity = getCapacity();
+		if (orders.length < capacity) {
+			orders = Arrays.copyOf(orders, capacity);
+			widths = Arrays.copyOf(widths, capacity);
+		}
+		// A new node has no edges, so it can be placed anywhere in the topological order.
+		assignInterval(node, nextOrder, INITIAL_WIDTH);
+		nextOrder += INITIAL_WIDTH;
+		if (nextOrder > MAX_ORDER) {
+			relabel(INITIAL_WIDTH);
+		}
+	}
+
+	@Override
+	protected void edgeInserted(int source, int target, int edgeCount) {
+		int sourceRoot = getRepresentative(source);
+		int targetRoot = getRepresentative(target);
+		if (sourceRoot == targetRoot) {
+			// New edge does not change strongly connected components.
+			return;
+		}
+		long lowerBound = orders[targetRoot];
+		long upperBound = orders[sourceRoot];
+		if (upperBound < lowerBound) {
+			// New edge agrees with the topological order, so it cannot close a cycle.
+			return;
+		}
+		// Components after the source can not reach the source, and components before the target can not be reached
+		// from the target.
+		int forwardMark = nextMark();
+		forwardQueue.clear();
+		visit(target, forwardQueue, forwardMark);
+		while (!forwardQueue.isEmpty()) {
+			int node = forwardQueue.poll();
+			int targetCount = graph.getTargetCount(node);
+			for (int i = 0; i < targetCount; i++) {
+				int next = graph.getTarget(node, i);
+				if (!isMarked(next, forwardMark) && orders[getRepresentative(next)] <= upperBound) {
+					visit(next, forwardQueue, forwardMark);
+				}
+			}
+		}
+		int backwardMark = nextMark();
+		backwardQueue.clear();
+		visit(source, backwardQueue, backwardMark);
+		while (!backwardQueue.isEmpty()) {
+			int node = backwardQueue.poll();
+			int sourceCount = graph.getSourceCount(node);
+			for (int i = 0; i < sourceCount; i++) {
+				int previous = graph.getSource(node, i);
+				if (!isMarked(previous, backwardMark) && orders[getRepresentative(previous)] >= lowerBound) {
+					visit(previous, backwardQueue, backwardMark);
+				}
+			}
+		}
+		reorder();
+	}
+
+	/**
+	 * Restores the topological order after the insertion of an edge {@code (s, t)} with the components reachable from
+	 * {@code t} in the forward queue and the components that can reach {@code s} in the backward queue.
+	 * <p>
+	 * Components found by both searches lie on a new cycle and are merged. Components only found by the backward
+	 * search are moved before them, while components only found by the forward search are moved after them.
+	 */
+	private void reorder() {
+		int forwardComponentMark = nextMark();
+		var forwardComponents = getComponents(forwardQueue, forwardComponentMark);
+		int forwardCount = forwardComponents.length;
+		int backwardComponentMark = nextMark();
+		var backwardNodes = backwardQueue.getNodes();
+		int backwardSize = backwardQueue.size();
+		var poolComponents = Arrays.copyOf(forwardComponents, forwardCount + backwardSize);
+		int poolSize = forwardCount;
+		var backwardOnlyComponents = new int[backwardSize];
+		int backwardOnlyCount = 0;
+		var cycleComponents = new int[backwardSize];
+		int cycleCount = 0;
+		for (int i = 0; i < backwardSize; i++) {
+			int component = getRepresentative(backwardNodes[i]);
+			if (isMarked(component, backwardComponentMark)) {
+				continue;
+			}
+			if (isMarked(component, forwardComponentMark)) {
+				cycleComponents[cycleCount] = component;
+				cycleCount++;
+			} else {
+				backwardOnlyComponents[backwardOnlyCount] = component;
+				backwardOnlyCount++;
+				poolComponents[poolSize] = component;
+				poolSize++;
+			}
+			mark(component, backwardComponentMark);
+		}
+		var forwardOnlyComponents = new int[forwardCount];
+		int forwardOnlyCount = 0;
+		for (int component : forwardComponents) {
+			// Components found by both searches were marked again by the backward search.
+			if (!isMarked(component, backwardComponentMark)) {
+				forwardOnlyComponents[forwardOnlyCount] = component;
+				forwardOnlyCount++;
+			}
+		}
+		// Collect the intervals of the affected components in their current order.
+		poolComponents = sortByOrder(poolComponents, poolSize);
+		var poolOrders = new long[poolSize];
+		var poolWidths = new long[poolSize];
+		for (int i = 0; i < poolSize; i++) {
+			int component = poolComponents[i];
+			poolOrders[i] = orders[component];
+			poolWidths[i] = widths[component];
+		}
+		// Components only found by the backward search may only move backward and components only found by the
+		// forward search may only move forward in the order, so that their edges to unaffected components stay valid.
+		backwardOnlyComponents = sortByOrder(backwardOnlyComponents, backwardOnlyCount);
+		for (int i = 0; i < backwardOnlyCount; i++) {
+			assignInterval(backwardOnlyComponents[i], poolOrders[i], poolWidths[i]);
+		}
+		if (cycleCount > 0) {
+			int representative = cycleComponents[0];
+			for (int i = 1; i < cycleCount; i++) {
+				representative = merge(representative, cycleComponents[i]);
+			}
+			// The intervals between the merged component and the components only found by the forward search are
+			// left unused.
+			assignInterval(representative, poolOrders[backwardOnlyCount], poolWidths[backwardOnlyCount]);
+		}
+		forwardOnlyComponents = sortByOrder(forwardOnlyComponents, forwardOnlyCount);
+		int forwardOnlyStart = poolSize - forwardOnlyCount;
+		for (int i = 0; i < forwardOnlyCount; i++) {
+			int poolIndex = forwardOnlyStart + i;
+			assignInterval(forwardOnlyComponents[i], poolOrders[poolIndex], poolWidths[poolIndex]);
+		}
+	}
+
+	/**
+	 * Collects the representatives of the components of the nodes in a queue.
+	 *
+	 * @param mark A new mark to assign to the representatives, which may overwrite the marks of the search.
+	 */
+	private int[] getComponents(IntNodeQueue queue, int mark) {
+		var nodes = queue.getNodes();
+		int size = queue.size();
+		var components = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			int representative = getRepresentative(nodes[i]);
+			if (!isMarked(representative, mark)) {
+				mark(representative, mark);
+				components[count] = representative;
+				count++;
+			}
+		}
+		return Arrays.copyOf(components, count);
+	}
+
+	private int[] sortByOrder(int[] components, int count) {
+		// Orders of components are distinct, so we can find the position of each component in the sorted orders.
+		var sortedOrders = new long[count];
+		for (int i = 0; i < count; i++) {
+			sortedOrders[i] = orders[components[i]];
+		}
+		Arrays.sort(sortedOrders);
+		var sortedComponents = new int[count];
+		for (int i = 0; i < count; i++) {
+			int component = components[i];
+			sortedComponents[Arrays.binarySearch(sortedOrders, orders[component])] = component;
+		}
+		return sortedComponents;
+	}
+
+	private void assignInterval(int representative, long order, long width) {
+		orders[representative] = order;
+		widths[representative] = width;
+	}
+
+	/**
+	 * Assigns new intervals to every component while keeping their order.
+	 *
+	 * @param minWidth The minimum width of the new intervals.
+	 */
+	private void relabel(long minWidth) {
+		int capacity = getCapacity();
+		var components = new int[capacity];
+		int count = 0;
+		for (int node = 0; node < capacity; node++) {
+			if (contains(node) && getRepresentative(node) == node) {
+				components[count] = node;
+				count++;
+			}
+		}
+		components = sortByOrder(components, count);
+		long width = Math.max(minWidth, INITIAL_WIDTH);
+		for (int i = 0; i < count; i++) {
+			assignInterval(components[i], i * width, width);
+		}
+		nextOrder = count * width;
+	}
+
+	@Override
+	protected void edgeDeleted(int source, int target, int edgeCount) {
+		int representative = getRepresentative(source);
+		if (edgeCount > 0 || source == target || representative != getRepresentative(target)) {
+			// Deleted edge does not change strongly connected components.
+			return;
+		}
+		if (isReachable(source, target, representative)) {
+			return;
+		}
+		if (widths[representative] < getComponentSize(representative)) {
+			// Make sure that the interval of the component can be divided among its new components.
+			relabel(getComponentSize(representative));
+		}
+		long order = orders[representative];
+		long width = widths[representative];
+		// Either search has run out of nodes and found a new component.
+		boolean forwardSearchFinished = forwardQueue.isEmpty();
+		var queue = forwardSearchFinished ? forwardQueue : backwardQueue;
+		var nodes = queue.getNodes();
+		int size = queue.size();
+		int mark = nextMark();
+		for (int i = 0; i < size; i++) {
+			mark(nodes[i], mark);
+		}
+		boolean partKeepsRepresentative = isMarked(representative, mark);
+		int newRepresentative = split(representative, nodes, size);
+		int partRepresentative = partKeepsRepresentative ? representative : newRepresentative;
+		var restComponents = decompose(partKeepsRepresentative ? newRepresentative : representative);
+		int restCount = restComponents.length;
+		var components = new int[restCount + 1];
+		if (forwardSearchFinished) {
+			// The new component of the source can not reach the rest of the old component.
+			System.arraycopy(restComponents, 0, components, 0, restCount);
+			components[restCount] = partRepresentative;
+		} else {
+			// The new component of the target can not be reached from the rest of the old component.
+			components[0] = partRepresentative;
+			System.arraycopy(restComponents, 0, components, 1, restCount);
+		}
+		int componentCount = components.length;
+		long partWidth = width / componentCount;
+		for (int i = 0; i < componentCount - 1; i++) {
+			assignInterval(components[i], order + i * partWidth, partWidth);
+		}
+		long lastOffset = (componentCount - 1) * partWidth;
+		assignInterval(components[componentCount - 1], order + lastOffset, width - lastOffset);
+	}
+
+	/**
+	 * Determines whether the target is reachable from the source with a forward search from the source and a
+	 * backward search from the target in lockstep.
+	 * <p>
+	 * If the target is not reachable, the queue of the search that ran out of nodes is left empty and contains
+	 * every node visited by that search.
+	 *
+	 * @param component The representative of the component to search in.
+	 */
+	private boolean isReachable(int source, int target, int component) {
+		int forwardMark = nextMark();
+		int backwardMark = nextMark();
+		forwardQueue.clear();
+		backwardQueue.clear();
+		visit(source, forwardQueue, forwardMark);
+		visit(target, backwardQueue, backwardMark);
+		while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()) {
+			int node = forwardQueue.poll();
+			int targetCount = graph.getTargetCount(node);
+			for (int i = 0; i < targetCount; i++) {
+				int next = graph.getTarget(node, i);
+				if (isMarked(next, backwardMark)) {
+					return true;
+				}
+				if (!isMarked(next, forwardMark) && getRepresentative(next) == component) {
+					visit(next, forwardQueue, forwardMark);
+				}
+			}
+			if (forwardQueue.isEmpty()) {
+				break;
+			}
+			node = backwardQueue.poll();
+			int sourceCount = graph.getSourceCount(node);
+			for (int i = 0; i < sourceCount; i++) {
+				int previous = graph.getSource(node, i);
+				if (isMarked(previous, forwardMark)) {
+					return true;
+				}
+				if (!isMarked(previous, backwardMark) && getRepresentative(previous) == component) {
+					visit(previous, backwardQueue, backwardMark);
+				}
+			}
+		}
+		return false;
+	}
+
+	private void visit(int node, IntNodeQueue queue, int mark) {
+		mark(node, mark);
+		queue.add(node);
+	}
+
+	/**
+	 * Splits a component into its strongly connected components with an iterative version of Tarjan's algorithm.
+	 * The part containing the representative of the component keeps the representative.
+	 *
+	 * @return The representatives of the new components in topological order.
+	 */
+	private int[] decompose(int representative) {
+		int memberCount = getComponentSize(representative);
+		if (memberCount == 1) {
+			return new int[]{representative};
+		}
+		if (positions.length < getCapacity()) {
+			positions = Arrays.copyOf(positions, getCapacity());
+		}
+		var members = new int[memberCount];
+		int member = representative;
+		for (int i = 0; i < memberCount; i++) {
+			members[i] = member;
+			positions[member] = i;
+			member = getNextMember(member);
+		}
+		var indices = new int[memberCount];
+		Arrays.fill(indices, -1);
+		var lowLinks = new int[memberCount];
+		var edgeIndices = new int[memberCount];
+		var onStack = new boolean[memberCount];
+		var componentStack = new int[memberCount];
+		int componentStackSize = 0;
+		var callStack = new int[memberCount];
+		int callStackSize = 0;
+		int nextIndex = 0;
+		// Components are stored consecutively in the order they are found.
+		var components = new int[memberCount];
+		int componentsSize = 0;
+		var componentEnds = new int[memberCount];
+		int componentCount = 0;
+		for (int start = 0; start < memberCount; start++) {
+			if (indices[start] >= 0) {
+				continue;
+			}
+			indices[start] = nextIndex;
+			lowLinks[start] = nextIndex;
+			nextIndex++;
+			componentStack[componentStackSize++] = start;
+			onStack[start] = true;
+			callStack[callStackSize++] = start;
+			while (callStackSize > 0) {
+				int current = callStack[callStackSize - 1];
+				int node = members[current];
+				if (edgeIndices[current] < graph.getTargetCount(node)) {
+					int next = graph.getTarget(node, edgeIndices[current]);
+					edgeIndices[current]++;
+					if (getRepresentative(next) != representative) {
+						continue;
+					}
+					int nextPosition = positions[next];
+					if (indices[nextPosition] < 0) {
+						indices[nextPosition] = nextIndex;
+						lowLinks[nextPosition] = nextIndex;
+						nextIndex++;
+						componentStack[componentStackSize++] = nextPosition;
+						onStack[nextPosition] = true;
+						callStack[callStackSize++] = nextPosition;
+					} else if (onStack[nextPosition]) {
+						lowLinks[current] = Math.min(lowLinks[current], indices[nextPosition]);
+					}
+					continue;
+				}
+				callStackSize--;
+				if (callStackSize > 0) {
+					int caller = callStack[callStackSize - 1];
+					lowLinks[caller] = Math.min(lowLinks[caller], lowLinks[current]);
+				}
+				if (lowLinks[current] == indices[current]) {
+					int popped;
+					do {
+						popped = componentStack[--componentStackSize];
+						onStack[popped] = false;
+						components[componentsSize++] = members[popped];
+					} while (popped != current);
+					componentEnds[componentCount++] = componentsSize;
+				}
+			}
+		}
+		if (componentCount == 1) {
+			return new int[]{representative};
+		}
+		// Tarjan's algorithm finds the components in reverse topological order.
+		var representatives = new int[componentCount];
+		int componentStart = 0;
+		for (int i = 0; i < componentCount; i++) {
+			int componentEnd = componentEnds[i];
+			int mark = nextMark();
+			boolean containsRepresentative = false;
+			for (int j = componentStart; j < componentEnd; j++) {
+				int node = components[j];
+				mark(node, mark);
+				containsRepresentative |= node == representative;
+			}
+			int topologicalIndex = componentCount - 1 - i;
+			if (containsRepresentative) {
+				representatives[topologicalIndex] = representative;
+			} else {
+				representatives[topologicalIndex] = split(representative,
+						Arrays.copyOfRange(components, componentStart, componentEnd), componentEnd - componentStart);
+			}
+			componentStart = componentEnd;
+		}
+		return representatives;
+	}
+}
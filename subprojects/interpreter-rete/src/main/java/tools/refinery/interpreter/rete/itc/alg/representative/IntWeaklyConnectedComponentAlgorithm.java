@@ -0,0 +1,102 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+/**
+ * Maintains the weakly connected components of a graph over {@code int} nodes.
+ * <p>
+ * When an edge deletion may disconnect a component, two breadth-first searches are started from the endpoints of
+ * the edge in lockstep. If they meet, the component is still connected. Otherwise, the search that runs out of nodes
+ * first has found the smaller of the two new components. Therefore, a deletion takes time proportional to the smaller
+ * side of the component instead of the whole component.
+ */
+public class IntWeaklyConnectedComponentAlgorithm extends IntRepresentativeElectionAlgorithm {
+	private final IntNodeQueue sourceQueue = new IntNodeQueue();
+	private final IntNodeQueue targetQueue = new IntNodeQueue();
+
+	@Override
+	protected void edgeInserted(int source, int target, int edgeCount) {
+		merge(getRepresentative(source), getRepresentative(target));
+	}
+
+	@Override
+	protected void edgeDeleted(int source, int target, int edgeCount) {
+		if (edgeCount > 0 || source == target || graph.getEdgeCount(target, source) > 0) {
+			// The endpoints are still adjacent.
+			return;
+		}
+		int representative = getRepresentative(source);
+		if (representative != getRepresentative(target)) {
+			throw new IllegalArgumentException("Trying to remove edge not in graph");
+		}
+		int sourceMark = nextMark();
+		int targetMark = nextMark();
+		sourceQueue.clear();
+		targetQueue.clear();
+		visit(source, sourceQueue, sourceMark);
+		visit(target, targetQueue, targetMark);
+		while (true) {
+			if (sourceQueue.isEmpty()) {
+				splitOff(representative, sourceQueue);
+				return;
+			}
+			if (expand(sourceQueue.poll(), sourceQueue, sourceMark, targetMark)) {
+				return;
+			}
+			if (targetQueue.isEmpty()) {
+				splitOff(representative, targetQueue);
+				return;
+			}
+			if (expand(targetQueue.poll(), targetQueue, targetMark, sourceMark)) {
+				return;
+			}
+		}
+	}
+
+	private void visit(int node, IntNodeQueue queue, int mark) {
+		mark(node, mark);
+		queue.add(node);
+	}
+
+	/**
+	 * Adds the unvisited neighbors of a node to the queue of a search.
+	 *
+	 * @return {@code true} if the search met the other search.
+	 */
+	private boolean expand(int node, IntNodeQueue queue, int mark, int otherMark) {
+		int targetCount = graph.getTargetCount(node);
+		for (int i = 0; i < targetCount; i++) {
+			int neighbor = graph.getTarget(node, i);
+			if (isMarked(neighbor, otherMark)) {
+				return true;
+			}
+			if (!isMarked(neighbor, mark)) {
+				visit(neighbor, queue, mark);
+			}
+		}
+		int sourceCount = graph.getSourceCount(node);
+		for (int i = 0; i < sourceCount; i++) {
+			int neighbor = graph.getSource(node, i);
+			if (isMarked(neighbor, otherMark)) {
+				return true;
+			}
+			if (!isMarked(neighbor, mark)) {
+				visit(neighbor, queue, mark);
+			}
+		}
+		return false;
+	}
+
+	private void splitOff(int representative, IntNodeQueue queue) {
+		var nodes = queue.getNodes();
+		int size = queue.size();
+		int mark = nextMark();
+		for (int i = 0; i < size; i++) {
+			mark(nodes[i], mark);
+		}
+		split(representative, nodes, size);
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.graphimpl;
+
+import org.eclipse.collections.api.factory.primitive.LongIntMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+
+import java.util.Arrays;
+
+/**
+ * A directed multigraph over non-negative {@code int} nodes stored in adjacency arrays.
+ * <p>
+ * Both the outgoing and the incoming edges of each node are stored, along with the number of parallel edges between
+ * each pair of nodes. The order of neighbors is not stable, because removing an edge moves the last neighbor of the
+ * node into its place. Nodes do not have to be inserted explicitly: a node exists as long as it has incident edges.
+ */
+public class IntGraph {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int INITIAL_DEGREE = 4;
+	private static final int[] EMPTY = new int[0];
+
+	private final MutableLongIntMap targetPositions = LongIntMaps.mutable.empty();
+	private final MutableLongIntMap sourcePositions = LongIntMaps.mutable.empty();
+	private int[][] targets = new int[INITIAL_CAPACITY][];
+	private int[][] targetCounts = new int[INITIAL_CAPACITY][];
+	private int[] targetSizes = new int[INITIAL_CAPACITY];
+	private int[][] sources = new int[INITIAL_CAPACITY][];
+	private int[][] sourceCounts = new int[INITIAL_CAPACITY][];
+	private int[] sourceSizes = new int[INITIAL_CAPACITY];
+
+	public IntGraph() {
+		Arrays.fill(targets, EMPTY);
+		Arrays.fill(targetCounts, EMPTY);
+		Arrays.fill(sources, EMPTY);
+		Arrays.fill(sourceCounts, EMPTY);
+	}
+
+	/**
+	 * Inserts parallel edges between two nodes.
+	 *
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param count  The number of edges to insert.
+	 * @return The number of edges between the nodes after the insertion.
+	 */
+	public int insertEdge(int source, int target, int count) {
+		ensureCapacity(Math.max(source, target));
+		long key = edgeKey(source, target);
+		int targetPosition = targetPositions.getIfAbsent(key, -1);
+		if (targetPosition >= 0) {
+			int sourcePosition = sourcePositions.get(key);
+			int newCount = targetCounts[source][targetPosition] + count;
+			targetCounts[source][targetPosition] = newCount;
+			sourceCounts[target][sourcePosition] = newCount;
+			return newCount;
+		}
+		targetPosition = targetSizes[source];
+		if (targetPosition == targets[source].length) {
+			int newLength = Math.max(INITIAL_DEGREE, targetPosition * 2);
+			targets[source] = Arrays.copyOf(targets[source], newLength);
+			targetCounts[source] = Arrays.copyOf(targetCounts[source], newLength);
+		}
+		targets[source][targetPosition] = target;
+		targetCounts[source][targetPosition] = count;
+		targetSizes[source] = targetPosition + 1;
+		targetPositions.put(key, targetPosition);
+		int sourcePosition = sourceSizes[target];
+		if (sourcePosition == sources[target].length) {
+			int newLength = Math.max(INITIAL_DEGREE, sourcePosition * 2);
+			sources[target] = Arrays.copyOf(sources[target], newLength);
+			sourceCounts[target] = Arrays.copyOf(sourceCounts[target], newLength);
+		}
+		sources[target][sourcePosition] = source;
+		sourceCounts[target][sourcePosition] = count;
+		sourceSizes[target] = sourcePosition + 1;
+		sourcePositions.put(key, sourcePosition);
+		return count;
+	}
+
+	/**
+	 * Deletes parallel edges between two nodes if they exist.
+	 *
+	 * @param source The source node.
+	 * @param target The target node.
+	 * @param count  The number of edges to delete.
+	 * @return The number of edges between the nodes after the deletion, or {@code -1} if there were no edges between
+	 * the nodes.
+	 */
+	public int deleteEdgeIfExists(int source, int target, int count) {
+		long key = edgeKey(source, target);
+		int targetPosition = targetPositions.getIfAbsent(key, -1);
+		if (targetPosition < 0) {
+			return -1;
+		}
+		int sourcePosition = sourcePositions.get(key);
+		int newCount = targetCounts[source][targetPosition] - count;
+		if (newCount > 0) {
+			targetCounts[source][targetPosition] = newCount;
+			sourceCounts[target][sourcePosition] = newCount;
+			return newCount;
+		}
+		targetPositions.remove(key);
+		sourcePositions.remove(key);
+		int lastTargetPosition = targetSizes[source] - 1;
+		if (targetPosition != lastTargetPosition) {
+			int movedTarget = targets[source][lastTargetPosition];
+			targets[source][targetPosition] = movedTarget;
+			targetCounts[source][targetPosition] = targetCounts[source][lastTargetPosition];
+			targetPositions.put(edgeKey(source, movedTarget), targetPosition);
+		}
+		targetSizes[source] = lastTargetPosition;
+		int lastSourcePosition = sourceSizes[target] - 1;
+		if (sourcePosition != lastSourcePosition) {
+			int movedSource = sources[target][lastSourcePosition];
+			sources[target][sourcePosition] = movedSource;
+			sourceCounts[target][sourcePosition] = sourceCounts[target][lastSourcePosition];
+			sourcePositions.put(edgeKey(movedSource, target), sourcePosition);
+		}
+		sourceSizes[target] = lastSourcePosition;
+		return 0;
+	}
+
+	/**
+	 * Returns the number of parallel edges between two nodes.
+	 */
+	public int getEdgeCount(int source, int target) {
+		int targetPosition = targetPositions.getIfAbsent(edgeKey(source, target), -1);
+		return targetPosition < 0 ? 0 : targetCounts[source][targetPosition];
+	}
+
+	/**
+	 * Returns the number of distinct targets of a node.
+	 */
+	public int getTargetCount(int source) {
+		return source < targetSizes.length ? targetSizes[source] : 0;
+	}
+
+	public int getTarget(int source, int index) {
+		return targets[source][index];
+	}
+
+	/**
+	 * Returns the number of parallel edges between a node and its target at the given index.
+	 */
+	public int getTargetMultiplicity(int source, int index) {
+		return targetCounts[source][index];
+	}
+
+	/**
+	 * Returns the number of distinct sources of a node.
+	 */
+	public int getSourceCount(int target) {
+		return target < sourceSizes.length ? sourceSizes[target] : 0;
+	}
+
+	public int getSource(int target, int index) {
+		return sources[target][index];
+	}
+
+	/**
+	 * Returns the number of parallel edges between a node and its source at the given index.
+	 */
+	public int getSourceMultiplicity(int target, int index) {
+		return sourceCounts[target][index];
+	}
+
+	public boolean isIsolated(int node) {
+		return getTargetCount(node) == 0 && getSourceCount(node) == 0;
+	}
+
+	private void ensureCapacity(int node) {
+		int oldCapacity = targetSizes.length;
+		if (node < oldCapacity) {
+			return;
+		}
+		int newCapacity = Math.max(oldCapacity * 2, node + 1);
+		targets = Arrays.copyOf(targets, newCapacity);
+		targetCounts = Arrays.copyOf(targetCounts, newCapacity);
+		targetSizes = Arrays.copyOf(targetSizes, newCapacity);
+		sources = Arrays.copyOf(sources, newCapacity);
+		sourceCounts = Arrays.copyOf(sourceCounts, newCapacity);
+		sourceSizes = Arrays.copyOf(sourceSizes, newCapacity);
+		Arrays.fill(targets, oldCapacity, newCapacity, EMPTY);
+		Arrays.fill(targetCounts, oldCapacity, newCapacity, EMPTY);
+		Arrays.fill(sources, oldCapacity, newCapacity, EMPTY);
+		Arrays.fill(sourceCounts, oldCapacity, newCapacity, EMPTY);
+	}
+
+	private static long edgeKey(int source, int target) {
+		return ((long) source << 32) | (target & 0xffffffffL);
+	}
+}
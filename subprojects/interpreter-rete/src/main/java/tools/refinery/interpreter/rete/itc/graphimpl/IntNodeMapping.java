@@ -0,0 +1,67 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.graphimpl;
+
+import org.eclipse.collections.api.factory.primitive.IntLists;
+import org.eclipse.collections.api.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Assigns dense, non-negative {@code int} identifiers to graph nodes for primitive graph algorithms.
+ * <p>
+ * Identifiers of released nodes are reused, so the identifiers stay bounded by the largest number of nodes present
+ * at the same time.
+ */
+public class IntNodeMapping {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final MutableObjectIntMap<Object> ids = ObjectIntMaps.mutable.empty();
+	private final MutableIntList freeIds = IntLists.mutable.empty();
+	private Object[] nodes = new Object[INITIAL_CAPACITY];
+	private int nextId;
+
+	/**
+	 * Returns the identifier of a node, or {@code -1} if the node has no identifier.
+	 */
+	public int getId(Object node) {
+		return ids.getIfAbsent(node, -1);
+	}
+
+	public int getOrCreateId(Object node) {
+		int id = ids.getIfAbsent(node, -1);
+		if (id >= 0) {
+			return id;
+		}
+		if (freeIds.isEmpty()) {
+			id = nextId;
+			nextId++;
+			if (id == nodes.length) {
+				nodes = Arrays.copyOf(nodes, id * 2);
+			}
+		} else {
+			id = freeIds.removeAtIndex(freeIds.size() - 1);
+		}
+		nodes[id] = node;
+		ids.put(node, id);
+		return id;
+	}
+
+	public Object getNode(int id) {
+		return nodes[id];
+	}
+
+	/**
+	 * Removes the identifier of a node and makes it available for reuse.
+	 */
+	public void release(int id) {
+		ids.remove(nodes[id]);
+		nodes[id] = null;
+		freeIds.add(id);
+	}
+}
@@ -0,0 +1,17 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.igraph;
+
+/**
+ * Observer of a transitive closure relation over {@code int} nodes.
+ *
+ * @see ITcObserver
+ */
+public interface IntTcObserver {
+	void tupleInserted(int source, int target);
+
+	void tupleDeleted(int source, int target);
+}
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2014, Bergmann Gabor, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -9,11 +10,13 @@
 package tools.refinery.interpreter.rete.matcher;
 
 import tools.refinery.interpreter.rete.construction.plancompiler.ReteRecipeCompiler;
+import tools.refinery.interpreter.rete.construction.plancompiler.SharedPlanCache;
 import tools.refinery.interpreter.matchers.backend.IMatcherCapability;
 import tools.refinery.interpreter.matchers.backend.IQueryBackend;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendHintProvider;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.matchers.backend.SharedBackendState;
 import tools.refinery.interpreter.matchers.context.IQueryBackendContext;
 import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 import tools.refinery.interpreter.rete.util.Options;
@@ -52,10 +55,13 @@ public class ReteBackendFactory implements IQueryBackendFactory {
         ReteEngine engine;
         engine = new ReteEngine(context, reteThreads, deleteAndRederiveEvaluation, timelyConfiguration);
         IQueryBackendHintProvider hintConfiguration = engine.getHintConfiguration();
+        SharedBackendState sharedBackendState = context.getSharedBackendState();
+        SharedPlanCache sharedPlanCache = sharedBackendState == null ? null :
+                sharedBackendState.computeIfAbsent(SharedPlanCache.class, SharedPlanCache::new);
         ReteRecipeCompiler compiler = new ReteRecipeCompiler(
                 Options.builderMethod.layoutStrategy(context, hintConfiguration), context.getLogger(),
                 context.getRuntimeContext().getMetaContext(), context.getQueryCacheContext(), hintConfiguration,
-                context.getQueryAnalyzer(), deleteAndRederiveEvaluation, timelyConfiguration);
+                context.getQueryAnalyzer(), deleteAndRederiveEvaluation, timelyConfiguration, sharedPlanCache);
         engine.setCompiler(compiler);
         return engine;
     }
@@ -56,6 +56,8 @@ public class Network {
     Map<ReteNodeRecipe, Address<? extends Node>> nodesByRecipe = CollectionsFactory.createMap();
     Set<RecipeTraceInfo> recipeTraces = CollectionsFactory.createSet();
 
+	private NetworkStatistics statistics;
+
     /**
      * @throws IllegalStateException
      *             if no node has been constructed for the recipe
@@ -401,4 +403,23 @@ public class Network {
         return engine;
     }
 
+	/**
+	 * Enables or disables collecting per-node statistics in all containers of this network.
+	 *
+	 * @param statistics the statistics collector, or {@code null} to disable statistics collection
+	 */
+	public void setStatistics(NetworkStatistics statistics) {
+		this.statistics = statistics;
+		for (ReteContainer container : containers) {
+			container.setStatistics(statistics);
+		}
+	}
+
+	/**
+	 * @return the statistics collector of this network, or {@code null} if statistics collection is disabled
+	 */
+	public NetworkStatistics getStatistics() {
+		return statistics;
+	}
+
 }
@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.network;
+
+import tools.refinery.interpreter.rete.aggregation.IndexerBasedAggregatorNode;
+import tools.refinery.interpreter.rete.index.DualInputNode;
+import tools.refinery.interpreter.rete.index.Indexer;
+import tools.refinery.interpreter.rete.index.IndexerWithMemory;
+import tools.refinery.interpreter.rete.single.AbstractUniquenessEnforcerNode;
+
+import java.util.*;
+
+/**
+ * Collects the number of messages received and the time spent delivering messages for each node of a Rete network.
+ * <p>
+ * Statistics are only collected if they are enabled with {@link Network#setStatistics(NetworkStatistics)}.
+ * Delivery times are only measured in single-threaded operation.
+ */
+public class NetworkStatistics {
+	private final Map<Node, Counter> counters = new IdentityHashMap<>();
+
+	public void messageReceived(Node node) {
+		getCounter(node).messageCount++;
+	}
+
+	public void messagesDelivered(Node node, long elapsedNanos) {
+		getCounter(node).deliveryTimeNanos += elapsedNanos;
+	}
+
+	private Counter getCounter(Node node) {
+		return counters.computeIfAbsent(node, ignored -> new Counter());
+	}
+
+	public void reset() {
+		counters.clear();
+	}
+
+	/**
+	 * Aggregates the statistics of all nodes that the given node (transitively) depends on, including itself.
+	 * <p>
+	 * Nodes shared between multiple subnetworks are counted in each subnetwork that depends on them.
+	 *
+	 * @param root The node to aggregate statistics for, usually a production node.
+	 * @return The aggregated statistics.
+	 */
+	public Summary summarize(Node root) {
+		long messageCount = 0;
+		long deliveryTimeNanos = 0;
+		long memorySize = 0;
+		var nodes = collectSubnetwork(root);
+		for (var node : nodes) {
+			var counter = counters.get(node);
+			if (counter != null) {
+				messageCount += counter.messageCount;
+				deliveryTimeNanos += counter.deliveryTimeNanos;
+			}
+			memorySize += getMemorySize(node);
+		}
+		return new Summary(nodes.size(), messageCount, deliveryTimeNanos, memorySize);
+	}
+
+	private static Set<Node> collectSubnetwork(Node root) {
+		var visited = Collections.<Node>newSetFromMap(new IdentityHashMap<>());
+		var queue = new ArrayDeque<Node>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			var node = queue.removeFirst();
+			if (node == null || !visited.add(node)) {
+				continue;
+			}
+			if (node instanceof Receiver receiver) {
+				queue.addAll(receiver.getParents());
+			}
+			if (node instanceof Indexer indexer) {
+				queue.add(indexer.getParent());
+			}
+			if (node instanceof DualInputNode dualInputNode) {
+				queue.add(dualInputNode.getPrimarySlot());
+				queue.add(dualInputNode.getSecondarySlot());
+			}
+			if (node instanceof IndexerBasedAggregatorNode aggregatorNode) {
+				queue.add(aggregatorNode.getProjection());
+			}
+		}
+		return visited;
+	}
+
+	private static long getMemorySize(Node node) {
+		if (node instanceof IndexerWithMemory indexerWithMemory) {
+			return indexerWithMemory.getMemory().getTotalSize();
+		}
+		if (node instanceof AbstractUniquenessEnforcerNode uniquenessEnforcerNode) {
+			return uniquenessEnforcerNode.getTuples().size();
+		}
+		return 0;
+	}
+
+	private static final class Counter {
+		private long messageCount;
+		private long deliveryTimeNanos;
+	}
+
+	/**
+	 * Statistics aggregated over a subnetwork.
+	 *
+	 * @param nodeCount         The number of nodes in the subnetwork.
+	 * @param messageCount      The number of update messages received by the nodes.
+	 * @param deliveryTimeNanos The time spent delivering messages to the nodes, in nanoseconds.
+	 * @param memorySize        The number of tuples stored in node memories and indexers.
+	 */
+	public record Summary(int nodeCount, long messageCount, long deliveryTimeNanos, long memorySize) {
+	}
+}
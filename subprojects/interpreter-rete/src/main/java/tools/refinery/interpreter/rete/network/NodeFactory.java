@@ -33,9 +33,9 @@ import tools.refinery.interpreter.rete.eval.RelationEvaluatorNode;
 import tools.refinery.interpreter.rete.index.ExistenceNode;
 import tools.refinery.interpreter.rete.index.Indexer;
 import tools.refinery.interpreter.rete.index.JoinNode;
-import tools.refinery.interpreter.rete.itc.alg.representative.RepresentativeElectionAlgorithm;
-import tools.refinery.interpreter.rete.itc.alg.representative.StronglyConnectedComponentAlgorithm;
-import tools.refinery.interpreter.rete.itc.alg.representative.WeaklyConnectedComponentAlgorithm;
+import tools.refinery.interpreter.rete.itc.alg.representative.IntRepresentativeElectionAlgorithm;
+import tools.refinery.interpreter.rete.itc.alg.representative.IntStronglyConnectedComponentAlgorithm;
+import tools.refinery.interpreter.rete.itc.alg.representative.IntWeaklyConnectedComponentAlgorithm;
 import tools.refinery.interpreter.rete.matcher.TimelyConfiguration;
 import tools.refinery.interpreter.rete.matcher.TimelyConfiguration.AggregatorArchitecture;
 import tools.refinery.interpreter.rete.matcher.TimelyConfiguration.TimelineRepresentation;
@@ -251,9 +251,9 @@ class NodeFactory {
     }
 
 	private Supplier instantiateNode(ReteContainer reteContainer, RepresentativeElectionRecipe recipe) {
-		RepresentativeElectionAlgorithm.Factory algorithmFactory = switch (recipe.getConnectivity()) {
-			case STRONG -> StronglyConnectedComponentAlgorithm::new;
-			case WEAK -> WeaklyConnectedComponentAlgorithm::new;
+		IntRepresentativeElectionAlgorithm.Factory algorithmFactory = switch (recipe.getConnectivity()) {
+			case STRONG -> IntStronglyConnectedComponentAlgorithm::new;
+			case WEAK -> IntWeaklyConnectedComponentAlgorithm::new;
 		};
 		return new RepresentativeElectionNode(reteContainer, algorithmFactory);
 	}
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2004-2008 Gabor Bergmann and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -21,6 +21,7 @@ import tools.refinery.interpreter.rete.network.delayed.DelayedCommand;
 import tools.refinery.interpreter.rete.network.delayed.DelayedConnectCommand;
 import tools.refinery.interpreter.rete.network.delayed.DelayedDisconnectCommand;
 import tools.refinery.interpreter.CancellationToken;
+import tools.refinery.interpreter.matchers.context.IElementIdCodec;
 import tools.refinery.interpreter.matchers.context.IQueryBackendContext;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.util.Clearable;
@@ -75,6 +76,8 @@ public final class ReteContainer {
 
 	private final CancellationToken cancellationToken;
 
+	private NetworkStatistics statistics;
+
     /**
      * @param threaded
      *            false if operating in a single-threaded environment
@@ -130,6 +133,22 @@ public final class ReteContainer {
         return this.timelyConfiguration;
     }
 
+    /**
+     * Returns whether timeless mailboxes should cancel out opposite updates of the same tuple before delivering them
+     * instead of letting updates fall through to their receivers.
+     */
+    public boolean isUpdateCoalescingEnabled() {
+        return this.backendContext.isUpdateCoalescingEnabled();
+    }
+
+    /**
+     * Returns the codec used by memories to store elements as {@code int} identifiers, or {@code null} if memories
+     * must store elements as objects.
+     */
+    public IElementIdCodec getElementIdCodec() {
+        return this.backendContext.getRuntimeContext().getElementIdCodec();
+    }
+
     /**
      * @since 1.6
      * @return the communication graph of the nodes, incl. message scheduling
@@ -574,6 +593,13 @@ public final class ReteContainer {
                     lastGroup = group;
                 }
 
+            } else if (statistics != null) {
+                while (!tracker.isEmpty()) {
+                    final CommunicationGroup group = tracker.getAndRemoveFirstGroup();
+                    final long startTime = System.nanoTime();
+                    group.deliverMessages();
+                    statistics.messagesDelivered(group.getRepresentative(), System.nanoTime() - startTime);
+                }
             } else {
                 while (!tracker.isEmpty()) {
                     final CommunicationGroup group = tracker.getAndRemoveFirstGroup();
@@ -730,4 +756,18 @@ public final class ReteContainer {
 	public void checkCancelled() {
 		cancellationToken.checkCancelled();
 	}
+
+	/**
+	 * @return the statistics collector of this container, or {@code null} if statistics collection is disabled
+	 */
+	public NetworkStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Should only be called by {@link Network#setStatistics(NetworkStatistics)}.
+	 */
+	void setStatistics(NetworkStatistics statistics) {
+		this.statistics = statistics;
+	}
 }
@@ -47,7 +47,11 @@ public abstract class StandardNode extends BaseNode implements Supplier, Network
      */
     protected void propagateUpdate(final Direction direction, final Tuple updateElement, final Timestamp timestamp) {
 		reteContainer.checkCancelled();
+		final NetworkStatistics statistics = reteContainer.getStatistics();
         for (final Mailbox childMailbox : childMailboxes) {
+			if (statistics != null) {
+				statistics.messageReceived(childMailbox.getReceiver());
+			}
             childMailbox.postMessage(direction, updateElement, timestamp);
         }
     }
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Tamas Szabo, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -25,6 +26,9 @@ import tools.refinery.interpreter.rete.network.mailbox.FallThroughCapableMailbox
  * This mailbox changes its behavior based on the position of its {@link Receiver} in the network topology.
  * It either behaves as a {@link DefaultMailbox} or as an {@link UpdateSplittingMailbox}. The decision is made by the
  * {@link CommunicationTracker}, see {@link TimelessCommunicationTracker#postProcessNode(Node)} for more details.
+ * <p>
+ * If {@link ReteContainer#isUpdateCoalescingEnabled()} is set, the mailbox never falls through, and it behaves as a
+ * {@link CoalescingMailbox} instead of a {@link DefaultMailbox}.
  *
  * @author Tamas Szabo
  */
@@ -32,6 +36,7 @@ public class BehaviorChangingMailbox implements FallThroughCapableMailbox {
 
     protected boolean fallThrough;
     protected boolean split;
+    protected final boolean coalescing;
     protected AdaptableMailbox wrapped;
     protected final Receiver receiver;
     protected final ReteContainer container;
@@ -42,13 +47,14 @@ public class BehaviorChangingMailbox implements FallThroughCapableMailbox {
         this.split = false;
         this.receiver = receiver;
         this.container = container;
-        this.wrapped = new DefaultMailbox(receiver, container);
+        this.coalescing = container.isUpdateCoalescingEnabled();
+        this.wrapped = createUnsplitMailbox();
         this.wrapped.setAdapter(this);
     }
 
     @Override
     public void postMessage(final Direction direction, final Tuple update, final Timestamp timestamp) {
-        if (this.fallThrough && !this.container.isExecutingDelayedCommands()) {
+        if (this.fallThrough && !this.coalescing && !this.container.isExecutingDelayedCommands()) {
             // disable fall through while we are in the middle of executing delayed construction commands
             this.receiver.update(direction, update, timestamp);
         } else {
@@ -72,13 +78,20 @@ public class BehaviorChangingMailbox implements FallThroughCapableMailbox {
             if (splitValue) {
                 this.wrapped = new UpdateSplittingMailbox(this.receiver, this.container);
             } else {
-                this.wrapped = new DefaultMailbox(this.receiver, this.container);
+                this.wrapped = createUnsplitMailbox();
             }
             this.wrapped.setAdapter(this);
             this.split = splitValue;
         }
     }
 
+    private AdaptableMailbox createUnsplitMailbox() {
+        if (this.coalescing) {
+            return new CoalescingMailbox(this.receiver, this.container);
+        }
+        return new DefaultMailbox(this.receiver, this.container);
+    }
+
     @Override
     public boolean isEmpty() {
         return this.wrapped.isEmpty();
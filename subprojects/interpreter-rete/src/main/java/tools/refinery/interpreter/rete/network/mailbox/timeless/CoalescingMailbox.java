@@ -0,0 +1,140 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.network.mailbox.timeless;
+
+import org.eclipse.collections.api.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.util.Direction;
+import tools.refinery.interpreter.rete.network.Receiver;
+import tools.refinery.interpreter.rete.network.ReteContainer;
+import tools.refinery.interpreter.rete.network.communication.CommunicationGroup;
+import tools.refinery.interpreter.rete.network.communication.MessageSelector;
+import tools.refinery.interpreter.rete.network.communication.PhasedSelector;
+import tools.refinery.interpreter.rete.network.communication.Timestamp;
+import tools.refinery.interpreter.rete.network.mailbox.AdaptableMailbox;
+import tools.refinery.interpreter.rete.network.mailbox.Mailbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mailbox that nets out opposite updates of the same tuple before delivering them.
+ * <p>
+ * This is the mailbox used by {@link BehaviorChangingMailbox} instead of {@link DefaultMailbox} if
+ * {@link ReteContainer#isUpdateCoalescingEnabled()} is set. Pending updates are stored in a multiset with primitive
+ * {@code int} multiplicities, so posting a message does not box its count. Only the updates that remain after
+ * cancellation are boxed for delivery.
+ */
+public class CoalescingMailbox implements AdaptableMailbox {
+	private static final int SIZE_THRESHOLD = 127;
+
+	private MutableObjectIntMap<Tuple> queue;
+	private MutableObjectIntMap<Tuple> buffer;
+	private final List<Map.Entry<Tuple, Integer>> deliveredUpdates = new ArrayList<>();
+	private final Receiver receiver;
+	private boolean delivering;
+	private Mailbox adapter;
+	private CommunicationGroup group;
+
+	public CoalescingMailbox(Receiver receiver, ReteContainer container) {
+		this.receiver = receiver;
+		queue = ObjectIntMaps.mutable.empty();
+		buffer = ObjectIntMaps.mutable.empty();
+		adapter = this;
+	}
+
+	private MutableObjectIntMap<Tuple> getActiveQueue() {
+		return delivering ? buffer : queue;
+	}
+
+	@Override
+	public Mailbox getAdapter() {
+		return adapter;
+	}
+
+	@Override
+	public void setAdapter(Mailbox adapter) {
+		this.adapter = adapter;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return getActiveQueue().isEmpty();
+	}
+
+	@Override
+	public void postMessage(Direction direction, Tuple update, Timestamp timestamp) {
+		var activeQueue = getActiveQueue();
+		boolean wasEmpty = activeQueue.isEmpty();
+		int delta = direction == Direction.DELETE ? -1 : 1;
+		int count = activeQueue.addToValue(update, delta);
+		if (count == 0) {
+			activeQueue.remove(update);
+		} else if (count != delta) {
+			// The tuple was already present in the queue, so the emptiness of the queue did not change.
+			return;
+		}
+		var targetGroup = adapter.getCurrentGroup();
+		if (wasEmpty) {
+			targetGroup.notifyHasMessage(adapter, PhasedSelector.DEFAULT);
+		} else if (activeQueue.isEmpty()) {
+			targetGroup.notifyLostAllMessages(adapter, PhasedSelector.DEFAULT);
+		}
+	}
+
+	@Override
+	public void deliverAll(MessageSelector kind) {
+		if (kind != PhasedSelector.DEFAULT) {
+			throw new IllegalArgumentException("Unsupported message kind " + kind);
+		}
+		queue.forEachKeyValue((tuple, count) -> deliveredUpdates.add(Map.entry(tuple, count)));
+		// Use the buffer during delivering so that there is a clear separation between the stages.
+		delivering = true;
+		try {
+			receiver.batchUpdate(deliveredUpdates, Timestamp.ZERO);
+		} finally {
+			delivering = false;
+			deliveredUpdates.clear();
+		}
+		var deliveredQueue = queue;
+		queue = buffer;
+		if (deliveredQueue.size() > SIZE_THRESHOLD) {
+			// Do not keep the large backing array of a one-off burst of updates.
+			buffer = ObjectIntMaps.mutable.empty();
+		} else {
+			deliveredQueue.clear();
+			buffer = deliveredQueue;
+		}
+	}
+
+	@Override
+	public Receiver getReceiver() {
+		return receiver;
+	}
+
+	@Override
+	public void clear() {
+		queue.clear();
+		buffer.clear();
+	}
+
+	@Override
+	public CommunicationGroup getCurrentGroup() {
+		return group;
+	}
+
+	@Override
+	public void setCurrentGroup(CommunicationGroup group) {
+		this.group = group;
+	}
+
+	@Override
+	public String toString() {
+		return "C_MBOX (" + receiver + ") " + getActiveQueue();
+	}
+}
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2012, Tamas Szabo, Gabor Bergmann, Istvan Rath and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools/>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools/>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -11,9 +11,9 @@ package tools.refinery.interpreter.rete.single;
 import tools.refinery.interpreter.rete.network.ReinitializedNode;
 import tools.refinery.interpreter.rete.network.ReteContainer;
 import tools.refinery.interpreter.rete.network.communication.Timestamp;
-import tools.refinery.interpreter.rete.itc.alg.representative.RepresentativeElectionAlgorithm;
-import tools.refinery.interpreter.rete.itc.alg.representative.RepresentativeObserver;
-import tools.refinery.interpreter.rete.itc.graphimpl.Graph;
+import tools.refinery.interpreter.rete.itc.alg.representative.IntRepresentativeElectionAlgorithm;
+import tools.refinery.interpreter.rete.itc.alg.representative.IntRepresentativeObserver;
+import tools.refinery.interpreter.rete.itc.graphimpl.IntNodeMapping;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.Tuples;
 import tools.refinery.interpreter.matchers.util.Clearable;
@@ -23,18 +23,24 @@ import tools.refinery.interpreter.matchers.util.timeline.Timeline;
 import java.util.Collection;
 import java.util.Map;
 
-public class RepresentativeElectionNode extends SingleInputNode implements Clearable, RepresentativeObserver<Object>,
+/**
+ * Assigns a representative node to each node in the weakly or strongly connected components of the input graph.
+ * <p>
+ * Graph nodes are mapped to dense {@code int} identifiers, which are reused after the graph node is deleted, so that
+ * the components can be maintained by a primitive {@link IntRepresentativeElectionAlgorithm}.
+ */
+public class RepresentativeElectionNode extends SingleInputNode implements Clearable, IntRepresentativeObserver,
         ReinitializedNode {
-	private final RepresentativeElectionAlgorithm.Factory algorithmFactory;
-	private Graph<Object> graph;
-	private RepresentativeElectionAlgorithm<Object> algorithm;
+	private final IntRepresentativeElectionAlgorithm.Factory algorithmFactory;
+	private IntNodeMapping nodeMapping;
+	private IntRepresentativeElectionAlgorithm algorithm;
 
 	public RepresentativeElectionNode(ReteContainer reteContainer,
-                                      RepresentativeElectionAlgorithm.Factory algorithmFactory) {
+                                      IntRepresentativeElectionAlgorithm.Factory algorithmFactory) {
 		super(reteContainer);
 		this.algorithmFactory = algorithmFactory;
-		graph = new Graph<>();
-		algorithm = algorithmFactory.create(graph);
+		nodeMapping = new IntNodeMapping();
+		algorithm = algorithmFactory.create();
 		algorithm.setObserver(this);
 		reteContainer.registerClearable(this);
 	}
@@ -49,26 +55,23 @@ public class RepresentativeElectionNode extends SingleInputNode implements Clear
 
 	@Override
 	public void reinitializeWith(Collection<Tuple> tuples) {
-		algorithm.dispose();
-		graph = new Graph<>();
+		clear();
 		for (var tuple : tuples) {
 			insertEdge(tuple.get(0), tuple.get(1));
 		}
-		algorithm = algorithmFactory.create(graph);
 		algorithm.setObserver(this);
 	}
 
 	@Override
-	public void tupleChanged(Object source, Object representative, Direction direction) {
-		var tuple = Tuples.staticArityFlatTupleOf(source, representative);
+	public void tupleChanged(int node, int representative, Direction direction) {
+		var tuple = Tuples.staticArityFlatTupleOf(nodeMapping.getNode(node), nodeMapping.getNode(representative));
 		propagateUpdate(direction, tuple, Timestamp.ZERO);
 	}
 
 	@Override
 	public void clear() {
-		algorithm.dispose();
-		graph = new Graph<>();
-		algorithm = algorithmFactory.create(graph);
+		nodeMapping = new IntNodeMapping();
+		algorithm = algorithmFactory.create();
 	}
 
 	@Override
@@ -83,43 +86,39 @@ public class RepresentativeElectionNode extends SingleInputNode implements Clear
 	}
 
 	private void insertEdge(Object source, Object target) {
-		graph.insertNode(source);
-		graph.insertNode(target);
-		graph.insertEdge(source, target);
+		algorithm.insertEdge(nodeMapping.getOrCreateId(source), nodeMapping.getOrCreateId(target));
 	}
 
 	private void deleteEdge(Object source, Object target) {
-		graph.deleteEdgeIfExists(source, target);
-		if (isIsolated(source)) {
-			graph.deleteNode(source);
+		int sourceId = nodeMapping.getId(source);
+		int targetId = nodeMapping.getId(target);
+		if (sourceId < 0 || targetId < 0) {
+			return;
 		}
-		if (!source.equals(target) && isIsolated(target)) {
-			graph.deleteNode(target);
+		algorithm.deleteEdgeIfExists(sourceId, targetId);
+		if (algorithm.isIsolated(sourceId)) {
+			deleteNode(sourceId);
+		}
+		if (sourceId != targetId && algorithm.isIsolated(targetId)) {
+			deleteNode(targetId);
 		}
 	}
 
-	private boolean isIsolated(Object node) {
-		return graph.getTargetNodes(node).isEmpty() && graph.getSourceNodes(node).isEmpty();
+	private void deleteNode(int nodeId) {
+		algorithm.deleteNode(nodeId);
+		nodeMapping.release(nodeId);
 	}
 
 	@Override
 	public void pullInto(Collection<Tuple> collector, boolean flush) {
-		for (var entry : algorithm.getComponents().entrySet()) {
-			var representative = entry.getKey();
-			for (var node : entry.getValue()) {
-				collector.add(Tuples.staticArityFlatTupleOf(node, representative));
-			}
-		}
+		algorithm.forEachRepresentative((node, representative) -> collector.add(Tuples.staticArityFlatTupleOf(
+				nodeMapping.getNode(node), nodeMapping.getNode(representative))));
 	}
 
 	@Override
 	public void pullIntoWithTimeline(Map<Tuple, Timeline<Timestamp>> collector, boolean flush) {
 		// Use all zero timestamps because this node cannot be used in recursive groups anyway.
-		for (var entry : algorithm.getComponents().entrySet()) {
-			var representative = entry.getKey();
-			for (var node : entry.getValue()) {
-				collector.put(Tuples.staticArityFlatTupleOf(node, representative), Timestamp.INSERT_AT_ZERO_TIMELINE);
-			}
-		}
+		algorithm.forEachRepresentative((node, representative) -> collector.put(Tuples.staticArityFlatTupleOf(
+				nodeMapping.getNode(node), nodeMapping.getNode(representative)), Timestamp.INSERT_AT_ZERO_TIMELINE));
 	}
 }
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2012, Tamas Szabo, Gabor Bergmann, Istvan Rath and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -13,11 +14,9 @@ import tools.refinery.interpreter.rete.network.ReinitializedNode;
 import tools.refinery.interpreter.rete.network.ReteContainer;
 import tools.refinery.interpreter.rete.network.communication.CommunicationGroup;
 import tools.refinery.interpreter.rete.network.communication.Timestamp;
-import tools.refinery.interpreter.rete.itc.alg.incscc.IncSCCAlg;
-import tools.refinery.interpreter.rete.itc.alg.misc.Tuple;
-import tools.refinery.interpreter.rete.itc.graphimpl.Graph;
-import tools.refinery.interpreter.rete.itc.igraph.ITcDataSource;
-import tools.refinery.interpreter.rete.itc.igraph.ITcObserver;
+import tools.refinery.interpreter.rete.itc.alg.primitive.IntIncSCCAlg;
+import tools.refinery.interpreter.rete.itc.graphimpl.IntNodeMapping;
+import tools.refinery.interpreter.rete.itc.igraph.IntTcObserver;
 import tools.refinery.interpreter.matchers.tuple.Tuples;
 import tools.refinery.interpreter.matchers.util.Clearable;
 import tools.refinery.interpreter.matchers.util.Direction;
@@ -30,15 +29,18 @@ import java.util.Map;
  * This class represents a transitive closure node in the Rete net.
  * <p>
  * This node must not be used in recursive {@link CommunicationGroup}s.
+ * <p>
+ * Graph nodes are mapped to dense {@code int} identifiers, which are reused after the graph node is deleted, so that
+ * the transitive closure can be maintained by the primitive {@link IntIncSCCAlg}.
  *
  * @author Gabor Bergmann
  *
  */
 public class TransitiveClosureNode extends SingleInputNode
-        implements Clearable, ITcObserver<Object>, NetworkStructureChangeSensitiveNode, ReinitializedNode {
+        implements Clearable, IntTcObserver, NetworkStructureChangeSensitiveNode, ReinitializedNode {
 
-    private Graph<Object> graphDataSource;
-    private ITcDataSource<Object> transitiveClosureAlgorithm;
+    private IntIncSCCAlg transitiveClosureAlgorithm;
+    private IntNodeMapping nodeMapping;
 
     /**
      * Create a new transitive closure rete node.
@@ -51,12 +53,16 @@ public class TransitiveClosureNode extends SingleInputNode
      */
     public TransitiveClosureNode(ReteContainer reteContainer) {
         super(reteContainer);
-        graphDataSource = new Graph<Object>();
-        transitiveClosureAlgorithm = new IncSCCAlg<Object>(graphDataSource);
+        createAlgorithm();
         transitiveClosureAlgorithm.attachObserver(this);
         reteContainer.registerClearable(this);
     }
 
+    private void createAlgorithm() {
+        transitiveClosureAlgorithm = new IntIncSCCAlg();
+        nodeMapping = new IntNodeMapping();
+    }
+
     @Override
     public void networkStructureChanged() {
         if (this.reteContainer.isTimelyEvaluation() && this.reteContainer.getCommunicationTracker().isInRecursiveGroup(this)) {
@@ -76,18 +82,17 @@ public class TransitiveClosureNode extends SingleInputNode
         clear();
 
         for (tools.refinery.interpreter.matchers.tuple.Tuple t : tuples) {
-            graphDataSource.insertNode(t.get(0));
-            graphDataSource.insertNode(t.get(1));
-            graphDataSource.insertEdge(t.get(0), t.get(1));
+            transitiveClosureAlgorithm.insertEdge(nodeMapping.getOrCreateId(t.get(0)),
+                    nodeMapping.getOrCreateId(t.get(1)));
         }
         transitiveClosureAlgorithm.attachObserver(this);
     }
 
     @Override
     public void pullInto(final Collection<tools.refinery.interpreter.matchers.tuple.Tuple> collector, final boolean flush) {
-        for (final Tuple<Object> tuple : ((IncSCCAlg<Object>) transitiveClosureAlgorithm).getTcRelation()) {
-            collector.add(Tuples.staticArityFlatTupleOf(tuple.getSource(), tuple.getTarget()));
-        }
+        transitiveClosureAlgorithm.forEachTcTuple((source, target) ->
+                collector.add(Tuples.staticArityFlatTupleOf(nodeMapping.getNode(source),
+                        nodeMapping.getNode(target))));
     }
 
     @Override
@@ -95,9 +100,9 @@ public class TransitiveClosureNode extends SingleInputNode
             final Map<tools.refinery.interpreter.matchers.tuple.Tuple, Timeline<Timestamp>> collector,
             final boolean flush) {
         // use all zero timestamps because this node cannot be used in recursive groups anyway
-        for (final Tuple<Object> tuple : ((IncSCCAlg<Object>) transitiveClosureAlgorithm).getTcRelation()) {
-            collector.put(Tuples.staticArityFlatTupleOf(tuple.getSource(), tuple.getTarget()), Timestamp.INSERT_AT_ZERO_TIMELINE);
-        }
+        transitiveClosureAlgorithm.forEachTcTuple((source, target) ->
+                collector.put(Tuples.staticArityFlatTupleOf(nodeMapping.getNode(source),
+                        nodeMapping.getNode(target)), Timestamp.INSERT_AT_ZERO_TIMELINE));
     }
 
     @Override
@@ -108,39 +113,48 @@ public class TransitiveClosureNode extends SingleInputNode
             Object target = updateElement.get(1);
 
             if (direction == Direction.INSERT) {
-                graphDataSource.insertNode(source);
-                graphDataSource.insertNode(target);
-                graphDataSource.insertEdge(source, target);
+                transitiveClosureAlgorithm.insertEdge(nodeMapping.getOrCreateId(source),
+                        nodeMapping.getOrCreateId(target));
             }
             if (direction == Direction.DELETE) {
-                graphDataSource.deleteEdgeIfExists(source, target);
+                int sourceId = nodeMapping.getId(source);
+                int targetId = nodeMapping.getId(target);
+                if (sourceId < 0 || targetId < 0) {
+                    return;
+                }
+                transitiveClosureAlgorithm.deleteEdgeIfExists(sourceId, targetId);
 
-                if (((IncSCCAlg<Object>) transitiveClosureAlgorithm).isIsolated(source)) {
-                    graphDataSource.deleteNode(source);
+                if (transitiveClosureAlgorithm.isIsolated(sourceId)) {
+                    deleteNode(sourceId);
                 }
-                if (!source.equals(target) && ((IncSCCAlg<Object>) transitiveClosureAlgorithm).isIsolated(target)) {
-                    graphDataSource.deleteNode(target);
+                if (sourceId != targetId && transitiveClosureAlgorithm.isIsolated(targetId)) {
+                    deleteNode(targetId);
                 }
             }
         }
     }
 
+    private void deleteNode(int nodeId) {
+        transitiveClosureAlgorithm.deleteNode(nodeId);
+        nodeMapping.release(nodeId);
+    }
+
     @Override
     public void clear() {
-        transitiveClosureAlgorithm.dispose();
-        graphDataSource = new Graph<Object>();
-        transitiveClosureAlgorithm = new IncSCCAlg<Object>(graphDataSource);
+        createAlgorithm();
     }
 
     @Override
-    public void tupleInserted(Object source, Object target) {
-        tools.refinery.interpreter.matchers.tuple.Tuple tuple = Tuples.staticArityFlatTupleOf(source, target);
+    public void tupleInserted(int source, int target) {
+        tools.refinery.interpreter.matchers.tuple.Tuple tuple = Tuples.staticArityFlatTupleOf(
+                nodeMapping.getNode(source), nodeMapping.getNode(target));
         propagateUpdate(Direction.INSERT, tuple, Timestamp.ZERO);
     }
 
     @Override
-    public void tupleDeleted(Object source, Object target) {
-        tools.refinery.interpreter.matchers.tuple.Tuple tuple = Tuples.staticArityFlatTupleOf(source, target);
+    public void tupleDeleted(int source, int target) {
+        tools.refinery.interpreter.matchers.tuple.Tuple tuple = Tuples.staticArityFlatTupleOf(
+                nodeMapping.getNode(source), nodeMapping.getNode(target));
         propagateUpdate(Direction.DELETE, tuple, Timestamp.ZERO);
     }
 
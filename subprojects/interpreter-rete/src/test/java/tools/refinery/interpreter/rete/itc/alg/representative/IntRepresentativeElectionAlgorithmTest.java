@@ -0,0 +1,127 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.rete.itc.alg.representative;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.interpreter.matchers.util.Direction;
+import tools.refinery.interpreter.rete.itc.graphimpl.Graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class IntRepresentativeElectionAlgorithmTest {
+	@ParameterizedTest
+	@ValueSource(ints = {3, 8, 20, 50})
+	void sameAsStronglyConnectedComponentAlgorithmTest(int size) {
+		assertSameComponents(size, StronglyConnectedComponentAlgorithm::new,
+				IntStronglyConnectedComponentAlgorithm::new);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 8, 20, 50})
+	void sameAsWeaklyConnectedComponentAlgorithmTest(int size) {
+		assertSameComponents(size, WeaklyConnectedComponentAlgorithm::new,
+				IntWeaklyConnectedComponentAlgorithm::new);
+	}
+
+	private static void assertSameComponents(
+			int size, Function<Graph<Integer>, RepresentativeElectionAlgorithm<Integer>> expectedFactory,
+			Supplier<IntRepresentativeElectionAlgorithm> actualFactory) {
+		var expectedGraph = new Graph<Integer>();
+		var expectedAlgorithm = expectedFactory.apply(expectedGraph);
+		var actualAlgorithm = actualFactory.get();
+		var actualRepresentatives = new HashMap<Integer, Integer>();
+		actualAlgorithm.setObserver((node, representative, direction) -> {
+			if (direction == Direction.INSERT) {
+				assertThat("Insertion of represented node " + node,
+						actualRepresentatives.put(node, representative), nullValue());
+			} else {
+				assertThat("Deletion of representative of " + node, actualRepresentatives.remove(node),
+						is(representative));
+			}
+		});
+
+		// Keep about one edge per node on average, so that the graph has many components with cycles between them.
+		var edges = new ArrayList<List<Integer>>();
+		var random = new Random(size);
+		for (int step = 0; step < 5000; step++) {
+			if (edges.isEmpty() || random.nextInt(2 * size) >= edges.size()) {
+				int source = random.nextInt(size);
+				int target = random.nextInt(size);
+				// Parallel edges are allowed on purpose.
+				edges.add(List.of(source, target));
+				expectedGraph.insertNode(source);
+				expectedGraph.insertNode(target);
+				expectedGraph.insertEdge(source, target);
+				actualAlgorithm.insertEdge(source, target);
+			} else {
+				int index = random.nextInt(edges.size());
+				var edge = edges.get(index);
+				edges.set(index, edges.get(edges.size() - 1));
+				edges.remove(edges.size() - 1);
+				int source = edge.get(0);
+				int target = edge.get(1);
+				expectedGraph.deleteEdgeIfExists(source, target);
+				actualAlgorithm.deleteEdgeIfExists(source, target);
+				deleteIfIsolated(expectedGraph, actualAlgorithm, source);
+				if (source != target) {
+					deleteIfIsolated(expectedGraph, actualAlgorithm, target);
+				}
+			}
+			var representatives = new HashMap<Integer, Integer>();
+			actualAlgorithm.forEachRepresentative(representatives::put);
+			assertThat("Notified representatives in step " + step, actualRepresentatives, is(representatives));
+			assertSamePartition(step, expectedAlgorithm, representatives);
+		}
+	}
+
+	private static void deleteIfIsolated(Graph<Integer> expectedGraph, IntRepresentativeElectionAlgorithm
+			actualAlgorithm, int node) {
+		boolean isolated = expectedGraph.getTargetNodes(node).isEmpty() &&
+				expectedGraph.getSourceNodes(node).isEmpty();
+		assertThat("Isolation of " + node, actualAlgorithm.isIsolated(node), is(isolated));
+		if (isolated) {
+			expectedGraph.deleteNode(node);
+			actualAlgorithm.deleteNode(node);
+		}
+	}
+
+	private static void assertSamePartition(int step, RepresentativeElectionAlgorithm<Integer> expectedAlgorithm,
+											Map<Integer, Integer> representatives) {
+		// Representatives are elected differently, so we only compare which nodes belong to the same component.
+		var expectedComponents = expectedAlgorithm.getComponents();
+		int expectedNodeCount = 0;
+		for (var entry : expectedComponents.entrySet()) {
+			var component = entry.getValue();
+			expectedNodeCount += component.size();
+			var representative = representatives.get(entry.getKey());
+			assertThat("Presence of %d in step %d".formatted(entry.getKey(), step), representative != null, is(true));
+			int actualSize = 0;
+			for (var actualRepresentative : representatives.values()) {
+				if (actualRepresentative.equals(representative)) {
+					actualSize++;
+				}
+			}
+			assertThat("Size of component of %d in step %d".formatted(entry.getKey(), step), actualSize,
+					is(component.size()));
+			for (var node : component) {
+				assertThat("Component of %d in step %d".formatted(node, step), representatives.get(node),
+						is(representative));
+			}
+		}
+		assertThat("Node count in step " + step, representatives.size(), is(expectedNodeCount));
+	}
+}
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Balázs Grill, Zoltan Ujhelyi, IncQuery Labs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -12,10 +13,12 @@ package tools.refinery.interpreter.api;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendFactoryProvider;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.matchers.backend.SharedBackendState;
 import tools.refinery.interpreter.matchers.util.Preconditions;
 
 import java.util.Objects;
 import java.util.ServiceLoader;
+import java.util.concurrent.Executor;
 
 /**
  * This class is intended to provide options to a created {@link InterpreterEngine} instance. The {@link #DEFAULT}
@@ -91,6 +94,9 @@ public final class InterpreterEngineOptions {
 
     private final IQueryBackendFactory defaultCachingBackendFactory;
     private final IQueryBackendFactory defaultSearchBackendFactory;
+    private final Executor updatePropagationExecutor;
+    private final boolean updateCoalescingEnabled;
+    private final SharedBackendState sharedBackendState;
 
     /** The default engine options; if options are not defined, this version will be used. */
     private static InterpreterEngineOptions DEFAULT;
@@ -111,6 +117,9 @@ public final class InterpreterEngineOptions {
         private IQueryBackendFactory defaultBackendFactory;
         private IQueryBackendFactory defaultCachingBackendFactory;
         private IQueryBackendFactory defaultSearchBackendFactory;
+        private Executor updatePropagationExecutor;
+        private boolean updateCoalescingEnabled;
+        private boolean sharedBackendStateEnabled;
 
         public Builder() {
 
@@ -121,6 +130,9 @@ public final class InterpreterEngineOptions {
             this.defaultBackendFactory = engineDefaultHints.getQueryBackendFactory();
             this.defaultCachingBackendFactory = from.defaultCachingBackendFactory;
             this.defaultSearchBackendFactory = from.defaultSearchBackendFactory;
+            this.updatePropagationExecutor = from.updatePropagationExecutor;
+            this.updateCoalescingEnabled = from.updateCoalescingEnabled;
+            this.sharedBackendStateEnabled = from.sharedBackendState != null;
         }
 
         /**
@@ -156,10 +168,45 @@ public final class InterpreterEngineOptions {
             return this;
         }
 
+        /**
+         * Sets the executor used to flush pending updates of the query backends concurrently. Each backend is flushed
+         * by a single task, so backends must not share mutable state with each other. If no executor is set (the
+         * default), backends are flushed sequentially by the calling thread.
+         */
+        public Builder withUpdatePropagationExecutor(Executor updatePropagationExecutor) {
+            this.updatePropagationExecutor = updatePropagationExecutor;
+            return this;
+        }
+
+        /**
+         * Enables or disables update coalescing in caching backends. If enabled, every node of the network queues its
+         * incoming updates until delivery instead of processing them immediately, so that an insertion and a deletion
+         * of the same tuple cancel each other out before reaching the node. This is beneficial if the model is
+         * frequently changed back and forth between two flushes, but adds queueing overhead otherwise. Disabled by
+         * default.
+         */
+        public Builder withUpdateCoalescing(boolean updateCoalescingEnabled) {
+            this.updateCoalescingEnabled = updateCoalescingEnabled;
+            return this;
+        }
+
+        /**
+         * Enables or disables sharing model-independent state, such as query plans, between the backends of every
+         * engine created with the built options. Each built options instance gets its own {@link SharedBackendState},
+         * so options copied with {@link #copyOptions(InterpreterEngineOptions)} (possibly with different hints) never
+         * share state with the original. Disabled by default.
+         */
+        public Builder withSharedBackendState(boolean sharedBackendStateEnabled) {
+            this.sharedBackendStateEnabled = sharedBackendStateEnabled;
+            return this;
+        }
+
         public InterpreterEngineOptions build() {
             IQueryBackendFactory defaultFactory = getDefaultBackend();
             QueryEvaluationHint hint = getEngineDefaultHints(defaultFactory);
-            return new InterpreterEngineOptions(hint, getDefaultCachingBackend(), getDefaultSearchBackend());
+            return new InterpreterEngineOptions(hint, getDefaultCachingBackend(), getDefaultSearchBackend(),
+                    updatePropagationExecutor, updateCoalescingEnabled,
+                    sharedBackendStateEnabled ? new SharedBackendState() : null);
         }
 
         private IQueryBackendFactory getDefaultBackend() {
@@ -216,10 +263,15 @@ public final class InterpreterEngineOptions {
     }
 
     private InterpreterEngineOptions(QueryEvaluationHint engineDefaultHints,
-									 IQueryBackendFactory defaultCachingBackendFactory, IQueryBackendFactory defaultSearchBackendFactory) {
+									 IQueryBackendFactory defaultCachingBackendFactory, IQueryBackendFactory defaultSearchBackendFactory,
+                                     Executor updatePropagationExecutor, boolean updateCoalescingEnabled,
+                                     SharedBackendState sharedBackendState) {
         this.engineDefaultHints = engineDefaultHints;
         this.defaultCachingBackendFactory = defaultCachingBackendFactory;
         this.defaultSearchBackendFactory = defaultSearchBackendFactory;
+        this.updatePropagationExecutor = updatePropagationExecutor;
+        this.updateCoalescingEnabled = updateCoalescingEnabled;
+        this.sharedBackendState = sharedBackendState;
     }
 
     public QueryEvaluationHint getEngineDefaultHints() {
@@ -262,6 +314,29 @@ public final class InterpreterEngineOptions {
         return defaultSearchBackendFactory;
     }
 
+    /**
+     * Returns the executor used to flush the query backends concurrently, or {@code null} if backends are flushed
+     * sequentially.
+     */
+    public Executor getUpdatePropagationExecutor() {
+        return updatePropagationExecutor;
+    }
+
+    /**
+     * Returns whether caching backends should coalesce updates in every node of the network.
+     */
+    public boolean isUpdateCoalescingEnabled() {
+        return updateCoalescingEnabled;
+    }
+
+    /**
+     * Returns the state shared by the backends of every engine created with these options, or {@code null} if
+     * backends must not share state.
+     */
+    public SharedBackendState getSharedBackendState() {
+        return sharedBackendState;
+    }
+
     @Override
     public String toString() {
         // TODO defaultCachingBackendFactory is ignored
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2004-2010 Gabor Bergmann and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -39,6 +39,9 @@ import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -162,8 +165,42 @@ public final class InterpreterEngineImpl extends AdvancedInterpreterEngine
 	}
 
 	private void flushAllBackends() {
-		for (IQueryBackend backend : this.queryBackends.values()) {
-			backend.flushUpdates();
+		Executor executor = engineOptions.getUpdatePropagationExecutor();
+		if (executor == null) {
+			for (IQueryBackend backend : this.queryBackends.values()) {
+				backend.flushUpdates();
+			}
+			return;
+		}
+		List<IQueryBackend> backends;
+		synchronized (queryBackends) {
+			backends = new ArrayList<>(queryBackends.values());
+		}
+		flushBackendsConcurrently(backends, executor);
+	}
+
+	private static void flushBackendsConcurrently(List<IQueryBackend> backends, Executor executor) {
+		int backendCount = backends.size();
+		if (backendCount == 1) {
+			backends.get(0).flushUpdates();
+			return;
+		}
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[backendCount];
+		for (int i = 0; i < backendCount; i++) {
+			futures[i] = CompletableFuture.runAsync(backends.get(i)::flushUpdates, executor);
+		}
+		try {
+			// {@code allOf} only completes after every backend has finished, even if some of them have failed.
+			CompletableFuture.allOf(futures).join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw new IllegalStateException("Error while flushing query backends", cause);
 		}
 	}
 
@@ -317,6 +354,16 @@ public final class InterpreterEngineImpl extends AdvancedInterpreterEngine
                         return InterpreterEngineImpl.this.delayMessageDelivery;
                     }
 
+                    @Override
+                    public boolean isUpdateCoalescingEnabled() {
+                        return engineOptions.isUpdateCoalescingEnabled();
+                    }
+
+                    @Override
+                    public SharedBackendState getSharedBackendState() {
+                        return engineOptions.getSharedBackendState();
+                    }
+
                     @Override
                     public IMatcherCapability getRequiredMatcherCapability(PQuery query,
                                                                            QueryEvaluationHint hint) {
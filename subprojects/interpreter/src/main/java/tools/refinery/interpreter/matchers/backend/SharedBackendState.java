@@ -0,0 +1,34 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.backend;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Container for state shared by the query backends of every engine created with the same
+ * {@link tools.refinery.interpreter.api.InterpreterEngineOptions} instance.
+ * <p>
+ * Backends may store artifacts here that only depend on the queries and their hints, but not on the model, e.g., query
+ * plans. Such artifacts are computed once per set of options instead of once per engine. Entries may be accessed by
+ * engines running on different threads, so they must be thread-safe.
+ */
+public final class SharedBackendState {
+	private final ConcurrentMap<Class<?>, Object> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the shared entry of the given type, creating it with {@code factory} if it does not exist yet.
+	 *
+	 * @param type    The type of the entry, which also serves as its key.
+	 * @param factory The factory to create the entry with.
+	 * @param <T>     The type of the entry.
+	 * @return The shared entry.
+	 */
+	public <T> T computeIfAbsent(Class<T> type, Supplier<? extends T> factory) {
+		return type.cast(entries.computeIfAbsent(type, ignored -> factory.get()));
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.context;
+
+/**
+ * Bijection between some internal elements (see {@link IQueryRuntimeContext#wrapElement(Object)}) and non-negative
+ * {@code int} identifiers.
+ * <p>
+ * Query backends may use it to store tuples of such elements in primitive collections. Elements without an identifier
+ * are stored as objects.
+ */
+public interface IElementIdCodec {
+	/**
+	 * Returned by {@link #encode(Object)} for elements without an identifier.
+	 */
+	int NO_ID = -1;
+
+	/**
+	 * Encodes an internal element.
+	 *
+	 * @param element The element to encode.
+	 * @return The non-negative identifier of the element, or {@link #NO_ID} if the element has no identifier.
+	 */
+	int encode(Object element);
+
+	/**
+	 * Decodes an identifier returned by {@link #encode(Object)}.
+	 *
+	 * @param id The identifier.
+	 * @return An element equal to the one that was encoded as {@code id}.
+	 */
+	Object decode(int id);
+}
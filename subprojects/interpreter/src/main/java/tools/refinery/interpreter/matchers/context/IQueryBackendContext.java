@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2016, Grill Balázs, IncQueryLabs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -14,6 +15,7 @@ import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 import tools.refinery.interpreter.matchers.backend.IMatcherCapability;
 import tools.refinery.interpreter.matchers.backend.IQueryBackendHintProvider;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.matchers.backend.SharedBackendState;
 
 /**
  * This interface is a collector which holds every API that is provided by the engine to control
@@ -46,4 +48,20 @@ public interface IQueryBackendContext {
      */
     boolean areUpdatesDelayed();
 
+    /**
+     * Returns whether caching backends should cancel out opposite updates of the same tuple in every node before
+     * processing them.
+     */
+    default boolean isUpdateCoalescingEnabled() {
+        return false;
+    }
+
+    /**
+     * Returns the state shared with the backends of other engines created with the same options, or {@code null} if
+     * state must not be shared.
+     */
+    default SharedBackendState getSharedBackendState() {
+        return null;
+    }
+
 }
@@ -1,6 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2015, Bergmann Gabor, Istvan Rath and Daniel Varro
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -284,4 +284,12 @@ public interface IQueryRuntimeContext {
 	default CancellationToken getCancellationToken() {
 		return CancellationToken.NONE;
 	}
+
+	/**
+	 * Returns the codec that maps some internal elements to {@code int} identifiers, or {@code null} if elements may
+	 * only be stored as objects.
+	 */
+	default IElementIdCodec getElementIdCodec() {
+		return null;
+	}
 }
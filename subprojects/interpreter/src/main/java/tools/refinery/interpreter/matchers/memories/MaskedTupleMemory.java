@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2010-2018, Gabor Bergmann, IncQuery Labs Ltd.
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -13,6 +14,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
 
+import tools.refinery.interpreter.matchers.context.IElementIdCodec;
 import tools.refinery.interpreter.matchers.memories.timely.TimelyDefaultMaskedTupleMemory;
 import tools.refinery.interpreter.matchers.memories.timely.TimelyIdentityMaskedTupleMemory;
 import tools.refinery.interpreter.matchers.memories.timely.TimelyNullaryMaskedTupleMemory;
@@ -106,6 +108,22 @@ public abstract class MaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
         }
     }
 
+    /**
+     * Creates a new memory for the given owner that indexes tuples according to the given mask, like
+     * {@link #create(TupleMask, MemoryType, Object, boolean, boolean)}. If an element identifier codec is provided,
+     * timeless sets of tuples with at most two elements are stored as packed {@code long} values in a
+     * {@link PackedMaskedTupleMemory}.
+     */
+    public static <T extends Comparable<T>> MaskedTupleMemory<T> create(final TupleMask mask,
+            final MemoryType bucketType, final Object owner, final boolean isTimely, final boolean isLazy,
+            final IElementIdCodec elementIdCodec) {
+        if (elementIdCodec != null && !isTimely && !isLazy && bucketType == MemoryType.SETS
+                && PackedMaskedTupleMemory.isApplicable(mask)) {
+            return new PackedMaskedTupleMemory<T>(mask, owner, elementIdCodec);
+        }
+        return create(mask, bucketType, owner, isTimely, isLazy);
+    }
+
     @Override
     public Map<Tuple, Map<Tuple, Diff<Timestamp>>> resumeAt(final Timestamp timestamp) {
         throw new UnsupportedOperationException("This is only supported by lazy timely memory implementations!");
@@ -0,0 +1,339 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.memories;
+
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.factory.primitive.LongSets;
+import org.eclipse.collections.api.iterator.LongIterator;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import tools.refinery.interpreter.matchers.context.IElementIdCodec;
+import tools.refinery.interpreter.matchers.tuple.ITuple;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.CollectionsFactory.MemoryType;
+import tools.refinery.interpreter.matchers.util.timeline.Timeline;
+
+import java.util.*;
+
+/**
+ * Timeless memory for sets of tuples with at most two elements that stores both tuples and their signatures as packed
+ * {@code long} values.
+ * <p>
+ * Elements are converted to {@code int} identifiers by an {@link IElementIdCodec}, so the memory only retains tuple
+ * objects for the signatures that were looked up. The tuples of such signatures are decoded on the first lookup and
+ * are kept up to date until all of them are removed, so repeated lookups return the same tuple instances. If a tuple
+ * with an element that has no identifier is added, the contents of the memory are moved to an object-based memory,
+ * which is used instead until the memory is cleared.
+ * <p>
+ * Signatures are packed the same way as tuples, so masks may select at most two elements, see
+ * {@link #isApplicable(TupleMask)}.
+ */
+public final class PackedMaskedTupleMemory<Timestamp extends Comparable<Timestamp>>
+		extends MaskedTupleMemory<Timestamp> {
+	// Identifiers are non-negative, so packed tuples and signatures are also non-negative.
+	private static final long NOT_ENCODABLE = -1;
+
+	private final IElementIdCodec codec;
+	private final int arity;
+	private final MutableLongObjectMap<Bucket> signatureToTuples = LongObjectMaps.mutable.empty();
+	private MaskedTupleMemory<Timestamp> fallback;
+
+	public PackedMaskedTupleMemory(TupleMask mask, Object owner, IElementIdCodec codec) {
+		super(mask, owner);
+		if (!isApplicable(mask)) {
+			throw new IllegalArgumentException("Unsupported source width or number of selected indices in mask " +
+					mask);
+		}
+		this.codec = codec;
+		arity = mask.sourceWidth;
+	}
+
+	/**
+	 * Determines whether tuples indexed by the given mask can be stored in this memory.
+	 *
+	 * @param mask The mask.
+	 * @return {@code true} if the tuples have one or two elements and the mask selects at most two of them.
+	 */
+	public static boolean isApplicable(TupleMask mask) {
+		// Masks may select the same element multiple times, so we have to check the number of indices separately.
+		return mask.sourceWidth >= 1 && mask.sourceWidth <= 2 && mask.indices.length <= 2;
+	}
+
+	private static long pack(int id0, int id1) {
+		return ((long) id0 << Integer.SIZE) | id1;
+	}
+
+	private long encodeTuple(ITuple tuple) {
+		int id0 = codec.encode(tuple.get(0));
+		if (id0 == IElementIdCodec.NO_ID) {
+			return NOT_ENCODABLE;
+		}
+		if (arity == 1) {
+			return id0;
+		}
+		int id1 = codec.encode(tuple.get(1));
+		if (id1 == IElementIdCodec.NO_ID) {
+			return NOT_ENCODABLE;
+		}
+		return pack(id0, id1);
+	}
+
+	private int getId(long packedTuple, int index) {
+		return arity == 2 && index == 0 ? (int) (packedTuple >>> Integer.SIZE) : (int) packedTuple;
+	}
+
+	private long getPackedSignature(long packedTuple) {
+		var indices = mask.indices;
+		return switch (indices.length) {
+			case 0 -> 0;
+			case 1 -> getId(packedTuple, indices[0]);
+			case 2 -> pack(getId(packedTuple, indices[0]), getId(packedTuple, indices[1]));
+			default -> throw new IllegalStateException("Unsupported number of selected indices in mask " + mask);
+		};
+	}
+
+	private long encodeSignature(ITuple signature) {
+		return switch (signature.getSize()) {
+			case 0 -> 0;
+			case 1 -> {
+				int id = codec.encode(signature.get(0));
+				yield id == IElementIdCodec.NO_ID ? NOT_ENCODABLE : id;
+			}
+			case 2 -> {
+				int id0 = codec.encode(signature.get(0));
+				int id1 = codec.encode(signature.get(1));
+				yield id0 == IElementIdCodec.NO_ID || id1 == IElementIdCodec.NO_ID ? NOT_ENCODABLE : pack(id0, id1);
+			}
+			default -> NOT_ENCODABLE;
+		};
+	}
+
+	private Tuple decodeTuple(long packedTuple) {
+		if (arity == 1) {
+			return Tuples.staticArityFlatTupleOf(codec.decode((int) packedTuple));
+		}
+		return Tuples.staticArityFlatTupleOf(codec.decode(getId(packedTuple, 0)), codec.decode(getId(packedTuple, 1)));
+	}
+
+	private Tuple decodeSignature(long packedSignature) {
+		return switch (mask.indices.length) {
+			case 0 -> Tuples.staticArityFlatTupleOf();
+			case 1 -> Tuples.staticArityFlatTupleOf(codec.decode((int) packedSignature));
+			default -> Tuples.staticArityFlatTupleOf(codec.decode((int) (packedSignature >>> Integer.SIZE)),
+					codec.decode((int) packedSignature));
+		};
+	}
+
+	private void switchToFallback() {
+		var newMemory = MaskedTupleMemory.<Timestamp>create(mask, MemoryType.SETS, owner);
+		signatureToTuples.forEachValue(bucket -> bucket.packedTuples.each(packedTuple ->
+				newMemory.add(decodeTuple(packedTuple))));
+		signatureToTuples.clear();
+		fallback = newMemory;
+	}
+
+	@Override
+	public boolean add(Tuple tuple) {
+		if (fallback != null) {
+			return fallback.add(tuple);
+		}
+		long packedTuple = encodeTuple(tuple);
+		if (packedTuple == NOT_ENCODABLE) {
+			switchToFallback();
+			return fallback.add(tuple);
+		}
+		return addPacked(tuple, packedTuple);
+	}
+
+	@Override
+	public boolean add(Tuple tuple, Tuple signature) {
+		if (fallback != null) {
+			return fallback.add(tuple, signature);
+		}
+		long packedTuple = encodeTuple(tuple);
+		if (packedTuple == NOT_ENCODABLE) {
+			switchToFallback();
+			return fallback.add(tuple, signature);
+		}
+		return addPacked(tuple, packedTuple);
+	}
+
+	private boolean addPacked(Tuple tuple, long packedTuple) {
+		long packedSignature = getPackedSignature(packedTuple);
+		var bucket = signatureToTuples.get(packedSignature);
+		if (bucket == null) {
+			signatureToTuples.put(packedSignature, new Bucket(packedTuple));
+			return true;
+		}
+		if (!bucket.packedTuples.add(packedTuple)) {
+			throw raiseDuplicateInsertion(tuple);
+		}
+		if (bucket.decodedTuples != null) {
+			bucket.decodedTuples.add(tuple);
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Tuple tuple) {
+		if (fallback != null) {
+			return fallback.remove(tuple);
+		}
+		return removePacked(tuple);
+	}
+
+	@Override
+	public boolean remove(Tuple tuple, Tuple signature) {
+		if (fallback != null) {
+			return fallback.remove(tuple, signature);
+		}
+		return removePacked(tuple);
+	}
+
+	private boolean removePacked(Tuple tuple) {
+		long packedTuple = encodeTuple(tuple);
+		if (packedTuple == NOT_ENCODABLE) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		long packedSignature = getPackedSignature(packedTuple);
+		var bucket = signatureToTuples.get(packedSignature);
+		if (bucket == null || !bucket.packedTuples.remove(packedTuple)) {
+			throw raiseDuplicateDeletion(tuple);
+		}
+		if (bucket.packedTuples.isEmpty()) {
+			signatureToTuples.remove(packedSignature);
+			return true;
+		}
+		if (bucket.decodedTuples != null) {
+			bucket.decodedTuples.remove(tuple);
+		}
+		return false;
+	}
+
+	@Override
+	public Collection<Tuple> get(ITuple signature) {
+		if (fallback != null) {
+			return fallback.get(signature);
+		}
+		long packedSignature = encodeSignature(signature);
+		if (packedSignature == NOT_ENCODABLE) {
+			return null;
+		}
+		var bucket = signatureToTuples.get(packedSignature);
+		if (bucket == null) {
+			return null;
+		}
+		if (mask.isIdentity() && signature instanceof Tuple tuple) {
+			// Avoid decoding the only tuple with this signature.
+			return Collections.singleton(tuple);
+		}
+		return bucket.getDecodedTuples();
+	}
+
+	@Override
+	public Map<Tuple, Timeline<Timestamp>> getWithTimeline(ITuple signature) {
+		throw new UnsupportedOperationException("Timeless memories do not support timestamp-based lookup!");
+	}
+
+	@Override
+	public void clear() {
+		signatureToTuples.clear();
+		fallback = null;
+	}
+
+	@Override
+	public Iterable<Tuple> getSignatures() {
+		if (fallback != null) {
+			return fallback.getSignatures();
+		}
+		return () -> new SignatureIterator(signatureToTuples.keySet().longIterator());
+	}
+
+	@Override
+	public Iterator<Tuple> iterator() {
+		if (fallback != null) {
+			return fallback.iterator();
+		}
+		var buckets = signatureToTuples.values().iterator();
+		return new Iterator<>() {
+			private LongIterator current;
+
+			@Override
+			public boolean hasNext() {
+				while ((current == null || !current.hasNext()) && buckets.hasNext()) {
+					current = buckets.next().packedTuples.longIterator();
+				}
+				return current != null && current.hasNext();
+			}
+
+			@Override
+			public Tuple next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return decodeTuple(current.next());
+			}
+		};
+	}
+
+	@Override
+	public int getTotalSize() {
+		if (fallback != null) {
+			return fallback.getTotalSize();
+		}
+		int size = 0;
+		for (var bucket : signatureToTuples.values()) {
+			size += bucket.packedTuples.size();
+		}
+		return size;
+	}
+
+	@Override
+	public int getKeysetSize() {
+		if (fallback != null) {
+			return fallback.getKeysetSize();
+		}
+		return signatureToTuples.size();
+	}
+
+	private class Bucket {
+		private final MutableLongSet packedTuples;
+		private Set<Tuple> decodedTuples;
+
+		Bucket(long packedTuple) {
+			packedTuples = LongSets.mutable.of(packedTuple);
+		}
+
+		Set<Tuple> getDecodedTuples() {
+			if (decodedTuples == null) {
+				var tuples = new HashSet<Tuple>(packedTuples.size());
+				packedTuples.each(packedTuple -> tuples.add(decodeTuple(packedTuple)));
+				decodedTuples = tuples;
+			}
+			return decodedTuples;
+		}
+	}
+
+	private class SignatureIterator implements Iterator<Tuple> {
+		private final LongIterator iterator;
+
+		SignatureIterator(LongIterator iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Tuple next() {
+			return decodeSignature(iterator.next());
+		}
+	}
+}
@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2004-2008 Gabor Bergmann and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -190,8 +191,9 @@ public class SubPlan {
     /**
      * The closure of all type judgments of enforced constraints at this point.
      * <p> No subsumption applied.
+     * <p> Synchronized, because plans may be shared by the query engines of several models.
      */
-    public Set<TypeJudgement> getAllImpliedTypeJudgements(IQueryMetaContext context) {
+    public synchronized Set<TypeJudgement> getAllImpliedTypeJudgements(IQueryMetaContext context) {
         Set<TypeJudgement> impliedJudgements = allImpliedTypeJudgements.get(context);
         if (impliedJudgements == null) {
             Set<TypeJudgement> equivalentJudgements = TypeHelper.getDirectJudgements(getAllEnforcedConstraints(), context);
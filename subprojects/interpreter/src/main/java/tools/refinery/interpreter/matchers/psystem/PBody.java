@@ -1,5 +1,6 @@
 /*******************************************************************************
  * Copyright (c) 2004-2010 Gabor Bergmann and Daniel Varro
+ * Copyright (c) 2024 The Refinery Authors <https://refinery.tools>
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Public License v. 2.0 which is available at
  * http://www.eclipse.org/legal/epl-v20.html.
@@ -274,8 +275,9 @@ public class PBody implements PTraceable {
     /**
      * All unary input keys directly prescribed by constraints, grouped by variable.
      * <p> to supertype inference or subsumption applied at this point.
+     * <p> Synchronized, because normalized bodies may be shared by the query engines of several models.
      */
-    public Map<PVariable, Set<TypeJudgement>> getAllUnaryTypeRestrictions(IQueryMetaContext context) {
+    public synchronized Map<PVariable, Set<TypeJudgement>> getAllUnaryTypeRestrictions(IQueryMetaContext context) {
         Map<PVariable, Set<TypeJudgement>> currentRestrictions = allUnaryTypeRestrictions.get(context);
         if (currentRestrictions == null) {
             currentRestrictions = TypeHelper.inferUnaryTypes(getConstraints(), context);
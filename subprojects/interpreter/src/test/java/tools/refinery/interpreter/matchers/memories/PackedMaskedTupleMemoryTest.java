@@ -0,0 +1,194 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.interpreter.matchers.memories;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.context.IElementIdCodec;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PackedMaskedTupleMemoryTest {
+	// Encodes non-negative integers as themselves, while other elements have no identifier.
+	private static final IElementIdCodec codec = new IElementIdCodec() {
+		@Override
+		public int encode(Object element) {
+			return element instanceof Integer id && id >= 0 ? id : NO_ID;
+		}
+
+		@Override
+		public Object decode(int id) {
+			return id;
+		}
+	};
+
+	@Test
+	void roundTripTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.selectSingle(1, 2), this, codec);
+
+		assertThat(memory.add(Tuples.flatTupleOf(0, 1)), is(true));
+		assertThat(memory.add(Tuples.flatTupleOf(2, 1)), is(false));
+		assertThat(memory.add(Tuples.flatTupleOf(Integer.MAX_VALUE, 100000)), is(true));
+		assertThat(memory.add(Tuples.flatTupleOf(100000, Integer.MAX_VALUE)), is(true));
+
+		assertThat(memory.get(Tuples.flatTupleOf(1)), containsInAnyOrder(
+				Tuples.flatTupleOf(0, 1),
+				Tuples.flatTupleOf(2, 1)
+		));
+		assertThat(memory.get(Tuples.flatTupleOf(100000)), contains(Tuples.flatTupleOf(Integer.MAX_VALUE, 100000)));
+		assertThat(memory.get(Tuples.flatTupleOf(Integer.MAX_VALUE)),
+				contains(Tuples.flatTupleOf(100000, Integer.MAX_VALUE)));
+		assertThat(memory.get(Tuples.flatTupleOf(0)), nullValue());
+		assertThat(memory.get(Tuples.flatTupleOf("a")), nullValue());
+		assertThat(memory.get(Tuples.flatTupleOf(1)).contains(Tuples.flatTupleOf(2, 1)), is(true));
+		assertThat(memory.get(Tuples.flatTupleOf(1)).contains(Tuples.flatTupleOf(1, 1)), is(false));
+
+		assertThat(toList(memory.getSignatures()), containsInAnyOrder(
+				Tuples.flatTupleOf(1),
+				Tuples.flatTupleOf(100000),
+				Tuples.flatTupleOf(Integer.MAX_VALUE)
+		));
+		assertThat(toList(memory::iterator), containsInAnyOrder(
+				Tuples.flatTupleOf(0, 1),
+				Tuples.flatTupleOf(2, 1),
+				Tuples.flatTupleOf(Integer.MAX_VALUE, 100000),
+				Tuples.flatTupleOf(100000, Integer.MAX_VALUE)
+		));
+		assertThat(memory.getTotalSize(), is(4));
+		assertThat(memory.getKeysetSize(), is(3));
+	}
+
+	@Test
+	void unaryTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.empty(1), this, codec);
+
+		assertThat(memory.add(Tuples.flatTupleOf(3)), is(true));
+		assertThat(memory.add(Tuples.flatTupleOf(5)), is(false));
+
+		assertThat(memory.get(Tuples.flatTupleOf()), containsInAnyOrder(
+				Tuples.flatTupleOf(3),
+				Tuples.flatTupleOf(5)
+		));
+		assertThat(toList(memory.getSignatures()), contains(Tuples.flatTupleOf()));
+	}
+
+	@Test
+	void fallbackTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.selectSingle(1, 2), this, codec);
+
+		memory.add(Tuples.flatTupleOf(0, 1));
+		memory.add(Tuples.flatTupleOf(2, 3));
+		// The string can not be encoded, so the memory switches to storing tuple objects.
+		assertThat(memory.add(Tuples.flatTupleOf("a", 1)), is(false));
+		assertThat(memory.add(Tuples.flatTupleOf(4, "b")), is(true));
+
+		assertThat(memory.get(Tuples.flatTupleOf(1)), containsInAnyOrder(
+				Tuples.flatTupleOf(0, 1),
+				Tuples.flatTupleOf("a", 1)
+		));
+		assertThat(memory.get(Tuples.flatTupleOf("b")), contains(Tuples.flatTupleOf(4, "b")));
+		assertThat(toList(memory::iterator), containsInAnyOrder(
+				Tuples.flatTupleOf(0, 1),
+				Tuples.flatTupleOf(2, 3),
+				Tuples.flatTupleOf("a", 1),
+				Tuples.flatTupleOf(4, "b")
+		));
+		assertThat(memory.getTotalSize(), is(4));
+		assertThat(memory.getKeysetSize(), is(3));
+
+		assertThat(memory.remove(Tuples.flatTupleOf("a", 1)), is(false));
+		assertThat(memory.remove(Tuples.flatTupleOf(0, 1)), is(true));
+		assertThat(memory.get(Tuples.flatTupleOf(1)), nullValue());
+
+		// Clearing the memory switches back to packed tuples.
+		memory.clear();
+		assertThat(memory.getTotalSize(), is(0));
+		assertThat(memory.add(Tuples.flatTupleOf(0, 1)), is(true));
+		assertThat(memory.get(Tuples.flatTupleOf(1)), contains(Tuples.flatTupleOf(0, 1)));
+	}
+
+	@Test
+	void identityMaskTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.identity(2), this, codec);
+		memory.add(Tuples.flatTupleOf(0, 1));
+		memory.add(Tuples.flatTupleOf(1, 0));
+
+		var signature = Tuples.flatTupleOf(0, 1);
+		var result = memory.get(signature);
+		assertThat(result, contains(signature));
+		// The only tuple with the signature is the signature itself, so it is returned without decoding.
+		assertThat(result.iterator().next(), sameInstance(signature));
+		assertThat(memory.get(Tuples.flatTupleOf(1, 1)), nullValue());
+		assertThat(memory.getKeysetSize(), is(2));
+	}
+
+	@Test
+	void removeLastTupleTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.selectSingle(1, 2), this, codec);
+		memory.add(Tuples.flatTupleOf(0, 1));
+		memory.add(Tuples.flatTupleOf(2, 1));
+
+		assertThat(memory.remove(Tuples.flatTupleOf(0, 1)), is(false));
+		assertThat(memory.get(Tuples.flatTupleOf(1)), contains(Tuples.flatTupleOf(2, 1)));
+		assertThat(memory.remove(Tuples.flatTupleOf(2, 1)), is(true));
+
+		assertThat(memory.get(Tuples.flatTupleOf(1)), nullValue());
+		assertThat(memory.getOrEmpty(Tuples.flatTupleOf(1)), empty());
+		assertThat(toList(memory.getSignatures()), empty());
+		assertThat(memory.getTotalSize(), is(0));
+		assertThat(memory.getKeysetSize(), is(0));
+		assertThrows(IllegalStateException.class, () -> memory.remove(Tuples.flatTupleOf(2, 1)));
+		assertThrows(IllegalStateException.class, () -> memory.remove(Tuples.flatTupleOf("a", 1)));
+	}
+
+	@Test
+	void repeatedLookupTest() {
+		var memory = new PackedMaskedTupleMemory<Integer>(TupleMask.selectSingle(1, 2), this, codec);
+		memory.add(Tuples.flatTupleOf(0, 1));
+		memory.add(Tuples.flatTupleOf(2, 1));
+
+		var signature = Tuples.flatTupleOf(1);
+		var first = toList(memory.get(signature));
+		var second = toList(memory.get(signature));
+		assertThat(first, hasSize(2));
+		for (int i = 0; i < first.size(); i++) {
+			assertThat(second.get(i), sameInstance(first.get(i)));
+		}
+
+		// Decoded tuples are kept up to date when the memory changes.
+		var added = Tuples.flatTupleOf(3, 1);
+		memory.add(added);
+		memory.remove(Tuples.flatTupleOf(0, 1));
+		var third = memory.get(signature);
+		assertThat(third, containsInAnyOrder(
+				Tuples.flatTupleOf(2, 1),
+				Tuples.flatTupleOf(3, 1)
+		));
+		assertThat(third, hasItem(sameInstance(added)));
+		assertThat(third, hasItem(sameInstance(first.get(first.indexOf(Tuples.flatTupleOf(2, 1))))));
+	}
+
+	@Test
+	void repeatedIndexMaskTest() {
+		var mask = TupleMask.fromSelectedIndices(2, new int[]{0, 1, 0});
+
+		assertThat(PackedMaskedTupleMemory.isApplicable(mask), is(false));
+		assertThrows(IllegalArgumentException.class, () -> new PackedMaskedTupleMemory<Integer>(mask, this, codec));
+	}
+
+	private static List<Tuple> toList(Iterable<Tuple> tuples) {
+		var list = new ArrayList<Tuple>();
+		tuples.forEach(list::add);
+		return list;
+	}
+}
@@ -49,9 +49,12 @@ public class SemanticsService extends AbstractCachedService<SemanticsResult> {
 
 	private final AtomicBoolean warmedUp = new AtomicBoolean(false);
 
+	private final boolean collectQueryStatistics;
+
 	public SemanticsService() {
 		timeoutMs = getTimeout("REFINERY_SEMANTICS_TIMEOUT_MS").orElse(1000L);
 		warmupTimeoutMs = getTimeout("REFINERY_SEMANTICS_WARMUP_TIMEOUT_MS").orElse(timeoutMs * 2);
+		collectQueryStatistics = Boolean.parseBoolean(System.getenv("REFINERY_SEMANTICS_QUERY_STATISTICS"));
 	}
 
 	public static Optional<Long> getTimeout(String name) {
@@ -78,6 +81,7 @@ public class SemanticsService extends AbstractCachedService<SemanticsResult> {
 		}
 		var worker = workerProvider.get();
 		worker.setProblem(problem, cancelIndicator);
+		worker.setCollectQueryStatistics(collectQueryStatistics);
 		var future = executorService.submit(worker);
 		boolean warmedUpCurrently = warmedUp.get();
 		long timeout = warmedUpCurrently ? timeoutMs : warmupTimeoutMs;
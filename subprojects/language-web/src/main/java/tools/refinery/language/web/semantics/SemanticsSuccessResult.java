@@ -12,5 +12,10 @@ import tools.refinery.language.web.semantics.metadata.RelationMetadata;
 import java.util.List;
 
 public record SemanticsSuccessResult(List<NodeMetadata> nodes, List<RelationMetadata> relations,
-									 JsonObject partialInterpretation) implements SemanticsResult {
+									 JsonObject partialInterpretation, JsonObject queryStatistics)
+		implements SemanticsResult {
+	public SemanticsSuccessResult(List<NodeMetadata> nodes, List<RelationMetadata> relations,
+								  JsonObject partialInterpretation) {
+		this(nodes, relations, partialInterpretation, null);
+	}
 }
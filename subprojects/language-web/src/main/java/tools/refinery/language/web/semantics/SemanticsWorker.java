@@ -5,6 +5,8 @@
  */
 package tools.refinery.language.web.semantics;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.inject.Inject;
 import org.eclipse.emf.common.util.Diagnostic;
 import org.eclipse.emf.ecore.EObject;
@@ -49,6 +51,8 @@ class SemanticsWorker implements Callable<SemanticsResult> {
 
 	private CancellationToken cancellationToken;
 
+	private boolean collectQueryStatistics;
+
 	public void setProblem(Problem problem, CancelIndicator parentIndicator) {
 		this.problem = problem;
 		cancellationToken = () -> {
@@ -58,12 +62,18 @@ class SemanticsWorker implements Callable<SemanticsResult> {
 		};
 	}
 
+	public void setCollectQueryStatistics(boolean collectQueryStatistics) {
+		this.collectQueryStatistics = collectQueryStatistics;
+	}
+
 	@Override
 	public SemanticsResult call() {
 		cancellationToken.checkCancelled();
 		ModelSemantics semantics;
 		try {
-			semantics = semanticsFactory.cancellationToken(cancellationToken).createSemantics(problem);
+			semantics = semanticsFactory.cancellationToken(cancellationToken)
+					.collectQueryStatistics(collectQueryStatistics)
+					.createSemantics(problem);
 		} catch (TranslationException e) {
 			return new SemanticsInternalErrorResult(e.getMessage());
 		} catch (TracedException e) {
@@ -79,7 +89,12 @@ class SemanticsWorker implements Callable<SemanticsResult> {
 		var relationsMetadata = metadataCreator.getRelationsMetadata();
 		cancellationToken.checkCancelled();
 		var partialInterpretation = partialInterpretation2Json.getPartialInterpretation(semantics, cancellationToken);
-		return new SemanticsSuccessResult(nodesMetadata, relationsMetadata, partialInterpretation);
+		JsonObject queryStatistics = null;
+		if (collectQueryStatistics) {
+			queryStatistics = JsonParser.parseString(semantics.getQueryStatistics().toJson()).getAsJsonObject();
+		}
+		return new SemanticsSuccessResult(nodesMetadata, relationsMetadata, partialInterpretation,
+				queryStatistics);
 	}
 
 	private SemanticsResult getTracedErrorResult(EObject sourceElement, String message) {
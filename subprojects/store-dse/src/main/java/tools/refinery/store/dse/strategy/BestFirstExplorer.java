@@ -1,10 +1,11 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.dse.strategy;
 
+import org.jetbrains.annotations.Nullable;
 import tools.refinery.store.model.Model;
 
 import java.util.Random;
@@ -14,7 +15,12 @@ public class BestFirstExplorer extends BestFirstWorker {
 	Random random;
 
 	public BestFirstExplorer(BestFirstStoreManager storeManager, Model model, long id) {
-		super(storeManager, model);
+		this(storeManager, model, id, null);
+	}
+
+	BestFirstExplorer(BestFirstStoreManager storeManager, Model model, long id,
+					  @Nullable ExplorationCoordinator coordinator) {
+		super(storeManager, model, coordinator);
 		this.id = id;
 		// The use of a non-cryptographic random generator is safe here, because we only use it to direct the state
 		// space exploration.
@@ -25,10 +31,25 @@ public class BestFirstExplorer extends BestFirstWorker {
 
 	private boolean shouldRun() {
 		model.checkCancelled();
-		return !hasEnoughSolution();
+		return !hasEnoughSolution() && (coordinator == null || !coordinator.isStopped());
 	}
 
 	public void explore() {
+		if (coordinator == null) {
+			doExplore();
+			return;
+		}
+		try {
+			doExplore();
+		} catch (RuntimeException | Error e) {
+			coordinator.stop();
+			throw e;
+		} finally {
+			coordinator.explorerFinished();
+		}
+	}
+
+	private void doExplore() {
 		var lastBest = submit().newVersion();
 		while (shouldRun()) {
 			if (lastBest == null) {
@@ -38,6 +59,10 @@ public class BestFirstExplorer extends BestFirstWorker {
 					lastBest = restoreToBest();
 				}
 				if (lastBest == null) {
+					if (coordinator != null && coordinator.awaitStates(model)) {
+						// Other explorers have submitted new states in the meantime.
+						continue;
+					}
 					return;
 				}
 			}
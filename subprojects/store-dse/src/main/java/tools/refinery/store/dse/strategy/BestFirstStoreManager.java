@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -11,16 +11,19 @@ import tools.refinery.store.dse.transition.statespace.ActivationStore;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
 import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
 import tools.refinery.store.dse.transition.statespace.SolutionStore;
-import tools.refinery.store.dse.transition.statespace.internal.ActivationStoreImpl;
+import tools.refinery.store.dse.transition.statespace.internal.ConcurrentActivationStore;
+import tools.refinery.store.dse.transition.statespace.internal.ConcurrentObjectivePriorityQueue;
 import tools.refinery.store.dse.transition.statespace.internal.FastEquivalenceClassStore;
 import tools.refinery.store.dse.transition.statespace.internal.ObjectivePriorityQueueImpl;
 import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.dse.transition.statespace.internal.VerifiedEquivalenceClassStore;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.model.ModelStore;
 import tools.refinery.store.statecoding.StateCoderStoreAdapter;
 import tools.refinery.visualization.statespace.VisualizationStore;
 import tools.refinery.visualization.statespace.internal.VisualizationStoreImpl;
 
+import java.util.ArrayList;
 import java.util.function.Consumer;
 
 public class BestFirstStoreManager {
@@ -33,21 +36,44 @@ public class BestFirstStoreManager {
 	VisualizationStore visualizationStore;
 
 	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions) {
+		this(modelStore, maxNumberOfSolutions, false);
+	}
+
+	/**
+	 * Creates a new store manager.
+	 *
+	 * @param modelStore           The model store to explore.
+	 * @param maxNumberOfSolutions The number of solutions to stop the exploration after.
+	 * @param verifyEquivalence    If {@code true}, states with the same state code as an already visited state are
+	 *                             compared to it in a background thread, and explored if they turn out to be
+	 *                             different. Otherwise, states with the same state code are assumed to be isomorphic.
+	 */
+	public BestFirstStoreManager(ModelStore modelStore, int maxNumberOfSolutions, boolean verifyEquivalence) {
 		this.modelStore = modelStore;
 		DesignSpaceExplorationStoreAdapter storeAdapter =
 				modelStore.getAdapter(DesignSpaceExplorationStoreAdapter.class);
 
 		objectiveStore = new ObjectivePriorityQueueImpl(storeAdapter.getObjectives());
 		Consumer<VersionWithObjectiveValue> whenAllActivationsVisited = x -> objectiveStore.remove(x);
-		activationStore = new ActivationStoreImpl(storeAdapter.getTransformations().size(), whenAllActivationsVisited);
+		activationStore = new ConcurrentActivationStore(storeAdapter.getTransformations().size(), whenAllActivationsVisited);
 		solutionStore = new SolutionStoreImpl(maxNumberOfSolutions);
-		equivalenceClassStore = new FastEquivalenceClassStore(modelStore.getAdapter(StateCoderStoreAdapter.class)) {
-			@Override
-			protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
-				throw new UnsupportedOperationException("This equivalence storage is not prepared to resolve " +
-						"symmetries!");
-			}
-		};
+		var stateCoderStoreAdapter = modelStore.getAdapter(StateCoderStoreAdapter.class);
+		if (verifyEquivalence) {
+			equivalenceClassStore = new VerifiedEquivalenceClassStore(stateCoderStoreAdapter) {
+				@Override
+				protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+					submitVerifiedState(version, emptyActivations, accept);
+				}
+			};
+		} else {
+			equivalenceClassStore = new FastEquivalenceClassStore(stateCoderStoreAdapter) {
+				@Override
+				protected void delegate(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+					throw new UnsupportedOperationException("This equivalence storage is not prepared to resolve " +
+							"symmetries!");
+				}
+			};
+		}
 		visualizationStore = new VisualizationStoreImpl();
 	}
 
@@ -75,13 +101,136 @@ public class BestFirstStoreManager {
 		return visualizationStore;
 	}
 
+	private void submitVerifiedState(VersionWithObjectiveValue version, int[] emptyActivations, boolean accept) {
+		var visitResult = activationStore.markNewAsVisited(version, emptyActivations);
+		if (visitResult.mayHaveMore()) {
+			objectiveStore.submit(version);
+		}
+		if (accept) {
+			solutionStore.submit(version);
+		}
+	}
+
+	private boolean resumeAfterPendingChecks() {
+		if (!(equivalenceClassStore instanceof VerifiedEquivalenceClassStore verifiedEquivalenceClassStore)) {
+			return false;
+		}
+		verifiedEquivalenceClassStore.awaitPendingChecks();
+		// States that turned out to be different from the visited states were added to the objective store.
+		return objectiveStore.getSize() > 0 && !solutionStore.hasEnoughSolution() &&
+				!Thread.currentThread().isInterrupted();
+	}
+
 	public void startExploration(Version initial) {
 		startExploration(initial, 1);
 	}
 
 	public void startExploration(Version initial, long randomSeed) {
-		BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, modelStore.createModelForState(initial),
-				randomSeed);
-		bestFirstExplorer.explore();
+		do {
+			BestFirstExplorer bestFirstExplorer = new BestFirstExplorer(this, modelStore.createModelForState(initial),
+					randomSeed);
+			bestFirstExplorer.explore();
+		} while (resumeAfterPendingChecks());
+	}
+
+	/**
+	 * Explores the state space with multiple explorers running in parallel.
+	 * <p>
+	 * Each explorer works on its own {@link tools.refinery.store.model.Model} created from the model store and
+	 * directs the exploration with its own random seed ({@code randomSeed}, {@code randomSeed + 1}, etc.). The
+	 * explorers share the stores of this manager, so they never visit the same state or activation twice. The
+	 * exploration stops when enough solutions are found or there are no more states to explore.
+	 * <p>
+	 * To reduce contention, the explorers select states from a {@link ConcurrentObjectivePriorityQueue}, which
+	 * returns one of the best states instead of strictly the best one.
+	 *
+	 * @param initial           The initial state of the exploration.
+	 * @param randomSeed        The random seed of the first explorer.
+	 * @param numberOfExplorers The number of explorers to run in parallel. If it is {@code 1}, this method is
+	 *                          equivalent to {@link #startExploration(Version, long)}.
+	 */
+	public void startExploration(Version initial, long randomSeed, int numberOfExplorers) {
+		if (numberOfExplorers < 1) {
+			throw new IllegalArgumentException("Number of explorers must be positive, got: " + numberOfExplorers);
+		}
+		if (numberOfExplorers == 1) {
+			startExploration(initial, randomSeed);
+			return;
+		}
+		if (objectiveStore.getSize() == 0) {
+			// Replace the single-lock priority queue unless a previous exploration has already populated it.
+			var objectives = modelStore.getAdapter(DesignSpaceExplorationStoreAdapter.class).getObjectives();
+			objectiveStore = new ConcurrentObjectivePriorityQueue(objectives, numberOfExplorers);
+		}
+		do {
+			runExplorers(initial, randomSeed, numberOfExplorers);
+		} while (resumeAfterPendingChecks());
+	}
+
+	private void runExplorers(Version initial, long randomSeed, int numberOfExplorers) {
+		var coordinator = new ExplorationCoordinator(objectiveStore, numberOfExplorers);
+		var explorers = new ArrayList<BestFirstExplorer>(numberOfExplorers);
+		for (int i = 0; i < numberOfExplorers; i++) {
+			explorers.add(new BestFirstExplorer(this, modelStore.createModelForState(initial), randomSeed + i,
+					coordinator));
+		}
+		var failure = new ExplorationFailure();
+		var threads = new ArrayList<Thread>(numberOfExplorers - 1);
+		for (int i = 1; i < numberOfExplorers; i++) {
+			var explorer = explorers.get(i);
+			var thread = new Thread(() -> failure.run(explorer), "BestFirstExplorer-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+		// The calling thread also runs an explorer instead of waiting idly.
+		failure.run(explorers.getFirst());
+		joinAll(threads, coordinator);
+		failure.rethrow();
+	}
+
+	private static void joinAll(Iterable<Thread> threads, ExplorationCoordinator coordinator) {
+		boolean interrupted = false;
+		for (var thread : threads) {
+			while (true) {
+				try {
+					thread.join();
+					break;
+				} catch (InterruptedException e) {
+					// Stop the explorers, but wait for them to finish to avoid concurrent access to the stores.
+					interrupted = true;
+					coordinator.stop();
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static class ExplorationFailure {
+		private Throwable firstFailure;
+
+		public void run(BestFirstExplorer explorer) {
+			try {
+				explorer.explore();
+			} catch (RuntimeException | Error e) {
+				synchronized (this) {
+					if (firstFailure == null) {
+						firstFailure = e;
+					} else {
+						firstFailure.addSuppressed(e);
+					}
+				}
+			}
+		}
+
+		public synchronized void rethrow() {
+			if (firstFailure instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (firstFailure instanceof Error error) {
+				throw error;
+			}
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -11,10 +11,12 @@ import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
 import tools.refinery.store.dse.transition.ObjectiveValue;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.internal.ActivationStoreWorker;
+import tools.refinery.store.dse.transition.statespace.internal.VerifiedEquivalenceClassStore;
 import tools.refinery.store.map.Version;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.ModelQueryAdapter;
 import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.StateCoderResult;
 import tools.refinery.visualization.statespace.VisualizationStore;
 
 import java.util.Random;
@@ -29,10 +31,17 @@ public class BestFirstWorker {
 	final @Nullable PropagationAdapter propagationAdapter;
 	final VisualizationStore visualizationStore;
 	final boolean isVisualizationEnabled;
+	final @Nullable ExplorationCoordinator coordinator;
+	final @Nullable VerifiedEquivalenceClassStore verifiedEquivalenceClassStore;
 
 	public BestFirstWorker(BestFirstStoreManager storeManager, Model model) {
+		this(storeManager, model, null);
+	}
+
+	BestFirstWorker(BestFirstStoreManager storeManager, Model model, @Nullable ExplorationCoordinator coordinator) {
 		this.storeManager = storeManager;
 		this.model = model;
+		this.coordinator = coordinator;
 
 		explorationAdapter = model.getAdapter(DesignSpaceExplorationAdapter.class);
 		stateCoderAdapter = model.getAdapter(StateCoderAdapter.class);
@@ -42,6 +51,8 @@ public class BestFirstWorker {
 				explorationAdapter.getTransformations());
 		visualizationStore = storeManager.getVisualizationStore();
 		isVisualizationEnabled = visualizationStore != null;
+		verifiedEquivalenceClassStore = storeManager.getEquivalenceClassStore() instanceof
+				VerifiedEquivalenceClassStore verifiedStore ? verifiedStore : null;
 	}
 
 	protected VersionWithObjectiveValue last = null;
@@ -60,13 +71,23 @@ public class BestFirstWorker {
 		boolean isNew = storeManager.getEquivalenceClassStore().submit(code);
 		if (isNew) {
 			Version version = model.commit();
+			if (verifiedEquivalenceClassStore != null) {
+				verifiedEquivalenceClassStore.setRepresentative(code, version);
+			}
 			ObjectiveValue objectiveValue = explorationAdapter.getObjectiveValue();
 			var versionWithObjectiveValue = new VersionWithObjectiveValue(version, objectiveValue);
 			last = versionWithObjectiveValue;
 			var accepted = explorationAdapter.checkAccept();
 
-			storeManager.getObjectiveStore().submit(versionWithObjectiveValue);
-			storeManager.getActivationStore().markNewAsVisited(versionWithObjectiveValue, activationStoreWorker.calculateEmptyActivationSize());
+			// Register the activations of the new state before other workers can restore it from the objective store.
+			var visitResult = storeManager.getActivationStore().markNewAsVisited(versionWithObjectiveValue,
+					activationStoreWorker.calculateEmptyActivationSize());
+			if (visitResult.mayHaveMore()) {
+				storeManager.getObjectiveStore().submit(versionWithObjectiveValue);
+				if (coordinator != null) {
+					coordinator.statesAvailable();
+				}
+			}
 			if(accepted) {
 				storeManager.solutionStore.submit(versionWithObjectiveValue);
 			}
@@ -81,9 +102,30 @@ public class BestFirstWorker {
 			return new SubmitResult(true, accepted, objectiveValue, last);
 		}
 
+		if (verifiedEquivalenceClassStore != null) {
+			submitForVerification(verifiedEquivalenceClassStore, code);
+		}
 		return new SubmitResult(false, false, null, null);
 	}
 
+	private void submitForVerification(VerifiedEquivalenceClassStore equivalenceClassStore, StateCoderResult code) {
+		if (!model.hasUncommittedChanges()) {
+			// The state is the same as the initial state or the last one, which were already submitted.
+			return;
+		}
+		// We have to commit the state so that it can be compared to the other state with the same code in the
+		// background.
+		Version version = model.commit();
+		var versionWithObjectiveValue = new VersionWithObjectiveValue(version,
+				explorationAdapter.getObjectiveValue());
+		equivalenceClassStore.submit(versionWithObjectiveValue, code,
+				activationStoreWorker.calculateEmptyActivationSize(), explorationAdapter.checkAccept());
+		if (last != null) {
+			model.restore(last.version());
+		}
+		equivalenceClassStore.awaitCapacity();
+	}
+
 	public void restoreToLast() {
 		if (explorationAdapter.getModel().hasUncommittedChanges()) {
 			explorationAdapter.getModel().restore(last.version());
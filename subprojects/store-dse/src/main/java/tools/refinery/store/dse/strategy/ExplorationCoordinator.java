@@ -0,0 +1,87 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
+import tools.refinery.store.model.Model;
+
+/**
+ * Coordinates explorers running in parallel on the shared stores of a {@link BestFirstStoreManager}.
+ * <p>
+ * An explorer that finds no state to continue from may only stop if no other explorer is active, because active
+ * explorers may still submit new states. Otherwise, it waits until new states are submitted or every other explorer
+ * becomes idle.
+ */
+class ExplorationCoordinator {
+	// Waiting explorers wake up periodically to check for cancellation.
+	private static final long POLL_INTERVAL_MILLIS = 50;
+
+	private final ObjectivePriorityQueue objectiveStore;
+	private int activeExplorers;
+	private volatile int waitingExplorers;
+	private volatile boolean stopped;
+
+	public ExplorationCoordinator(ObjectivePriorityQueue objectiveStore, int numberOfExplorers) {
+		this.objectiveStore = objectiveStore;
+		activeExplorers = numberOfExplorers;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Stops all explorers, e.g., because one of them has failed.
+	 */
+	public synchronized void stop() {
+		stopped = true;
+		notifyAll();
+	}
+
+	/**
+	 * Waits until there are states to continue the exploration from.
+	 *
+	 * @param model The model of the waiting explorer, which is used to check for cancellation.
+	 * @return {@code true} if there are new states to explore, {@code false} if the exploration has finished.
+	 */
+	public synchronized boolean awaitStates(Model model) {
+		activeExplorers--;
+		waitingExplorers++;
+		try {
+			while (!stopped && objectiveStore.getSize() == 0 && activeExplorers > 0) {
+				model.checkCancelled();
+				wait(POLL_INTERVAL_MILLIS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			stopped = true;
+		} finally {
+			waitingExplorers--;
+			activeExplorers++;
+		}
+		return !stopped && objectiveStore.getSize() > 0;
+	}
+
+	/**
+	 * Wakes up the waiting explorers after a new state was submitted.
+	 */
+	public void statesAvailable() {
+		// Avoid contention on the monitor if no explorers are waiting.
+		if (waitingExplorers > 0) {
+			synchronized (this) {
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Marks an explorer as finished, so that waiting explorers do not wait for it to submit new states.
+	 */
+	public synchronized void explorerFinished() {
+		activeExplorers--;
+		notifyAll();
+	}
+}
@@ -8,20 +8,22 @@ package tools.refinery.store.dse.transition;
 import tools.refinery.store.dse.transition.actions.BoundAction;
 import tools.refinery.store.model.Model;
 import tools.refinery.store.query.ModelQueryAdapter;
-import tools.refinery.store.query.resultset.OrderedResultSet;
+import tools.refinery.store.query.resultset.IndexedResultSet;
 import tools.refinery.store.query.resultset.ResultSet;
 import tools.refinery.store.tuple.Tuple;
 
 public class Transformation {
 	private final Rule definition;
-	private final OrderedResultSet<Boolean> activations;
+	private final IndexedResultSet<Boolean> activations;
 	private final BoundAction action;
 
 	public Transformation(Model model, Rule definition) {
 		this.definition = definition;
 		var precondition = definition.getPrecondition();
 		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
-		activations = new OrderedResultSet<>(queryEngine.getResultSet(precondition));
+		// The activation store refers to activations by their index in each state, so the index of an activation
+		// must only depend on the state of the model, but not on how we reached it.
+		activations = new IndexedResultSet<>(queryEngine.getResultSet(precondition), true);
 		action = definition.createAction(model);
 	}
 
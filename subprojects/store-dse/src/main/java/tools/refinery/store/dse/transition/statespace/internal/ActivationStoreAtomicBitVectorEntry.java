@@ -0,0 +1,82 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A bit vector of visited activations that can be marked concurrently without locking.
+ * <p>
+ * Unlike {@link ActivationStoreBitVectorEntry}, bits are set with compare-and-set operations, and the number of
+ * visited activations is counted separately, so it can be read in constant time.
+ */
+public class ActivationStoreAtomicBitVectorEntry extends ActivationStoreEntry {
+	private static final int ELEMENT_POSITION = 5; // size of Integer.SIZE
+	private static final int ELEMENT_BITMASK = (1 << ELEMENT_POSITION) - 1;
+
+	private final AtomicIntegerArray selected;
+	private final AtomicInteger numberOfVisitedActivations = new AtomicInteger();
+
+	ActivationStoreAtomicBitVectorEntry(int numberOfActivations) {
+		super(numberOfActivations);
+		selected = new AtomicIntegerArray((numberOfActivations >> ELEMENT_POSITION) + 1);
+	}
+
+	@Override
+	public int getNumberOfVisitedActivations() {
+		return numberOfVisitedActivations.get();
+	}
+
+	@Override
+	public int getAndAddActivationAfter(int index) {
+		int activation = tryGetAndAddActivationAfter(index);
+		if (activation < 0) {
+			throw new IllegalArgumentException("There is are no unvisited activations!");
+		}
+		return activation;
+	}
+
+	/**
+	 * Marks the first unvisited activation starting from {@code index} (wrapping around at the end) as visited.
+	 *
+	 * @param index The index of the activation to start the search from.
+	 * @return The index of the marked activation, or {@code -1} if all activations were visited, e.g., because other
+	 * threads have marked the remaining ones concurrently.
+	 */
+	public int tryGetAndAddActivationAfter(int index) {
+		int activation = tryAddInRange(index, numberOfActivations);
+		if (activation >= 0) {
+			return activation;
+		}
+		return tryAddInRange(0, index);
+	}
+
+	private int tryAddInRange(int from, int to) {
+		int position = from;
+		while (position < to) {
+			final int selectedElement = position >> ELEMENT_POSITION;
+			final int element = selected.get(selectedElement);
+			// Only look at the bits at or after {@code position} in the current element.
+			final int unvisitedBits = ~element & (-1 << (position & ELEMENT_BITMASK));
+			if (unvisitedBits == 0) {
+				position = (selectedElement + 1) << ELEMENT_POSITION;
+				continue;
+			}
+			final int activation = (selectedElement << ELEMENT_POSITION) + Integer.numberOfTrailingZeros(unvisitedBits);
+			if (activation >= to) {
+				return -1;
+			}
+			final int selectedBit = 1 << (activation & ELEMENT_BITMASK);
+			if (selected.compareAndSet(selectedElement, element, element | selectedBit)) {
+				numberOfVisitedActivations.incrementAndGet();
+				return activation;
+			}
+			// Another thread has modified the element concurrently, so we have to look at it again.
+		}
+		return -1;
+	}
+}
@@ -1,12 +1,12 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.dse.transition.statespace.internal;
 
-import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
 import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
 import tools.refinery.store.statecoding.StateCoderResult;
@@ -28,7 +28,7 @@ public abstract class CompleteEquivalenceClassStore extends AbstractEquivalenceC
 		}
 	}
 
-	private final MutableIntObjectMap<Object> modelCode2Versions = IntObjectMaps.mutable.empty();
+	private final MutableLongObjectMap<Object> modelCode2Versions = LongObjectMaps.mutable.empty();
 
 	protected CompleteEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter) {
 		super(stateCoderStoreAdapter);
@@ -37,7 +37,7 @@ public abstract class CompleteEquivalenceClassStore extends AbstractEquivalenceC
 	@Override
 	protected boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
 					   int[] emptyActivations, boolean accept) {
-		int modelCode = stateCoderResult.modelCode();
+		long modelCode = stateCoderResult.modelCode();
 		Object old = modelCode2Versions.updateValue(
 				modelCode,
 				() -> newVersion,
@@ -80,7 +80,7 @@ public abstract class CompleteEquivalenceClassStore extends AbstractEquivalenceC
 		}
 
 		for (var entry : modelCode2Versions.keyValuesView()) {
-			int hash = entry.getOne();
+			long hash = entry.getOne();
 			var value = entry.getTwo();
 			if (value instanceof SymmetryStoreArray array) {
 				int size = array.size();
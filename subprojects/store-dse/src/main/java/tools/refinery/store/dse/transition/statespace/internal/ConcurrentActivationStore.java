@@ -0,0 +1,113 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.ActivationStore;
+import tools.refinery.store.map.Version;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * An activation store that can be used by multiple explorers concurrently without locking.
+ * <p>
+ * Entries are looked up by the {@link Version} of the states in a concurrent map, and activations are marked as
+ * visited with compare-and-set operations in {@link ActivationStoreAtomicBitVectorEntry} instances. Random
+ * activations are selected the same way as in {@link ActivationStoreImpl}, so a single explorer visits the same
+ * activations with both implementations. If other explorers visit the selected activations concurrently, the
+ * selection is repeated.
+ * <p>
+ * The callback for states with all activations visited may be called multiple times for the same state if multiple
+ * explorers visit its last activations concurrently.
+ */
+public class ConcurrentActivationStore implements ActivationStore {
+	final int numberOfTransformations;
+	final Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited;
+	final Map<Version, ActivationStoreAtomicBitVectorEntry[]> versionToActivations = new ConcurrentHashMap<>();
+
+	public ConcurrentActivationStore(final int numberOfTransformations,
+									 Consumer<VersionWithObjectiveValue> actionWhenAllActivationVisited) {
+		this.numberOfTransformations = numberOfTransformations;
+		this.actionWhenAllActivationVisited = actionWhenAllActivationVisited;
+	}
+
+	@Override
+	public VisitResult markNewAsVisited(VersionWithObjectiveValue to, int[] emptyEntrySizes) {
+		var newEntries = new ActivationStoreAtomicBitVectorEntry[emptyEntrySizes.length];
+		for (int i = 0; i < emptyEntrySizes.length; i++) {
+			newEntries[i] = new ActivationStoreAtomicBitVectorEntry(emptyEntrySizes[i]);
+		}
+		var existingEntries = versionToActivations.putIfAbsent(to.version(), newEntries);
+		boolean successful = existingEntries == null;
+		var entries = successful ? newEntries : existingEntries;
+		boolean hasMore = hasUnvisited(entries);
+		if (!hasMore) {
+			actionWhenAllActivationVisited.accept(to);
+		}
+		return new VisitResult(successful, hasMore, -1, -1);
+	}
+
+	@Override
+	public boolean hasUnmarkedActivation(VersionWithObjectiveValue version) {
+		return hasUnvisited(versionToActivations.get(version.version()));
+	}
+
+	@Override
+	public VisitResult getRandomAndMarkAsVisited(VersionWithObjectiveValue version, Random random) {
+		var entries = versionToActivations.get(version.version());
+		var weights = new double[entries.length];
+		while (true) {
+			double totalWeight = 0;
+			for (int i = 0; i < weights.length; i++) {
+				int unvisited = entries[i].getNumberOfUnvisitedActivations();
+				double weight = unvisited == 0 ? 0 : unvisited;
+				weights[i] = weight;
+				totalWeight += weight;
+			}
+
+			if (totalWeight == 0) {
+				actionWhenAllActivationVisited.accept(version);
+				return new VisitResult(false, false, -1, -1);
+			}
+
+			double offset = random.nextDouble(totalWeight);
+			int transformation = selectTransformation(weights, offset);
+			var entry = entries[transformation];
+			int activation = entry.tryGetAndAddActivationAfter(random.nextInt(entry.getNumberOfActivations()));
+			if (activation >= 0) {
+				boolean hasMore = hasUnvisited(entries);
+				if (!hasMore) {
+					actionWhenAllActivationVisited.accept(version);
+				}
+				return new VisitResult(true, hasMore, transformation, activation);
+			}
+			// Other explorers have visited all activations of the selected transformation in the meantime.
+		}
+	}
+
+	private static int selectTransformation(double[] weights, double offset) {
+		for (int transformation = 0; transformation < weights.length; transformation++) {
+			double weight = weights[transformation];
+			if (weight > 0 && offset < weight) {
+				return transformation;
+			}
+			offset -= weight;
+		}
+		throw new AssertionError("Unvisited activation %f not found".formatted(offset));
+	}
+
+	private static boolean hasUnvisited(ActivationStoreEntry[] entries) {
+		for (var entry : entries) {
+			if (entry.getNumberOfUnvisitedActivations() > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.jetbrains.annotations.NotNull;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.dse.transition.statespace.ObjectivePriorityQueue;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.query.utils.OrderStatisticTree;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A relaxed priority queue that can be used by multiple explorers concurrently.
+ * <p>
+ * States are distributed randomly among several sub-queues (a <em>MultiQueue</em>), each protected by its own lock.
+ * {@link #getBest()} compares the best states of two randomly chosen sub-queues without locking, so it returns one of
+ * the best states, but not necessarily the best one. Each sub-queue is an {@link OrderStatisticTree}, so
+ * {@link #getRandom(Random)} and removal by {@link Version} take logarithmic time.
+ * <p>
+ * Removing a state that is not in the queue has no effect, because the activation store may report the same state as
+ * exhausted multiple times.
+ */
+public class ConcurrentObjectivePriorityQueue implements ObjectivePriorityQueue {
+	// Use more sub-queues than explorers to make it unlikely that explorers contend for the same lock.
+	private static final int SUB_QUEUES_PER_EXPLORER = 2;
+
+	private final Comparator<VersionWithObjectiveValue> comparator;
+	private final SubQueue[] subQueues;
+	private final Map<Version, Entry> entries = new ConcurrentHashMap<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final AtomicLong nextSequenceNumber = new AtomicLong();
+
+	public ConcurrentObjectivePriorityQueue(List<Objective> objectives, int numberOfExplorers) {
+		if (objectives.size() != 1) {
+			throw new UnsupportedOperationException("Only single objective comparator is implemented currently!");
+		}
+		if (numberOfExplorers < 1) {
+			throw new IllegalArgumentException("Number of explorers must be positive, got: " + numberOfExplorers);
+		}
+		comparator = ObjectivePriorityQueueImpl.c1;
+		subQueues = new SubQueue[numberOfExplorers * SUB_QUEUES_PER_EXPLORER];
+		for (int i = 0; i < subQueues.length; i++) {
+			subQueues[i] = new SubQueue();
+		}
+	}
+
+	@Override
+	public Comparator<VersionWithObjectiveValue> getComparator() {
+		return comparator;
+	}
+
+	@Override
+	public void submit(VersionWithObjectiveValue versionWithObjectiveValue) {
+		int subQueueIndex = ThreadLocalRandom.current().nextInt(subQueues.length);
+		var entry = new Entry(versionWithObjectiveValue, nextSequenceNumber.getAndIncrement(), subQueueIndex);
+		var subQueue = subQueues[subQueueIndex];
+		// Hold the lock of the sub-queue while publishing the entry, so that a concurrent removal of the same state
+		// waits until the entry is added to the sub-queue.
+		synchronized (subQueue) {
+			if (entries.putIfAbsent(versionWithObjectiveValue.version(), entry) != null) {
+				// The state is already in the queue.
+				return;
+			}
+			subQueue.add(entry);
+			size.incrementAndGet();
+		}
+	}
+
+	@Override
+	public void remove(VersionWithObjectiveValue versionWithObjectiveValue) {
+		var entry = entries.remove(versionWithObjectiveValue.version());
+		if (entry == null) {
+			return;
+		}
+		subQueues[entry.subQueueIndex()].remove(entry);
+		size.decrementAndGet();
+	}
+
+	@Override
+	public int getSize() {
+		return size.get();
+	}
+
+	@Override
+	public VersionWithObjectiveValue getBest() {
+		var random = ThreadLocalRandom.current();
+		var first = subQueues[random.nextInt(subQueues.length)].getBest();
+		var second = subQueues[random.nextInt(subQueues.length)].getBest();
+		var best = better(first, second);
+		if (best == null) {
+			// Both sampled sub-queues are empty, but there may be states in other sub-queues.
+			for (var subQueue : subQueues) {
+				best = better(best, subQueue.getBest());
+			}
+		}
+		return best == null ? null : best.value();
+	}
+
+	@Override
+	public VersionWithObjectiveValue getRandom(Random random) {
+		int totalSize = size.get();
+		if (totalSize <= 0) {
+			// Other explorers may have removed the last entry since the caller has checked the size.
+			return null;
+		}
+		int offset = random.nextInt(totalSize);
+		// Sub-queue sizes may change concurrently, so we look at each sub-queue at most once, starting from the one
+		// that likely contains the selected position.
+		int start = 0;
+		while (start < subQueues.length - 1 && offset >= subQueues[start].getSize()) {
+			offset -= subQueues[start].getSize();
+			start++;
+		}
+		for (int i = 0; i < subQueues.length; i++) {
+			var entry = subQueues[(start + i) % subQueues.length].get(offset);
+			if (entry != null) {
+				return entry.value();
+			}
+		}
+		return null;
+	}
+
+	private Entry better(Entry left, Entry right) {
+		if (left == null) {
+			return right;
+		}
+		if (right == null) {
+			return left;
+		}
+		return left.compareTo(right) <= 0 ? left : right;
+	}
+
+	private final class Entry implements Comparable<Entry> {
+		private final VersionWithObjectiveValue value;
+		// Breaks ties between states with equal objective values, because the sub-queues are sets.
+		private final long sequenceNumber;
+		private final int subQueueIndex;
+
+		Entry(VersionWithObjectiveValue value, long sequenceNumber, int subQueueIndex) {
+			this.value = value;
+			this.sequenceNumber = sequenceNumber;
+			this.subQueueIndex = subQueueIndex;
+		}
+
+		public VersionWithObjectiveValue value() {
+			return value;
+		}
+
+		public int subQueueIndex() {
+			return subQueueIndex;
+		}
+
+		@Override
+		public int compareTo(@NotNull Entry other) {
+			int result = comparator.compare(value, other.value);
+			if (result != 0) {
+				return result;
+			}
+			return Long.compare(sequenceNumber, other.sequenceNumber);
+		}
+	}
+
+	private static final class SubQueue {
+		private final OrderStatisticTree<Entry> tree = new OrderStatisticTree<>();
+		// Published without locking for {@link ConcurrentObjectivePriorityQueue#getBest()}.
+		private volatile Entry best;
+		private volatile int size;
+
+		public Entry getBest() {
+			return best;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public synchronized void add(Entry entry) {
+			tree.add(entry);
+			size = tree.size();
+			var currentBest = best;
+			if (currentBest == null || entry.compareTo(currentBest) < 0) {
+				best = entry;
+			}
+		}
+
+		public synchronized void remove(Entry entry) {
+			tree.remove(entry);
+			size = tree.size();
+			if (best == entry) {
+				best = tree.isEmpty() ? null : tree.get(0);
+			}
+		}
+
+		/**
+		 * Gets the entry at the given position, or the last entry if there are fewer entries.
+		 *
+		 * @param index The position of the entry.
+		 * @return The entry, or {@code null} if the sub-queue is empty.
+		 */
+		public synchronized Entry get(int index) {
+			int currentSize = tree.size();
+			if (currentSize == 0) {
+				return null;
+			}
+			return tree.get(Math.min(index, currentSize - 1));
+		}
+	}
+}
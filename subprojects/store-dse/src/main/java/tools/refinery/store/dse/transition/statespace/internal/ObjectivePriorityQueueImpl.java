@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -57,7 +57,12 @@ public class ObjectivePriorityQueueImpl implements ObjectivePriorityQueue {
 
 	@Override
 	public synchronized VersionWithObjectiveValue getRandom(Random random) {
-		int randomPosition = random.nextInt(getSize());
+		int size = priorityQueue.size();
+		if (size == 0) {
+			// Other explorers may have removed the last entry since the caller has checked the size.
+			return null;
+		}
+		int randomPosition = random.nextInt(size);
 		for (VersionWithObjectiveValue entry : this.priorityQueue) {
 			if (randomPosition-- == 0) {
 				return entry;
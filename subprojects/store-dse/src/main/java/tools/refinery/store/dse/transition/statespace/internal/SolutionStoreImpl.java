@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -37,12 +37,12 @@ public class SolutionStoreImpl implements SolutionStore {
 	}
 
 	@Override
-	public List<VersionWithObjectiveValue> getSolutions() {
+	public synchronized List<VersionWithObjectiveValue> getSolutions() {
 		return new ArrayList<>(solutions);
 	}
 
 	@Override
-	public boolean hasEnoughSolution() {
+	public synchronized boolean hasEnoughSolution() {
 		if (maxNumberSolutions == UNLIMITED) {
 			return false;
 		} else {
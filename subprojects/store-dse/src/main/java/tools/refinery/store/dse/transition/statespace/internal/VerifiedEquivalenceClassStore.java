@@ -0,0 +1,198 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.factory.primitive.LongSets;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.statespace.EquivalenceClassStore;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.statecoding.StateCoderStoreAdapter;
+import tools.refinery.store.statecoding.StateEquivalenceChecker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An equivalence class store that keeps the codes of visited states in a primitive set, like
+ * {@link FastEquivalenceClassStore}, but does not assume that states with the same code are isomorphic.
+ * <p>
+ * States with a code that was already seen have to be submitted with their versions by
+ * {@link #submit(VersionWithObjectiveValue, StateCoderResult, int[], boolean)}. They are compared to the explored
+ * states with the same code (the <em>representatives</em>, see {@link #setRepresentative(StateCoderResult, Version)})
+ * by the {@link StateEquivalenceChecker} in a background thread. If they turn out to be different from every
+ * representative, they also become representatives and are passed to {@link #delegate(VersionWithObjectiveValue,
+ * int[], boolean)}, so that they can be explored. Every such state is verified, because any secondary fingerprint
+ * computed from the state code would fail to tell apart exactly those states that the state coder cannot
+ * distinguish. To bound the number of committed states waiting for verification, submitters should call
+ * {@link #awaitCapacity()}.
+ */
+public abstract class VerifiedEquivalenceClassStore extends AbstractEquivalenceClassStore
+		implements EquivalenceClassStore {
+	// Threads waiting for pending checks wake up periodically to help with resolving them.
+	private static final long POLL_INTERVAL_MILLIS = 50;
+	private static final long KEEP_ALIVE_SECONDS = 1;
+	private static final int MAX_PENDING_CHECKS = 1024;
+
+	private final MutableLongSet codes = LongSets.mutable.empty();
+	// Values are either a single {@link Version} or a {@link RepresentativeList} in case of hash collisions.
+	private final MutableLongObjectMap<Object> representatives = LongObjectMaps.mutable.empty();
+	private final Queue<PendingCheck> pendingChecks = new ConcurrentLinkedQueue<>();
+	// Checks are serialized, so that multiple isomorphic states are not added as representatives at the same time.
+	private final Object checkLock = new Object();
+	private final ThreadPoolExecutor executor;
+
+	private static class RepresentativeList extends ArrayList<Version> {
+	}
+
+	private record PendingCheck(long modelCode, VersionWithObjectiveValue version, int[] emptyActivations,
+								boolean accept) {
+	}
+
+	protected VerifiedEquivalenceClassStore(StateCoderStoreAdapter stateCoderStoreAdapter) {
+		super(stateCoderStoreAdapter);
+		executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+				runnable -> {
+					var thread = new Thread(runnable, "VerifiedEquivalenceClassStore");
+					thread.setDaemon(true);
+					return thread;
+				});
+		// Do not keep a thread alive for idle stores.
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	@Override
+	public synchronized boolean tryToAdd(StateCoderResult stateCoderResult) {
+		return codes.add(stateCoderResult.modelCode());
+	}
+
+	@Override
+	protected boolean tryToAdd(StateCoderResult stateCoderResult, VersionWithObjectiveValue newVersion,
+							   int[] emptyActivations, boolean accept) {
+		long modelCode = stateCoderResult.modelCode();
+		if (codes.add(modelCode)) {
+			representatives.put(modelCode, newVersion.version());
+			return true;
+		}
+		pendingChecks.add(new PendingCheck(modelCode, newVersion, emptyActivations, accept));
+		executor.execute(this::resolveOneSymmetry);
+		return false;
+	}
+
+	/**
+	 * Adds a state that states with the same code will be compared to.
+	 *
+	 * @param stateCoderResult The code of the state, which was accepted by {@link #submit(StateCoderResult)}.
+	 * @param version          The version of the state.
+	 */
+	public void setRepresentative(StateCoderResult stateCoderResult, Version version) {
+		addRepresentative(stateCoderResult.modelCode(), version);
+	}
+
+	private synchronized void addRepresentative(long modelCode, Version version) {
+		representatives.updateValue(modelCode, () -> version, value -> {
+			if (value == version) {
+				return value;
+			}
+			if (value instanceof RepresentativeList list) {
+				list.add(version);
+				return list;
+			}
+			var list = new RepresentativeList();
+			list.add((Version) value);
+			list.add(version);
+			return list;
+		});
+	}
+
+	private synchronized List<Version> getRepresentatives(long modelCode) {
+		var value = representatives.get(modelCode);
+		if (value == null) {
+			return List.of();
+		}
+		if (value instanceof RepresentativeList list) {
+			return List.copyOf(list);
+		}
+		return List.of((Version) value);
+	}
+
+	@Override
+	public void resolveOneSymmetry() {
+		var pendingCheck = pendingChecks.poll();
+		if (pendingCheck == null) {
+			return;
+		}
+		try {
+			if (isNewState(pendingCheck)) {
+				delegate(pendingCheck.version(), pendingCheck.emptyActivations(), pendingCheck.accept());
+			}
+		} finally {
+			synchronized (this) {
+				numberOfUnresolvedSymmetries--;
+				notifyAll();
+			}
+		}
+	}
+
+	private boolean isNewState(PendingCheck pendingCheck) {
+		long modelCode = pendingCheck.modelCode();
+		var version = pendingCheck.version().version();
+		synchronized (checkLock) {
+			// If the first state with the same code is still being committed by another explorer, there are no
+			// representatives yet. We explore this state anyway instead of waiting for it.
+			for (var representative : getRepresentatives(modelCode)) {
+				var outcome = stateCoderStoreAdapter.checkEquivalence(representative, version);
+				if (outcome == StateEquivalenceChecker.EquivalenceResult.ISOMORPHIC) {
+					return false;
+				}
+			}
+			addRepresentative(modelCode, version);
+			return true;
+		}
+	}
+
+	/**
+	 * Resolves pending checks on the calling thread while too many submitted states are waiting for verification.
+	 * <p>
+	 * Must not be called while holding the lock of this store.
+	 */
+	public void awaitCapacity() {
+		while (pendingChecks.size() > MAX_PENDING_CHECKS) {
+			resolveOneSymmetry();
+		}
+	}
+
+	/**
+	 * Waits until all submitted states are compared to their representatives. The calling thread also helps with
+	 * resolving the pending checks.
+	 */
+	public void awaitPendingChecks() {
+		while (true) {
+			resolveOneSymmetry();
+			synchronized (this) {
+				if (numberOfUnresolvedSymmetries <= 0) {
+					return;
+				}
+				if (pendingChecks.isEmpty()) {
+					try {
+						wait(POLL_INTERVAL_MILLIS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
+import tools.refinery.store.dse.transition.Rule;
+import tools.refinery.store.dse.transition.objectives.Objectives;
+import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.tuple.Tuple;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static tools.refinery.store.dse.transition.actions.ActionLiterals.add;
+import static tools.refinery.store.query.literal.Literals.not;
+
+class ParallelExplorationTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery friendQuery = Query.of("Friend", (builder, p1, p2) -> builder
+			.clause(friendView.call(p1, p2)));
+	private static final Rule addFriendRule = Rule.of("AddFriend", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					p1.notEquivalent(p2),
+					not(friendView.call(p1, p2))
+			)
+			.action(
+					add(friend, p1, p2)
+			));
+
+	@Test
+	void exhaustiveExplorationTest() {
+		var store = createStore();
+		var initialVersion = createInitialVersion(store);
+
+		var sequential = new BestFirstStoreManager(store, SolutionStoreImpl.UNLIMITED);
+		sequential.startExploration(initialVersion, 1);
+		var parallel = new BestFirstStoreManager(store, SolutionStoreImpl.UNLIMITED);
+		parallel.startExploration(initialVersion, 1, 4);
+
+		// Both explorations visit every equivalence class of states, and every state is a solution.
+		assertThat(parallel.getSolutionStore().getSolutions().size(),
+				is(sequential.getSolutionStore().getSolutions().size()));
+	}
+
+	@Test
+	void enoughSolutionsTest() {
+		var store = createStore();
+		var initialVersion = createInitialVersion(store);
+
+		var bestFirst = new BestFirstStoreManager(store, 5);
+		bestFirst.startExploration(initialVersion, 1, 4);
+
+		assertThat(bestFirst.getSolutionStore().hasEnoughSolution(), is(true));
+	}
+
+	@Test
+	void invalidNumberOfExplorersTest() {
+		var store = createStore();
+		var initialVersion = createInitialVersion(store);
+		var bestFirst = new BestFirstStoreManager(store, 1);
+
+		assertThrows(IllegalArgumentException.class, () -> bestFirst.startExploration(initialVersion, 1, 0));
+	}
+
+	private static ModelStore createStore() {
+		return ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder())
+				.with(StateCoderAdapter.builder())
+				.with(DesignSpaceExplorationAdapter.builder()
+						.transformations(addFriendRule)
+						.objectives(Objectives.count(friendQuery)))
+				.build();
+	}
+
+	private static Version createInitialVersion(ModelStore store) {
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		model.getAdapter(ModelQueryAdapter.class).flushChanges();
+		return model.commit();
+	}
+}
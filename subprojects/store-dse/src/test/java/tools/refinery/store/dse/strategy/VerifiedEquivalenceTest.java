@@ -0,0 +1,146 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.strategy;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.DesignSpaceExplorationAdapter;
+import tools.refinery.store.dse.transition.Rule;
+import tools.refinery.store.dse.transition.objectives.Objectives;
+import tools.refinery.store.dse.transition.statespace.internal.SolutionStoreImpl;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.StateCoderAdapter;
+import tools.refinery.store.statecoding.StateCoderBuilder;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.statecoding.neighbourhood.NeighbourhoodCalculator;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static tools.refinery.store.dse.transition.actions.ActionLiterals.add;
+import static tools.refinery.store.query.literal.Literals.not;
+
+class VerifiedEquivalenceTest {
+	// Only keep a single bit of the model code to force hash collisions between different states. The object codes are
+	// kept intact, so they are the same as the ones of the exact state coder.
+	private static final long COLLIDING_CODE_MASK = 1;
+
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery friendQuery = Query.of("Friend", (builder, p1, p2) -> builder
+			.clause(friendView.call(p1, p2)));
+	private static final Rule addFriendRule = Rule.of("AddFriend", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					p1.notEquivalent(p2),
+					not(friendView.call(p1, p2))
+			)
+			.action(
+					add(friend, p1, p2)
+			));
+
+	@Test
+	void collidingCodesTest() {
+		var exactStore = createStore(StateCoderAdapter.builder());
+		var exact = new BestFirstStoreManager(exactStore, SolutionStoreImpl.UNLIMITED);
+		exact.startExploration(createInitialVersion(exactStore), 1);
+		int numberOfStates = exact.getSolutionStore().getSolutions().size();
+
+		var collidingStore = createStore(createCollidingStateCoder());
+		var collidingInitialVersion = createInitialVersion(collidingStore);
+		var unverified = new BestFirstStoreManager(collidingStore, SolutionStoreImpl.UNLIMITED);
+		unverified.startExploration(collidingInitialVersion, 1);
+		var verified = new BestFirstStoreManager(collidingStore, SolutionStoreImpl.UNLIMITED, true);
+		verified.startExploration(collidingInitialVersion, 1);
+
+		// Without verification, states with colliding codes are pruned.
+		assertThat(unverified.getSolutionStore().getSolutions().size(),
+				lessThanOrEqualTo((int) COLLIDING_CODE_MASK + 1));
+		// Every equivalence class of states is visited exactly once with verification.
+		assertThat(verified.getSolutionStore().getSolutions().size(), equalTo(numberOfStates));
+	}
+
+	@Test
+	void parallelCollidingCodesTest() {
+		var exactStore = createStore(StateCoderAdapter.builder());
+		var exact = new BestFirstStoreManager(exactStore, SolutionStoreImpl.UNLIMITED);
+		exact.startExploration(createInitialVersion(exactStore), 1);
+		int numberOfStates = exact.getSolutionStore().getSolutions().size();
+
+		var collidingStore = createStore(createCollidingStateCoder());
+		var verified = new BestFirstStoreManager(collidingStore, SolutionStoreImpl.UNLIMITED, true);
+		verified.startExploration(createInitialVersion(collidingStore), 1, 4);
+
+		// Explorers racing to submit isomorphic states must not explore them twice.
+		assertThat(verified.getSolutionStore().getSolutions().size(), equalTo(numberOfStates));
+	}
+
+	@Test
+	void indistinguishableStatesTest() {
+		var exactStore = createStore(StateCoderAdapter.builder());
+		var exact = new BestFirstStoreManager(exactStore, SolutionStoreImpl.UNLIMITED);
+		exact.startExploration(createInitialVersion(exactStore), 1);
+		int numberOfStates = exact.getSolutionStore().getSolutions().size();
+
+		var indistinguishableStore = createStore(createPersonOnlyStateCoder());
+		var verified = new BestFirstStoreManager(indistinguishableStore, SolutionStoreImpl.UNLIMITED, true);
+		verified.startExploration(createInitialVersion(indistinguishableStore), 1);
+
+		// Every state gets the same model and object codes, so only the equivalence checker can tell them apart.
+		assertThat(verified.getSolutionStore().getSolutions().size(), equalTo(numberOfStates));
+	}
+
+	private static StateCoderBuilder createCollidingStateCoder() {
+		return StateCoderAdapter.builder()
+				.stateCodeCalculatorFactory((model, interpretations, individuals) -> {
+					var calculator = new NeighbourhoodCalculator(model, interpretations, individuals);
+					return () -> {
+						var result = calculator.calculateCodes();
+						return new StateCoderResult(result.modelCode() & COLLIDING_CODE_MASK, result.objectCode());
+					};
+				});
+	}
+
+	private static StateCoderBuilder createPersonOnlyStateCoder() {
+		return StateCoderAdapter.builder()
+				.stateCodeCalculatorFactory((model, interpretations, individuals) -> new NeighbourhoodCalculator(
+						model, List.of(model.getInterpretation(person)), individuals));
+	}
+
+	private static ModelStore createStore(StateCoderBuilder stateCoderBuilder) {
+		return ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder())
+				.with(stateCoderBuilder)
+				.with(DesignSpaceExplorationAdapter.builder()
+						.transformations(addFriendRule)
+						.objectives(Objectives.count(friendQuery)))
+				.build();
+	}
+
+	private static Version createInitialVersion(ModelStore store) {
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		model.getAdapter(ModelQueryAdapter.class).flushChanges();
+		return model.commit();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -22,7 +22,8 @@ class ActivationUnitTest {
 	private static Stream<ActivationStoreEntry> entries() {
 		return Stream.of(
 				new ActivationStoreBitVectorEntry(SMALL_SIZE),
-				new ActivationStoreListEntry(SMALL_SIZE)
+				new ActivationStoreListEntry(SMALL_SIZE),
+				new ActivationStoreAtomicBitVectorEntry(SMALL_SIZE)
 		);
 	}
 
@@ -125,7 +126,8 @@ class ActivationUnitTest {
 	private static Stream<Supplier<ActivationStoreEntry>> entryFactories() {
 		return Stream.of(
 				() -> new ActivationStoreBitVectorEntry(SMALL_SIZE),
-				() -> new ActivationStoreListEntry(SMALL_SIZE)
+				() -> new ActivationStoreListEntry(SMALL_SIZE),
+				() -> new ActivationStoreAtomicBitVectorEntry(SMALL_SIZE)
 		);
 	}
 }
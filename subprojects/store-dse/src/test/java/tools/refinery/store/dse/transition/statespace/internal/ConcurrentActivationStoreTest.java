@@ -0,0 +1,92 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.map.Version;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ConcurrentActivationStoreTest {
+	private static final int NUMBER_OF_THREADS = 8;
+	private static final int[] SIZES = {0, 1, 31, 32, 33, 1000};
+
+	@Test
+	void markNewTest() {
+		var version = createVersion();
+		var finished = new AtomicInteger();
+		var store = new ConcurrentActivationStore(SIZES.length, x -> finished.incrementAndGet());
+
+		var result = store.markNewAsVisited(version, SIZES);
+		Assertions.assertTrue(result.successfulVisit());
+		Assertions.assertTrue(result.mayHaveMore());
+		Assertions.assertTrue(store.hasUnmarkedActivation(version));
+		Assertions.assertFalse(store.markNewAsVisited(version, SIZES).successfulVisit());
+
+		var emptyVersion = createVersion();
+		var emptyResult = store.markNewAsVisited(emptyVersion, new int[]{0, 0});
+		Assertions.assertFalse(emptyResult.mayHaveMore());
+		Assertions.assertEquals(1, finished.get());
+	}
+
+	@Test
+	void concurrentVisitTest() throws InterruptedException {
+		var version = createVersion();
+		var finished = new AtomicInteger();
+		var store = new ConcurrentActivationStore(SIZES.length, x -> finished.incrementAndGet());
+		store.markNewAsVisited(version, SIZES);
+		var visited = ConcurrentHashMap.<Long>newKeySet();
+		var duplicates = new AtomicInteger();
+
+		var threads = new ArrayList<Thread>(NUMBER_OF_THREADS);
+		for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+			int seed = i;
+			var thread = new Thread(() -> visitAll(store, version, seed, visited, duplicates));
+			threads.add(thread);
+			thread.start();
+		}
+		for (var thread : threads) {
+			thread.join();
+		}
+
+		int total = 0;
+		for (int size : SIZES) {
+			total += size;
+		}
+		Assertions.assertEquals(0, duplicates.get());
+		Assertions.assertEquals(total, visited.size());
+		Assertions.assertFalse(store.hasUnmarkedActivation(version));
+		Assertions.assertTrue(finished.get() >= 1);
+	}
+
+	private static void visitAll(ConcurrentActivationStore store, VersionWithObjectiveValue version, int seed,
+								 Set<Long> visited, AtomicInteger duplicates) {
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(seed);
+		while (true) {
+			var result = store.getRandomAndMarkAsVisited(version, random);
+			if (!result.successfulVisit()) {
+				return;
+			}
+			long key = ((long) result.transformation() << Integer.SIZE) | result.activation();
+			if (!visited.add(key)) {
+				duplicates.incrementAndGet();
+			}
+		}
+	}
+
+	private static VersionWithObjectiveValue createVersion() {
+		return new VersionWithObjectiveValue(new Version() {
+		}, ObjectiveValue.of(0));
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.dse.transition.statespace.internal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.dse.transition.ObjectiveValue;
+import tools.refinery.store.dse.transition.VersionWithObjectiveValue;
+import tools.refinery.store.dse.transition.objectives.Objective;
+import tools.refinery.store.map.Version;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ConcurrentObjectivePriorityQueueTest {
+	private static final int NUMBER_OF_THREADS = 8;
+	private static final int STATES_PER_THREAD = 1000;
+	private static final List<Objective> OBJECTIVES = List.of(model -> null);
+
+	@Test
+	void submitAndRemoveTest() {
+		var queue = new ConcurrentObjectivePriorityQueue(OBJECTIVES, 2);
+		var versions = new ArrayList<VersionWithObjectiveValue>();
+		for (int i = 0; i < 10; i++) {
+			var version = createVersion(i);
+			versions.add(version);
+			queue.submit(version);
+		}
+		queue.submit(versions.getFirst());
+		Assertions.assertEquals(10, queue.getSize());
+
+		queue.remove(versions.get(3));
+		queue.remove(versions.get(3));
+		Assertions.assertEquals(9, queue.getSize());
+
+		for (var version : versions) {
+			queue.remove(version);
+		}
+		Assertions.assertEquals(0, queue.getSize());
+		Assertions.assertNull(queue.getBest());
+		Assertions.assertNull(queue.getRandom(new Random(1)));
+	}
+
+	@Test
+	void getBestTest() {
+		var queue = new ConcurrentObjectivePriorityQueue(OBJECTIVES, 1);
+		var best = createVersion(-1);
+		var versions = Set.of(createVersion(2), best, createVersion(1));
+		for (var version : versions) {
+			queue.submit(version);
+		}
+		// The best state is only returned if one of the sampled sub-queues contains it.
+		boolean foundBest = false;
+		for (int i = 0; i < 100; i++) {
+			var result = queue.getBest();
+			Assertions.assertTrue(versions.contains(result));
+			foundBest |= result == best;
+		}
+		Assertions.assertTrue(foundBest);
+	}
+
+	@Test
+	void getRandomTest() {
+		var queue = new ConcurrentObjectivePriorityQueue(OBJECTIVES, 4);
+		var versions = new HashSet<VersionWithObjectiveValue>();
+		for (int i = 0; i < 20; i++) {
+			var version = createVersion(i % 5);
+			versions.add(version);
+			queue.submit(version);
+		}
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(1);
+		var selected = new HashSet<VersionWithObjectiveValue>();
+		for (int i = 0; i < 1000; i++) {
+			var version = queue.getRandom(random);
+			Assertions.assertTrue(versions.contains(version));
+			selected.add(version);
+		}
+		Assertions.assertEquals(versions, selected);
+	}
+
+	@Test
+	void concurrentSubmitAndRemoveTest() throws InterruptedException {
+		var queue = new ConcurrentObjectivePriorityQueue(OBJECTIVES, NUMBER_OF_THREADS);
+		var removed = ConcurrentHashMap.<VersionWithObjectiveValue>newKeySet();
+
+		var threads = new ArrayList<Thread>(NUMBER_OF_THREADS);
+		for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+			int seed = i;
+			var thread = new Thread(() -> submitAndRemove(queue, seed, removed));
+			threads.add(thread);
+			thread.start();
+		}
+		for (var thread : threads) {
+			thread.join();
+		}
+
+		Assertions.assertEquals(NUMBER_OF_THREADS * STATES_PER_THREAD, removed.size());
+		Assertions.assertEquals(0, queue.getSize());
+		Assertions.assertNull(queue.getBest());
+	}
+
+	private static void submitAndRemove(ConcurrentObjectivePriorityQueue queue, int seed,
+										Set<VersionWithObjectiveValue> removed) {
+		@SuppressWarnings("squid:S2245")
+		var random = new Random(seed);
+		for (int i = 0; i < STATES_PER_THREAD; i++) {
+			queue.submit(createVersion(random.nextInt(100)));
+			var version = random.nextBoolean() ? queue.getBest() : queue.getRandom(random);
+			if (version != null) {
+				// Removal is idempotent, so multiple threads may remove the same state.
+				queue.remove(version);
+				removed.add(version);
+			}
+		}
+		while (true) {
+			var version = queue.getBest();
+			if (version == null) {
+				return;
+			}
+			queue.remove(version);
+			removed.add(version);
+		}
+	}
+
+	private static VersionWithObjectiveValue createVersion(double value) {
+		return new VersionWithObjectiveValue(new Version() {
+		}, ObjectiveValue.of(value));
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the maintenance of transitive reachability when edges are repeatedly deleted and restored.
+ * <p>
+ * Every benchmark restores the deleted edges, so that each invocation starts from the same graph. Standard evaluation
+ * is compared to timely evaluation, which replaces the memories and mailboxes of the Rete network with timely ones.
+ */
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Measurement(time = 1, timeUnit = TimeUnit.SECONDS)
+@Warmup(time = 1, timeUnit = TimeUnit.SECONDS)
+public class DeletionBenchmark {
+	@Benchmark
+	public void batchDeletionBenchmark(DeletionExecutionPlan executionPlan, Blackhole blackhole) {
+		var deletions = executionPlan.nextDeletions();
+		for (var edge : deletions) {
+			executionPlan.setEdge(edge, false);
+		}
+		executionPlan.flushChanges();
+		blackhole.consume(executionPlan.getUnreachableCount());
+		for (var edge : deletions) {
+			executionPlan.setEdge(edge, true);
+		}
+		executionPlan.flushChanges();
+		blackhole.consume(executionPlan.getUnreachableCount());
+	}
+
+	@Benchmark
+	public void incrementalDeletionBenchmark(DeletionExecutionPlan executionPlan, Blackhole blackhole) {
+		var deletions = executionPlan.nextDeletions();
+		for (var edge : deletions) {
+			executionPlan.setEdge(edge, false);
+			executionPlan.flushChanges();
+			blackhole.consume(executionPlan.getUnreachableCount());
+		}
+		for (var edge : deletions) {
+			executionPlan.setEdge(edge, true);
+		}
+		executionPlan.flushChanges();
+		blackhole.consume(executionPlan.getUnreachableCount());
+	}
+}
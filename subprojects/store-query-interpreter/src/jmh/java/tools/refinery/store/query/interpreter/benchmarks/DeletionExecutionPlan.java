@@ -0,0 +1,121 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.interpreter.RecursionEvaluation;
+import tools.refinery.store.query.resultset.ResultSet;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class DeletionExecutionPlan {
+	private static final Symbol<Boolean> node = Symbol.of("Node", 1);
+	private static final Symbol<Boolean> edge = Symbol.of("edge", 2);
+	private static final AnySymbolView nodeView = new KeyOnlyView<>(node);
+	private static final AnySymbolView edgeView = new KeyOnlyView<>(edge);
+	private static final RelationalQuery reachableQuery = Query.of("Reachable", (builder, p1, p2) -> builder
+			.clause(
+					nodeView.call(p1),
+					nodeView.call(p2),
+					edgeView.callTransitive(p1, p2)
+			));
+	private static final RelationalQuery unreachableQuery = Query.of("Unreachable", (builder, p1, p2) -> builder
+			.clause(
+					nodeView.call(p1),
+					nodeView.call(p2),
+					reachableQuery.call(p1, p2).negate()
+			));
+
+	// Delete and re-derive evaluation only differs from standard evaluation in recursive communication groups, which
+	// are never created for queries of a model store, so it is not measured separately.
+	@Param({"STANDARD", "TIMELY"})
+	public RecursionEvaluation recursionEvaluation;
+
+	@Param({"100", "400"})
+	public int nNodes;
+
+	@Param({"2", "4"})
+	public int nEdgesPerNode;
+
+	@Param({"10", "100"})
+	public int nDeletions;
+
+	private Random random;
+
+	private List<Tuple> edges;
+
+	private Interpretation<Boolean> edgeInterpretation;
+
+	private QueryInterpreterAdapter queryEngine;
+
+	private ResultSet<Boolean> unreachableResultSet;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() {
+		random = new Random(1);
+		var store = ModelStore.builder()
+				.symbols(node, edge)
+				.with(QueryInterpreterAdapter.builder()
+						.recursionEvaluation(recursionEvaluation)
+						.queries(reachableQuery, unreachableQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var nodeInterpretation = model.getInterpretation(node);
+		edgeInterpretation = model.getInterpretation(edge);
+		queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		unreachableResultSet = queryEngine.getResultSet(unreachableQuery);
+		for (int i = 0; i < nNodes; i++) {
+			nodeInterpretation.put(Tuple.of(i), true);
+		}
+		edges = new ArrayList<>(nNodes * nEdgesPerNode);
+		for (int i = 0; i < nNodes; i++) {
+			for (int j = 0; j < nEdgesPerNode; j++) {
+				var edgeTuple = Tuple.of(i, random.nextInt(nNodes));
+				if (!Boolean.TRUE.equals(edgeInterpretation.put(edgeTuple, true))) {
+					edges.add(edgeTuple);
+				}
+			}
+		}
+		queryEngine.flushChanges();
+	}
+
+	public List<Tuple> nextDeletions() {
+		var deletions = new ArrayList<Tuple>(nDeletions);
+		int edgeCount = edges.size();
+		for (int i = 0; i < nDeletions && i < edgeCount; i++) {
+			int index = i + random.nextInt(edgeCount - i);
+			var edgeTuple = edges.get(index);
+			edges.set(index, edges.get(i));
+			edges.set(i, edgeTuple);
+			deletions.add(edgeTuple);
+		}
+		return deletions;
+	}
+
+	public void setEdge(Tuple edgeTuple, boolean value) {
+		edgeInterpretation.put(edgeTuple, value);
+	}
+
+	public void flushChanges() {
+		queryEngine.flushChanges();
+	}
+
+	public int getUnreachableCount() {
+		return unreachableResultSet.size();
+	}
+}
@@ -6,12 +6,34 @@
 package tools.refinery.store.query.interpreter;
 
 import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.AnyQuery;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterBuilderImpl;
 
 public interface QueryInterpreterAdapter extends ModelQueryAdapter {
 	@Override
 	QueryInterpreterStoreAdapter getStoreAdapter();
 
+	/**
+	 * Returns the performance statistics of all queries in the model.
+	 *
+	 * @return The statistics collected since the model adapter was created or statistics were last reset.
+	 * @throws IllegalStateException If statistics collection was not enabled with
+	 *                               {@link QueryInterpreterBuilder#collectStatistics(boolean)}.
+	 */
+	QueryInterpreterStatistics getStatistics();
+
+	/**
+	 * Returns the performance statistics of a single query.
+	 *
+	 * @param query The query to get the statistics of.
+	 * @return The statistics of the canonical form of {@code query}.
+	 * @throws IllegalStateException If statistics collection was not enabled with
+	 *                               {@link QueryInterpreterBuilder#collectStatistics(boolean)}.
+	 */
+	QueryStatistics getStatistics(AnyQuery query);
+
+	void resetStatistics();
+
 	static QueryInterpreterBuilder builder() {
 		return new QueryInterpreterBuilderImpl();
 	}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -15,6 +15,7 @@ import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
 import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 @SuppressWarnings("UnusedReturnValue")
@@ -29,6 +30,32 @@ public interface QueryInterpreterBuilder extends ModelQueryBuilder {
 
 	QueryInterpreterBuilder searchBackend(IQueryBackendFactory queryBackendFactory);
 
+	/**
+	 * Enables adaptive re-planning of local search queries.
+	 * <p>
+	 * Search plans are initially made without looking at the model. If the average cost of executing a plan, measured
+	 * as the number of successful search operations, exceeds the cost estimated by the planner by the given factor, the
+	 * query is planned again according to the contents of the model.
+	 *
+	 * @param searchReplanningFactor The ratio of the observed and estimated costs that triggers re-planning, or
+	 *                               {@code 0} to disable re-planning (the default).
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder searchReplanningFactor(double searchReplanningFactor);
+
+	/**
+	 * Enables remembering the results of local search queries until the model changes.
+	 * <p>
+	 * The results are remembered separately for each combination of bound parameter values. They are forgotten when
+	 * a symbol read by the query (or by the queries it calls) is modified. This avoids re-executing queries that are
+	 * read several times between model modifications, but makes model modifications slightly more expensive.
+	 *
+	 * @param searchMemoization {@code true} to remember results, {@code false} to re-execute queries upon every access
+	 *                          (the default).
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder searchMemoization(boolean searchMemoization);
+
 	@Override
 	default QueryInterpreterBuilder queries(AnyQuery... queries) {
 		ModelQueryBuilder.super.queries(queries);
@@ -49,6 +76,104 @@ public interface QueryInterpreterBuilder extends ModelQueryBuilder {
 
 	QueryInterpreterBuilder computeHint(Function<Dnf, QueryEvaluationHint> computeHint);
 
+	/**
+	 * Sets how deletions are propagated through recursive queries evaluated by the default Rete backend.
+	 * <p>
+	 * Queries evaluated with a non-standard strategy are assigned to a separate Rete engine configured with that
+	 * strategy. Queries with a hint that selects another backend are not affected.
+	 *
+	 * @param recursionEvaluation The recursion evaluation strategy. The default value
+	 *                            {@link RecursionEvaluation#AUTOMATIC} only enables delete and re-derive evaluation
+	 *                            for queries that call themselves (possibly indirectly).
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder recursionEvaluation(RecursionEvaluation recursionEvaluation);
+
+	/**
+	 * Sets how deletions are propagated through the Rete network of a single query, overriding
+	 * {@link #recursionEvaluation(RecursionEvaluation)}.
+	 * <p>
+	 * Queries called by the given query are evaluated in the same Rete network, so they are also affected.
+	 *
+	 * @param query               The query.
+	 * @param recursionEvaluation The recursion evaluation strategy for the query.
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder recursionEvaluation(AnyQuery query, RecursionEvaluation recursionEvaluation);
+
+	/**
+	 * Sets the number of independent Rete networks to distribute queries between.
+	 * <p>
+	 * Queries with common dependencies are placed in the same network. When changes are flushed, each network
+	 * propagates updates concurrently on the {@link #updatePropagationExecutor(Executor)}, while the flushing thread
+	 * waits for all networks to finish. Result set listeners are still notified on the flushing thread after the
+	 * propagation is complete.
+	 *
+	 * @param parallelism The number of Rete networks. The default value {@code 1} disables parallel propagation.
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder parallelism(int parallelism);
+
+	/**
+	 * Sets the executor used for parallel update propagation.
+	 *
+	 * @param executor The executor. If {@code null} (the default), the common fork-join pool is used.
+	 * @return This builder.
+	 * @see #parallelism(int)
+	 */
+	QueryInterpreterBuilder updatePropagationExecutor(Executor executor);
+
+	/**
+	 * Enables the cancellation of opposite updates of the same tuple in every Rete node.
+	 * <p>
+	 * By default, most nodes process updates as soon as they arrive. With update coalescing, every node queues its
+	 * updates until delivery, so that a tuple inserted and then deleted before the changes are flushed does not
+	 * travel through the network. This is beneficial for refiners and propagators that frequently undo their changes,
+	 * but adds queueing overhead otherwise.
+	 *
+	 * @param updateCoalescing Whether to coalesce updates.
+	 * @return This builder.
+	 * @see InterpreterEngineOptions.Builder#withUpdateCoalescing(boolean)
+	 */
+	QueryInterpreterBuilder updateCoalescing(boolean updateCoalescing);
+
+	/**
+	 * Enables sharing normalized queries and Rete query plans between the models of the model store.
+	 * <p>
+	 * Each model still compiles its own Rete recipes and builds its own network from the shared plans, so sharing
+	 * only saves the cost of normalizing and planning queries when further models are created. This is mostly
+	 * beneficial for stores that create many short-lived models, e.g., during design space exploration.
+	 *
+	 * @param sharePlans Whether to share query plans. Disabled by default.
+	 * @return This builder.
+	 * @see InterpreterEngineOptions.Builder#withSharedBackendState(boolean)
+	 */
+	QueryInterpreterBuilder sharePlans(boolean sharePlans);
+
+	/**
+	 * Enables the collection of per-query performance statistics.
+	 * <p>
+	 * Collecting statistics adds overhead to every Rete message and local search operation, so it should only be
+	 * enabled for profiling.
+	 *
+	 * @param collectStatistics Whether to collect statistics.
+	 * @return This builder.
+	 * @see QueryInterpreterAdapter#getStatistics()
+	 */
+	QueryInterpreterBuilder collectStatistics(boolean collectStatistics);
+
+	/**
+	 * Enables sharing translated queries with other model stores in the same JVM.
+	 * <p>
+	 * If enabled, queries that are structurally equal (up to variable renaming) to a query translated for another
+	 * model store with the same evaluation hints are not translated again. Only disable this if query evaluation
+	 * hints or terms rely on object identity.
+	 *
+	 * @param useCompilationCache Whether to use the process-wide compilation cache. Enabled by default.
+	 * @return This builder.
+	 */
+	QueryInterpreterBuilder useCompilationCache(boolean useCompilationCache);
+
 	@Override
 	QueryInterpreterStoreAdapter build(ModelStore store);
 }
@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import java.util.List;
+
+/**
+ * Performance statistics of a query interpreter collected since the last reset.
+ *
+ * @param flushCount     The number of times changes were flushed to the query engine.
+ * @param flushTimeNanos The total time spent flushing changes, in nanoseconds.
+ * @param queries        The statistics of each query in the order they were added to the store.
+ */
+public record QueryInterpreterStatistics(long flushCount, long flushTimeNanos, List<QueryStatistics> queries) {
+	public String toJson() {
+		var builder = new StringBuilder();
+		builder.append("{\"flushCount\":").append(flushCount)
+				.append(",\"flushTimeNanos\":").append(flushTimeNanos)
+				.append(",\"queries\":[");
+		boolean first = true;
+		for (var query : queries) {
+			if (first) {
+				first = false;
+			} else {
+				builder.append(',');
+			}
+			appendQuery(builder, query);
+		}
+		builder.append("]}");
+		return builder.toString();
+	}
+
+	private static void appendQuery(StringBuilder builder, QueryStatistics query) {
+		builder.append("{\"name\":");
+		appendString(builder, query.name());
+		builder.append(",\"incremental\":").append(query.incremental())
+				.append(",\"resultSize\":").append(query.resultSize())
+				.append(",\"insertions\":").append(query.insertions())
+				.append(",\"deletions\":").append(query.deletions())
+				.append(",\"reteNodeCount\":").append(query.reteNodeCount())
+				.append(",\"reteMessageCount\":").append(query.reteMessageCount())
+				.append(",\"reteUpdateTimeNanos\":").append(query.reteUpdateTimeNanos())
+				.append(",\"reteMemorySize\":").append(query.reteMemorySize())
+				.append(",\"searchExecutionCount\":").append(query.searchExecutionCount())
+				.append(",\"searchMatchCount\":").append(query.searchMatchCount())
+				.append(",\"searchTimeNanos\":").append(query.searchTimeNanos())
+				.append(",\"searchReplanCount\":").append(query.searchReplanCount())
+				.append('}');
+	}
+
+	private static void appendString(StringBuilder builder, String value) {
+		builder.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"' -> builder.append("\\\"");
+			case '\\' -> builder.append("\\\\");
+			case '\n' -> builder.append("\\n");
+			case '\r' -> builder.append("\\r");
+			case '\t' -> builder.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					builder.append("\\u%04x".formatted((int) c));
+				} else {
+					builder.append(c);
+				}
+			}
+			}
+		}
+		builder.append('"');
+	}
+}
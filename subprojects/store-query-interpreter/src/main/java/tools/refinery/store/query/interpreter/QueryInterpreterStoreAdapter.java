@@ -12,6 +12,10 @@ import tools.refinery.store.query.ModelQueryStoreAdapter;
 public interface QueryInterpreterStoreAdapter extends ModelQueryStoreAdapter {
 	InterpreterEngineOptions getEngineOptions();
 
+	int getParallelism();
+
+	boolean isCollectingStatistics();
+
 	@Override
 	QueryInterpreterAdapter createModelAdapter(Model model);
 }
@@ -0,0 +1,36 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+/**
+ * Performance statistics of a single query collected since the last reset.
+ * <p>
+ * Rete statistics are inclusive: nodes shared between queries are counted for every query that depends on them.
+ * Statistics that do not apply to the backend of the query are reported as {@code 0}.
+ *
+ * @param name                 The name of the canonical query.
+ * @param incremental          Whether the query is evaluated by an incremental backend.
+ * @param resultSize           The current number of tuples in the result set.
+ * @param insertions           The number of tuples that entered the result set.
+ * @param deletions            The number of tuples that left the result set.
+ * @param reteNodeCount        The number of Rete nodes the query depends on.
+ * @param reteMessageCount     The number of Rete update messages received by those nodes.
+ * @param reteUpdateTimeNanos  The time spent delivering messages to those nodes, in nanoseconds.
+ * @param reteMemorySize       The number of tuples stored in node memories and indexers.
+ * @param searchExecutionCount The number of times a local search matcher was started.
+ * @param searchMatchCount     The number of matches found by local search.
+ * @param searchTimeNanos      The time spent executing search operations, in nanoseconds.
+ * @param searchReplanCount    The number of times the search plans of the query were replaced by adaptive
+ *                             re-planning.
+ */
+public record QueryStatistics(String name, boolean incremental, int resultSize, long insertions, long deletions,
+							  int reteNodeCount, long reteMessageCount, long reteUpdateTimeNanos,
+							  long reteMemorySize, long searchExecutionCount, long searchMatchCount,
+							  long searchTimeNanos, long searchReplanCount) {
+	public long churn() {
+		return insertions + deletions;
+	}
+}
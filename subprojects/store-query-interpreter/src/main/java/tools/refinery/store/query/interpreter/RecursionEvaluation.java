@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+/**
+ * Strategies for maintaining the results of recursive queries in the Rete network when tuples are deleted.
+ *
+ * @see QueryInterpreterBuilder#recursionEvaluation(RecursionEvaluation)
+ */
+public enum RecursionEvaluation {
+	/**
+	 * Uses {@link #DELETE_AND_REDERIVE} for queries that take part in a recursive call cycle and {@link #STANDARD}
+	 * otherwise.
+	 * <p>
+	 * Queries can currently only call queries defined before them, and transitive calls are evaluated by dedicated
+	 * transitive closure nodes, so this is equivalent to {@link #STANDARD} for now.
+	 */
+	AUTOMATIC,
+
+	/**
+	 * Propagates deletions through the network as they arrive. Fastest for non-recursive queries, but may keep
+	 * tuples that only support each other through a recursive cycle.
+	 */
+	STANDARD,
+
+	/**
+	 * Over-deletes every tuple that may depend on a deleted tuple and then re-derives the ones with an alternative
+	 * derivation.
+	 * <p>
+	 * The query is evaluated by a separate Rete engine with delete and re-derive evaluation enabled, but over-deletion
+	 * only happens in recursive communication groups of the network. Therefore, non-recursive queries are evaluated in
+	 * the same way as with {@link #STANDARD}.
+	 */
+	DELETE_AND_REDERIVE,
+
+	/**
+	 * Tags every tuple with the iteration of the fixpoint computation that derived it, so that deletions only have to
+	 * revisit later iterations. Usually faster than {@link #DELETE_AND_REDERIVE} for deletion-heavy workloads, but
+	 * keeps a timeline for every tuple in the affected nodes.
+	 * <p>
+	 * The query is evaluated by a separate Rete engine with timely evaluation enabled. Its input, uniqueness enforcer,
+	 * aggregator, and production nodes use timely variants even for non-recursive queries.
+	 */
+	TIMELY
+}
@@ -15,16 +15,22 @@ import tools.refinery.store.query.resultset.AnyResultSet;
 import tools.refinery.store.query.resultset.EmptyResultSet;
 import tools.refinery.store.query.resultset.ResultSet;
 import tools.refinery.store.query.interpreter.QueryInterpreterAdapter;
+import tools.refinery.store.query.interpreter.QueryInterpreterStatistics;
+import tools.refinery.store.query.interpreter.QueryStatistics;
+import tools.refinery.store.query.interpreter.internal.matcher.AbstractInterpretedMatcher;
 import tools.refinery.store.query.interpreter.internal.matcher.InterpretedFunctionalMatcher;
 import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher;
 import tools.refinery.store.query.interpreter.internal.matcher.InterpretedRelationalMatcher;
+import tools.refinery.store.query.interpreter.internal.statistics.StatisticsCollector;
 import tools.refinery.interpreter.CancellationToken;
 import tools.refinery.interpreter.api.AdvancedInterpreterEngine;
 import tools.refinery.interpreter.api.GenericQueryGroup;
 import tools.refinery.interpreter.api.IQuerySpecification;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, ModelListener {
@@ -32,6 +38,8 @@ public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, Mod
 	private final QueryInterpreterStoreAdapterImpl storeAdapter;
 	private final AdvancedInterpreterEngine queryEngine;
 	private final Map<AnyQuery, AnyResultSet> resultSets;
+	private final List<AbstractInterpretedMatcher<?>> deferredMatchers;
+	private final StatisticsCollector statisticsCollector;
 	private boolean pendingChanges;
 
 	QueryInterpreterAdapterImpl(Model model, QueryInterpreterStoreAdapterImpl storeAdapter) {
@@ -48,13 +56,26 @@ public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, Mod
 		queryEngine.flushChanges();
 		var vacuousQueries = storeAdapter.getVacuousQueries();
 		resultSets = new LinkedHashMap<>(querySpecifications.size() + vacuousQueries.size());
+		deferredMatchers = storeAdapter.getParallelism() > 1 ? new ArrayList<>(querySpecifications.size()) : null;
+		statisticsCollector = storeAdapter.isCollectingStatistics() ? new StatisticsCollector() : null;
 		for (var entry : querySpecifications.entrySet()) {
 			var rawPatternMatcher = queryEngine.getMatcher(entry.getValue());
 			var query = entry.getKey();
-			resultSets.put(query, createResultSet((Query<?>) query, rawPatternMatcher));
+			var resultSet = createResultSet((Query<?>) query, rawPatternMatcher);
+			resultSets.put(query, resultSet);
+			if (deferredMatchers != null && resultSet instanceof AbstractInterpretedMatcher<?> interpretedMatcher) {
+				deferredMatchers.add(interpretedMatcher);
+			}
+			if (statisticsCollector != null) {
+				statisticsCollector.addQuery(query, rawPatternMatcher, resultSet);
+			}
 		}
 		for (var vacuousQuery : vacuousQueries) {
-			resultSets.put(vacuousQuery, new EmptyResultSet<>(this, (Query<?>) vacuousQuery));
+			var resultSet = new EmptyResultSet<>(this, (Query<?>) vacuousQuery);
+			resultSets.put(vacuousQuery, resultSet);
+			if (statisticsCollector != null) {
+				statisticsCollector.addVacuousQuery(vacuousQuery, resultSet);
+			}
 		}
 
 		model.addListener(this);
@@ -111,8 +132,42 @@ public class QueryInterpreterAdapterImpl implements QueryInterpreterAdapter, Mod
 
 	@Override
 	public void flushChanges() {
-		queryEngine.flushChanges();
+		if (statisticsCollector == null) {
+			queryEngine.flushChanges();
+		} else {
+			long start = System.nanoTime();
+			queryEngine.flushChanges();
+			statisticsCollector.flushed(System.nanoTime() - start);
+		}
 		pendingChanges = false;
+		if (deferredMatchers != null) {
+			for (var matcher : deferredMatchers) {
+				matcher.notifyPendingChanges();
+			}
+		}
+	}
+
+	@Override
+	public QueryInterpreterStatistics getStatistics() {
+		return getStatisticsCollector().getStatistics();
+	}
+
+	@Override
+	public QueryStatistics getStatistics(AnyQuery query) {
+		var canonicalQuery = storeAdapter.getCanonicalQuery((Query<?>) query);
+		return getStatisticsCollector().getStatistics(canonicalQuery);
+	}
+
+	@Override
+	public void resetStatistics() {
+		getStatisticsCollector().reset();
+	}
+
+	private StatisticsCollector getStatisticsCollector() {
+		if (statisticsCollector == null) {
+			throw new IllegalStateException("Statistics collection is not enabled for this model");
+		}
+		return statisticsCollector;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -16,8 +16,13 @@ import tools.refinery.store.query.rewriter.DnfRewriter;
 import tools.refinery.store.query.rewriter.DuplicateDnfRemover;
 import tools.refinery.store.query.rewriter.InputParameterResolver;
 import tools.refinery.store.query.interpreter.QueryInterpreterBuilder;
+import tools.refinery.store.query.interpreter.RecursionEvaluation;
 import tools.refinery.store.query.interpreter.internal.localsearch.FlatCostFunction;
+import tools.refinery.store.query.interpreter.internal.localsearch.ModelStatisticsCostFunction;
 import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher;
+import tools.refinery.store.query.interpreter.internal.parallel.PartitionBackendFactory;
+import tools.refinery.store.query.interpreter.internal.parallel.QueryPartitioner;
+import tools.refinery.store.query.interpreter.internal.pquery.CompilationCache;
 import tools.refinery.store.query.interpreter.internal.pquery.Dnf2PQuery;
 import tools.refinery.interpreter.api.IQuerySpecification;
 import tools.refinery.interpreter.api.InterpreterEngineOptions;
@@ -28,6 +33,8 @@ import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
 import tools.refinery.interpreter.rete.matcher.ReteBackendFactory;
 
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<QueryInterpreterStoreAdapterImpl>
@@ -35,11 +42,21 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 	private InterpreterEngineOptions.Builder engineOptionsBuilder;
 	private QueryEvaluationHint defaultHint = new QueryEvaluationHint(Map.of(
 			// Use a cost function that ignores the initial (empty) model but allows higher arity input keys.
-			LocalSearchHintOptions.PLANNER_COST_FUNCTION, new FlatCostFunction()
+			LocalSearchHintOptions.PLANNER_COST_FUNCTION, new FlatCostFunction(),
+			// Plans are only replaced after the model has been populated, so we may count tuples in the model.
+			LocalSearchHintOptions.REPLANNING_COST_FUNCTION, new ModelStatisticsCostFunction()
 	), (IQueryBackendFactory) null);
 	private final CompositeRewriter rewriter;
 	private final Dnf2PQuery dnf2PQuery = new Dnf2PQuery();
 	private final Set<AnyQuery> queries = new LinkedHashSet<>();
+	private Function<Dnf, QueryEvaluationHint> computeHint = dnf -> new QueryEvaluationHint(null,
+			(IQueryBackendFactory) null);
+	private RecursionEvaluation recursionEvaluation = RecursionEvaluation.AUTOMATIC;
+	private final Map<AnyQuery, RecursionEvaluation> queryRecursionEvaluations = new LinkedHashMap<>();
+	private int parallelism = 1;
+	private Executor updatePropagationExecutor;
+	private boolean collectStatistics;
+	private boolean useCompilationCache = true;
 
 	public QueryInterpreterBuilderImpl() {
 		EPackage.Registry.INSTANCE.put(RecipesPackage.eNS_URI, RecipesPackage.eINSTANCE);
@@ -87,6 +104,28 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 		return this;
 	}
 
+	@Override
+	public QueryInterpreterBuilder searchReplanningFactor(double searchReplanningFactor) {
+		checkNotConfigured();
+		if (!(searchReplanningFactor == 0 || searchReplanningFactor > 1)) {
+			throw new IllegalArgumentException("Search re-planning factor must be 0 or greater than 1, got %f"
+					.formatted(searchReplanningFactor));
+		}
+		defaultHint = defaultHint.overrideBy(new QueryEvaluationHint(Map.of(
+				LocalSearchHintOptions.REPLANNING_COST_FACTOR, searchReplanningFactor
+		), (IQueryBackendFactory) null));
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder searchMemoization(boolean searchMemoization) {
+		checkNotConfigured();
+		defaultHint = defaultHint.overrideBy(new QueryEvaluationHint(Map.of(
+				LocalSearchHintOptions.MEMOIZE_MATCHES, searchMemoization
+		), (IQueryBackendFactory) null));
+		return this;
+	}
+
 	@Override
 	public QueryInterpreterBuilder queries(Collection<? extends AnyQuery> queries) {
 		checkNotConfigured();
@@ -110,14 +149,73 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 	@Override
 	public QueryInterpreterBuilder computeHint(Function<Dnf, QueryEvaluationHint> computeHint) {
 		checkNotConfigured();
-		dnf2PQuery.setComputeHint(computeHint);
+		this.computeHint = computeHint;
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder recursionEvaluation(RecursionEvaluation recursionEvaluation) {
+		checkNotConfigured();
+		this.recursionEvaluation = Objects.requireNonNull(recursionEvaluation, "recursionEvaluation");
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder recursionEvaluation(AnyQuery query, RecursionEvaluation recursionEvaluation) {
+		checkNotConfigured();
+		queryRecursionEvaluations.put(query, Objects.requireNonNull(recursionEvaluation, "recursionEvaluation"));
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder parallelism(int parallelism) {
+		checkNotConfigured();
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got: " + parallelism);
+		}
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder updatePropagationExecutor(Executor executor) {
+		checkNotConfigured();
+		this.updatePropagationExecutor = executor;
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder updateCoalescing(boolean updateCoalescing) {
+		checkNotConfigured();
+		engineOptionsBuilder.withUpdateCoalescing(updateCoalescing);
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder sharePlans(boolean sharePlans) {
+		checkNotConfigured();
+		engineOptionsBuilder.withSharedBackendState(sharePlans);
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder collectStatistics(boolean collectStatistics) {
+		checkNotConfigured();
+		this.collectStatistics = collectStatistics;
+		return this;
+	}
+
+	@Override
+	public QueryInterpreterBuilder useCompilationCache(boolean useCompilationCache) {
+		checkNotConfigured();
+		this.useCompilationCache = useCompilationCache;
 		return this;
 	}
 
 	@Override
 	public QueryInterpreterStoreAdapterImpl doBuild(ModelStore store) {
 		var canonicalQueryMap = new HashMap<AnyQuery, AnyQuery>();
-		var querySpecifications = new LinkedHashMap<AnyQuery, IQuerySpecification<RawPatternMatcher>>();
+		var translatedQueries = new LinkedHashSet<AnyQuery>();
 		var vacuousQueries = new LinkedHashSet<AnyQuery>();
 		for (var query : queries) {
 			var canonicalQuery = rewriter.rewrite(query);
@@ -125,10 +223,7 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 			var dnf = canonicalQuery.getDnf();
 			var reduction = dnf.getReduction();
 			switch (reduction) {
-			case NOT_REDUCIBLE -> {
-				var pQuery = dnf2PQuery.translate(dnf);
-				querySpecifications.put(canonicalQuery, pQuery.build());
-			}
+			case NOT_REDUCIBLE -> translatedQueries.add(canonicalQuery);
 			case ALWAYS_FALSE -> vacuousQueries.add(canonicalQuery);
 			case ALWAYS_TRUE -> throw new IllegalArgumentException(
 					"Query %s is relationally unsafe (it matches every tuple)".formatted(query.name()));
@@ -136,10 +231,62 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 			}
 		}
 
+		var engineOptions = buildEngineOptions();
+		var recursionEvaluationSelector = createRecursionEvaluationSelector(canonicalQueryMap);
+		var recursionAwareComputeHint = recursionEvaluationSelector.apply(engineOptions, computeHint);
+		dnf2PQuery.setComputeHint(getPartitionedComputeHint(engineOptions, recursionAwareComputeHint,
+				translatedQueries));
+		dnf2PQuery.setCompilationCache(useCompilationCache ? CompilationCache.INSTANCE : null);
+		var querySpecifications = new LinkedHashMap<AnyQuery, IQuerySpecification<RawPatternMatcher>>();
+		for (var canonicalQuery : translatedQueries) {
+			var pQuery = dnf2PQuery.translate(canonicalQuery.getDnf());
+			querySpecifications.put(canonicalQuery, pQuery.build());
+		}
+
 		validateSymbols(store);
-		return new QueryInterpreterStoreAdapterImpl(store, buildEngineOptions(), dnf2PQuery.getSymbolViews(),
+		return new QueryInterpreterStoreAdapterImpl(store, engineOptions, dnf2PQuery.getSymbolViews(),
 				Collections.unmodifiableMap(canonicalQueryMap), Collections.unmodifiableMap(querySpecifications),
-				Collections.unmodifiableSet(vacuousQueries), store::checkCancelled);
+				Collections.unmodifiableSet(vacuousQueries), store::checkCancelled, parallelism, collectStatistics);
+	}
+
+	private RecursionEvaluationSelector createRecursionEvaluationSelector(Map<AnyQuery, AnyQuery> canonicalQueryMap) {
+		var dnfRecursionEvaluations = new HashMap<Dnf, RecursionEvaluation>(queryRecursionEvaluations.size());
+		for (var entry : queryRecursionEvaluations.entrySet()) {
+			var query = entry.getKey();
+			var canonicalQuery = canonicalQueryMap.get(query);
+			if (canonicalQuery == null) {
+				canonicalQuery = rewriter.rewrite(query);
+			}
+			dnfRecursionEvaluations.put(canonicalQuery.getDnf(), entry.getValue());
+		}
+		return new RecursionEvaluationSelector(recursionEvaluation, dnfRecursionEvaluations);
+	}
+
+	private Function<Dnf, QueryEvaluationHint> getPartitionedComputeHint(
+			InterpreterEngineOptions engineOptions, Function<Dnf, QueryEvaluationHint> baseComputeHint,
+			Collection<AnyQuery> translatedQueries) {
+		if (parallelism <= 1) {
+			return baseComputeHint;
+		}
+		var dnfs = translatedQueries.stream().map(AnyQuery::getDnf).toList();
+		var partitions = new QueryPartitioner(parallelism).partition(dnfs);
+		return dnf -> {
+			var hint = baseComputeHint.apply(dnf);
+			var partition = partitions.get(dnf);
+			if (partition == null) {
+				// Dependencies are inlined into the Rete network of the query that calls them.
+				return hint;
+			}
+			var backendFactory = engineOptions.getQueryBackendFactory(
+					engineOptions.getEngineDefaultHints().overrideBy(hint));
+			if (backendFactory == null || !backendFactory.isCaching()) {
+				// Search-based queries are evaluated on the calling thread without update propagation.
+				return hint;
+			}
+			var partitionHint = new QueryEvaluationHint(null, new PartitionBackendFactory(backendFactory,
+					partition));
+			return hint == null ? partitionHint : hint.overrideBy(partitionHint);
+		};
 	}
 
 	private InterpreterEngineOptions buildEngineOptions() {
@@ -156,6 +303,10 @@ public class QueryInterpreterBuilderImpl extends AbstractModelAdapterBuilder<Que
 		}
 		}
 		engineOptionsBuilder.withDefaultHint(defaultHint);
+		if (parallelism > 1) {
+			engineOptionsBuilder.withUpdatePropagationExecutor(updatePropagationExecutor == null ?
+					ForkJoinPool.commonPool() : updatePropagationExecutor);
+		}
 		return engineOptionsBuilder.build();
 	}
 
@@ -28,12 +28,15 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 	private final Set<AnyQuery> vacuousQueries;
 	private final Set<AnyQuery> allQueries;
 	private final CancellationToken cancellationToken;
+	private final int parallelism;
+	private final boolean collectStatistics;
 
 	QueryInterpreterStoreAdapterImpl(ModelStore store, InterpreterEngineOptions engineOptions,
 									 Map<AnySymbolView, IInputKey> inputKeys,
 									 Map<AnyQuery, AnyQuery> canonicalQueryMap,
 									 Map<AnyQuery, IQuerySpecification<RawPatternMatcher>> querySpecifications,
-									 Set<AnyQuery> vacuousQueries, CancellationToken cancellationToken) {
+									 Set<AnyQuery> vacuousQueries, CancellationToken cancellationToken,
+									 int parallelism, boolean collectStatistics) {
 		this.store = store;
 		this.engineOptions = engineOptions;
 		this.inputKeys = inputKeys;
@@ -41,6 +44,8 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 		this.querySpecifications = querySpecifications;
 		this.vacuousQueries = vacuousQueries;
 		this.cancellationToken = cancellationToken;
+		this.parallelism = parallelism;
+		this.collectStatistics = collectStatistics;
 		var mutableAllQueries = new LinkedHashSet<AnyQuery>(querySpecifications.size() + vacuousQueries.size());
 		mutableAllQueries.addAll(querySpecifications.keySet());
 		mutableAllQueries.addAll(vacuousQueries);
@@ -93,6 +98,16 @@ public class QueryInterpreterStoreAdapterImpl implements QueryInterpreterStoreAd
 		return engineOptions;
 	}
 
+	@Override
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	@Override
+	public boolean isCollectingStatistics() {
+		return collectStatistics;
+	}
+
 	@Override
 	public QueryInterpreterAdapterImpl createModelAdapter(Model model) {
 		return new QueryInterpreterAdapterImpl(model, this);
@@ -0,0 +1,113 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal;
+
+import tools.refinery.interpreter.api.InterpreterEngineOptions;
+import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.rete.matcher.DRedReteBackendFactory;
+import tools.refinery.interpreter.rete.matcher.ReteBackendFactory;
+import tools.refinery.interpreter.rete.matcher.TimelyReteBackendFactory;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.interpreter.RecursionEvaluation;
+import tools.refinery.store.query.literal.AbstractCallLiteral;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Replaces the standard Rete backend in query evaluation hints according to the selected
+ * {@link RecursionEvaluation}.
+ * <p>
+ * Only queries that would otherwise be evaluated by {@link ReteBackendFactory#INSTANCE} are affected, so hints that
+ * explicitly request a search-based or a custom backend are left unchanged.
+ */
+class RecursionEvaluationSelector {
+	private final RecursionEvaluation defaultEvaluation;
+	private final Map<Dnf, RecursionEvaluation> queryEvaluations;
+	private final Map<Dnf, Boolean> recursiveQueries = new HashMap<>();
+
+	RecursionEvaluationSelector(RecursionEvaluation defaultEvaluation,
+								Map<Dnf, RecursionEvaluation> queryEvaluations) {
+		this.defaultEvaluation = defaultEvaluation;
+		this.queryEvaluations = queryEvaluations;
+	}
+
+	Function<Dnf, QueryEvaluationHint> apply(InterpreterEngineOptions engineOptions,
+											 Function<Dnf, QueryEvaluationHint> computeHint) {
+		if (defaultEvaluation == RecursionEvaluation.STANDARD && queryEvaluations.isEmpty()) {
+			return computeHint;
+		}
+		return dnf -> {
+			var hint = computeHint.apply(dnf);
+			var backendFactory = engineOptions.getQueryBackendFactory(
+					engineOptions.getEngineDefaultHints().overrideBy(hint));
+			if (backendFactory == null || backendFactory.getClass() != ReteBackendFactory.class) {
+				return hint;
+			}
+			var recursionBackendFactory = getBackendFactory(dnf);
+			if (recursionBackendFactory == null) {
+				return hint;
+			}
+			var recursionHint = new QueryEvaluationHint(null, recursionBackendFactory);
+			return hint == null ? recursionHint : hint.overrideBy(recursionHint);
+		};
+	}
+
+	private IQueryBackendFactory getBackendFactory(Dnf dnf) {
+		var evaluation = queryEvaluations.getOrDefault(dnf, defaultEvaluation);
+		if (evaluation == RecursionEvaluation.AUTOMATIC) {
+			evaluation = isRecursive(dnf) ? RecursionEvaluation.DELETE_AND_REDERIVE : RecursionEvaluation.STANDARD;
+		}
+		return switch (evaluation) {
+			case STANDARD -> null;
+			case DELETE_AND_REDERIVE -> DRedReteBackendFactory.INSTANCE;
+			case TIMELY -> TimelyReteBackendFactory.FAITHFUL_SEQUENTIAL;
+			default -> throw new IllegalArgumentException("Unknown recursion evaluation: " + evaluation);
+		};
+	}
+
+	/**
+	 * Determines whether a query can reach a cycle in the call graph of queries.
+	 * <p>
+	 * Transitive calls are not considered recursive, because they are evaluated by dedicated transitive closure nodes.
+	 *
+	 * @param dnf The query.
+	 * @return {@code true} if the Rete network of the query would contain a recursive communication group.
+	 */
+	boolean isRecursive(Dnf dnf) {
+		return reachesCycle(dnf, new HashSet<>());
+	}
+
+	private boolean reachesCycle(Dnf dnf, Set<Dnf> path) {
+		var cached = recursiveQueries.get(dnf);
+		if (cached != null) {
+			return cached;
+		}
+		if (!path.add(dnf)) {
+			return true;
+		}
+		boolean result = false;
+		for (var clause : dnf.getClauses()) {
+			for (var literal : clause.literals()) {
+				if (literal instanceof AbstractCallLiteral callLiteral &&
+						callLiteral.getTarget() instanceof Dnf target && reachesCycle(target, path)) {
+					result = true;
+					break;
+				}
+			}
+			if (result) {
+				break;
+			}
+		}
+		path.remove(dnf);
+		recursiveQueries.put(dnf, result);
+		return result;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -17,6 +17,7 @@ import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterIm
 import tools.refinery.store.query.interpreter.internal.pquery.SymbolViewWrapper;
 import tools.refinery.store.query.interpreter.internal.update.ModelUpdateListener;
 import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.tuple.Tuple1;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.Iterator;
@@ -26,7 +27,27 @@ import java.util.concurrent.Callable;
 import static tools.refinery.store.util.CollectionsUtil.filter;
 import static tools.refinery.store.util.CollectionsUtil.map;
 
+/**
+ * Provides access to the model for the query engine.
+ * <p>
+ * When parallel update propagation is enabled, multiple query backends may read the model through this context
+ * concurrently while changes are being flushed. This is safe, because the model is not modified during a flush.
+ * Listener registration is synchronized, because the listener registry is shared between all backends.
+ */
 public class RelationalRuntimeContext implements IQueryRuntimeContext {
+	private static final IElementIdCodec ELEMENT_ID_CODEC = new IElementIdCodec() {
+		@Override
+		public int encode(Object element) {
+			// Nodes of the model are represented by {@link Tuple1} instances.
+			return element instanceof Tuple1 tuple1 && tuple1.value0() >= 0 ? tuple1.value0() : NO_ID;
+		}
+
+		@Override
+		public Object decode(int id) {
+			return tools.refinery.store.tuple.Tuple.of(id);
+		}
+	};
+
 	private final RelationalQueryMetaContext metaContext;
 
 	private final ModelUpdateListener modelUpdateListener;
@@ -155,14 +176,14 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 	}
 
 	@Override
-	public void addUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
+	public synchronized void addUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
 		var relationViewKey = checkKey(key);
 		this.modelUpdateListener.addListener(key, relationViewKey, seed, listener);
 
 	}
 
 	@Override
-	public void removeUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
+	public synchronized void removeUpdateListener(IInputKey key, Tuple seed, IQueryRuntimeContextListener listener) {
 		var relationViewKey = checkKey(key);
 		this.modelUpdateListener.removeListener(key, relationViewKey, seed, listener);
 	}
@@ -177,6 +198,11 @@ public class RelationalRuntimeContext implements IQueryRuntimeContext {
 		return internalElement;
 	}
 
+	@Override
+	public IElementIdCodec getElementIdCodec() {
+		return ELEMENT_ID_CODEC;
+	}
+
 	@Override
 	public Tuple wrapTuple(Tuple externalElements) {
 		return externalElements;
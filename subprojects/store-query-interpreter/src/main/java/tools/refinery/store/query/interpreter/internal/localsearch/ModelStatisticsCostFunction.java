@@ -0,0 +1,50 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.localsearch;
+
+import tools.refinery.interpreter.localsearch.planner.cost.IConstraintEvaluationContext;
+import tools.refinery.interpreter.localsearch.planner.cost.impl.StatisticsBasedConstraintCostFunction;
+import tools.refinery.interpreter.matchers.context.IInputKey;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.matchers.tuple.TupleMask;
+import tools.refinery.interpreter.matchers.tuple.Tuples;
+import tools.refinery.interpreter.matchers.util.Accuracy;
+import tools.refinery.store.query.view.AnySymbolView;
+
+import java.util.HashSet;
+import java.util.Optional;
+
+/**
+ * Cost function for re-planning local search queries in a model that already has contents.
+ * <p>
+ * Unlike {@link FlatCostFunction}, which is used for the initial plans made on an empty model, this cost function
+ * counts the projections of the views in the current model. Counting enumerates the views, so it should only be used
+ * when the plan is expected to be executed many times.
+ */
+public class ModelStatisticsCostFunction extends StatisticsBasedConstraintCostFunction {
+	public ModelStatisticsCostFunction() {
+		// No inverse navigation penalty thanks to relational storage.
+		super(0);
+	}
+
+	@Override
+	public Optional<Long> projectionSize(IConstraintEvaluationContext input, IInputKey supplierKey, TupleMask groupMask, Accuracy requiredAccuracy) {
+		if (!(supplierKey instanceof AnySymbolView)) {
+			return Optional.empty();
+		}
+		var runtimeContext = input.getRuntimeContext();
+		int arity = supplierKey.getArity();
+		var emptySeed = Tuples.staticArityFlatTupleOf();
+		if (groupMask.isIdentity()) {
+			return Optional.of((long) runtimeContext.countTuples(supplierKey, TupleMask.empty(arity), emptySeed));
+		}
+		var projections = new HashSet<Tuple>();
+		for (var tuple : runtimeContext.enumerateTuples(supplierKey, TupleMask.empty(arity), emptySeed)) {
+			projections.add(groupMask.transform(tuple));
+		}
+		return Optional.of((long) projections.size());
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -7,17 +7,143 @@ package tools.refinery.store.query.interpreter.internal.matcher;
 
 import tools.refinery.interpreter.matchers.backend.IQueryResultProvider;
 import tools.refinery.interpreter.matchers.backend.IUpdateable;
+import tools.refinery.interpreter.rete.matcher.RetePatternMatcher;
+import tools.refinery.store.map.Cursor;
 import tools.refinery.store.query.dnf.Query;
 import tools.refinery.store.query.resultset.AbstractResultSet;
 import tools.refinery.store.query.interpreter.internal.QueryInterpreterAdapterImpl;
+import tools.refinery.store.query.resultset.OrderedResultSet;
+import tools.refinery.store.query.resultset.ResultSetCursors;
+import tools.refinery.store.query.resultset.ValueOrderedResultSet;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public abstract class AbstractInterpretedMatcher<T> extends AbstractResultSet<T> implements IUpdateable {
+	// Indexes are only created for comparators passed repeatedly, e.g., stored in constants, and only a bounded number
+	// of them are maintained, because each index has to be updated upon every change of the result set.
+	private static final int MAX_VALUE_INDEXES = 8;
+	private static final int MAX_RECENT_COMPARATORS = 16;
+
 	protected final IQueryResultProvider backend;
+	private final boolean deferNotifications;
+	private final boolean incremental;
+	private List<PendingChange<T>> pendingChanges;
+	private boolean keyIndexRequested;
+	private OrderedResultSet<T> keyIndex;
+	private Set<Comparator<? super T>> recentComparators;
+	private Map<Comparator<? super T>, ValueOrderedResultSet<T>> valueIndexes;
 
 	protected AbstractInterpretedMatcher(QueryInterpreterAdapterImpl adapter, Query<T> query,
 										 RawPatternMatcher rawPatternMatcher) {
 		super(adapter, query);
 		backend = rawPatternMatcher.getBackend();
+		// Updates are propagated on worker threads in parallel mode, but listeners may only be called from the thread
+		// that flushes the changes.
+		deferNotifications = adapter.getStoreAdapter().getParallelism() > 1;
+		incremental = backend instanceof RetePatternMatcher;
+	}
+
+	public IQueryResultProvider getBackend() {
+		return backend;
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		if (!incremental) {
+			// Local search has to enumerate all matches to find the smallest keys anyway.
+			return ResultSetCursors.getAllFrom(getAll(), fromKey, limit);
+		}
+		if (keyIndex == null) {
+			if (!keyIndexRequested) {
+				// Avoid maintaining an index for a result set that is only paged through once.
+				keyIndexRequested = true;
+				return ResultSetCursors.getAllFrom(getAll(), fromKey, limit);
+			}
+			// Maintained incrementally by the updates of the production node from now on.
+			keyIndex = new OrderedResultSet<>(this);
+		}
+		return keyIndex.getAllFrom(fromKey, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		if (!incremental) {
+			return ResultSetCursors.getTop(getAll(), count, valueComparator);
+		}
+		var valueIndex = getValueIndex(valueComparator);
+		if (valueIndex == null) {
+			return ResultSetCursors.getTop(getAll(), count, valueComparator);
+		}
+		return valueIndex.getTop(count, valueComparator);
+	}
+
+	private ValueOrderedResultSet<T> getValueIndex(Comparator<? super T> valueComparator) {
+		if (valueIndexes == null) {
+			valueIndexes = new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Comparator<? super T>, ValueOrderedResultSet<T>> eldest) {
+					if (size() <= MAX_VALUE_INDEXES) {
+						return false;
+					}
+					eldest.getValue().close();
+					return true;
+				}
+			};
+			recentComparators = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Comparator<? super T>, Boolean> eldest) {
+					return size() > MAX_RECENT_COMPARATORS;
+				}
+			});
+		}
+		var valueIndex = valueIndexes.get(valueComparator);
+		if (valueIndex != null) {
+			return valueIndex;
+		}
+		if (recentComparators.add(valueComparator)) {
+			// Comparators created anew for each call, e.g., lambdas, are never passed again, so we only create an
+			// index for a comparator when we see it for the second time.
+			return null;
+		}
+		recentComparators.remove(valueComparator);
+		valueIndex = new ValueOrderedResultSet<>(this, valueComparator);
+		valueIndexes.put(valueComparator, valueIndex);
+		return valueIndex;
+	}
+
+	@Override
+	protected void notifyChange(Tuple key, T oldValue, T newValue) {
+		if (!deferNotifications) {
+			super.notifyChange(key, oldValue, newValue);
+			return;
+		}
+		if (pendingChanges == null) {
+			pendingChanges = new ArrayList<>();
+		}
+		pendingChanges.add(new PendingChange<>(key, oldValue, newValue));
+	}
+
+	public void notifyPendingChanges() {
+		if (pendingChanges == null) {
+			return;
+		}
+		var changes = pendingChanges;
+		pendingChanges = null;
+		for (var change : changes) {
+			super.notifyChange(change.key(), change.oldValue(), change.newValue());
+		}
 	}
 
 	@Override
@@ -29,4 +155,7 @@ public abstract class AbstractInterpretedMatcher<T> extends AbstractResultSet<T>
 	protected void stopListeningForChanges() {
 		backend.removeUpdateListener(this);
 	}
+
+	private record PendingChange<T>(Tuple key, T oldValue, T newValue) {
+	}
 }
@@ -14,7 +14,7 @@ public class RawPatternMatcher extends GenericPatternMatcher {
         super(specification);
     }
 
-	IQueryResultProvider getBackend() {
+	public IQueryResultProvider getBackend() {
 		return backend;
 	}
 }
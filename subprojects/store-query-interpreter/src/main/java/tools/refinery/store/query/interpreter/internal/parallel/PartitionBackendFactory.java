@@ -0,0 +1,45 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.parallel;
+
+import tools.refinery.interpreter.matchers.backend.IMatcherCapability;
+import tools.refinery.interpreter.matchers.backend.IQueryBackend;
+import tools.refinery.interpreter.matchers.backend.IQueryBackendFactory;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.interpreter.matchers.context.IQueryBackendContext;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
+
+/**
+ * A backend factory that behaves like its delegate, but compares unequal to factories of other partitions.
+ * <p>
+ * The query engine creates a single backend for each distinct backend factory. Therefore, queries in different
+ * partitions are evaluated by different backend instances (e.g., separate Rete networks) that can be flushed
+ * concurrently.
+ *
+ * @param delegate  The factory to create backends with.
+ * @param partition The index of the partition.
+ */
+public record PartitionBackendFactory(IQueryBackendFactory delegate, int partition) implements IQueryBackendFactory {
+	@Override
+	public IQueryBackend create(IQueryBackendContext context) {
+		return delegate.create(context);
+	}
+
+	@Override
+	public Class<? extends IQueryBackend> getBackendClass() {
+		return delegate.getBackendClass();
+	}
+
+	@Override
+	public IMatcherCapability calculateRequiredCapability(PQuery query, QueryEvaluationHint hint) {
+		return delegate.calculateRequiredCapability(query, hint);
+	}
+
+	@Override
+	public boolean isCaching() {
+		return delegate.isCaching();
+	}
+}
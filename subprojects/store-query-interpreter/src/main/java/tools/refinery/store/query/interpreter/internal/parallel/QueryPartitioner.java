@@ -0,0 +1,124 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.parallel;
+
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.literal.AbstractCallLiteral;
+
+import java.util.*;
+
+/**
+ * Distributes queries between a fixed number of partitions such that queries with common dependencies end up in the
+ * same partition.
+ * <p>
+ * Each partition is evaluated by a separate Rete network, which inlines all the dependencies of its queries.
+ * Therefore, placing queries with common dependencies in the same partition avoids evaluating the common
+ * dependencies multiple times. Connected components of the dependency graph are assigned to partitions greedily,
+ * always adding the next largest component to the currently smallest partition.
+ */
+public class QueryPartitioner {
+	private final int partitionCount;
+
+	public QueryPartitioner(int partitionCount) {
+		if (partitionCount < 1) {
+			throw new IllegalArgumentException("Partition count must be positive, got: " + partitionCount);
+		}
+		this.partitionCount = partitionCount;
+	}
+
+	public Map<Dnf, Integer> partition(Collection<Dnf> queries) {
+		var components = findComponents(queries);
+		components.sort(Comparator.comparingInt(Component::weight).reversed());
+		var partitionWeights = new int[partitionCount];
+		var result = new HashMap<Dnf, Integer>(queries.size());
+		for (var component : components) {
+			int lightestPartition = 0;
+			for (int i = 1; i < partitionCount; i++) {
+				if (partitionWeights[i] < partitionWeights[lightestPartition]) {
+					lightestPartition = i;
+				}
+			}
+			partitionWeights[lightestPartition] += component.weight();
+			for (var query : component.queries()) {
+				result.put(query, lightestPartition);
+			}
+		}
+		return result;
+	}
+
+	private static List<Component> findComponents(Collection<Dnf> queries) {
+		var roots = new ArrayList<>(new LinkedHashSet<>(queries));
+		int rootCount = roots.size();
+		var parents = new int[rootCount];
+		for (int i = 0; i < rootCount; i++) {
+			parents[i] = i;
+		}
+		// Maps each (transitive) dependency to the first root query that depends on it.
+		var owners = new HashMap<Dnf, Integer>();
+		for (int i = 0; i < rootCount; i++) {
+			for (var dependency : collectDependencies(roots.get(i))) {
+				var owner = owners.putIfAbsent(dependency, i);
+				if (owner != null) {
+					union(parents, owner, i);
+				}
+			}
+		}
+		var weights = new int[rootCount];
+		for (var owner : owners.values()) {
+			weights[find(parents, owner)]++;
+		}
+		var componentQueries = new LinkedHashMap<Integer, List<Dnf>>();
+		for (int i = 0; i < rootCount; i++) {
+			componentQueries.computeIfAbsent(find(parents, i), ignored -> new ArrayList<>()).add(roots.get(i));
+		}
+		var components = new ArrayList<Component>(componentQueries.size());
+		for (var entry : componentQueries.entrySet()) {
+			components.add(new Component(entry.getValue(), weights[entry.getKey()]));
+		}
+		return components;
+	}
+
+	private static Set<Dnf> collectDependencies(Dnf root) {
+		var dependencies = new HashSet<Dnf>();
+		var queue = new ArrayDeque<Dnf>();
+		queue.add(root);
+		while (!queue.isEmpty()) {
+			var dnf = queue.removeFirst();
+			if (!dependencies.add(dnf)) {
+				continue;
+			}
+			for (var clause : dnf.getClauses()) {
+				for (var literal : clause.literals()) {
+					if (literal instanceof AbstractCallLiteral callLiteral &&
+							callLiteral.getTarget() instanceof Dnf target) {
+						queue.add(target);
+					}
+				}
+			}
+		}
+		return dependencies;
+	}
+
+	private static int find(int[] parents, int i) {
+		while (parents[i] != i) {
+			parents[i] = parents[parents[i]];
+			i = parents[i];
+		}
+		return i;
+	}
+
+	private static void union(int[] parents, int i, int j) {
+		int rootI = find(parents, i);
+		int rootJ = find(parents, j);
+		if (rootI != rootJ) {
+			// Keep the smaller index as the representative to preserve the order of the queries.
+			parents[Math.max(rootI, rootJ)] = Math.min(rootI, rootJ);
+		}
+	}
+
+	private record Component(List<Dnf> queries, int weight) {
+	}
+}
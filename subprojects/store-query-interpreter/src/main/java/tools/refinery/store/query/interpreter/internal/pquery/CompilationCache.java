@@ -0,0 +1,174 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.pquery;
+
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.equality.DeepDnfEqualityChecker;
+import tools.refinery.store.query.equality.DnfFingerprint;
+import tools.refinery.store.query.view.AnySymbolView;
+
+import java.lang.ref.SoftReference;
+import java.util.*;
+
+/**
+ * A process-wide cache of translated queries.
+ * <p>
+ * Entries are keyed by the structure of a {@link Dnf} and all of its (transitive) dependencies up to variable
+ * renaming, as well as the evaluation hints of the {@link Dnf} and its dependencies. Therefore, model stores with
+ * structurally equal queries (e.g., the built-in queries of a partial model or unchanged parts of a metamodel) can
+ * share the translated {@link RawPQuery} instances instead of translating them again.
+ * <p>
+ * Both the number of entries and their total weight are bounded, and the least recently used entries are evicted
+ * first. The weight of an entry is the number of constraints in the translated query and its dependencies, which is
+ * roughly proportional to the memory they take up. Entries are only softly reachable from the cache, so the garbage
+ * collector may also clear them if memory is low.
+ */
+public class CompilationCache {
+	public static final int DEFAULT_MAX_SIZE = 4096;
+
+	public static final long DEFAULT_MAX_WEIGHT = 1L << 18;
+
+	public static final CompilationCache INSTANCE = new CompilationCache(DEFAULT_MAX_SIZE, DEFAULT_MAX_WEIGHT);
+
+	private final int maxSize;
+	private final long maxWeight;
+	private final Map<Key, WeightedReference> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long totalWeight;
+
+	public CompilationCache(int maxSize, long maxWeight) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximum cache size must be positive, got: " + maxSize);
+		}
+		if (maxWeight < 1) {
+			throw new IllegalArgumentException("Maximum cache weight must be positive, got: " + maxWeight);
+		}
+		this.maxSize = maxSize;
+		this.maxWeight = maxWeight;
+	}
+
+	public synchronized Entry get(Key key) {
+		var reference = entries.get(key);
+		if (reference == null) {
+			return null;
+		}
+		var entry = reference.get();
+		if (entry == null) {
+			entries.remove(key);
+			totalWeight -= reference.weight();
+		}
+		return entry;
+	}
+
+	public synchronized void put(Key key, Entry entry) {
+		long weight = entry.computeWeight();
+		var oldReference = entries.put(key, new WeightedReference(entry, weight));
+		if (oldReference != null) {
+			totalWeight -= oldReference.weight();
+		}
+		totalWeight += weight;
+		var iterator = entries.values().iterator();
+		// Keep the most recently added entry even if it is heavier than the maximum weight on its own.
+		while (entries.size() > 1 && (entries.size() > maxSize || totalWeight > maxWeight)) {
+			totalWeight -= iterator.next().weight();
+			iterator.remove();
+		}
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getTotalWeight() {
+		return totalWeight;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		totalWeight = 0;
+	}
+
+	public static final class Key {
+		private final Dnf dnf;
+		private final List<QueryEvaluationHint> hints;
+		private final DnfFingerprint fingerprint;
+		private final int hashCode;
+
+		/**
+		 * Creates a new cache key.
+		 *
+		 * @param dnf   The query to translate.
+		 * @param hints The evaluation hints of {@code dnf} and its dependencies in the order of a depth-first
+		 *              traversal.
+		 */
+		public Key(Dnf dnf, List<QueryEvaluationHint> hints) {
+			this.dnf = dnf;
+			this.hints = hints;
+			fingerprint = dnf.getFingerprint();
+			hashCode = fingerprint.hashCode() * 31 + hints.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			var other = (Key) obj;
+			return hashCode == other.hashCode && fingerprint.equals(other.fingerprint) && hints.equals(other.hints) &&
+					new DeepDnfEqualityChecker().dnfEqual(dnf, other.dnf);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return dnf.name();
+		}
+	}
+
+	/**
+	 * A translated query.
+	 *
+	 * @param pQuery             The translated query.
+	 * @param dependencies       The query and its dependencies in the order of a depth-first traversal.
+	 * @param dependencyPQueries The translations of {@code dependencies} in the same order.
+	 * @param symbolViews        The symbol views used by the query and its dependencies.
+	 */
+	public record Entry(RawPQuery pQuery, List<Dnf> dependencies, List<RawPQuery> dependencyPQueries,
+						Set<AnySymbolView> symbolViews) {
+		long computeWeight() {
+			long weight = 0;
+			for (var body : pQuery.getDisjunctBodies().getBodies()) {
+				weight += body.getConstraints().size();
+			}
+			for (var referredQuery : pQuery.getAllReferredQueries()) {
+				for (var body : referredQuery.getDisjunctBodies().getBodies()) {
+					weight += body.getConstraints().size();
+				}
+			}
+			return weight;
+		}
+	}
+
+	private static final class WeightedReference extends SoftReference<Entry> {
+		private final long weight;
+
+		WeightedReference(Entry entry, long weight) {
+			super(entry);
+			this.weight = weight;
+		}
+
+		public long weight() {
+			return weight;
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -34,10 +34,7 @@ import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
 import tools.refinery.interpreter.matchers.tuple.Tuple;
 import tools.refinery.interpreter.matchers.tuple.Tuples;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.Function;
 
 public class Dnf2PQuery {
@@ -46,11 +43,16 @@ public class Dnf2PQuery {
 	private final QueryWrapperFactory wrapperFactory = new QueryWrapperFactory(this);
 	private Function<Dnf, QueryEvaluationHint> computeHint = dnf -> new QueryEvaluationHint(null,
 			(IQueryBackendFactory) null);
+	private CompilationCache compilationCache;
 
 	public void setComputeHint(Function<Dnf, QueryEvaluationHint> computeHint) {
 		this.computeHint = computeHint;
 	}
 
+	public void setCompilationCache(CompilationCache compilationCache) {
+		this.compilationCache = compilationCache;
+	}
+
 	public RawPQuery translate(Dnf dnfQuery) {
 		return mapper.map(dnfQuery);
 	}
@@ -60,8 +62,119 @@ public class Dnf2PQuery {
 	}
 
 	private RawPQuery doTranslate(Dnf dnfQuery) {
+		if (compilationCache == null) {
+			return doTranslate(dnfQuery, computeHint.apply(dnfQuery));
+		}
+		var dependencies = collectDependencies(dnfQuery);
+		var hints = new ArrayList<QueryEvaluationHint>(dependencies.size());
+		for (var dependency : dependencies) {
+			hints.add(computeHint.apply(dependency));
+		}
+		var key = new CompilationCache.Key(dnfQuery, Collections.unmodifiableList(hints));
+		var cachedEntry = compilationCache.get(key);
+		if (cachedEntry != null && registerDependencies(dependencies, cachedEntry)) {
+			for (var symbolView : cachedEntry.symbolViews()) {
+				wrapperFactory.getInputKey(symbolView);
+			}
+			return cachedEntry.pQuery();
+		}
+		// The first dependency is always the query itself.
+		var pQuery = doTranslate(dnfQuery, hints.getFirst());
+		// Initialize the query and its dependencies eagerly to avoid initializing them concurrently if they are
+		// shared between model stores.
+		for (var referredQuery : pQuery.getAllReferredQueries()) {
+			referredQuery.ensureInitialized();
+		}
+		var dependencyPQueries = new ArrayList<RawPQuery>(dependencies.size());
+		dependencyPQueries.add(pQuery);
+		for (int i = 1; i < dependencies.size(); i++) {
+			// Every dependency was translated along with the query.
+			dependencyPQueries.add(mapper.getAlreadyMapped(dependencies.get(i)));
+		}
+		compilationCache.put(key, new CompilationCache.Entry(pQuery, Collections.unmodifiableList(dependencies),
+				Collections.unmodifiableList(dependencyPQueries), collectSymbolViews(dependencies)));
+		return pQuery;
+	}
+
+	/**
+	 * Makes sure that the dependencies of a cached query are translated to the same queries as in the cached
+	 * translation, so that translating a dependency later will not create a duplicate of a query referred to by the
+	 * cached translation.
+	 *
+	 * @return {@code true} if the cached translation can be used, {@code false} if some dependency was already
+	 * translated to a different query.
+	 */
+	private boolean registerDependencies(List<Dnf> dependencies, CompilationCache.Entry entry) {
+		int size = dependencies.size();
+		var cachedDependencies = entry.dependencies();
+		var cachedPQueries = entry.dependencyPQueries();
+		if (cachedDependencies.size() != size) {
+			// Structurally equal queries may still call the same dependency through a different number of distinct
+			// Dnf instances.
+			return false;
+		}
+		// The first dependency is the query itself, which is being translated.
+		for (int i = 1; i < size; i++) {
+			var dependency = dependencies.get(i);
+			if (!dependency.getFingerprint().equals(cachedDependencies.get(i).getFingerprint())) {
+				return false;
+			}
+			var alreadyMapped = mapper.getAlreadyMapped(dependency);
+			if (alreadyMapped != null && alreadyMapped != cachedPQueries.get(i)) {
+				return false;
+			}
+		}
+		for (int i = 1; i < size; i++) {
+			var dependency = dependencies.get(i);
+			mapper.putAlreadyMapped(dependency, cachedPQueries.get(i));
+		}
+		return true;
+	}
+
+	private static List<Dnf> collectDependencies(Dnf dnfQuery) {
+		var dependencies = new LinkedHashSet<Dnf>();
+		var stack = new ArrayDeque<Dnf>();
+		stack.push(dnfQuery);
+		while (!stack.isEmpty()) {
+			var dnf = stack.pop();
+			if (!dependencies.add(dnf)) {
+				continue;
+			}
+			var calledDnfs = new ArrayList<Dnf>();
+			for (var clause : dnf.getClauses()) {
+				for (var literal : clause.literals()) {
+					if (literal instanceof AbstractCallLiteral callLiteral &&
+							callLiteral.getTarget() instanceof Dnf calledDnf) {
+						calledDnfs.add(calledDnf);
+					}
+				}
+			}
+			// Push in reverse order to visit called queries in the order they appear in the clauses.
+			for (int i = calledDnfs.size() - 1; i >= 0; i--) {
+				stack.push(calledDnfs.get(i));
+			}
+		}
+		return new ArrayList<>(dependencies);
+	}
+
+	private static Set<AnySymbolView> collectSymbolViews(List<Dnf> dependencies) {
+		var symbolViews = new LinkedHashSet<AnySymbolView>();
+		for (var dnf : dependencies) {
+			for (var clause : dnf.getClauses()) {
+				for (var literal : clause.literals()) {
+					if (literal instanceof AbstractCallLiteral callLiteral &&
+							callLiteral.getTarget() instanceof AnySymbolView symbolView) {
+						symbolViews.add(symbolView);
+					}
+				}
+			}
+		}
+		return Collections.unmodifiableSet(symbolViews);
+	}
+
+	private RawPQuery doTranslate(Dnf dnfQuery, QueryEvaluationHint hint) {
 		var pQuery = new RawPQuery(dnfQuery.getUniqueName());
-		pQuery.setEvaluationHints(computeHint.apply(dnfQuery));
+		pQuery.setEvaluationHints(hint);
 
 		Map<SymbolicParameter, PParameter> parameters = new HashMap<>();
 		List<PParameter> parameterList = new ArrayList<>();
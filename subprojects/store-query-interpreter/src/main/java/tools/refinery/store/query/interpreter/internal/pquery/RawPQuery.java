@@ -24,6 +24,7 @@ public class RawPQuery extends BasePQuery {
 	private final String fullyQualifiedName;
 	private List<PParameter> parameters;
 	private final LinkedHashSet<PBody> bodies = new LinkedHashSet<>();
+	private GenericQuerySpecification<RawPatternMatcher> querySpecification;
 
 	public RawPQuery(String name, PVisibility visibility) {
 		super(visibility);
@@ -62,7 +63,16 @@ public class RawPQuery extends BasePQuery {
 		return bodies;
 	}
 
-	public GenericQuerySpecification<RawPatternMatcher> build() {
+	public synchronized GenericQuerySpecification<RawPatternMatcher> build() {
+		// Query specifications register themselves in {@link #publishedAs()}, so we only create a single one even if
+		// the query is shared between model stores by {@link CompilationCache}.
+		if (querySpecification == null) {
+			querySpecification = createQuerySpecification();
+		}
+		return querySpecification;
+	}
+
+	private GenericQuerySpecification<RawPatternMatcher> createQuerySpecification() {
 		return new GenericQuerySpecification<>(this) {
 			@Override
 			public Class<? extends QueryScope> getPreferredScopeClass() {
@@ -0,0 +1,143 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter.internal.statistics;
+
+import tools.refinery.interpreter.localsearch.matcher.integration.AbstractLocalSearchResultProvider;
+import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchBackend;
+import tools.refinery.interpreter.localsearch.profiler.LocalSearchProfilerAdapter;
+import tools.refinery.interpreter.matchers.backend.IUpdateable;
+import tools.refinery.interpreter.matchers.psystem.queries.PQuery;
+import tools.refinery.interpreter.matchers.tuple.Tuple;
+import tools.refinery.interpreter.rete.matcher.ReteEngine;
+import tools.refinery.interpreter.rete.matcher.RetePatternMatcher;
+import tools.refinery.interpreter.rete.network.Network;
+import tools.refinery.interpreter.rete.network.NetworkStatistics;
+import tools.refinery.store.query.dnf.AnyQuery;
+import tools.refinery.store.query.interpreter.QueryInterpreterStatistics;
+import tools.refinery.store.query.interpreter.QueryStatistics;
+import tools.refinery.store.query.interpreter.internal.matcher.RawPatternMatcher;
+import tools.refinery.store.query.resultset.AnyResultSet;
+
+import java.util.*;
+
+public class StatisticsCollector {
+	private final LocalSearchProfilerAdapter profilerAdapter = new LocalSearchProfilerAdapter();
+	// Each network gets its own statistics, because networks may propagate updates concurrently.
+	private final Map<Network, NetworkStatistics> statisticsByNetwork = new IdentityHashMap<>();
+	private final Set<LocalSearchBackend> localSearchBackends = Collections.newSetFromMap(new IdentityHashMap<>());
+	private final Map<AnyQuery, QueryEntry> entries = new LinkedHashMap<>();
+	private long flushCount;
+	private long flushTimeNanos;
+
+	public void addQuery(AnyQuery query, RawPatternMatcher matcher, AnyResultSet resultSet) {
+		var backend = matcher.getBackend();
+		var pQuery = matcher.getSpecification().getInternalQueryRepresentation();
+		var entry = new QueryEntry(query.name(), pQuery, resultSet);
+		if (backend instanceof RetePatternMatcher retePatternMatcher) {
+			if (retePatternMatcher.getQueryBackend() instanceof ReteEngine reteEngine) {
+				entry.reteMatcher = retePatternMatcher;
+				entry.networkStatistics = statisticsByNetwork.computeIfAbsent(reteEngine.getReteNet(), network -> {
+					var statistics = new NetworkStatistics();
+					network.setStatistics(statistics);
+					return statistics;
+				});
+			}
+			backend.addUpdateListener(entry, entry, false);
+		} else if (backend instanceof AbstractLocalSearchResultProvider localSearchResultProvider &&
+				localSearchResultProvider.getQueryBackend() instanceof LocalSearchBackend localSearchBackend &&
+				localSearchBackends.add(localSearchBackend)) {
+			localSearchBackend.addAdapter(profilerAdapter);
+		}
+		entries.put(query, entry);
+	}
+
+	public void addVacuousQuery(AnyQuery query, AnyResultSet resultSet) {
+		entries.put(query, new QueryEntry(query.name(), null, resultSet));
+	}
+
+	public void flushed(long elapsedNanos) {
+		flushCount++;
+		flushTimeNanos += elapsedNanos;
+	}
+
+	public void reset() {
+		for (var statistics : statisticsByNetwork.values()) {
+			statistics.reset();
+		}
+		profilerAdapter.reset();
+		for (var entry : entries.values()) {
+			entry.insertions = 0;
+			entry.deletions = 0;
+		}
+		flushCount = 0;
+		flushTimeNanos = 0;
+	}
+
+	public QueryInterpreterStatistics getStatistics() {
+		var queries = new ArrayList<QueryStatistics>(entries.size());
+		for (var entry : entries.values()) {
+			queries.add(entry.toStatistics());
+		}
+		return new QueryInterpreterStatistics(flushCount, flushTimeNanos, Collections.unmodifiableList(queries));
+	}
+
+	public QueryStatistics getStatistics(AnyQuery query) {
+		var entry = entries.get(query);
+		if (entry == null) {
+			throw new IllegalArgumentException("No statistics for query %s in model".formatted(query.name()));
+		}
+		return entry.toStatistics();
+	}
+
+	private final class QueryEntry implements IUpdateable {
+		private final String name;
+		private final PQuery pQuery;
+		private final AnyResultSet resultSet;
+		private RetePatternMatcher reteMatcher;
+		private NetworkStatistics networkStatistics;
+		private long insertions;
+		private long deletions;
+
+		private QueryEntry(String name, PQuery pQuery, AnyResultSet resultSet) {
+			this.name = name;
+			this.pQuery = pQuery;
+			this.resultSet = resultSet;
+		}
+
+		@Override
+		public void update(Tuple updateElement, boolean isInsertion) {
+			if (isInsertion) {
+				insertions++;
+			} else {
+				deletions++;
+			}
+		}
+
+		public QueryStatistics toStatistics() {
+			long searchExecutionCount = 0;
+			long searchMatchCount = 0;
+			long searchTimeNanos = 0;
+			long searchReplanCount = 0;
+			if (pQuery != null) {
+				// Read local search statistics before computing the result size, because computing the size of a
+				// non-incremental result set executes the local search matcher.
+				searchExecutionCount = profilerAdapter.getExecutionCount(pQuery);
+				searchMatchCount = profilerAdapter.getMatchCount(pQuery);
+				searchTimeNanos = profilerAdapter.getExecutionTimeNanos(pQuery);
+				searchReplanCount = profilerAdapter.getReplanningCount(pQuery);
+			}
+			int resultSize = resultSet.size();
+			if (reteMatcher == null) {
+				return new QueryStatistics(name, false, resultSize, insertions, deletions, 0, 0, 0, 0,
+						searchExecutionCount, searchMatchCount, searchTimeNanos, searchReplanCount);
+			}
+			var summary = networkStatistics.summarize(reteMatcher.getProductionNode());
+			return new QueryStatistics(name, true, resultSize, insertions, deletions, summary.nodeCount(),
+					summary.messageCount(), summary.deliveryTimeNanos(), summary.memorySize(), searchExecutionCount,
+					searchMatchCount, searchTimeNanos, searchReplanCount);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.resultset.ChangeTrackingResultSet;
+import tools.refinery.store.query.resultset.ResultSetChange;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ChangeTrackingResultSetTest {
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+
+	@Test
+	void relationalVersionTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+
+		try (var resultSet = new ChangeTrackingResultSet<>(queryEngine.getResultSet(query))) {
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			friendInterpretation.put(Tuple.of(1, 2), true);
+			var version1 = model.commit();
+
+			friendInterpretation.put(Tuple.of(1, 2), false);
+			friendInterpretation.put(Tuple.of(0, 2), true);
+			friendInterpretation.put(Tuple.of(0, 1), false);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			var version2 = model.commit();
+
+			var delta = resultSet.getChangesSince(version1);
+			assertThat(delta.added(), contains(new ResultSetChange<>(Tuple.of(0, 2), false, true)));
+			assertThat(delta.removed(), contains(new ResultSetChange<>(Tuple.of(1, 2), true, false)));
+			assertThat(delta.changed(), empty());
+			assertThat(resultSet.getChangesSince(version2).isEmpty(), is(true));
+
+			model.restore(version1);
+			assertThat(resultSet.getChangesSince(version1).isEmpty(), is(true));
+			var backDelta = resultSet.getChangesSince(version2);
+			assertThat(backDelta.added(), contains(new ResultSetChange<>(Tuple.of(1, 2), false, true)));
+			assertThat(backDelta.removed(), contains(new ResultSetChange<>(Tuple.of(0, 2), true, false)));
+		}
+	}
+
+	@Test
+	void functionalCheckpointTest() {
+		var query = Query.of("Function", Integer.class, (builder, p1, output) -> builder.clause(
+				friendView.call(p1, Variable.of()),
+				output.assign(friendView.count(p1, Variable.of()))
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		queryEngine.flushChanges();
+
+		try (var resultSet = new ChangeTrackingResultSet<>(queryEngine.getResultSet(query))) {
+			resultSet.checkpoint("start");
+			friendInterpretation.put(Tuple.of(0, 2), true);
+			friendInterpretation.put(Tuple.of(1, 2), false);
+			friendInterpretation.put(Tuple.of(2, 0), true);
+
+			assertThat(resultSet.getChangesSince("start").isEmpty(), is(true));
+			queryEngine.flushChanges();
+
+			var delta = resultSet.getChangesSince("start");
+			assertThat(delta.added(), contains(new ResultSetChange<>(Tuple.of(2), null, 1)));
+			assertThat(delta.removed(), contains(new ResultSetChange<>(Tuple.of(1), 1, null)));
+			assertThat(delta.changed(), contains(new ResultSetChange<>(Tuple.of(0), 1, 2)));
+
+			resultSet.removeCheckpoint("start");
+			assertThat(resultSet.hasCheckpoint("start"), is(false));
+			assertThrows(IllegalArgumentException.class, () -> resultSet.getChangesSince("start"));
+		}
+	}
+
+	@Test
+	void untrackedVersionTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+
+		try (var resultSet = new ChangeTrackingResultSet<>(queryEngine.getResultSet(query), 1)) {
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			var version1 = model.commit();
+			friendInterpretation.put(Tuple.of(1, 2), true);
+			var version2 = model.commit();
+
+			assertThat(resultSet.isTracked(version1), is(false));
+			assertThrows(IllegalArgumentException.class, () -> resultSet.getChangesSince(version1));
+			assertThat(resultSet.getChangesSince(version2).isEmpty(), is(true));
+		}
+	}
+
+	@Test
+	void searchBackendTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(null, QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var searchResultSet = queryEngine.getResultSet(query);
+
+		// Local search does not report changes, so the log of tracked changes would stay empty.
+		assertThat(searchResultSet.isIncremental(), is(false));
+		assertThrows(IllegalArgumentException.class, () -> new ChangeTrackingResultSet<>(searchResultSet));
+	}
+}
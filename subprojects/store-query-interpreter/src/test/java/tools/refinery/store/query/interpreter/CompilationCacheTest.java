@@ -0,0 +1,132 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.interpreter.internal.pquery.CompilationCache;
+import tools.refinery.store.query.interpreter.internal.pquery.Dnf2PQuery;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class CompilationCacheTest {
+	@Test
+	void sharedTranslationTest() {
+		var firstStoreCacheSize = buildAndCheckStore();
+		assertThat(firstStoreCacheSize, greaterThan(0));
+		// Structurally equal queries and symbols of a different model store are served from the cache.
+		assertThat(buildAndCheckStore(), is(firstStoreCacheSize));
+	}
+
+	@Test
+	void cachedDependencyTranslationTest() {
+		// Translating the caller evicts the entry of the callee, so the callee can only be found through the entry of
+		// the caller.
+		var cache = new CompilationCache(1, CompilationCache.DEFAULT_MAX_WEIGHT);
+		var firstQueries = createCallerAndCallee();
+		var firstTranslator = new Dnf2PQuery();
+		firstTranslator.setCompilationCache(cache);
+		var firstCaller = firstTranslator.translate(firstQueries.get(0).getDnf());
+		var firstCallee = firstTranslator.translate(firstQueries.get(1).getDnf());
+		assertThat(firstCaller.getAllReferredQueries(), hasItem(firstCallee));
+		assertThat(cache.size(), is(1));
+
+		var secondQueries = createCallerAndCallee();
+		var secondTranslator = new Dnf2PQuery();
+		secondTranslator.setCompilationCache(cache);
+		var secondCaller = secondTranslator.translate(secondQueries.get(0).getDnf());
+		var secondCallee = secondTranslator.translate(secondQueries.get(1).getDnf());
+		assertThat(secondCaller, sameInstance(firstCaller));
+		assertThat(secondCallee, sameInstance(firstCallee));
+	}
+
+	@Test
+	void weightBoundTest() {
+		var cache = new CompilationCache(CompilationCache.DEFAULT_MAX_SIZE, 1);
+		var translator = new Dnf2PQuery();
+		translator.setCompilationCache(cache);
+		var queries = createCallerAndCallee();
+		translator.translate(queries.get(0).getDnf());
+		// The entry of the callee is evicted, but the newest entry is kept even if it is heavier than the bound.
+		assertThat(cache.size(), is(1));
+		assertThat(cache.getTotalWeight(), greaterThan(1L));
+	}
+
+	private static List<RelationalQuery> createCallerAndCallee() {
+		var friend = Symbol.of("cachedFriend", 2);
+		AnySymbolView friendView = new KeyOnlyView<>(friend);
+		RelationalQuery calleeQuery = Query.of("CachedCallee", (builder, p1, p2) -> builder
+				.clause(
+						friendView.call(p1, p2),
+						friendView.call(p2, p1)
+				));
+		RelationalQuery callerQuery = Query.of("CachedCaller", (builder, p1) -> builder
+				.clause((p2) -> List.of(
+						calleeQuery.call(p1, p2)
+				)));
+		return List.of(callerQuery, calleeQuery);
+	}
+
+	private static int buildAndCheckStore() {
+		var person = Symbol.of("CachedPerson", 1);
+		var friend = Symbol.of("cachedFriend", 2);
+		AnySymbolView personView = new KeyOnlyView<>(person);
+		AnySymbolView friendView = new KeyOnlyView<>(friend);
+		RelationalQuery friendQuery = Query.of("CachedFriend", (builder, p1, p2) -> builder
+				.clause(
+						personView.call(p1),
+						personView.call(p2),
+						friendView.call(p1, p2)
+				));
+		RelationalQuery mutualFriendQuery = Query.of("CachedMutualFriend", (builder, p1, p2) -> builder
+				.clause(
+						friendQuery.call(p1, p2),
+						friendQuery.call(p2, p1)
+				));
+
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(friendQuery, mutualFriendQuery))
+				.build();
+		var cacheSize = CompilationCache.INSTANCE.size();
+
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var mutualFriendResultSet = queryEngine.getResultSet(mutualFriendQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 0), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(1, 0), true,
+				Tuple.of(1, 2), false
+		), mutualFriendResultSet);
+		return cacheSize;
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.resultset.IndexedResultSet;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class IndexedResultSetTest {
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+
+	@Test
+	void relationalFlushTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				 friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(query);
+
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		friendInterpretation.put(Tuple.of(1, 1), true);
+		queryEngine.flushChanges();
+
+		try (var indexedResultSet = new IndexedResultSet<>(resultSet, true)) {
+			assertThat(indexedResultSet.size(), is(3));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(0, 1)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(1, 1)));
+			assertThat(indexedResultSet.getKey(2), is(Tuple.of(1, 2)));
+
+			friendInterpretation.put(Tuple.of(1, 2), false);
+			friendInterpretation.put(Tuple.of(0, 2), true);
+			queryEngine.flushChanges();
+
+			assertThat(indexedResultSet.size(), is(3));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(0, 1)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(0, 2)));
+			assertThat(indexedResultSet.getKey(2), is(Tuple.of(1, 1)));
+		}
+	}
+
+	@Test
+	void functionalFlushTest() {
+		var query = Query.of("Function", Integer.class, (builder, p1, output) -> builder.clause(
+				friendView.call(p1, Variable.of()),
+				output.assign(friendView.count(p1, Variable.of()))
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(query);
+
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		friendInterpretation.put(Tuple.of(1, 1), true);
+		queryEngine.flushChanges();
+
+		try (var indexedResultSet = new IndexedResultSet<>(resultSet, true)) {
+			assertThat(indexedResultSet.size(), is(2));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(0)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(1)));
+
+			friendInterpretation.put(Tuple.of(0, 1), false);
+			friendInterpretation.put(Tuple.of(2, 1), true);
+			queryEngine.flushChanges();
+
+			assertThat(indexedResultSet.size(), is(2));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(1)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(2)));
+
+			friendInterpretation.put(Tuple.of(1, 1), false);
+			queryEngine.flushChanges();
+
+			assertThat(indexedResultSet.size(), is(2));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(1)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(2)));
+
+			friendInterpretation.put(Tuple.of(1, 2), false);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			queryEngine.flushChanges();
+
+			assertThat(indexedResultSet.size(), is(2));
+			assertThat(indexedResultSet.getKey(0), is(Tuple.of(1)));
+			assertThat(indexedResultSet.getKey(1), is(Tuple.of(2)));
+		}
+	}
+
+	@Test
+	void swapRemoveTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(query);
+
+		try (var indexedResultSet = new IndexedResultSet<>(resultSet)) {
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			friendInterpretation.put(Tuple.of(1, 2), true);
+			friendInterpretation.put(Tuple.of(1, 1), true);
+			queryEngine.flushChanges();
+
+			friendInterpretation.put(Tuple.of(0, 1), false);
+			friendInterpretation.put(Tuple.of(2, 0), true);
+			queryEngine.flushChanges();
+
+			assertThat(indexedResultSet.size(), is(3));
+			var keys = new HashSet<Tuple>();
+			for (int i = 0; i < indexedResultSet.size(); i++) {
+				var key = indexedResultSet.getKey(i);
+				keys.add(key);
+				assertThat(indexedResultSet.indexOf(key), is(i));
+			}
+			assertThat(keys, is(Set.of(Tuple.of(1, 1), Tuple.of(1, 2), Tuple.of(2, 0))));
+			assertThat(indexedResultSet.indexOf(Tuple.of(0, 1)), is(-1));
+		}
+	}
+
+	@Test
+	void deterministicRandomChangesTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(query);
+		var expectedKeys = new TreeSet<Tuple>();
+		var random = new Random(1);
+
+		try (var indexedResultSet = new IndexedResultSet<>(resultSet, true)) {
+			for (int i = 0; i < 100; i++) {
+				for (int j = 0; j < 5; j++) {
+					var key = Tuple.of(random.nextInt(8), random.nextInt(8));
+					boolean value = random.nextBoolean();
+					friendInterpretation.put(key, value);
+					if (value) {
+						expectedKeys.add(key);
+					} else {
+						expectedKeys.remove(key);
+					}
+				}
+				queryEngine.flushChanges();
+
+				var actualKeys = new ArrayList<Tuple>();
+				for (int index = 0; index < indexedResultSet.size(); index++) {
+					var key = indexedResultSet.getKey(index);
+					actualKeys.add(key);
+					assertThat(indexedResultSet.indexOf(key), is(index));
+				}
+				assertThat(actualKeys, is(new ArrayList<>(expectedKeys)));
+			}
+		}
+	}
+
+	@Test
+	void deterministicLargeBatchesTest() {
+		var query = Query.of("Relation", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2)
+		));
+
+		var store = ModelStore.builder()
+				.symbols(friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(query))
+				.build();
+
+		var model = store.createEmptyModel();
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(query);
+		var expectedKeys = new TreeSet<Tuple>();
+		var random = new Random(2);
+
+		try (var indexedResultSet = new IndexedResultSet<>(resultSet, true)) {
+			for (int i = 0; i < 100; i++) {
+				// Some batches change more keys than the result set contains, while others remove and add back the
+				// same keys.
+				int batchSize = random.nextInt(4) == 0 ? random.nextInt(100) : random.nextInt(4);
+				for (int j = 0; j < batchSize; j++) {
+					var key = Tuple.of(random.nextInt(8), random.nextInt(8));
+					boolean value = random.nextBoolean();
+					friendInterpretation.put(key, value);
+					if (value) {
+						expectedKeys.add(key);
+					} else {
+						expectedKeys.remove(key);
+					}
+				}
+				queryEngine.flushChanges();
+
+				assertThat(indexedResultSet.size(), is(expectedKeys.size()));
+				int index = 0;
+				for (var key : expectedKeys) {
+					assertThat(indexedResultSet.getKey(index), is(key));
+					assertThat(indexedResultSet.indexOf(key), is(index));
+					index++;
+				}
+				assertThat(indexedResultSet.indexOf(Tuple.of(8, 8)), is(-1));
+			}
+		}
+	}
+}
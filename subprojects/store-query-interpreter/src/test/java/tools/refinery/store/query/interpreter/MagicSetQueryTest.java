@@ -0,0 +1,132 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.resultset.ResultSet;
+import tools.refinery.store.query.rewriter.MagicSetRewriter;
+import tools.refinery.store.query.term.ParameterDirection;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.FunctionView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.store.query.literal.Literals.check;
+import static tools.refinery.store.query.literal.Literals.not;
+import static tools.refinery.store.query.term.int_.IntTerms.constant;
+import static tools.refinery.store.query.term.int_.IntTerms.greaterEq;
+
+class MagicSetQueryTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final FunctionView<Integer> ageView = new FunctionView<>(age);
+	private static final Dnf friendOfFriend = Dnf.of("FriendOfFriend", builder -> {
+		var x = builder.parameter("x", ParameterDirection.OUT);
+		var y = builder.parameter("y", ParameterDirection.OUT);
+		builder.clause(z -> List.of(
+				friendView.call(x, z),
+				friendView.call(z, y)
+		));
+	});
+	private static final RelationalQuery negationBoundLaterQuery = Query.of("NegationBoundLater",
+			(builder, p1, p2) -> builder.clause(
+					personView.call(p1),
+					not(friendView.call(p2, p1)),
+					friendOfFriend.call(p1, p2)
+			));
+	private static final RelationalQuery checkBoundLaterQuery = Query.of("CheckBoundLater",
+			(builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+					personView.call(p1),
+					check(greaterEq(v1, constant(18))),
+					friendOfFriend.call(p1, p2),
+					ageView.call(p2, v1)
+			)));
+	private static final RelationalQuery negativeCallQuery = Query.of("NegativeCall",
+			(builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+					personView.call(p1),
+					ageView.call(p1, v1),
+					check(greaterEq(v1, constant(18))),
+					friendView.call(p2, p1),
+					not(friendOfFriend.call(p1, p2))
+			)));
+
+	@Test
+	void randomChangesTest() {
+		var queries = List.of(negationBoundLaterQuery, checkBoundLaterQuery, negativeCallQuery);
+		var expectedStore = ModelStore.builder()
+				.symbols(person, friend, age)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(queries))
+				.build();
+		var actualStore = ModelStore.builder()
+				.symbols(person, friend, age)
+				.with(QueryInterpreterAdapter.builder()
+						.rewriter(new MagicSetRewriter())
+						.queries(queries))
+				.build();
+		var expectedModel = expectedStore.createEmptyModel();
+		var actualModel = actualStore.createEmptyModel();
+		var expectedQueryEngine = expectedModel.getAdapter(ModelQueryAdapter.class);
+		var actualQueryEngine = actualModel.getAdapter(ModelQueryAdapter.class);
+		var random = new Random(1);
+
+		for (int i = 0; i < 50; i++) {
+			for (int j = 0; j < 5; j++) {
+				var node = random.nextInt(6);
+				switch (random.nextInt(3)) {
+				case 0 -> {
+					boolean value = random.nextBoolean();
+					expectedModel.getInterpretation(person).put(Tuple.of(node), value);
+					actualModel.getInterpretation(person).put(Tuple.of(node), value);
+				}
+				case 1 -> {
+					var key = Tuple.of(node, random.nextInt(6));
+					boolean value = random.nextBoolean();
+					expectedModel.getInterpretation(friend).put(key, value);
+					actualModel.getInterpretation(friend).put(key, value);
+				}
+				default -> {
+					var value = random.nextBoolean() ? null : random.nextInt(30);
+					expectedModel.getInterpretation(age).put(Tuple.of(node), value);
+					actualModel.getInterpretation(age).put(Tuple.of(node), value);
+				}
+				}
+			}
+			expectedQueryEngine.flushChanges();
+			actualQueryEngine.flushChanges();
+
+			for (var query : queries) {
+				assertThat(query.name(), getResults(actualQueryEngine.getResultSet(query)),
+						is(getResults(expectedQueryEngine.getResultSet(query))));
+			}
+		}
+	}
+
+	private static <T> Map<Tuple, T> getResults(ResultSet<T> resultSet) {
+		var results = new HashMap<Tuple, T>();
+		var cursor = resultSet.getAll();
+		while (cursor.move()) {
+			results.put(cursor.getKey(), cursor.getValue());
+		}
+		return results;
+	}
+}
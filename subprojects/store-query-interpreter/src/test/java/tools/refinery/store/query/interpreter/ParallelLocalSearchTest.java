@@ -0,0 +1,80 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchHintOptions;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class ParallelLocalSearchTest {
+	private static final int PERSON_COUNT = 20;
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery friendOfFriendQuery = Query.of("FriendOfFriend", (builder, p1, p3) -> builder
+			.clause((p2) -> List.of(
+					personView.call(p1),
+					friendView.call(p1, p2),
+					friendView.call(p2, p3),
+					personView.call(p3)
+			)));
+	private static final Query<Integer> friendCountQuery = Query.of("FriendCount", Integer.class,
+			(builder, p1, output) -> builder.clause(
+					personView.call(p1),
+					output.assign(friendView.count(p1, Variable.of()))
+			));
+
+	@Test
+	void parallelEnumerationTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(Map.of(
+								LocalSearchHintOptions.PARALLEL_ENUMERATION_CHUNKS, 4
+						), QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.queries(friendOfFriendQuery, friendCountQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var friendOfFriendResultSet = queryEngine.getResultSet(friendOfFriendQuery);
+		var friendCountResultSet = queryEngine.getResultSet(friendCountQuery);
+
+		for (int i = 0; i < PERSON_COUNT; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			friendInterpretation.put(Tuple.of(i, (i + 1) % PERSON_COUNT), true);
+			friendInterpretation.put(Tuple.of(i, (i + 3) % PERSON_COUNT), true);
+		}
+		queryEngine.flushChanges();
+
+		var expectedFriendOfFriend = new HashMap<Tuple, Boolean>();
+		var expectedFriendCount = new HashMap<Tuple, Integer>();
+		for (int i = 0; i < PERSON_COUNT; i++) {
+			expectedFriendOfFriend.put(Tuple.of(i, (i + 2) % PERSON_COUNT), true);
+			expectedFriendOfFriend.put(Tuple.of(i, (i + 4) % PERSON_COUNT), true);
+			expectedFriendOfFriend.put(Tuple.of(i, (i + 6) % PERSON_COUNT), true);
+			expectedFriendCount.put(Tuple.of(i), 2);
+		}
+		assertResults(expectedFriendOfFriend, friendOfFriendResultSet);
+		assertResults(expectedFriendCount, friendCountResultSet);
+	}
+}
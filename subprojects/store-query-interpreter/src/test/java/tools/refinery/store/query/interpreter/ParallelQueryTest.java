@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.resultset.ResultSetListener;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class ParallelQueryTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery personQuery = Query.of("PersonQuery", (builder, p1) -> builder
+			.clause(personView.call(p1)));
+	private static final RelationalQuery friendQuery = Query.of("FriendQuery", (builder, p1, p2) -> builder
+			.clause(friendView.call(p1, p2)));
+	private static final RelationalQuery mutualFriendQuery = Query.of("MutualFriend", (builder, p1, p2) -> builder
+			.clause(
+					friendQuery.call(p1, p2),
+					friendQuery.call(p2, p1)
+			));
+	private static final RelationalQuery lonelyQuery = Query.of("Lonely", (builder, p1) -> builder
+			.clause((p2) -> List.of(
+					personQuery.call(p1),
+					friendView.call(p1, p2).negate()
+			)));
+
+	@Test
+	void parallelFlushTest() {
+		var executor = Executors.newFixedThreadPool(2);
+		try {
+			var store = ModelStore.builder()
+					.symbols(person, friend)
+					.with(QueryInterpreterAdapter.builder()
+							.parallelism(2)
+							.updatePropagationExecutor(executor)
+							.queries(personQuery, friendQuery, mutualFriendQuery, lonelyQuery))
+					.build();
+			var model = store.createEmptyModel();
+			var personInterpretation = model.getInterpretation(person);
+			var friendInterpretation = model.getInterpretation(friend);
+			var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+			var mutualFriendResultSet = queryEngine.getResultSet(mutualFriendQuery);
+			var lonelyResultSet = queryEngine.getResultSet(lonelyQuery);
+
+			var notifyingThreads = new ArrayList<Thread>();
+			ResultSetListener<Boolean> listener = (key, fromValue, toValue) ->
+					notifyingThreads.add(Thread.currentThread());
+			mutualFriendResultSet.addListener(listener);
+			lonelyResultSet.addListener(listener);
+
+			personInterpretation.put(Tuple.of(0), true);
+			personInterpretation.put(Tuple.of(1), true);
+			personInterpretation.put(Tuple.of(2), true);
+			friendInterpretation.put(Tuple.of(0, 1), true);
+			friendInterpretation.put(Tuple.of(1, 0), true);
+			friendInterpretation.put(Tuple.of(1, 2), true);
+			queryEngine.flushChanges();
+
+			assertEquals(2, queryEngine.getStoreAdapter().getParallelism());
+			assertResults(Map.of(
+					Tuple.of(0, 1), true,
+					Tuple.of(1, 0), true,
+					Tuple.of(1, 2), false
+			), mutualFriendResultSet);
+			assertResults(Map.of(
+					Tuple.of(0), false,
+					Tuple.of(1), false,
+					Tuple.of(2), true
+			), lonelyResultSet);
+			assertFalse(notifyingThreads.isEmpty());
+			for (var thread : notifyingThreads) {
+				assertEquals(Thread.currentThread(), thread);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatisticsTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery friendQuery = Query.of("Friend", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					friendView.call(p1, p2)
+			));
+
+	@Test
+	void statisticsDisabledTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(friendQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+
+		assertFalse(queryEngine.getStoreAdapter().isCollectingStatistics());
+		assertThrows(IllegalStateException.class, queryEngine::getStatistics);
+	}
+
+	@Test
+	void incrementalStatisticsTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.collectStatistics(true)
+						.queries(friendQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 0), true);
+		queryEngine.flushChanges();
+		friendInterpretation.put(Tuple.of(1, 0), false);
+		queryEngine.flushChanges();
+
+		var statistics = queryEngine.getStatistics(friendQuery);
+		assertTrue(statistics.incremental());
+		assertEquals(1, statistics.resultSize());
+		assertEquals(2, statistics.insertions());
+		assertEquals(1, statistics.deletions());
+		assertThat(statistics.reteNodeCount(), greaterThan(0));
+		assertThat(statistics.reteMessageCount(), greaterThan(0L));
+		assertThat(statistics.reteMemorySize(), greaterThan(0L));
+
+		var allStatistics = queryEngine.getStatistics();
+		assertThat(allStatistics.flushCount(), greaterThanOrEqualTo(2L));
+		assertThat(allStatistics.queries(), hasSize(1));
+		assertThat(allStatistics.toJson(), containsString("\"insertions\":2"));
+
+		queryEngine.resetStatistics();
+		var resetStatistics = queryEngine.getStatistics(friendQuery);
+		assertEquals(0, resetStatistics.churn());
+		assertEquals(0, resetStatistics.reteMessageCount());
+		assertEquals(1, resetStatistics.resultSize());
+	}
+
+	@Test
+	void searchStatisticsTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(null, QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.collectStatistics(true)
+						.queries(friendQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		queryEngine.flushChanges();
+		queryEngine.getResultSet(friendQuery).size();
+
+		var statistics = queryEngine.getStatistics(friendQuery);
+		assertFalse(statistics.incremental());
+		assertThat(statistics.searchExecutionCount(), greaterThan(0L));
+		assertThat(statistics.searchMatchCount(), greaterThan(0L));
+		assertEquals(0, statistics.reteNodeCount());
+	}
+}
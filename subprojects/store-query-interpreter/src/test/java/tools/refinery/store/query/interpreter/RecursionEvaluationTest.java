@@ -0,0 +1,161 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import tools.refinery.interpreter.rete.matcher.RetePatternMatcher;
+import tools.refinery.interpreter.rete.network.ReteContainer;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.interpreter.internal.matcher.AbstractInterpretedMatcher;
+import tools.refinery.store.query.resultset.ResultSet;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class RecursionEvaluationTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery reachableQuery = Query.of("Reachable", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					friendView.callTransitive(p1, p2)
+			));
+	private static final RelationalQuery unreachableQuery = Query.of("Unreachable", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					reachableQuery.call(p1, p2).negate()
+			));
+
+	@ParameterizedTest
+	@EnumSource(RecursionEvaluation.class)
+	void defaultRecursionEvaluationTest(RecursionEvaluation recursionEvaluation) {
+		checkDeletions(QueryInterpreterAdapter.builder()
+				.recursionEvaluation(recursionEvaluation));
+	}
+
+	@ParameterizedTest
+	@EnumSource(RecursionEvaluation.class)
+	void queryRecursionEvaluationTest(RecursionEvaluation recursionEvaluation) {
+		checkDeletions(QueryInterpreterAdapter.builder()
+				.recursionEvaluation(RecursionEvaluation.STANDARD)
+				.recursionEvaluation(reachableQuery, recursionEvaluation));
+	}
+
+	@ParameterizedTest
+	@EnumSource(RecursionEvaluation.class)
+	void reteContainerTest(RecursionEvaluation recursionEvaluation) {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.recursionEvaluation(recursionEvaluation)
+						.queries(reachableQuery, unreachableQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+
+		// Queries can not call themselves, so automatic evaluation always falls back to standard evaluation.
+		boolean deleteAndRederive = recursionEvaluation == RecursionEvaluation.DELETE_AND_REDERIVE;
+		boolean timely = recursionEvaluation == RecursionEvaluation.TIMELY;
+		for (var query : new RelationalQuery[]{reachableQuery, unreachableQuery}) {
+			var container = getReteContainer(queryEngine.getResultSet(query));
+			assertThat(container.getNetwork().getEngine().isDeleteAndRederiveEvaluation(), is(deleteAndRederive));
+			assertThat(container.isTimelyEvaluation(), is(timely));
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = RecursionEvaluation.class, names = {"DELETE_AND_REDERIVE", "TIMELY"})
+	void queryReteContainerTest(RecursionEvaluation recursionEvaluation) {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.recursionEvaluation(RecursionEvaluation.STANDARD)
+						.recursionEvaluation(unreachableQuery, recursionEvaluation)
+						.queries(reachableQuery, unreachableQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+
+		var reachableContainer = getReteContainer(queryEngine.getResultSet(reachableQuery));
+		var unreachableContainer = getReteContainer(queryEngine.getResultSet(unreachableQuery));
+		assertThat(reachableContainer.getNetwork().getEngine().isDeleteAndRederiveEvaluation(), is(false));
+		assertThat(reachableContainer.isTimelyEvaluation(), is(false));
+		assertThat(unreachableContainer.getNetwork().getEngine().isDeleteAndRederiveEvaluation(),
+				is(recursionEvaluation == RecursionEvaluation.DELETE_AND_REDERIVE));
+		assertThat(unreachableContainer.isTimelyEvaluation(), is(recursionEvaluation == RecursionEvaluation.TIMELY));
+	}
+
+	private static ReteContainer getReteContainer(ResultSet<?> resultSet) {
+		var backend = ((AbstractInterpretedMatcher<?>) resultSet).getBackend();
+		return ((RetePatternMatcher) backend).getContainer();
+	}
+
+	private static void checkDeletions(QueryInterpreterBuilder queryInterpreterBuilder) {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(queryInterpreterBuilder.queries(reachableQuery, unreachableQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var reachableResultSet = queryEngine.getResultSet(reachableQuery);
+		var unreachableResultSet = queryEngine.getResultSet(unreachableQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		friendInterpretation.put(Tuple.of(2, 1), true);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(0, 2), true,
+				Tuple.of(1, 1), true,
+				Tuple.of(1, 2), true,
+				Tuple.of(2, 1), true,
+				Tuple.of(2, 2), true
+		), reachableResultSet);
+
+		friendInterpretation.put(Tuple.of(2, 1), false);
+		friendInterpretation.put(Tuple.of(0, 1), false);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(1, 2), true,
+				Tuple.of(0, 1), false,
+				Tuple.of(1, 1), false,
+				Tuple.of(2, 2), false
+		), reachableResultSet);
+		assertResults(Map.of(
+				Tuple.of(0, 0), true,
+				Tuple.of(0, 1), true,
+				Tuple.of(0, 2), true,
+				Tuple.of(1, 0), true,
+				Tuple.of(1, 1), true,
+				Tuple.of(1, 2), false,
+				Tuple.of(2, 0), true,
+				Tuple.of(2, 1), true,
+				Tuple.of(2, 2), true
+		), unreachableResultSet);
+	}
+}
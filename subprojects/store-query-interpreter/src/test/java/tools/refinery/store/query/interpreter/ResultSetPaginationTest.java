@@ -0,0 +1,164 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.interpreter.tests.QueryEngineTest;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.FunctionView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResultSetPaginationTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final FunctionView<Integer> ageView = new FunctionView<>(age);
+	private static final Query<Integer> ageQuery = Query.of("Age", Integer.class, (builder, p1, output) -> builder
+			.clause(
+					personView.call(p1),
+					ageView.call(p1, output)
+			));
+
+	@QueryEngineTest
+	void paginationTest(QueryEvaluationHint hint) {
+		var store = ModelStore.builder()
+				.symbols(person, age)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(hint)
+						.queries(ageQuery))
+				.build();
+
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var ageInterpretation = model.getInterpretation(age);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(ageQuery);
+
+		for (int i = 0; i < 5; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+		}
+		ageInterpretation.put(Tuple.of(0), 40);
+		ageInterpretation.put(Tuple.of(1), 20);
+		ageInterpretation.put(Tuple.of(2), 30);
+		ageInterpretation.put(Tuple.of(3), 20);
+		ageInterpretation.put(Tuple.of(4), 50);
+		queryEngine.flushChanges();
+
+		assertThat(toList(resultSet.getAll(1, 2)).size(), is(2));
+		assertThat(toList(resultSet.getAll(4, 10)).size(), is(1));
+		assertThat(toList(resultSet.getAll(5, 10)), is(List.of()));
+		assertThat(toList(resultSet.getAll(0, 0)), is(List.of()));
+		assertThat(toList(resultSet.getAllFrom(Tuple.of(2), 2)), is(List.of(
+				Map.entry(Tuple.of(2), 30),
+				Map.entry(Tuple.of(3), 20)
+		)));
+		assertThat(toList(resultSet.getTop(3, Comparator.naturalOrder())), is(List.of(
+				Map.entry(Tuple.of(1), 20),
+				Map.entry(Tuple.of(3), 20),
+				Map.entry(Tuple.of(2), 30)
+		)));
+		assertThat(toList(resultSet.getTop(2, Comparator.reverseOrder())), is(List.of(
+				Map.entry(Tuple.of(4), 50),
+				Map.entry(Tuple.of(0), 40)
+		)));
+
+		ageInterpretation.put(Tuple.of(3), 60);
+		personInterpretation.put(Tuple.of(2), false);
+		queryEngine.flushChanges();
+
+		assertThat(toList(resultSet.getAllFrom(Tuple.of(2), 2)), is(List.of(
+				Map.entry(Tuple.of(3), 60),
+				Map.entry(Tuple.of(4), 50)
+		)));
+		assertThat(toList(resultSet.getTop(3, Comparator.naturalOrder())), is(List.of(
+				Map.entry(Tuple.of(1), 20),
+				Map.entry(Tuple.of(0), 40),
+				Map.entry(Tuple.of(4), 50)
+		)));
+		assertThat(toList(resultSet.getTop(2, Comparator.reverseOrder())), is(List.of(
+				Map.entry(Tuple.of(3), 60),
+				Map.entry(Tuple.of(4), 50)
+		)));
+	}
+
+	@QueryEngineTest
+	void repeatedTopTest(QueryEvaluationHint hint) {
+		var store = ModelStore.builder()
+				.symbols(person, age)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(hint)
+						.queries(ageQuery))
+				.build();
+
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var ageInterpretation = model.getInterpretation(age);
+		var queryEngine = model.getAdapter(ModelQueryAdapter.class);
+		var resultSet = queryEngine.getResultSet(ageQuery);
+		// More distinct comparators than the number of indexes maintained at the same time.
+		var comparators = new ArrayList<Comparator<Integer>>();
+		for (int i = 0; i < 20; i++) {
+			int pivot = 10 * i;
+			comparators.add(Comparator.comparingInt(value -> Math.abs(value - pivot)));
+		}
+
+		for (int i = 0; i < 5; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			ageInterpretation.put(Tuple.of(i), 10 * i);
+		}
+		for (int round = 0; round < 5; round++) {
+			ageInterpretation.put(Tuple.of(round), 10 * round + 100);
+			queryEngine.flushChanges();
+
+			for (int i = 0; i < comparators.size(); i++) {
+				var comparator = comparators.get(i);
+				var expected = toList(resultSet.getTop(2, (a, b) -> comparator.compare(a, b)));
+				assertThat(toList(resultSet.getTop(2, comparator)), is(expected));
+				assertThat(toList(resultSet.getTop(2, comparator)), is(expected));
+			}
+		}
+	}
+
+	@QueryEngineTest
+	void invalidArgumentsTest(QueryEvaluationHint hint) {
+		var store = ModelStore.builder()
+				.symbols(person, age)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(hint)
+						.queries(ageQuery))
+				.build();
+
+		var model = store.createEmptyModel();
+		var resultSet = model.getAdapter(ModelQueryAdapter.class).getResultSet(ageQuery);
+
+		assertThrows(IllegalArgumentException.class, () -> resultSet.getAll(-1, 1));
+		assertThrows(IllegalArgumentException.class, () -> resultSet.getAllFrom(Tuple.of(0), -1));
+		assertThrows(IllegalArgumentException.class, () -> resultSet.getTop(-1, Comparator.naturalOrder()));
+	}
+
+	private static <T> List<Map.Entry<Tuple, T>> toList(Cursor<Tuple, T> cursor) {
+		var entries = new ArrayList<Map.Entry<Tuple, T>>();
+		while (cursor.move()) {
+			entries.add(Map.entry(cursor.getKey(), cursor.getValue()));
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Map;
+
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class SearchMemoizationTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final Symbol<Boolean> enemy = Symbol.of("enemy", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final AnySymbolView enemyView = new KeyOnlyView<>(enemy);
+	private static final RelationalQuery friendQuery = Query.of("Friend", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					friendView.call(p1, p2)
+			));
+	private static final Query<Integer> friendCountQuery = Query.of("FriendCount", Integer.class,
+			(builder, p1, output) -> builder.clause(
+					personView.call(p1),
+					output.assign(friendView.count(p1, Variable.of()))
+			));
+	private static final RelationalQuery enemyQuery = Query.of("Enemy", (builder, p1, p2) -> builder
+			.clause(
+					enemyView.call(p1, p2)
+			));
+
+	@Test
+	void memoizationTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend, enemy)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(null, QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.searchMemoization(true)
+						.queries(friendQuery, friendCountQuery, enemyQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var enemyInterpretation = model.getInterpretation(enemy);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var friendResultSet = queryEngine.getResultSet(friendQuery);
+		var friendCountResultSet = queryEngine.getResultSet(friendCountQuery);
+		var enemyResultSet = queryEngine.getResultSet(enemyQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(Tuple.of(0, 1), true), friendResultSet);
+		assertResults(Map.of(Tuple.of(0), 1, Tuple.of(1), 0, Tuple.of(2), 0), friendCountResultSet);
+		assertResults(Map.of(), enemyResultSet);
+
+		// Unrelated updates must not affect the remembered results.
+		enemyInterpretation.put(Tuple.of(1, 2), true);
+		assertResults(Map.of(Tuple.of(0, 1), true), friendResultSet);
+		assertResults(Map.of(Tuple.of(1, 2), true), enemyResultSet);
+
+		// Local search reads the model directly, so results must be updated even without flushing.
+		friendInterpretation.put(Tuple.of(0, 2), true);
+		friendInterpretation.put(Tuple.of(2, 1), true);
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(0, 2), true,
+				Tuple.of(2, 1), true
+		), friendResultSet);
+		assertResults(Map.of(Tuple.of(0), 2, Tuple.of(1), 0, Tuple.of(2), 1), friendCountResultSet);
+
+		personInterpretation.put(Tuple.of(1), false);
+		queryEngine.flushChanges();
+		assertResults(Map.of(Tuple.of(0, 2), true), friendResultSet);
+		assertResults(Map.of(Tuple.of(0), 2, Tuple.of(2), 1), friendCountResultSet);
+	}
+
+	@Test
+	void memoizationRestoreTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend, enemy)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(null, QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.searchMemoization(true)
+						.queries(friendQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var friendResultSet = queryEngine.getResultSet(friendQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		queryEngine.flushChanges();
+		var state = model.commit();
+		assertResults(Map.of(), friendResultSet);
+
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		queryEngine.flushChanges();
+		assertResults(Map.of(Tuple.of(0, 1), true), friendResultSet);
+
+		model.restore(state);
+		assertResults(Map.of(Tuple.of(0, 1), false), friendResultSet);
+	}
+}
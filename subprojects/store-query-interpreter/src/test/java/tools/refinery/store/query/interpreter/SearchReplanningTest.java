@@ -0,0 +1,85 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.localsearch.matcher.integration.LocalSearchHintOptions;
+import tools.refinery.interpreter.matchers.backend.QueryEvaluationHint;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class SearchReplanningTest {
+	private static final int PERSON_COUNT = 20;
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final Symbol<Boolean> enemy = Symbol.of("enemy", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final AnySymbolView enemyView = new KeyOnlyView<>(enemy);
+	private static final RelationalQuery friendOfEnemyQuery = Query.of("FriendOfEnemy", (builder, p1, p3) -> builder
+			.clause((p2) -> List.of(
+					personView.call(p1),
+					friendView.call(p2, p3),
+					enemyView.call(p1, p2),
+					personView.call(p3)
+			)));
+
+	@Test
+	void replanningPreservesResultsTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend, enemy)
+				.with(QueryInterpreterAdapter.builder()
+						.defaultHint(new QueryEvaluationHint(Map.of(
+								LocalSearchHintOptions.REPLANNING_MIN_RUNS, 1
+						), QueryEvaluationHint.BackendRequirement.DEFAULT_SEARCH))
+						.searchReplanningFactor(1.5)
+						.queries(friendOfEnemyQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var enemyInterpretation = model.getInterpretation(enemy);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var friendOfEnemyResultSet = queryEngine.getResultSet(friendOfEnemyQuery);
+
+		for (int i = 0; i < PERSON_COUNT; i++) {
+			personInterpretation.put(Tuple.of(i), true);
+			for (int j = 0; j < PERSON_COUNT; j++) {
+				if (i != j) {
+					friendInterpretation.put(Tuple.of(i, j), true);
+				}
+			}
+		}
+		enemyInterpretation.put(Tuple.of(0, 1), true);
+		queryEngine.flushChanges();
+
+		var expected = new HashMap<Tuple, Boolean>();
+		for (int i = 0; i < PERSON_COUNT; i++) {
+			if (i != 1) {
+				expected.put(Tuple.of(0, i), true);
+			}
+		}
+		for (int round = 0; round < 8; round++) {
+			for (int i = 0; i < PERSON_COUNT; i++) {
+				assertThat(friendOfEnemyResultSet.get(Tuple.of(0, i)), is(i != 1));
+			}
+		}
+		assertResults(expected, friendOfEnemyResultSet);
+	}
+}
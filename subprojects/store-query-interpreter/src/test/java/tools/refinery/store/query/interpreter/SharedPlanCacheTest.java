@@ -0,0 +1,106 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.interpreter.rete.construction.plancompiler.SharedPlanCache;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class SharedPlanCacheTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery lonelyQuery = Query.of("Lonely", (builder, p1) -> builder
+			.clause((p2) -> List.of(
+					personView.call(p1),
+					friendView.call(p1, p2).negate()
+			)));
+	private static final RelationalQuery reachableQuery = Query.of("Reachable", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					friendView.callTransitive(p1, p2)
+			));
+
+	@Test
+	void sharedPlansTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.sharePlans(true)
+						.queries(lonelyQuery, reachableQuery))
+				.build();
+		var planCache = store.getAdapter(QueryInterpreterStoreAdapter.class).getEngineOptions()
+				.getSharedBackendState().computeIfAbsent(SharedPlanCache.class, SharedPlanCache::new);
+
+		var firstModel = store.createEmptyModel();
+		var firstQueryEngine = firstModel.getAdapter(QueryInterpreterAdapter.class);
+		var firstPlanCount = planCache.getPlanCount();
+		assertThat(firstPlanCount, greaterThan(0));
+
+		var secondModel = store.createEmptyModel();
+		var secondQueryEngine = secondModel.getAdapter(QueryInterpreterAdapter.class);
+		assertThat(planCache.getPlanCount(), is(firstPlanCount));
+
+		// The networks built from the shared plans must still be independent of each other.
+		populate(firstModel, 0, 1);
+		populate(secondModel, 1, 0);
+		firstQueryEngine.flushChanges();
+		secondQueryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(0), false,
+				Tuple.of(1), true
+		), firstQueryEngine.getResultSet(lonelyQuery));
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(1, 0), false
+		), firstQueryEngine.getResultSet(reachableQuery));
+		assertResults(Map.of(
+				Tuple.of(0), true,
+				Tuple.of(1), false
+		), secondQueryEngine.getResultSet(lonelyQuery));
+		assertResults(Map.of(
+				Tuple.of(0, 1), false,
+				Tuple.of(1, 0), true
+		), secondQueryEngine.getResultSet(reachableQuery));
+	}
+
+	@Test
+	void plansNotSharedByDefaultTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.queries(lonelyQuery, reachableQuery))
+				.build();
+		var engineOptions = store.getAdapter(QueryInterpreterStoreAdapter.class).getEngineOptions();
+		assertThat(engineOptions.getSharedBackendState(), nullValue());
+	}
+
+	private static void populate(Model model, int source, int target) {
+		var personInterpretation = model.getInterpretation(person);
+		personInterpretation.put(Tuple.of(source), true);
+		personInterpretation.put(Tuple.of(target), true);
+		model.getInterpretation(friend).put(Tuple.of(source, target), true);
+	}
+}
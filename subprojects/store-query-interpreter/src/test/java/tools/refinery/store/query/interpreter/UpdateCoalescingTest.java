@@ -0,0 +1,154 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.interpreter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.dnf.RelationalQuery;
+import tools.refinery.store.query.resultset.ResultSetListener;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static tools.refinery.store.query.interpreter.tests.QueryAssertions.assertResults;
+
+class UpdateCoalescingTest {
+	private static final Symbol<Boolean> person = Symbol.of("Person", 1);
+	private static final Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private static final AnySymbolView personView = new KeyOnlyView<>(person);
+	private static final AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private static final RelationalQuery lonelyQuery = Query.of("Lonely", (builder, p1) -> builder
+			.clause((p2) -> List.of(
+					personView.call(p1),
+					friendView.call(p1, p2).negate()
+			)));
+	private static final RelationalQuery reachableQuery = Query.of("Reachable", (builder, p1, p2) -> builder
+			.clause(
+					personView.call(p1),
+					personView.call(p2),
+					friendView.callTransitive(p1, p2)
+			));
+	private static final Query<Integer> friendCountQuery = Query.of("FriendCount", Integer.class,
+			(builder, p1, output) -> builder.clause(
+					personView.call(p1),
+					output.assign(friendView.count(p1, Variable.of()))
+			));
+
+	@Test
+	void cancelledUpdatesTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.updateCoalescing(true)
+						.queries(lonelyQuery, reachableQuery, friendCountQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var lonelyResultSet = queryEngine.getResultSet(lonelyQuery);
+		var reachableResultSet = queryEngine.getResultSet(reachableQuery);
+		var friendCountResultSet = queryEngine.getResultSet(friendCountQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		queryEngine.flushChanges();
+
+		var notifications = new ArrayList<Tuple>();
+		ResultSetListener<Boolean> relationListener = (key, fromValue, toValue) -> notifications.add(key);
+		ResultSetListener<Integer> functionListener = (key, fromValue, toValue) -> notifications.add(key);
+		lonelyResultSet.addListener(relationListener);
+		reachableResultSet.addListener(relationListener);
+		friendCountResultSet.addListener(functionListener);
+
+		friendInterpretation.put(Tuple.of(1, 0), true);
+		friendInterpretation.put(Tuple.of(0, 1), false);
+		friendInterpretation.put(Tuple.of(1, 0), false);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		personInterpretation.put(Tuple.of(2), false);
+		queryEngine.flushChanges();
+
+		assertThat(notifications, empty());
+		assertResults(Map.of(
+				Tuple.of(0), false,
+				Tuple.of(1), true
+		), lonelyResultSet);
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(1, 0), false
+		), reachableResultSet);
+		assertResults(Map.of(
+				Tuple.of(0), 1,
+				Tuple.of(1), 0
+		), friendCountResultSet);
+	}
+
+	@Test
+	void updatesTest() {
+		var store = ModelStore.builder()
+				.symbols(person, friend)
+				.with(QueryInterpreterAdapter.builder()
+						.updateCoalescing(true)
+						.queries(lonelyQuery, reachableQuery, friendCountQuery))
+				.build();
+		var model = store.createEmptyModel();
+		var personInterpretation = model.getInterpretation(person);
+		var friendInterpretation = model.getInterpretation(friend);
+		var queryEngine = model.getAdapter(QueryInterpreterAdapter.class);
+		var lonelyResultSet = queryEngine.getResultSet(lonelyQuery);
+		var reachableResultSet = queryEngine.getResultSet(reachableQuery);
+		var friendCountResultSet = queryEngine.getResultSet(friendCountQuery);
+
+		personInterpretation.put(Tuple.of(0), true);
+		personInterpretation.put(Tuple.of(1), true);
+		personInterpretation.put(Tuple.of(2), true);
+		friendInterpretation.put(Tuple.of(0, 1), true);
+		friendInterpretation.put(Tuple.of(1, 2), true);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(0), false,
+				Tuple.of(1), false,
+				Tuple.of(2), true
+		), lonelyResultSet);
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(0, 2), true,
+				Tuple.of(1, 2), true
+		), reachableResultSet);
+
+		friendInterpretation.put(Tuple.of(1, 2), false);
+		friendInterpretation.put(Tuple.of(2, 0), true);
+		queryEngine.flushChanges();
+
+		assertResults(Map.of(
+				Tuple.of(0), false,
+				Tuple.of(1), true,
+				Tuple.of(2), false
+		), lonelyResultSet);
+		assertResults(Map.of(
+				Tuple.of(0, 1), true,
+				Tuple.of(2, 0), true,
+				Tuple.of(2, 1), true
+		), reachableResultSet);
+		assertResults(Map.of(
+				Tuple.of(0), 1,
+				Tuple.of(1), 0,
+				Tuple.of(2), 1
+		), friendCountResultSet);
+	}
+}
@@ -11,5 +11,7 @@ plugins {
 
 dependencies {
 	api(project(":refinery-store"))
+	implementation(libs.eclipseCollections.api)
+	runtimeOnly(libs.eclipseCollections)
 	testFixturesApi(libs.hamcrest)
 }
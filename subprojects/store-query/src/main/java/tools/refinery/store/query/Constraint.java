@@ -6,6 +6,7 @@
 package tools.refinery.store.query;
 
 import tools.refinery.store.query.equality.LiteralEqualityHelper;
+import tools.refinery.store.query.equality.LiteralHashCodeHelper;
 import tools.refinery.store.query.literal.*;
 import tools.refinery.store.query.term.*;
 
@@ -32,6 +33,10 @@ public interface Constraint {
 		return equals(other);
 	}
 
+	default int hashCode(LiteralHashCodeHelper helper) {
+		return hashCode();
+	}
+
 	default String toReferenceString() {
 		return name();
 	}
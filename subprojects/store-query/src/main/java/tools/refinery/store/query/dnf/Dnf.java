@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -8,7 +8,9 @@ package tools.refinery.store.query.dnf;
 import tools.refinery.store.query.Constraint;
 import tools.refinery.store.query.InvalidQueryException;
 import tools.refinery.store.query.equality.DnfEqualityChecker;
+import tools.refinery.store.query.equality.DnfFingerprint;
 import tools.refinery.store.query.equality.LiteralEqualityHelper;
+import tools.refinery.store.query.equality.LiteralHashCodeHelper;
 import tools.refinery.store.query.equality.SubstitutingLiteralEqualityHelper;
 import tools.refinery.store.query.equality.SubstitutingLiteralHashCodeHelper;
 import tools.refinery.store.query.literal.Reduction;
@@ -31,6 +33,9 @@ public final class Dnf implements Constraint {
 	private final List<FunctionalDependency<Variable>> functionalDependencies;
 	private final List<DnfClause> clauses;
 
+	// Computed lazily. Racing threads may compute the fingerprint twice, but {@link DnfFingerprint} is immutable.
+	private DnfFingerprint fingerprint;
+
 	Dnf(String name, List<SymbolicParameter> symbolicParameters,
 		List<FunctionalDependency<Variable>> functionalDependencies, List<DnfClause> clauses) {
 		validateFunctionalDependencies(symbolicParameters, functionalDependencies);
@@ -149,8 +154,17 @@ public final class Dnf implements Constraint {
 		return false;
 	}
 
+	@Override
+	public int hashCode(LiteralHashCodeHelper helper) {
+		return helper.getDnfHashCode(this);
+	}
+
 	public int hashCodeWithSubstitution() {
-		var helper = new SubstitutingLiteralHashCodeHelper();
+		return hashCodeWithSubstitution(DnfEqualityChecker.DEFAULT);
+	}
+
+	public int hashCodeWithSubstitution(DnfEqualityChecker callEqualityChecker) {
+		var helper = new SubstitutingLiteralHashCodeHelper(callEqualityChecker, List.of());
 		int result = 0;
 		for (var symbolicParameter : symbolicParameters) {
 			result = result * 31 + symbolicParameter.hashCodeWithSubstitution(helper);
@@ -161,6 +175,23 @@ public final class Dnf implements Constraint {
 		return result;
 	}
 
+	/**
+	 * Returns the structural fingerprint of this query and its dependencies up to variable renaming.
+	 * <p>
+	 * The fingerprint is only computed once, so it can be used instead of {@link #hashCodeWithSubstitution()} to
+	 * look up many structurally equal queries in hash tables.
+	 *
+	 * @return The fingerprint of this query.
+	 */
+	public DnfFingerprint getFingerprint() {
+		var result = fingerprint;
+		if (result == null) {
+			result = DnfFingerprint.of(this);
+			fingerprint = result;
+		}
+		return result;
+	}
+
 	@Override
 	public String toString() {
 		return "%s/%d".formatted(name(), arity());
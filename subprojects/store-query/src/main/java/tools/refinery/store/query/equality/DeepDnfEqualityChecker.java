@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -18,9 +18,29 @@ public class DeepDnfEqualityChecker implements DnfEqualityChecker {
 
 	@Override
 	public boolean dnfEqual(Dnf left, Dnf right) {
+		if (!mayBeEqual(left, right)) {
+			return false;
+		}
 		return mapper.map(new Pair(left, right));
 	}
 
+	@Override
+	public int dnfHashCode(Dnf dnf) {
+		// Fingerprints are memoized in each {@link Dnf}, so we don't have to hash called queries again.
+		return dnf.getFingerprint().hashCode();
+	}
+
+	/**
+	 * Rules out structural comparison of queries that can not be equal.
+	 *
+	 * @param left  The first query to compare.
+	 * @param right The second query to compare.
+	 * @return {@code false} if the queries are not structurally equal, {@code true} if they have to be compared.
+	 */
+	protected boolean mayBeEqual(Dnf left, Dnf right) {
+		return left == right || left.getFingerprint().equals(right.getFingerprint());
+	}
+
 	public boolean dnfEqualRaw(List<SymbolicParameter> symbolicParameters,
 							   List<? extends List<? extends Literal>> clauses, Dnf other) {
 		int arity = symbolicParameters.size();
@@ -14,4 +14,8 @@ public interface DnfEqualityChecker {
 	DnfEqualityChecker DEFAULT = Objects::equals;
 
 	boolean dnfEqual(Dnf left, Dnf right);
+
+	default int dnfHashCode(Dnf dnf) {
+		return Objects.hashCode(dnf);
+	}
 }
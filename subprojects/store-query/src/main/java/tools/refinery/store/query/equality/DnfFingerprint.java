@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.equality;
+
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.term.Variable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * A 128-bit structural hash of a {@link Dnf} and all of its (transitive) dependencies up to variable renaming.
+ * <p>
+ * Structurally equal queries according to {@link DeepDnfEqualityChecker} (and hence according to
+ * {@link DnfEqualityChecker#DEFAULT}) always have equal fingerprints. Queries with equal fingerprints are not
+ * guaranteed to be equal, but collisions are rare enough for fingerprints to rule out almost all structural
+ * comparisons between different queries.
+ * <p>
+ * Fingerprints are computed by {@link Dnf#getFingerprint()}, which only computes the fingerprint of each {@link Dnf}
+ * once.
+ *
+ * @param high The upper 64 bits of the fingerprint.
+ * @param low  The lower 64 bits of the fingerprint.
+ */
+public record DnfFingerprint(long high, long low) {
+	// Each literal is hashed with several independent variable numberings to get more than 32 bits per literal.
+	private static final int[] SEEDS = {0x2b7e1516, 0x28aed2a6, 0xabf71588, 0x09cf4f3c};
+
+	public static DnfFingerprint of(Dnf dnf) {
+		var accumulator = new Accumulator();
+		var symbolicParameters = dnf.getSymbolicParameters();
+		accumulator.add(symbolicParameters.size());
+		var parameterHelpers = createHelpers(dnf);
+		for (var symbolicParameter : symbolicParameters) {
+			accumulator.add(parameterHelpers, symbolicParameter::hashCodeWithSubstitution);
+		}
+		var clauses = dnf.getClauses();
+		accumulator.add(clauses.size());
+		for (var clause : clauses) {
+			// Use a fresh numbering of variables for each clause like {@link Dnf#equalsWithSubstitution}.
+			var helpers = createHelpers(dnf);
+			var literals = clause.literals();
+			accumulator.add(literals.size());
+			for (var literal : literals) {
+				accumulator.add(helpers, literal::hashCodeWithSubstitution);
+			}
+		}
+		return accumulator.getFingerprint();
+	}
+
+	private static List<LiteralHashCodeHelper> createHelpers(Dnf dnf) {
+		var helpers = new LiteralHashCodeHelper[SEEDS.length];
+		for (int i = 0; i < SEEDS.length; i++) {
+			helpers[i] = new SeededLiteralHashCodeHelper(SEEDS[i], dnf);
+		}
+		return List.of(helpers);
+	}
+
+	private static long mix(long value) {
+		// The finalization mix of MurmurHash3.
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+
+	private static long pack(int upper, int lower) {
+		return ((long) upper << 32) | (lower & 0xffffffffL);
+	}
+
+	private static class Accumulator {
+		private long high = 0x9e3779b97f4a7c15L;
+		private long low = 0xbf58476d1ce4e5b9L;
+		private int length;
+
+		public void add(int value) {
+			add(value, ~value);
+		}
+
+		public void add(List<LiteralHashCodeHelper> helpers, ToIntFunction<LiteralHashCodeHelper> hasher) {
+			add(pack(hasher.applyAsInt(helpers.get(0)), hasher.applyAsInt(helpers.get(1))),
+					pack(hasher.applyAsInt(helpers.get(2)), hasher.applyAsInt(helpers.get(3))));
+		}
+
+		private void add(long highValue, long lowValue) {
+			high = Long.rotateLeft(high ^ mix(highValue), 27) * 5 + 0x52dce729;
+			low = Long.rotateLeft(low ^ mix(lowValue), 31) * 5 + 0x38495ab5;
+			high += low;
+			low += high;
+			length++;
+		}
+
+		public DnfFingerprint getFingerprint() {
+			long finalHigh = mix(high ^ length);
+			long finalLow = mix(low ^ length);
+			finalHigh += finalLow;
+			finalLow += finalHigh;
+			return new DnfFingerprint(finalHigh, finalLow);
+		}
+	}
+
+	private static class SeededLiteralHashCodeHelper implements LiteralHashCodeHelper {
+		private final int seed;
+		private final Map<Variable, Integer> assignedHashCodes = new HashMap<>();
+
+		// 0 is for {@code null}, so we start with 1.
+		private int next = 1;
+
+		public SeededLiteralHashCodeHelper(int seed, Dnf dnf) {
+			this.seed = seed;
+			for (var symbolicParameter : dnf.getSymbolicParameters()) {
+				getVariableHashCode(symbolicParameter.getVariable());
+			}
+		}
+
+		@Override
+		public int getVariableHashCode(Variable variable) {
+			if (variable == null) {
+				return 0;
+			}
+			return assignedHashCodes.computeIfAbsent(variable, key -> {
+				int sequenceNumber = next;
+				next++;
+				return variable.hashCodeWithSubstitution((int) mix(pack(seed, sequenceNumber)));
+			});
+		}
+
+		@Override
+		public int getDnfHashCode(Dnf dnf) {
+			var fingerprint = dnf.getFingerprint();
+			long hash = mix(fingerprint.high() ^ mix(fingerprint.low() ^ seed));
+			return (int) (hash ^ (hash >>> 32));
+		}
+	}
+}
@@ -5,6 +5,7 @@
  */
 package tools.refinery.store.query.equality;
 
+import tools.refinery.store.query.dnf.Dnf;
 import tools.refinery.store.query.term.Variable;
 
 import java.util.Objects;
@@ -14,4 +15,8 @@ public interface LiteralHashCodeHelper {
 	LiteralHashCodeHelper DEFAULT = Objects::hashCode;
 
 	int getVariableHashCode(Variable variable);
+
+	default int getDnfHashCode(Dnf dnf) {
+		return Objects.hashCode(dnf);
+	}
 }
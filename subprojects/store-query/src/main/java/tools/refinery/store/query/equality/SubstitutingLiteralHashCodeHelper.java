@@ -5,6 +5,7 @@
  */
 package tools.refinery.store.query.equality;
 
+import tools.refinery.store.query.dnf.Dnf;
 import tools.refinery.store.query.dnf.SymbolicParameter;
 import tools.refinery.store.query.term.Variable;
 
@@ -13,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 
 public class SubstitutingLiteralHashCodeHelper implements LiteralHashCodeHelper {
+	private final DnfEqualityChecker dnfEqualityChecker;
 	private final Map<Variable, Integer> assignedHashCodes = new LinkedHashMap<>();
 
 	// 0 is for {@code null}, so we start with 1.
@@ -23,6 +25,12 @@ public class SubstitutingLiteralHashCodeHelper implements LiteralHashCodeHelper
 	}
 
 	public SubstitutingLiteralHashCodeHelper(List<SymbolicParameter> parameters) {
+		this(DnfEqualityChecker.DEFAULT, parameters);
+	}
+
+	public SubstitutingLiteralHashCodeHelper(DnfEqualityChecker dnfEqualityChecker,
+											 List<SymbolicParameter> parameters) {
+		this.dnfEqualityChecker = dnfEqualityChecker;
 		for (var parameter : parameters) {
 			getVariableHashCode(parameter.getVariable());
 		}
@@ -39,4 +47,9 @@ public class SubstitutingLiteralHashCodeHelper implements LiteralHashCodeHelper
 			return variable.hashCodeWithSubstitution(sequenceNumber);
 		});
 	}
+
+	@Override
+	public int getDnfHashCode(Dnf dnf) {
+		return dnfEqualityChecker.dnfHashCode(dnf);
+	}
 }
@@ -0,0 +1,247 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.resultset;
+
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelListener;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * A result set that records the changes of the wrapped result set to answer which tuples were added, removed, or
+ * changed since a committed {@link Version} or a named checkpoint.
+ * <p>
+ * Changes are kept in a log that is truncated whenever no tracked version or checkpoint refers to its beginning.
+ * Only the most recently committed or restored versions are tracked, while checkpoints are kept until they are
+ * removed explicitly. Deltas only reflect changes already flushed to the wrapped result set.
+ * <p>
+ * The wrapped result set must be {@link ResultSet#isIncremental() incremental}, because the log is populated by its
+ * listeners.
+ *
+ * @param <T> The type of the values in the result set.
+ */
+public class ChangeTrackingResultSet<T> implements AutoCloseable, ResultSet<T> {
+	public static final int DEFAULT_TRACKED_VERSION_COUNT = 64;
+
+	private final ResultSet<T> resultSet;
+	private final Model model;
+	private final int trackedVersionCount;
+	private final List<ResultSetChange<T>> log = new ArrayList<>();
+	private long logOffset;
+	// Insertion order of versions is access order, because we re-insert versions when they are visited again.
+	private final LinkedHashMap<Version, Long> versionPositions = new LinkedHashMap<>();
+	private final Map<String, Long> checkpointPositions = new HashMap<>();
+	private final ResultSetListener<T> resultSetListener = (key, fromValue, toValue) ->
+			log.add(new ResultSetChange<>(key, fromValue, toValue));
+	private final ModelListener modelListener = new ModelListener() {
+		@Override
+		public void afterCommit() {
+			markVersion();
+		}
+
+		@Override
+		public void afterRestore() {
+			markVersion();
+		}
+	};
+
+	public ChangeTrackingResultSet(ResultSet<T> resultSet) {
+		this(resultSet, DEFAULT_TRACKED_VERSION_COUNT);
+	}
+
+	public ChangeTrackingResultSet(ResultSet<T> resultSet, int trackedVersionCount) {
+		if (trackedVersionCount < 0) {
+			throw new IllegalArgumentException("Tracked version count must be non-negative, got: " +
+					trackedVersionCount);
+		}
+		if (!resultSet.isIncremental()) {
+			throw new IllegalArgumentException("Result set of %s does not report its changes"
+					.formatted(resultSet.getCanonicalQuery().name()));
+		}
+		this.resultSet = resultSet;
+		this.trackedVersionCount = trackedVersionCount;
+		model = resultSet.getAdapter().getModel();
+		resultSet.addListener(resultSetListener);
+		model.addListener(modelListener);
+		if (model.getState() != Model.NO_STATE_ID && !model.hasUncommittedChanges()) {
+			markVersion();
+		}
+	}
+
+	@Override
+	public ModelQueryAdapter getAdapter() {
+		return resultSet.getAdapter();
+	}
+
+	@Override
+	public int size() {
+		return resultSet.size();
+	}
+
+	@Override
+	public Query<T> getCanonicalQuery() {
+		return resultSet.getCanonicalQuery();
+	}
+
+	@Override
+	public T get(Tuple parameters) {
+		return resultSet.get(parameters);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll() {
+		return resultSet.getAll();
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll(int offset, int limit) {
+		return resultSet.getAll(offset, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		return resultSet.getAllFrom(fromKey, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		return resultSet.getTop(count, valueComparator);
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return resultSet.isIncremental();
+	}
+
+	@Override
+	public void addListener(ResultSetListener<T> listener) {
+		resultSet.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(ResultSetListener<T> listener) {
+		resultSet.removeListener(listener);
+	}
+
+	public boolean isTracked(Version version) {
+		return versionPositions.containsKey(version);
+	}
+
+	public void checkpoint(String name) {
+		flushChanges();
+		checkpointPositions.put(name, getCurrentPosition());
+	}
+
+	public boolean hasCheckpoint(String name) {
+		return checkpointPositions.containsKey(name);
+	}
+
+	public void removeCheckpoint(String name) {
+		if (checkpointPositions.remove(name) != null) {
+			compact();
+		}
+	}
+
+	public ResultSetDelta<T> getChangesSince(Version version) {
+		var position = versionPositions.get(version);
+		if (position == null) {
+			throw new IllegalArgumentException("Version %s is not tracked".formatted(version));
+		}
+		return getChangesSince(position);
+	}
+
+	public ResultSetDelta<T> getChangesSince(String checkpoint) {
+		var position = checkpointPositions.get(checkpoint);
+		if (position == null) {
+			throw new IllegalArgumentException("Unknown checkpoint: " + checkpoint);
+		}
+		return getChangesSince(position);
+	}
+
+	private ResultSetDelta<T> getChangesSince(long position) {
+		var netChanges = new LinkedHashMap<Tuple, ResultSetChange<T>>();
+		int logSize = log.size();
+		for (int i = (int) (position - logOffset); i < logSize; i++) {
+			var change = log.get(i);
+			var key = change.key();
+			var previousChange = netChanges.get(key);
+			netChanges.put(key, previousChange == null ? change :
+					new ResultSetChange<>(key, previousChange.fromValue(), change.toValue()));
+		}
+		var defaultValue = getCanonicalQuery().defaultValue();
+		var added = new ArrayList<ResultSetChange<T>>();
+		var removed = new ArrayList<ResultSetChange<T>>();
+		var changed = new ArrayList<ResultSetChange<T>>();
+		for (var change : netChanges.values()) {
+			var fromValue = change.fromValue();
+			var toValue = change.toValue();
+			if (Objects.equals(fromValue, toValue)) {
+				continue;
+			}
+			if (Objects.equals(defaultValue, fromValue)) {
+				added.add(change);
+			} else if (Objects.equals(defaultValue, toValue)) {
+				removed.add(change);
+			} else {
+				changed.add(change);
+			}
+		}
+		return new ResultSetDelta<>(Collections.unmodifiableList(added), Collections.unmodifiableList(removed),
+				Collections.unmodifiableList(changed));
+	}
+
+	private void markVersion() {
+		flushChanges();
+		var version = model.getState();
+		versionPositions.remove(version);
+		versionPositions.put(version, getCurrentPosition());
+		if (versionPositions.size() > trackedVersionCount) {
+			var iterator = versionPositions.entrySet().iterator();
+			iterator.next();
+			iterator.remove();
+		}
+		compact();
+	}
+
+	private void flushChanges() {
+		// Make sure that the log reflects the current state of the model before we record a position in it.
+		var adapter = getAdapter();
+		if (adapter.hasPendingChanges()) {
+			adapter.flushChanges();
+		}
+	}
+
+	private long getCurrentPosition() {
+		return logOffset + log.size();
+	}
+
+	private void compact() {
+		long minPosition = getCurrentPosition();
+		for (var position : versionPositions.values()) {
+			minPosition = Math.min(minPosition, position);
+		}
+		for (var position : checkpointPositions.values()) {
+			minPosition = Math.min(minPosition, position);
+		}
+		int removableCount = (int) (minPosition - logOffset);
+		// Only truncate if at least half of the log can be removed to keep the amortized cost of truncation constant.
+		if (removableCount > 0 && 2 * removableCount >= log.size()) {
+			log.subList(0, removableCount).clear();
+			logOffset = minPosition;
+		}
+	}
+
+	@Override
+	public void close() {
+		model.removeListener(modelListener);
+		resultSet.removeListener(resultSetListener);
+	}
+}
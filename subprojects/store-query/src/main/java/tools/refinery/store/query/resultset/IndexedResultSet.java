@@ -0,0 +1,255 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.resultset;
+
+import org.eclipse.collections.api.factory.primitive.ObjectIntMaps;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A result set that provides constant time access to its keys by index.
+ * <p>
+ * Keys are stored in a dense array with a primitive map from keys to their positions, and removed keys are replaced
+ * by the last key of the array, so every change of the wrapped result set takes constant time. Therefore, the order
+ * of the keys depends on the order of the changes of the wrapped result set.
+ * <p>
+ * In <em>deterministic</em> mode, {@link #getKey(int)} and {@link #indexOf(Tuple)} use a sorted copy of the keys
+ * instead, so that the index of a key only depends on the current contents of the result set, like in an
+ * {@link OrderedResultSet}. The sorted copy is only updated upon the first access by index after a change: the keys
+ * added since the previous access are sorted and merged into it, while removed keys are dropped. This takes
+ * {@code O(n + k log k)} time for {@code n} keys and {@code k} changes, and falls back to sorting every key if there
+ * were more changes than keys. Afterward, {@link #getKey(int)} takes constant and {@link #indexOf(Tuple)} takes
+ * logarithmic time until the next change.
+ *
+ * @param <T> The type of the values in the result set.
+ */
+public class IndexedResultSet<T> implements AutoCloseable, ResultSet<T> {
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int ABSENT = -1;
+
+	private final ResultSet<T> resultSet;
+	private final boolean deterministic;
+	private final MutableObjectIntMap<Tuple> positions = ObjectIntMaps.mutable.empty();
+	private Tuple[] keys = new Tuple[INITIAL_CAPACITY];
+	private int keyCount;
+	// Only used in deterministic mode.
+	private Tuple[] sortedKeys;
+	private int sortedKeyCount;
+	private Tuple[] addedKeys;
+	private int addedKeyCount;
+	private boolean sortedKeysValid;
+	private boolean fullSortNeeded;
+	private final ResultSetListener<T> listener = (key, fromValue, toValue) -> {
+		var defaultValue = getCanonicalQuery().defaultValue();
+		if (Objects.equals(defaultValue, toValue)) {
+			removeKey(key);
+		} else if (Objects.equals(defaultValue, fromValue)) {
+			addKey(key);
+		}
+	};
+
+	public IndexedResultSet(ResultSet<T> resultSet) {
+		this(resultSet, false);
+	}
+
+	public IndexedResultSet(ResultSet<T> resultSet, boolean deterministic) {
+		this.resultSet = resultSet;
+		this.deterministic = deterministic;
+		if (deterministic) {
+			sortedKeys = new Tuple[INITIAL_CAPACITY];
+			addedKeys = new Tuple[INITIAL_CAPACITY];
+			// Sort the initial keys only once instead of merging them one by one.
+			fullSortNeeded = true;
+		}
+		resultSet.addListener(listener);
+		var cursor = resultSet.getAll();
+		while (cursor.move()) {
+			addKey(cursor.getKey());
+		}
+	}
+
+	public boolean isDeterministic() {
+		return deterministic;
+	}
+
+	@Override
+	public ModelQueryAdapter getAdapter() {
+		return resultSet.getAdapter();
+	}
+
+	@Override
+	public int size() {
+		return resultSet.size();
+	}
+
+	@Override
+	public Query<T> getCanonicalQuery() {
+		return resultSet.getCanonicalQuery();
+	}
+
+	@Override
+	public T get(Tuple parameters) {
+		return resultSet.get(parameters);
+	}
+
+	public Tuple getKey(int index) {
+		Objects.checkIndex(index, keyCount);
+		if (deterministic) {
+			updateSortedKeys();
+			return sortedKeys[index];
+		}
+		return keys[index];
+	}
+
+	public int indexOf(Tuple key) {
+		if (deterministic) {
+			if (!positions.containsKey(key)) {
+				return ABSENT;
+			}
+			updateSortedKeys();
+			return Arrays.binarySearch(sortedKeys, 0, sortedKeyCount, key);
+		}
+		return positions.getIfAbsent(key, ABSENT);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll() {
+		return resultSet.getAll();
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll(int offset, int limit) {
+		return resultSet.getAll(offset, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		return resultSet.getAllFrom(fromKey, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		return resultSet.getTop(count, valueComparator);
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return resultSet.isIncremental();
+	}
+
+	@Override
+	public void addListener(ResultSetListener<T> listener) {
+		resultSet.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(ResultSetListener<T> listener) {
+		resultSet.removeListener(listener);
+	}
+
+	private void addKey(Tuple key) {
+		if (positions.containsKey(key)) {
+			return;
+		}
+		if (keyCount == keys.length) {
+			keys = Arrays.copyOf(keys, keyCount * 2);
+		}
+		keys[keyCount] = key;
+		positions.put(key, keyCount);
+		keyCount++;
+		if (deterministic) {
+			sortedKeysValid = false;
+			if (fullSortNeeded) {
+				return;
+			}
+			if (addedKeyCount >= keyCount) {
+				// Merging would not be faster than sorting every key.
+				fullSortNeeded = true;
+				addedKeyCount = 0;
+				return;
+			}
+			if (addedKeyCount == addedKeys.length) {
+				addedKeys = Arrays.copyOf(addedKeys, addedKeyCount * 2);
+			}
+			addedKeys[addedKeyCount] = key;
+			addedKeyCount++;
+		}
+	}
+
+	private void removeKey(Tuple key) {
+		int position = positions.removeKeyIfAbsent(key, ABSENT);
+		if (position == ABSENT) {
+			return;
+		}
+		keyCount--;
+		if (position != keyCount) {
+			var lastKey = keys[keyCount];
+			keys[position] = lastKey;
+			positions.put(lastKey, position);
+		}
+		keys[keyCount] = null;
+		// Removed keys are dropped from the sorted keys when they are next updated.
+		sortedKeysValid = false;
+	}
+
+	private void updateSortedKeys() {
+		if (sortedKeysValid) {
+			return;
+		}
+		if (fullSortNeeded) {
+			sortedKeys = Arrays.copyOf(keys, keys.length);
+			Arrays.sort(sortedKeys, 0, keyCount);
+			fullSortNeeded = false;
+		} else {
+			mergeAddedKeys();
+		}
+		sortedKeyCount = keyCount;
+		addedKeyCount = 0;
+		sortedKeysValid = true;
+	}
+
+	private void mergeAddedKeys() {
+		Arrays.sort(addedKeys, 0, addedKeyCount);
+		// The dense array is always large enough to hold every key.
+		var mergedKeys = new Tuple[keys.length];
+		int mergedCount = 0;
+		int sortedIndex = 0;
+		int addedIndex = 0;
+		Tuple previousKey = null;
+		while (sortedIndex < sortedKeyCount || addedIndex < addedKeyCount) {
+			Tuple key;
+			if (addedIndex >= addedKeyCount || (sortedIndex < sortedKeyCount &&
+					sortedKeys[sortedIndex].compareTo(addedKeys[addedIndex]) <= 0)) {
+				key = sortedKeys[sortedIndex];
+				sortedIndex++;
+			} else {
+				key = addedKeys[addedIndex];
+				addedIndex++;
+			}
+			// Keys removed since the previous update are skipped, and keys that were removed and added again may
+			// appear in both arrays.
+			if (positions.containsKey(key) && !key.equals(previousKey)) {
+				mergedKeys[mergedCount] = key;
+				mergedCount++;
+				previousKey = key;
+			}
+		}
+		Arrays.fill(addedKeys, 0, addedKeyCount, null);
+		sortedKeys = mergedKeys;
+	}
+
+	@Override
+	public void close() {
+		resultSet.removeListener(listener);
+	}
+}
@@ -1,16 +1,20 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.query.resultset;
 
 import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Cursors;
 import tools.refinery.store.query.ModelQueryAdapter;
 import tools.refinery.store.query.dnf.Query;
 import tools.refinery.store.query.utils.OrderStatisticTree;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
 import java.util.Objects;
 
 public class OrderedResultSet<T> implements AutoCloseable, ResultSet<T> {
@@ -63,6 +67,43 @@ public class OrderedResultSet<T> implements AutoCloseable, ResultSet<T> {
 		return resultSet.getAll();
 	}
 
+	@Override
+	public Cursor<Tuple, T> getAll(int offset, int limit) {
+		return resultSet.getAll(offset, limit);
+	}
+
+	/**
+	 * Returns the results with keys greater than or equal to the given key in ascending order of keys.
+	 * <p>
+	 * Keys are looked up in the ordered index of this result set, so only the returned results are visited.
+	 *
+	 * @param fromKey The smallest key to return.
+	 * @param limit   The maximal number of results to return.
+	 * @return The cursor of the results.
+	 */
+	@Override
+	public Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		ResultSetCursors.checkNonNegative("limit", limit);
+		int startIndex = tree.ceilingIndex(fromKey);
+		int endIndex = (int) Math.min((long) startIndex + limit, tree.size());
+		var entries = new ArrayList<Map.Entry<Tuple, T>>(endIndex - startIndex);
+		for (int i = startIndex; i < endIndex; i++) {
+			var key = tree.get(i);
+			entries.add(Map.entry(key, resultSet.get(key)));
+		}
+		return Cursors.of(entries.iterator());
+	}
+
+	@Override
+	public Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		return resultSet.getTop(count, valueComparator);
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return resultSet.isIncremental();
+	}
+
 	@Override
 	public void addListener(ResultSetListener<T> listener) {
 		resultSet.addListener(listener);
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -9,6 +9,8 @@ import tools.refinery.store.map.Cursor;
 import tools.refinery.store.query.dnf.Query;
 import tools.refinery.store.tuple.Tuple;
 
+import java.util.Comparator;
+
 public non-sealed interface ResultSet<T> extends AnyResultSet {
 	Query<T> getCanonicalQuery();
 
@@ -16,6 +18,63 @@ public non-sealed interface ResultSet<T> extends AnyResultSet {
 
 	Cursor<Tuple, T> getAll();
 
+	/**
+	 * Returns a page of the results in the order of {@link #getAll()}.
+	 * <p>
+	 * Consecutive pages are consistent with each other only if the result set does not change between the calls.
+	 * Use {@link #getAllFrom(Tuple, int)} to page through results in a stable order.
+	 *
+	 * @param offset The number of results to skip.
+	 * @param limit  The maximal number of results to return.
+	 * @return The cursor of the results.
+	 */
+	default Cursor<Tuple, T> getAll(int offset, int limit) {
+		return ResultSetCursors.slice(getAll(), offset, limit);
+	}
+
+	/**
+	 * Returns the results with keys greater than or equal to the given key in ascending order of keys.
+	 * <p>
+	 * To page through the results, pass the successor of the last returned key in the next call, e.g., the last
+	 * returned key itself and skip the first result if it is equal to it.
+	 *
+	 * @param fromKey The smallest key to return.
+	 * @param limit   The maximal number of results to return.
+	 * @return The cursor of the results.
+	 */
+	default Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		return ResultSetCursors.getAllFrom(getAll(), fromKey, limit);
+	}
+
+	/**
+	 * Returns the results with the first values according to the given comparator in ascending order of values.
+	 * Ties between values are broken by the order of keys.
+	 * <p>
+	 * Implementations may maintain indexes for a limited number of comparators passed repeatedly, so the same
+	 * comparator instance should be passed in repeated calls, e.g., by storing it in a constant.
+	 *
+	 * @param count           The maximal number of results to return.
+	 * @param valueComparator The comparator of values, e.g., {@link Comparator#reverseOrder()} to return the results
+	 *                        with the largest values.
+	 * @return The cursor of the results.
+	 */
+	default Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		return ResultSetCursors.getTop(getAll(), count, valueComparator);
+	}
+
+	/**
+	 * Determines whether listeners added by {@link #addListener(ResultSetListener)} are notified about every change of
+	 * the result set.
+	 * <p>
+	 * Result sets that are calculated on demand, e.g., by local search, do not track their changes and return
+	 * {@code false}.
+	 *
+	 * @return {@code true} if the changes of the result set are reported to its listeners.
+	 */
+	default boolean isIncremental() {
+		return true;
+	}
+
 	void addListener(ResultSetListener<T> listener);
 
 	void removeListener(ResultSetListener<T> listener);
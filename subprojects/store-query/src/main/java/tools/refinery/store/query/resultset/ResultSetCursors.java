@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.resultset;
+
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Cursors;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * Partial retrieval of results from the cursors of result sets that do not maintain an ordered index.
+ * <p>
+ * Each method consumes the given cursor at most once. If the cursor is lazy, e.g., it enumerates the matches of a
+ * local search query, {@link #slice(Cursor, int, int)} terminates the enumeration as soon as enough results were
+ * found. The other methods have to see every result, but they only keep the requested number of them in memory.
+ */
+public final class ResultSetCursors {
+	private ResultSetCursors() {
+		throw new IllegalStateException("This is a static utility class and should not be instantiated directly");
+	}
+
+	public static <T> Cursor<Tuple, T> slice(Cursor<Tuple, T> cursor, int offset, int limit) {
+		checkNonNegative("offset", offset);
+		checkNonNegative("limit", limit);
+		return new SliceCursor<>(cursor, offset, limit);
+	}
+
+	public static <T> Cursor<Tuple, T> getAllFrom(Cursor<Tuple, T> cursor, Tuple fromKey, int limit) {
+		checkNonNegative("limit", limit);
+		var selector = new BoundedSelector<T>(limit, Map.Entry.comparingByKey());
+		while (cursor.move()) {
+			var key = cursor.getKey();
+			if (key.compareTo(fromKey) >= 0) {
+				selector.add(key, cursor.getValue());
+			}
+		}
+		return selector.toCursor();
+	}
+
+	public static <T> Cursor<Tuple, T> getTop(Cursor<Tuple, T> cursor, int count,
+											  Comparator<? super T> valueComparator) {
+		checkNonNegative("count", count);
+		var selector = new BoundedSelector<T>(count, ResultSetCursors.<T>entryComparator(valueComparator));
+		while (cursor.move()) {
+			selector.add(cursor.getKey(), cursor.getValue());
+		}
+		return selector.toCursor();
+	}
+
+	/**
+	 * Creates a comparator ordering entries by their values, breaking ties by the order of keys.
+	 *
+	 * @param valueComparator The comparator of the values.
+	 * @param <T>             The type of the values.
+	 * @return The comparator of entries.
+	 */
+	public static <T> Comparator<Map.Entry<Tuple, T>> entryComparator(Comparator<? super T> valueComparator) {
+		return Map.Entry.<Tuple, T>comparingByValue(valueComparator).thenComparing(Map.Entry.comparingByKey());
+	}
+
+	static void checkNonNegative(String name, int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("%s must be non-negative, got %d".formatted(name, value));
+		}
+	}
+
+	private static class SliceCursor<T> implements Cursor<Tuple, T> {
+		private final Cursor<Tuple, T> cursor;
+		private int remainingOffset;
+		private int remainingLimit;
+		private boolean terminated;
+
+		public SliceCursor(Cursor<Tuple, T> cursor, int offset, int limit) {
+			this.cursor = cursor;
+			remainingOffset = offset;
+			remainingLimit = limit;
+		}
+
+		@Override
+		public Tuple getKey() {
+			return terminated ? null : cursor.getKey();
+		}
+
+		@Override
+		public T getValue() {
+			return terminated ? null : cursor.getValue();
+		}
+
+		@Override
+		public boolean isTerminated() {
+			return terminated;
+		}
+
+		@Override
+		public boolean move() {
+			if (terminated) {
+				return false;
+			}
+			while (remainingOffset > 0) {
+				if (!cursor.move()) {
+					terminated = true;
+					return false;
+				}
+				remainingOffset--;
+			}
+			if (remainingLimit == 0 || !cursor.move()) {
+				// Do not advance the underlying cursor beyond the limit to avoid enumerating any more results.
+				terminated = true;
+				return false;
+			}
+			remainingLimit--;
+			return true;
+		}
+	}
+
+	/**
+	 * Keeps the smallest entries seen so far in a bounded max-heap.
+	 */
+	private static class BoundedSelector<T> {
+		private final int capacity;
+		private final Comparator<Map.Entry<Tuple, T>> comparator;
+		private final PriorityQueue<Map.Entry<Tuple, T>> heap;
+
+		public BoundedSelector(int capacity, Comparator<Map.Entry<Tuple, T>> comparator) {
+			this.capacity = capacity;
+			this.comparator = comparator;
+			heap = new PriorityQueue<>(Math.max(capacity, 1), comparator.reversed());
+		}
+
+		public void add(Tuple key, T value) {
+			if (capacity == 0) {
+				return;
+			}
+			var entry = Map.entry(key, value);
+			if (heap.size() < capacity) {
+				heap.add(entry);
+			} else if (comparator.compare(entry, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(entry);
+			}
+		}
+
+		public Cursor<Tuple, T> toCursor() {
+			var entries = new ArrayList<>(heap);
+			entries.sort(comparator);
+			return Cursors.of(entries.iterator());
+		}
+	}
+}
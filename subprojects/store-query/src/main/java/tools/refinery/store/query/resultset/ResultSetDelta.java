@@ -0,0 +1,27 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.resultset;
+
+import java.util.List;
+
+/**
+ * The net difference of a result set between two points in time.
+ *
+ * @param added   Changes of tuples which had the default value of the query before and a non-default value after.
+ * @param removed Changes of tuples which had a non-default value before and the default value after.
+ * @param changed Changes of tuples which had different non-default values before and after.
+ * @param <T>     The type of the values in the result set.
+ */
+public record ResultSetDelta<T>(List<ResultSetChange<T>> added, List<ResultSetChange<T>> removed,
+								List<ResultSetChange<T>> changed) {
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+	}
+
+	public int size() {
+		return added.size() + removed.size() + changed.size();
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.resultset;
+
+import tools.refinery.store.map.Cursor;
+import tools.refinery.store.map.Cursors;
+import tools.refinery.store.query.ModelQueryAdapter;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.*;
+
+/**
+ * A result set that maintains an index of its results ordered by their values.
+ * <p>
+ * The index is updated incrementally when the wrapped result set changes, so the results with the first values can
+ * be retrieved without visiting all results.
+ *
+ * @param <T> The type of the values in the result set.
+ */
+public class ValueOrderedResultSet<T> implements AutoCloseable, ResultSet<T> {
+	private final ResultSet<T> resultSet;
+	private final Comparator<? super T> valueComparator;
+	private final NavigableSet<Map.Entry<Tuple, T>> entries;
+	private final ResultSetListener<T> listener = (key, fromValue, toValue) -> {
+		var defaultValue = getCanonicalQuery().defaultValue();
+		if (!Objects.equals(defaultValue, fromValue)) {
+			removeEntry(key, fromValue);
+		}
+		if (!Objects.equals(defaultValue, toValue)) {
+			addEntry(key, toValue);
+		}
+	};
+
+	public ValueOrderedResultSet(ResultSet<T> resultSet, Comparator<? super T> valueComparator) {
+		this.resultSet = resultSet;
+		this.valueComparator = valueComparator;
+		entries = new TreeSet<>(ResultSetCursors.entryComparator(valueComparator));
+		resultSet.addListener(listener);
+		var cursor = resultSet.getAll();
+		while (cursor.move()) {
+			addEntry(cursor.getKey(), cursor.getValue());
+		}
+	}
+
+	public Comparator<? super T> getValueComparator() {
+		return valueComparator;
+	}
+
+	@Override
+	public ModelQueryAdapter getAdapter() {
+		return resultSet.getAdapter();
+	}
+
+	@Override
+	public int size() {
+		return resultSet.size();
+	}
+
+	@Override
+	public Query<T> getCanonicalQuery() {
+		return resultSet.getCanonicalQuery();
+	}
+
+	@Override
+	public T get(Tuple parameters) {
+		return resultSet.get(parameters);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll() {
+		return resultSet.getAll();
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAll(int offset, int limit) {
+		return resultSet.getAll(offset, limit);
+	}
+
+	@Override
+	public Cursor<Tuple, T> getAllFrom(Tuple fromKey, int limit) {
+		return resultSet.getAllFrom(fromKey, limit);
+	}
+
+	/**
+	 * Returns the results with the first values according to the given comparator in ascending order of values.
+	 * <p>
+	 * If the comparator is equal to the comparator of the index, only the returned results are visited. Otherwise,
+	 * the call is delegated to the wrapped result set.
+	 *
+	 * @param count           The maximal number of results to return.
+	 * @param valueComparator The comparator of values.
+	 * @return The cursor of the results.
+	 */
+	@Override
+	public Cursor<Tuple, T> getTop(int count, Comparator<? super T> valueComparator) {
+		if (!this.valueComparator.equals(valueComparator)) {
+			return resultSet.getTop(count, valueComparator);
+		}
+		ResultSetCursors.checkNonNegative("count", count);
+		var topEntries = new ArrayList<Map.Entry<Tuple, T>>(Math.min(count, entries.size()));
+		var iterator = entries.iterator();
+		while (topEntries.size() < count && iterator.hasNext()) {
+			topEntries.add(iterator.next());
+		}
+		return Cursors.of(topEntries.iterator());
+	}
+
+	@Override
+	public boolean isIncremental() {
+		return resultSet.isIncremental();
+	}
+
+	@Override
+	public void addListener(ResultSetListener<T> listener) {
+		resultSet.addListener(listener);
+	}
+
+	@Override
+	public void removeListener(ResultSetListener<T> listener) {
+		resultSet.removeListener(listener);
+	}
+
+	private void addEntry(Tuple key, T value) {
+		entries.add(Map.entry(key, value));
+	}
+
+	private void removeEntry(Tuple key, T value) {
+		entries.remove(Map.entry(key, value));
+	}
+
+	@Override
+	public void close() {
+		resultSet.removeListener(listener);
+	}
+}
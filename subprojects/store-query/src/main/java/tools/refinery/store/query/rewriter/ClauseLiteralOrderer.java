@@ -0,0 +1,100 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import tools.refinery.store.query.literal.AbstractCallLiteral;
+import tools.refinery.store.query.literal.Literal;
+import tools.refinery.store.query.term.Variable;
+
+import java.util.*;
+
+class ClauseLiteralOrderer {
+	private final CostBasedRewriter rewriter;
+	private final List<Literal> remainingLiterals;
+	private final Set<Variable> positiveVariables = new HashSet<>();
+	private final Set<Variable> boundVariables;
+	private final List<Literal> orderedLiterals;
+	private double estimatedResultCount = 1;
+
+	public ClauseLiteralOrderer(CostBasedRewriter rewriter, Set<Variable> inputParameters, List<Literal> literals) {
+		this.rewriter = rewriter;
+		remainingLiterals = new LinkedList<>(literals);
+		boundVariables = new HashSet<>(inputParameters);
+		orderedLiterals = new ArrayList<>(literals.size());
+		positiveVariables.addAll(inputParameters);
+		for (var literal : literals) {
+			positiveVariables.addAll(literal.getOutputVariables());
+		}
+	}
+
+	public void orderLiterals() {
+		while (!remainingLiterals.isEmpty()) {
+			Literal bestLiteral = null;
+			double bestFanOut = Double.POSITIVE_INFINITY;
+			for (var literal : remainingLiterals) {
+				if (!boundVariables.containsAll(literal.getInputVariables(positiveVariables))) {
+					continue;
+				}
+				double fanOut = estimateFanOut(literal);
+				// Strict comparison keeps the original order of literals with equal costs.
+				if (fanOut < bestFanOut) {
+					bestLiteral = literal;
+					bestFanOut = fanOut;
+				}
+			}
+			if (bestLiteral == null) {
+				// The clause is invalid, let {@link tools.refinery.store.query.dnf.DnfBuilder} report the error.
+				orderedLiterals.addAll(remainingLiterals);
+				return;
+			}
+			remainingLiterals.remove(bestLiteral);
+			orderedLiterals.add(bestLiteral);
+			boundVariables.addAll(bestLiteral.getOutputVariables());
+			if (bestFanOut > 0) {
+				estimatedResultCount *= bestFanOut;
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of results of a literal for a single binding of the variables bound so far.
+	 *
+	 * @param literal The literal.
+	 * @return {@code 0} if the literal is a filter that binds no new variables, the estimated number of results
+	 * otherwise.
+	 */
+	private double estimateFanOut(Literal literal) {
+		var newVariables = new HashSet<>(literal.getOutputVariables());
+		newVariables.removeAll(boundVariables);
+		if (newVariables.isEmpty()) {
+			return 0;
+		}
+		if (!(literal instanceof AbstractCallLiteral callLiteral) ||
+				!callLiteral.getArguments().containsAll(newVariables)) {
+			// Literals binding variables that are not arguments, such as assignments and aggregations, are functional.
+			return 1;
+		}
+		var arguments = callLiteral.getArguments();
+		int arity = arguments.size();
+		int boundArgumentCount = 0;
+		for (var argument : arguments) {
+			if (boundVariables.contains(argument)) {
+				boundArgumentCount++;
+			}
+		}
+		// Assume that tuples are distributed uniformly, i.e., each bound argument divides the number of results equally.
+		double cardinality = rewriter.estimateCardinality(callLiteral.getTarget());
+		return Math.pow(cardinality, (double) (arity - boundArgumentCount) / arity);
+	}
+
+	public List<Literal> getOrderedLiterals() {
+		return orderedLiterals;
+	}
+
+	public double getEstimatedResultCount() {
+		return estimatedResultCount;
+	}
+}
@@ -0,0 +1,165 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.dnf.DnfClause;
+import tools.refinery.store.query.literal.CallLiteral;
+import tools.refinery.store.query.literal.CallPolarity;
+import tools.refinery.store.query.literal.Literal;
+import tools.refinery.store.query.term.ParameterDirection;
+import tools.refinery.store.query.term.Variable;
+
+import java.util.*;
+
+class ClauseMagicSetRewriter {
+	private final MagicSetRewriter rewriter;
+	private final Dnf dnf;
+	private final DnfClause clause;
+	private final int clauseIndex;
+	private final Set<Variable> positiveVariablesInClause = new HashSet<>();
+	private final List<Literal> rewrittenLiterals = new ArrayList<>();
+	private int magicIndex = 0;
+
+	public ClauseMagicSetRewriter(MagicSetRewriter rewriter, Dnf dnf, int clauseIndex) {
+		this.rewriter = rewriter;
+		this.dnf = dnf;
+		clause = dnf.getClauses().get(clauseIndex);
+		this.clauseIndex = clauseIndex;
+	}
+
+	public List<Literal> rewriteClause() {
+		for (var parameter : dnf.getSymbolicParameters()) {
+			if (parameter.getDirection() == ParameterDirection.IN) {
+				// Inputs count as positive in the clause, but they are not bound in the magic query.
+				positiveVariablesInClause.add(parameter.getVariable());
+			}
+		}
+		for (var literal : clause.literals()) {
+			positiveVariablesInClause.addAll(literal.getOutputVariables());
+		}
+		for (var literal : clause.literals()) {
+			rewrittenLiterals.add(rewriteLiteral(literal));
+		}
+		return rewrittenLiterals;
+	}
+
+	private Literal rewriteLiteral(Literal literal) {
+		if (!(literal instanceof CallLiteral callLiteral) ||
+				!(callLiteral.getTarget() instanceof Dnf targetDnf) ||
+				// Magic queries consist of already rewritten literals.
+				rewriter.isMagicDnf(targetDnf)) {
+			return literal;
+		}
+		var polarity = callLiteral.getPolarity();
+		if ((polarity != CallPolarity.POSITIVE && polarity != CallPolarity.NEGATIVE) ||
+				hasInputParameter(targetDnf)) {
+			// Input parameters are resolved by {@link InputParameterResolver} instead.
+			return callLiteral.withTarget(rewriter.rewrite(targetDnf));
+		}
+		var magicLiterals = new ArrayList<Literal>();
+		var boundVariables = selectMagicLiterals(magicLiterals);
+		var boundArgumentIndices = getBoundArgumentIndices(callLiteral, boundVariables);
+		if (boundArgumentIndices.isEmpty()) {
+			return callLiteral.withTarget(rewriter.rewrite(targetDnf));
+		}
+		var magicDnf = createMagicDnf(callLiteral, boundArgumentIndices, magicLiterals);
+		var demandedDnf = createDemandedDnf(targetDnf, magicDnf, boundArgumentIndices);
+		return callLiteral.withTarget(rewriter.rewrite(demandedDnf));
+	}
+
+	/**
+	 * Selects the preceding literals that keep their meaning in the magic query.
+	 * <p>
+	 * Negative, check, and assignment literals may refer to input parameters of the clause or to variables that are
+	 * only bound by the literals following the call. In the magic query, such variables would be either unbound or
+	 * quantified inside the negation, so we only keep literals with all of their input variables bound by the other
+	 * kept literals. Dropping literals only makes the magic query more general, which is still sound.
+	 *
+	 * @param magicLiterals The list to add the selected literals to in the order they appear in the clause.
+	 * @return The variables bound by the selected literals.
+	 */
+	private Set<Variable> selectMagicLiterals(List<Literal> magicLiterals) {
+		int literalCount = rewrittenLiterals.size();
+		var selected = new boolean[literalCount];
+		var boundVariables = new LinkedHashSet<Variable>();
+		boolean changed;
+		do {
+			changed = false;
+			for (int i = 0; i < literalCount; i++) {
+				var literal = rewrittenLiterals.get(i);
+				if (!selected[i] &&
+						boundVariables.containsAll(literal.getInputVariables(positiveVariablesInClause))) {
+					selected[i] = true;
+					boundVariables.addAll(literal.getOutputVariables());
+					changed = true;
+				}
+			}
+		} while (changed);
+		for (int i = 0; i < literalCount; i++) {
+			if (selected[i]) {
+				magicLiterals.add(rewrittenLiterals.get(i));
+			}
+		}
+		return boundVariables;
+	}
+
+	private static List<Integer> getBoundArgumentIndices(CallLiteral callLiteral, Set<Variable> boundVariables) {
+		var arguments = callLiteral.getArguments();
+		var passedVariables = new HashSet<Variable>();
+		var boundArgumentIndices = new ArrayList<Integer>();
+		int arity = arguments.size();
+		for (int i = 0; i < arity; i++) {
+			var argument = arguments.get(i);
+			// Only pass each bound variable once to the magic query, even if it appears multiple times in the call.
+			if (boundVariables.contains(argument) && passedVariables.add(argument)) {
+				boundArgumentIndices.add(i);
+			}
+		}
+		return boundArgumentIndices;
+	}
+
+	private Dnf createMagicDnf(CallLiteral callLiteral, List<Integer> boundArgumentIndices,
+							   List<Literal> magicLiterals) {
+		var magicBuilder = Dnf.builder("%s#clause%d#magic%d".formatted(dnf.name(), clauseIndex, magicIndex));
+		magicIndex++;
+		var arguments = callLiteral.getArguments();
+		for (var index : boundArgumentIndices) {
+			magicBuilder.parameter(arguments.get(index), ParameterDirection.OUT);
+		}
+		magicBuilder.clause(magicLiterals);
+		var magicDnf = magicBuilder.build();
+		rewriter.addMagicDnf(magicDnf);
+		return magicDnf;
+	}
+
+	private static Dnf createDemandedDnf(Dnf targetDnf, Dnf magicDnf, List<Integer> boundArgumentIndices) {
+		var demandedBuilder = Dnf.builderFrom(targetDnf);
+		var symbolicParameters = targetDnf.getSymbolicParameters();
+		var magicArguments = new ArrayList<Variable>(boundArgumentIndices.size());
+		for (var index : boundArgumentIndices) {
+			magicArguments.add(symbolicParameters.get(index).getVariable());
+		}
+		var magicCall = new CallLiteral(CallPolarity.POSITIVE, magicDnf, magicArguments);
+		for (var targetClause : targetDnf.getClauses()) {
+			var targetLiterals = targetClause.literals();
+			var literals = new ArrayList<Literal>(targetLiterals.size() + 1);
+			literals.add(magicCall);
+			literals.addAll(targetLiterals);
+			demandedBuilder.clause(literals);
+		}
+		return demandedBuilder.build();
+	}
+
+	private static boolean hasInputParameter(Dnf targetDnf) {
+		for (var parameter : targetDnf.getParameters()) {
+			if (parameter.getDirection() != ParameterDirection.OUT) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
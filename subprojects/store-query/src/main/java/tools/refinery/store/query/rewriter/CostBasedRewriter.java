@@ -0,0 +1,227 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import tools.refinery.store.query.Constraint;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.dnf.DnfBuilder;
+import tools.refinery.store.query.dnf.DnfClause;
+import tools.refinery.store.query.literal.AbstractCallLiteral;
+import tools.refinery.store.query.literal.CallLiteral;
+import tools.refinery.store.query.literal.CallPolarity;
+import tools.refinery.store.query.literal.Literal;
+import tools.refinery.store.query.term.ParameterDirection;
+import tools.refinery.store.query.term.Variable;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Reorders the clauses and literals of queries according to their estimated cost.
+ * <p>
+ * The literals of each clause are ordered greedily: among the literals whose inputs are already bound, the one with
+ * the smallest estimated number of results per binding of the preceding literals comes next. Therefore, filters, such
+ * as {@link tools.refinery.store.query.literal.CheckLiteral} and negative calls, are evaluated as soon as their
+ * variables are bound. Clauses are ordered by the estimated number of their results.
+ * <p>
+ * Literals appearing in every clause of a query that only refer to the parameters of the query are factored out:
+ * the query is rewritten to a single clause joining these literals with a helper query containing the rest of the
+ * clauses. This saves a join for each factored literal in every clause but one. Helper queries with equal clauses
+ * are shared between queries by {@link DuplicateDnfRemover}.
+ * <p>
+ * The cost of calls is estimated from the number of tuples of the called constraints, which may be provided by the
+ * caller, e.g., from the statistics of an existing model. Since the backends also rely on the order of literals to
+ * break ties in their query plans, this rewriter should be used before {@link DuplicateDnfRemover}.
+ */
+public class CostBasedRewriter extends AbstractRecursiveRewriter {
+	/**
+	 * The default number of tuples assumed to be in a constraint of arity 1.
+	 */
+	public static final double DEFAULT_NODE_COUNT = 100;
+
+	/**
+	 * The default number of tuples assumed to be related to a single tuple by each additional parameter of a
+	 * constraint.
+	 */
+	public static final double DEFAULT_FAN_OUT = 4;
+
+	private final ToDoubleFunction<Constraint> cardinalityEstimator;
+
+	public CostBasedRewriter() {
+		this(CostBasedRewriter::estimateDefaultCardinality);
+	}
+
+	/**
+	 * Creates a rewriter which estimates the size of constraints with the given function.
+	 *
+	 * @param cardinalityEstimator Returns the (estimated) number of tuples of a constraint.
+	 */
+	public CostBasedRewriter(ToDoubleFunction<Constraint> cardinalityEstimator) {
+		this.cardinalityEstimator = cardinalityEstimator;
+	}
+
+	@Override
+	protected Dnf doRewrite(Dnf dnf) {
+		var factoredLiterals = getFactorableLiterals(dnf);
+		var factoredLiteralSet = new HashSet<>(factoredLiterals);
+		var clauses = new ArrayList<List<Literal>>(dnf.getClauses().size());
+		for (var clause : dnf.getClauses()) {
+			var literals = new ArrayList<Literal>(clause.literals().size());
+			for (var literal : clause.literals()) {
+				if (!factoredLiteralSet.contains(literal)) {
+					literals.add(rewriteCallTarget(literal));
+				}
+			}
+			clauses.add(literals);
+		}
+		var builder = Dnf.builderFrom(dnf);
+		if (factoredLiterals.isEmpty()) {
+			addOrderedClauses(builder, dnf, clauses);
+			return builder.build();
+		}
+		var helperBuilder = Dnf.builder("%s#common".formatted(dnf.name()));
+		var parameterVariables = new ArrayList<Variable>(dnf.arity());
+		for (var symbolicParameter : dnf.getSymbolicParameters()) {
+			var variable = symbolicParameter.getVariable();
+			helperBuilder.parameter(variable, ParameterDirection.OUT);
+			parameterVariables.add(variable);
+		}
+		addOrderedClauses(helperBuilder, dnf, clauses);
+		var helperDnf = helperBuilder.build();
+		var literals = new ArrayList<Literal>(factoredLiterals.size() + 1);
+		for (var literal : factoredLiterals) {
+			literals.add(rewriteCallTarget(literal));
+		}
+		literals.add(new CallLiteral(CallPolarity.POSITIVE, helperDnf, parameterVariables));
+		addOrderedClauses(builder, dnf, List.of(literals));
+		return builder.build();
+	}
+
+	private Literal rewriteCallTarget(Literal literal) {
+		if (literal instanceof AbstractCallLiteral callLiteral && callLiteral.getTarget() instanceof Dnf targetDnf) {
+			return callLiteral.withTarget(rewrite(targetDnf));
+		}
+		return literal;
+	}
+
+	private void addOrderedClauses(DnfBuilder builder, Dnf dnf, List<List<Literal>> clauses) {
+		var inputParameters = new HashSet<Variable>();
+		for (var symbolicParameter : dnf.getSymbolicParameters()) {
+			if (symbolicParameter.getDirection() == ParameterDirection.IN) {
+				inputParameters.add(symbolicParameter.getVariable());
+			}
+		}
+		var orderedClauses = new ArrayList<ClauseLiteralOrderer>(clauses.size());
+		for (var literals : clauses) {
+			var orderer = new ClauseLiteralOrderer(this, inputParameters, literals);
+			orderer.orderLiterals();
+			orderedClauses.add(orderer);
+		}
+		// {@link List#sort(Comparator)} is stable, so clauses with equal costs keep their original order.
+		orderedClauses.sort(Comparator.comparingDouble(ClauseLiteralOrderer::getEstimatedResultCount));
+		for (var orderer : orderedClauses) {
+			builder.clause(orderer.getOrderedLiterals());
+		}
+	}
+
+	/**
+	 * Finds the literals that can be factored out of every clause of a query.
+	 * <p>
+	 * Literals can only be factored out if they appear in every clause and all of their variables are parameters of
+	 * the query, because variables of different clauses are distinct. Moreover, each clause must remain valid and
+	 * bind all parameters on its own after the common literals are removed.
+	 *
+	 * @param dnf The query.
+	 * @return The literals to factor out, or an empty list if the query should not be factored.
+	 */
+	private static List<Literal> getFactorableLiterals(Dnf dnf) {
+		var clauses = dnf.getClauses();
+		if (clauses.size() < 2) {
+			return List.of();
+		}
+		var parameterVariables = new HashSet<Variable>();
+		for (var symbolicParameter : dnf.getSymbolicParameters()) {
+			if (symbolicParameter.getDirection() != ParameterDirection.OUT) {
+				// Queries with input parameters are resolved by {@link InputParameterResolver} instead.
+				return List.of();
+			}
+			parameterVariables.add(symbolicParameter.getVariable());
+		}
+		var firstClause = clauses.get(0);
+		var commonLiterals = new ArrayList<Literal>();
+		for (var literal : firstClause.literals()) {
+			if (!commonLiterals.contains(literal) &&
+					parameterVariables.containsAll(getVariables(literal, firstClause.positiveVariables())) &&
+					appearsInAllClauses(literal, clauses)) {
+				commonLiterals.add(literal);
+			}
+		}
+		if (commonLiterals.isEmpty()) {
+			return List.of();
+		}
+		for (var clause : clauses) {
+			if (!isValidWithout(clause, commonLiterals, parameterVariables)) {
+				return List.of();
+			}
+		}
+		return commonLiterals;
+	}
+
+	private static boolean appearsInAllClauses(Literal literal, List<DnfClause> clauses) {
+		for (var clause : clauses) {
+			if (!clause.literals().contains(literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isValidWithout(DnfClause clause, List<Literal> removedLiterals,
+										  Set<Variable> parameterVariables) {
+		var remainingLiterals = new ArrayList<>(clause.literals());
+		remainingLiterals.removeAll(removedLiterals);
+		if (remainingLiterals.isEmpty()) {
+			return false;
+		}
+		var positiveVariables = new HashSet<Variable>();
+		for (var literal : remainingLiterals) {
+			positiveVariables.addAll(literal.getOutputVariables());
+		}
+		if (!positiveVariables.containsAll(parameterVariables)) {
+			return false;
+		}
+		for (var literal : remainingLiterals) {
+			if (!positiveVariables.containsAll(literal.getInputVariables(positiveVariables))) {
+				return false;
+			}
+			// Variables bound by the removed literals would become private, changing the meaning of the literal.
+			if (!literal.getPrivateVariables(positiveVariables)
+					.equals(literal.getPrivateVariables(clause.positiveVariables()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Set<Variable> getVariables(Literal literal, Set<Variable> positiveVariablesInClause) {
+		var variables = new HashSet<Variable>(literal.getOutputVariables());
+		variables.addAll(literal.getInputVariables(positiveVariablesInClause));
+		variables.addAll(literal.getPrivateVariables(positiveVariablesInClause));
+		return variables;
+	}
+
+	double estimateCardinality(Constraint constraint) {
+		return Math.max(cardinalityEstimator.applyAsDouble(constraint), 1);
+	}
+
+	private static double estimateDefaultCardinality(Constraint constraint) {
+		int arity = constraint.arity();
+		if (arity == 0) {
+			return 1;
+		}
+		return DEFAULT_NODE_COUNT * Math.pow(DEFAULT_FAN_OUT, arity - 1.0);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -9,6 +9,7 @@ import tools.refinery.store.query.dnf.Dnf;
 import tools.refinery.store.query.dnf.DnfClause;
 import tools.refinery.store.query.dnf.Query;
 import tools.refinery.store.query.equality.DnfEqualityChecker;
+import tools.refinery.store.query.equality.DnfFingerprint;
 import tools.refinery.store.query.literal.AbstractCallLiteral;
 import tools.refinery.store.query.literal.Literal;
 
@@ -62,11 +63,11 @@ public class DuplicateDnfRemover extends AbstractRecursiveRewriter {
 
 	private static class CanonicalDnf {
 		private final Dnf dnf;
-		private final int hash;
+		private final DnfFingerprint fingerprint;
 
 		public CanonicalDnf(Dnf dnf) {
 			this.dnf = dnf;
-			hash = dnf.hashCodeWithSubstitution();
+			fingerprint = dnf.getFingerprint();
 		}
 
 		public Dnf getDnf() {
@@ -82,12 +83,14 @@ public class DuplicateDnfRemover extends AbstractRecursiveRewriter {
 				return false;
 			}
 			var otherCanonicalDnf = (CanonicalDnf) obj;
-			return dnf.equalsWithSubstitution(DnfEqualityChecker.DEFAULT, otherCanonicalDnf.dnf);
+			// Only compare the structure of queries if their fingerprints collide.
+			return fingerprint.equals(otherCanonicalDnf.fingerprint) &&
+					dnf.equalsWithSubstitution(DnfEqualityChecker.DEFAULT, otherCanonicalDnf.dnf);
 		}
 
 		@Override
 		public int hashCode() {
-			return hash;
+			return fingerprint.hashCode();
 		}
 
 		@Override
@@ -0,0 +1,48 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import tools.refinery.store.query.dnf.Dnf;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Restricts called queries to the tuples demanded by their call sites.
+ * <p>
+ * If some arguments of a positive or negative call are already bound by the preceding literals of the calling
+ * clause, the call is replaced by a call to a specialized copy of the called query. Each clause of the copy is
+ * guarded by a <em>magic</em> query, which projects the preceding literals of the calling clause to the bound
+ * arguments. Therefore, incremental query backends only have to maintain the part of the called query that is
+ * actually demanded by the caller. Specialized queries are rewritten recursively, so demand is propagated through
+ * the whole call graph.
+ * <p>
+ * This rewriter relies on the order of literals in the clauses to decide which arguments are bound. Since
+ * specialized queries can no longer be shared between call sites, this rewriter is not enabled by default. It should
+ * be used for queries which are only ever evaluated for a small part of their results.
+ */
+public class MagicSetRewriter extends AbstractRecursiveRewriter {
+	private final Set<Dnf> magicDnfs = new HashSet<>();
+
+	@Override
+	protected Dnf doRewrite(Dnf dnf) {
+		var builder = Dnf.builderFrom(dnf);
+		int clauseCount = dnf.getClauses().size();
+		for (int i = 0; i < clauseCount; i++) {
+			var clauseRewriter = new ClauseMagicSetRewriter(this, dnf, i);
+			builder.clause(clauseRewriter.rewriteClause());
+		}
+		return builder.build();
+	}
+
+	void addMagicDnf(Dnf magicDnf) {
+		magicDnfs.add(magicDnf);
+	}
+
+	boolean isMagicDnf(Dnf dnf) {
+		return magicDnfs.contains(dnf);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -102,7 +102,7 @@ public class ExtremeValueAggregator<T> implements StatefulAggregator<T, T> {
 
 		@Override
 		public boolean contains(T value) {
-			return StatefulAggregate.super.contains(value);
+			return values.containsKey(value);
 		}
 	}
 }
@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.term;
+
+import org.eclipse.collections.api.factory.primitive.LongIntMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongIntMap;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Multiset of {@code long} values that keeps track of its minimum.
+ * <p>
+ * Distinct values are stored in a binary min-heap along with their multiplicities, and a primitive hash map stores
+ * the position of each value in the heap. Therefore, adding or removing a value takes {@code O(log n)} time, where
+ * {@code n} is the number of distinct values, and querying the minimum takes constant time. Values are never boxed.
+ * <p>
+ * Aggregators over other primitive types may store their values in this multiset by encoding them into {@code long}
+ * values in an order-preserving way. Maximum aggregators may use an order-reversing encoding instead.
+ */
+public final class LongHeapMultiset {
+	private static final int INITIAL_CAPACITY = 8;
+	private static final int ABSENT = -1;
+
+	private long[] values;
+	private int[] counts;
+	private int size;
+	private final MutableLongIntMap positions;
+
+	public LongHeapMultiset() {
+		values = new long[INITIAL_CAPACITY];
+		counts = new int[INITIAL_CAPACITY];
+		positions = LongIntMaps.mutable.empty();
+	}
+
+	private LongHeapMultiset(LongHeapMultiset other) {
+		values = Arrays.copyOf(other.values, Math.max(other.size, INITIAL_CAPACITY));
+		counts = Arrays.copyOf(other.counts, values.length);
+		size = other.size;
+		positions = LongIntMaps.mutable.ofAll(other.positions);
+	}
+
+	public void add(long value) {
+		int position = positions.getIfAbsent(value, ABSENT);
+		if (position != ABSENT) {
+			counts[position]++;
+			return;
+		}
+		if (size == values.length) {
+			values = Arrays.copyOf(values, size * 2);
+			counts = Arrays.copyOf(counts, size * 2);
+		}
+		position = size;
+		size++;
+		values[position] = value;
+		counts[position] = 1;
+		siftUp(position);
+	}
+
+	/**
+	 * Removes a single occurrence of a value.
+	 *
+	 * @param value The value to remove.
+	 * @throws IllegalStateException If the value is not in the multiset.
+	 */
+	public void remove(long value) {
+		int position = positions.getIfAbsent(value, ABSENT);
+		if (position == ABSENT) {
+			throw new IllegalStateException("Invalid count 0 for value %d".formatted(value));
+		}
+		counts[position]--;
+		if (counts[position] > 0) {
+			return;
+		}
+		positions.remove(value);
+		size--;
+		if (position == size) {
+			return;
+		}
+		values[position] = values[size];
+		counts[position] = counts[size];
+		if (position > 0 && values[position] < values[parent(position)]) {
+			siftUp(position);
+		} else {
+			siftDown(position);
+		}
+	}
+
+	public boolean contains(long value) {
+		return positions.containsKey(value);
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the smallest value in the multiset.
+	 *
+	 * @throws NoSuchElementException If the multiset is empty.
+	 */
+	public long getMinimum() {
+		if (size == 0) {
+			throw new NoSuchElementException("Multiset is empty");
+		}
+		return values[0];
+	}
+
+	public LongHeapMultiset copy() {
+		return new LongHeapMultiset(this);
+	}
+
+	private void siftUp(int position) {
+		long value = values[position];
+		int count = counts[position];
+		while (position > 0) {
+			int parent = parent(position);
+			long parentValue = values[parent];
+			if (parentValue <= value) {
+				break;
+			}
+			moveTo(parent, position);
+			position = parent;
+		}
+		values[position] = value;
+		counts[position] = count;
+		positions.put(value, position);
+	}
+
+	private void siftDown(int position) {
+		long value = values[position];
+		int count = counts[position];
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			int rightChild = child + 1;
+			if (rightChild < size && values[rightChild] < values[child]) {
+				child = rightChild;
+			}
+			if (value <= values[child]) {
+				break;
+			}
+			moveTo(child, position);
+			position = child;
+		}
+		values[position] = value;
+		counts[position] = count;
+		positions.put(value, position);
+	}
+
+	private void moveTo(int from, int to) {
+		long value = values[from];
+		values[to] = value;
+		counts[to] = counts[from];
+		positions.put(value, to);
+	}
+
+	private static int parent(int position) {
+		return (position - 1) >>> 1;
+	}
+}
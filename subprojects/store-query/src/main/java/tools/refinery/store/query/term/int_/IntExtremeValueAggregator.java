@@ -0,0 +1,92 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.term.int_;
+
+import tools.refinery.store.query.term.LongHeapMultiset;
+import tools.refinery.store.query.term.StatefulAggregate;
+import tools.refinery.store.query.term.StatefulAggregator;
+
+/**
+ * Minimum or maximum of {@code int} values backed by a primitive {@link LongHeapMultiset}.
+ * <p>
+ * Maximums are computed as the minimum of the negated values, which cannot overflow in the {@code long} range.
+ */
+public final class IntExtremeValueAggregator implements StatefulAggregator<Integer, Integer> {
+	public static final IntExtremeValueAggregator MINIMUM = new IntExtremeValueAggregator(false);
+	public static final IntExtremeValueAggregator MAXIMUM = new IntExtremeValueAggregator(true);
+
+	private final boolean maximum;
+
+	private IntExtremeValueAggregator(boolean maximum) {
+		this.maximum = maximum;
+	}
+
+	@Override
+	public Class<Integer> getResultType() {
+		return Integer.class;
+	}
+
+	@Override
+	public Class<Integer> getInputType() {
+		return Integer.class;
+	}
+
+	@Override
+	public StatefulAggregate<Integer, Integer> createEmptyAggregate() {
+		return new Aggregate(new LongHeapMultiset());
+	}
+
+	@Override
+	public Integer getEmptyResult() {
+		return maximum ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+	}
+
+	private long encode(int value) {
+		return maximum ? -(long) value : value;
+	}
+
+	private int decode(long key) {
+		return (int) (maximum ? -key : key);
+	}
+
+	private class Aggregate implements StatefulAggregate<Integer, Integer> {
+		private final LongHeapMultiset values;
+
+		private Aggregate(LongHeapMultiset values) {
+			this.values = values;
+		}
+
+		@Override
+		public void add(Integer value) {
+			values.add(encode(value));
+		}
+
+		@Override
+		public void remove(Integer value) {
+			values.remove(encode(value));
+		}
+
+		@Override
+		public Integer getResult() {
+			return values.isEmpty() ? getEmptyResult() : decode(values.getMinimum());
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return values.isEmpty();
+		}
+
+		@Override
+		public StatefulAggregate<Integer, Integer> deepCopy() {
+			return new Aggregate(values.copy());
+		}
+
+		@Override
+		public boolean contains(Integer value) {
+			return values.contains(encode(value));
+		}
+	}
+}
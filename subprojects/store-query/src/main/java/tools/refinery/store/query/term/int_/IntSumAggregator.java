@@ -1,13 +1,14 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.query.term.int_;
 
-import tools.refinery.store.query.term.StatelessAggregator;
+import tools.refinery.store.query.term.StatefulAggregate;
+import tools.refinery.store.query.term.StatefulAggregator;
 
-public final class IntSumAggregator implements StatelessAggregator<Integer, Integer> {
+public final class IntSumAggregator implements StatefulAggregator<Integer, Integer> {
 	public static final IntSumAggregator INSTANCE = new IntSumAggregator();
 
 	private IntSumAggregator() {
@@ -24,17 +25,62 @@ public final class IntSumAggregator implements StatelessAggregator<Integer, Inte
 	}
 
 	@Override
-	public Integer getEmptyResult() {
-		return 0;
+	public StatefulAggregate<Integer, Integer> createEmptyAggregate() {
+		return new Aggregate();
 	}
 
 	@Override
-	public Integer add(Integer current, Integer value) {
-		return current + value;
+	public Integer getEmptyResult() {
+		return 0;
 	}
 
-	@Override
-	public Integer remove(Integer current, Integer value) {
-		return current - value;
+	/**
+	 * Sum of {@code int} values updated in place.
+	 * <p>
+	 * Unlike a stateless aggregator, which has to box a new accumulator for every update, this aggregate only boxes
+	 * its result when it is queried. The number of values is also tracked, because a group whose values sum to
+	 * {@code 0} is not necessarily empty.
+	 */
+	private static class Aggregate implements StatefulAggregate<Integer, Integer> {
+		private int sum;
+		private int count;
+
+		public Aggregate() {
+		}
+
+		private Aggregate(Aggregate other) {
+			sum = other.sum;
+			count = other.count;
+		}
+
+		@Override
+		public void add(Integer value) {
+			sum += value;
+			count++;
+		}
+
+		@Override
+		public void remove(Integer value) {
+			if (count <= 0) {
+				throw new IllegalStateException("Invalid count %d for value %d".formatted(count, value));
+			}
+			sum -= value;
+			count--;
+		}
+
+		@Override
+		public Integer getResult() {
+			return sum;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return count == 0;
+		}
+
+		@Override
+		public StatefulAggregate<Integer, Integer> deepCopy() {
+			return new Aggregate(this);
+		}
 	}
 }
@@ -0,0 +1,98 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.term.real;
+
+import tools.refinery.store.query.term.LongHeapMultiset;
+import tools.refinery.store.query.term.StatefulAggregate;
+import tools.refinery.store.query.term.StatefulAggregator;
+
+/**
+ * Minimum or maximum of {@code double} values backed by a primitive {@link LongHeapMultiset}.
+ * <p>
+ * Values are encoded into {@code long} keys whose signed order agrees with {@link Double#compare(double, double)},
+ * i.e., {@code -0.0} is smaller than {@code 0.0} and {@code NaN} is larger than every other value. Maximums are
+ * computed as the minimum of the bitwise complements of the keys.
+ */
+public final class RealExtremeValueAggregator implements StatefulAggregator<Double, Double> {
+	public static final RealExtremeValueAggregator MINIMUM = new RealExtremeValueAggregator(false);
+	public static final RealExtremeValueAggregator MAXIMUM = new RealExtremeValueAggregator(true);
+
+	private final boolean maximum;
+
+	private RealExtremeValueAggregator(boolean maximum) {
+		this.maximum = maximum;
+	}
+
+	@Override
+	public Class<Double> getResultType() {
+		return Double.class;
+	}
+
+	@Override
+	public Class<Double> getInputType() {
+		return Double.class;
+	}
+
+	@Override
+	public StatefulAggregate<Double, Double> createEmptyAggregate() {
+		return new Aggregate(new LongHeapMultiset());
+	}
+
+	@Override
+	public Double getEmptyResult() {
+		return maximum ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+	}
+
+	private long encode(double value) {
+		long bits = Double.doubleToLongBits(value);
+		// Flip the magnitude bits of negative values so that their order is reversed.
+		long key = bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		return maximum ? ~key : key;
+	}
+
+	private double decode(long key) {
+		long bits = maximum ? ~key : key;
+		return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+	}
+
+	private class Aggregate implements StatefulAggregate<Double, Double> {
+		private final LongHeapMultiset values;
+
+		private Aggregate(LongHeapMultiset values) {
+			this.values = values;
+		}
+
+		@Override
+		public void add(Double value) {
+			values.add(encode(value));
+		}
+
+		@Override
+		public void remove(Double value) {
+			values.remove(encode(value));
+		}
+
+		@Override
+		public Double getResult() {
+			return values.isEmpty() ? getEmptyResult() : decode(values.getMinimum());
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return values.isEmpty();
+		}
+
+		@Override
+		public StatefulAggregate<Double, Double> deepCopy() {
+			return new Aggregate(values.copy());
+		}
+
+		@Override
+		public boolean contains(Double value) {
+			return values.contains(encode(value));
+		}
+	}
+}
@@ -1,15 +1,16 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.query.term.real;
 
+import org.eclipse.collections.api.factory.primitive.DoubleIntMaps;
+import org.eclipse.collections.api.map.primitive.MutableDoubleIntMap;
 import tools.refinery.store.query.term.StatefulAggregate;
 import tools.refinery.store.query.term.StatefulAggregator;
 
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.Arrays;
 
 public final class RealSumAggregator implements StatefulAggregator<Double, Double> {
 	public static final RealSumAggregator INSTANCE = new RealSumAggregator();
@@ -37,44 +38,217 @@ public final class RealSumAggregator implements StatefulAggregator<Double, Doubl
 		return 0d;
 	}
 
+	/**
+	 * Exact sum of {@code double} values.
+	 * <p>
+	 * Every finite {@code double} is an integer multiple of {@link Double#MIN_VALUE}, so finite values are added to a
+	 * two's complement fixed-point accumulator without any rounding. The result is rounded to the nearest
+	 * {@code double} only when it is queried. Hence, the result does not depend on the order of updates, and removing
+	 * a value exactly undoes adding it, while both operations take constant time.
+	 */
 	private static class Aggregate implements StatefulAggregate<Double, Double> {
-		private final Map<Double, Integer> values;
+		// 2^1024 * 2^31 (maximal value times maximal count) divided by 2^-1074 still fits into 35 * 64 bits with sign.
+		private static final int LIMB_COUNT = 35;
+		private static final int SIGNIFICAND_BITS = 52;
+		private static final long SIGNIFICAND_MASK = (1L << SIGNIFICAND_BITS) - 1;
+		private static final int MIN_EXPONENT = -1074;
+
+		private final MutableDoubleIntMap counts;
+		private final long[] limbs;
+		private final long[] magnitude = new long[LIMB_COUNT];
+		private int nanCount;
+		private int positiveInfinityCount;
+		private int negativeInfinityCount;
 
 		public Aggregate() {
-			values = new TreeMap<>();
+			counts = DoubleIntMaps.mutable.empty();
+			limbs = new long[LIMB_COUNT];
 		}
 
 		private Aggregate(Aggregate other) {
-			values = new TreeMap<>(other.values);
+			counts = DoubleIntMaps.mutable.ofAll(other.counts);
+			limbs = Arrays.copyOf(other.limbs, LIMB_COUNT);
+			nanCount = other.nanCount;
+			positiveInfinityCount = other.positiveInfinityCount;
+			negativeInfinityCount = other.negativeInfinityCount;
 		}
 
 		@Override
 		public void add(Double value) {
-			values.compute(value, (ignoredValue, currentCount) -> currentCount == null ? 1 : currentCount + 1);
+			double doubleValue = value;
+			counts.addToValue(doubleValue, 1);
+			update(doubleValue, 1);
 		}
 
 		@Override
 		public void remove(Double value) {
-			values.compute(value, (theValue, currentCount) -> {
-				if (currentCount == null || currentCount <= 0) {
-					throw new IllegalStateException("Invalid count %d for value %f".formatted(currentCount, theValue));
+			double doubleValue = value;
+			int currentCount = counts.getIfAbsent(doubleValue, 0);
+			if (currentCount <= 0) {
+				throw new IllegalStateException("Invalid count %d for value %f".formatted(currentCount, doubleValue));
+			}
+			if (currentCount == 1) {
+				counts.remove(doubleValue);
+			} else {
+				counts.put(doubleValue, currentCount - 1);
+			}
+			update(doubleValue, -1);
+		}
+
+		private void update(double value, int delta) {
+			if (Double.isNaN(value)) {
+				nanCount += delta;
+			} else if (value == Double.POSITIVE_INFINITY) {
+				positiveInfinityCount += delta;
+			} else if (value == Double.NEGATIVE_INFINITY) {
+				negativeInfinityCount += delta;
+			} else {
+				long bits = Double.doubleToRawLongBits(value);
+				int biasedExponent = (int) ((bits >>> SIGNIFICAND_BITS) & 0x7ff);
+				long significand = bits & SIGNIFICAND_MASK;
+				int shift;
+				if (biasedExponent == 0) {
+					// Subnormal values are multiples of 2^-1074 without an implicit leading bit.
+					shift = 0;
+				} else {
+					significand |= 1L << SIGNIFICAND_BITS;
+					shift = biasedExponent - 1;
+				}
+				if (significand == 0) {
+					return;
+				}
+				int index = shift >>> 6;
+				int offset = shift & 63;
+				long low = significand << offset;
+				long high = offset == 0 ? 0 : significand >>> (64 - offset);
+				boolean negative = (bits < 0) == (delta > 0);
+				if (negative) {
+					subtractFromLimbs(index, low, high);
+				} else {
+					addToLimbs(index, low, high);
 				}
-				return currentCount.equals(1) ? null : currentCount - 1;
-			});
+			}
+		}
+
+		private void addToLimbs(int index, long low, long high) {
+			long oldValue = limbs[index];
+			limbs[index] = oldValue + low;
+			long carry = Long.compareUnsigned(limbs[index], oldValue) < 0 ? 1 : 0;
+			index++;
+			// The high word is smaller than 2^53, so adding the carry to it cannot overflow.
+			long addend = high + carry;
+			oldValue = limbs[index];
+			limbs[index] = oldValue + addend;
+			carry = Long.compareUnsigned(limbs[index], oldValue) < 0 ? 1 : 0;
+			index++;
+			while (carry != 0 && index < LIMB_COUNT) {
+				limbs[index]++;
+				carry = limbs[index] == 0 ? 1 : 0;
+				index++;
+			}
+		}
+
+		private void subtractFromLimbs(int index, long low, long high) {
+			long oldValue = limbs[index];
+			limbs[index] = oldValue - low;
+			long borrow = Long.compareUnsigned(oldValue, low) < 0 ? 1 : 0;
+			index++;
+			long subtrahend = high + borrow;
+			oldValue = limbs[index];
+			limbs[index] = oldValue - subtrahend;
+			borrow = Long.compareUnsigned(oldValue, subtrahend) < 0 ? 1 : 0;
+			index++;
+			while (borrow != 0 && index < LIMB_COUNT) {
+				oldValue = limbs[index];
+				limbs[index] = oldValue - 1;
+				borrow = oldValue == 0 ? 1 : 0;
+				index++;
+			}
 		}
 
 		@Override
 		public Double getResult() {
-			return values.entrySet()
-					.stream()
-					.mapToDouble(entry -> entry.getKey() * entry.getValue())
-					.reduce(Double::sum)
-					.orElse(0d);
+			if (nanCount > 0 || (positiveInfinityCount > 0 && negativeInfinityCount > 0)) {
+				return Double.NaN;
+			}
+			if (positiveInfinityCount > 0) {
+				return Double.POSITIVE_INFINITY;
+			}
+			if (negativeInfinityCount > 0) {
+				return Double.NEGATIVE_INFINITY;
+			}
+			boolean negative = limbs[LIMB_COUNT - 1] < 0;
+			if (negative) {
+				negateInto(magnitude);
+			} else {
+				System.arraycopy(limbs, 0, magnitude, 0, LIMB_COUNT);
+			}
+			double result = roundMagnitude();
+			return negative ? -result : result;
+		}
+
+		private void negateInto(long[] target) {
+			long carry = 1;
+			for (int i = 0; i < LIMB_COUNT; i++) {
+				long inverted = ~limbs[i];
+				target[i] = inverted + carry;
+				carry = carry != 0 && target[i] == 0 ? 1 : 0;
+			}
+		}
+
+		private double roundMagnitude() {
+			int topIndex = LIMB_COUNT - 1;
+			while (topIndex >= 0 && magnitude[topIndex] == 0) {
+				topIndex--;
+			}
+			if (topIndex < 0) {
+				return 0d;
+			}
+			int topBit = 64 * topIndex + 63 - Long.numberOfLeadingZeros(magnitude[topIndex]);
+			if (topBit <= SIGNIFICAND_BITS) {
+				// The sum has at most 53 significant bits, so it can be represented exactly.
+				return Math.scalb((double) magnitude[0], MIN_EXPONENT);
+			}
+			int lowestBit = topBit - SIGNIFICAND_BITS;
+			long significand = extractBits(lowestBit) & ((1L << (SIGNIFICAND_BITS + 1)) - 1);
+			int roundBit = lowestBit - 1;
+			if (isBitSet(roundBit) && (isAnyBitSetBelow(roundBit) || (significand & 1) != 0)) {
+				// Round half to even. The significand may become 2^53, which is still exactly representable.
+				significand++;
+			}
+			return Math.scalb((double) significand, lowestBit + MIN_EXPONENT);
+		}
+
+		private long extractBits(int lowestBit) {
+			int index = lowestBit >>> 6;
+			int offset = lowestBit & 63;
+			long bits = magnitude[index] >>> offset;
+			if (offset != 0 && index + 1 < LIMB_COUNT) {
+				bits |= magnitude[index + 1] << (64 - offset);
+			}
+			return bits;
+		}
+
+		private boolean isBitSet(int bit) {
+			return ((magnitude[bit >>> 6] >>> (bit & 63)) & 1) != 0;
+		}
+
+		private boolean isAnyBitSetBelow(int bit) {
+			int index = bit >>> 6;
+			if ((magnitude[index] & ((1L << (bit & 63)) - 1)) != 0) {
+				return true;
+			}
+			for (int i = 0; i < index; i++) {
+				if (magnitude[i] != 0) {
+					return true;
+				}
+			}
+			return false;
 		}
 
 		@Override
 		public boolean isEmpty() {
-			return values.isEmpty();
+			return counts.isEmpty();
 		}
 
 		@Override
@@ -84,7 +258,7 @@ public final class RealSumAggregator implements StatefulAggregator<Double, Doubl
 
 		@Override
 		public boolean contains(Double value) {
-			return values.containsKey(value);
+			return counts.containsKey(value);
 		}
 	}
 }
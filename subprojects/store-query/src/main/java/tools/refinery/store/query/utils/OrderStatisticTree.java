@@ -1,6 +1,6 @@
 /*
  * Copyright (c) 2021 Rodion Efremov
- * Copyright (c) 2023 The Refinery Authors <https://refinery.tools/>
+ * Copyright (c) 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: MIT
  */
@@ -377,6 +377,29 @@ public class OrderStatisticTree<T extends Comparable<? super T>> implements Set<
 		}
 	}
 
+	/**
+	 * Returns the number of elements strictly less than the given element, i.e., the index of the smallest element
+	 * greater than or equal to it if there is any.
+	 *
+	 * @param element the element to look up, which may not be contained in the tree.
+	 * @return the index of the ceiling of the element.
+	 */
+	public int ceilingIndex(T element) {
+		Node<T> node = root;
+		int index = 0;
+
+		while (node != null) {
+			if (element.compareTo(node.key) <= 0) {
+				node = node.left;
+			} else {
+				index += node.count + 1;
+				node = node.right;
+			}
+		}
+
+		return index;
+	}
+
 	@Override
 	public int size() {
 		return size;
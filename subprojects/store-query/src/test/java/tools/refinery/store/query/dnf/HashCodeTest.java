@@ -1,11 +1,12 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.query.dnf;
 
 import org.junit.jupiter.api.Test;
+import tools.refinery.store.query.equality.DeepDnfEqualityChecker;
 import tools.refinery.store.query.term.NodeVariable;
 import tools.refinery.store.query.term.Variable;
 import tools.refinery.store.query.view.AnySymbolView;
@@ -64,4 +65,64 @@ class HashCodeTest {
 
 		assertThat(actual.hashCodeWithSubstitution(), not(expected.hashCodeWithSubstitution()));
 	}
+
+	@Test
+	void deepCheckerEqualsTest() {
+		var expected = Dnf.builder("Expected").parameters(q).clause(
+				Dnf.builder("Expected2").parameters(p).clause(personView.call(p)).build().call(q)
+		).build();
+		var actual = Dnf.builder("Actual").parameters(q).clause(
+				Dnf.builder("Actual2").parameters(p).clause(personView.call(p)).build().call(q)
+		).build();
+
+		var checker = new DeepDnfEqualityChecker();
+		assertThat(actual.hashCodeWithSubstitution(checker), is(expected.hashCodeWithSubstitution(checker)));
+	}
+
+	@Test
+	void deepCheckerNotEqualsTest() {
+		var expected = Dnf.builder("Expected").parameters(q).clause(
+				Dnf.builder("Expected2").parameters(p).clause(personView.call(p)).build().call(q)
+		).build();
+		var actual = Dnf.builder("Actual").parameters(q).clause(
+				Dnf.builder("Actual2").parameters(p).clause(friendView.call(p, p)).build().call(q)
+		).build();
+
+		var checker = new DeepDnfEqualityChecker();
+		assertThat(actual.hashCodeWithSubstitution(checker), not(expected.hashCodeWithSubstitution(checker)));
+	}
+
+	@Test
+	void fingerprintEqualsTest() {
+		var expected = Dnf.builder("Expected").parameters(q).clause(
+				Dnf.builder("Expected2").parameters(p).clause(personView.call(p)).build().call(q)
+		).build();
+		var actual = Dnf.builder("Actual").parameters(p).clause(
+				Dnf.builder("Actual2").parameters(q).clause(personView.call(q)).build().call(p)
+		).build();
+
+		assertThat(actual.getFingerprint(), is(expected.getFingerprint()));
+	}
+
+	@Test
+	void fingerprintNotEqualsTest() {
+		var expected = Dnf.builder("Expected").parameters(q).clause(
+				Dnf.builder("Expected2").parameters(p).clause(friendView.call(p, q)).build().call(q)
+		).build();
+		var actual = Dnf.builder("Actual").parameters(q).clause(
+				Dnf.builder("Actual2").parameters(p).clause(friendView.call(q, p)).build().call(q)
+		).build();
+
+		assertThat(actual.getFingerprint(), not(expected.getFingerprint()));
+	}
+
+	@Test
+	void fingerprintClauseOrderTest() {
+		var expected = Dnf.builder("Expected").parameters(p).clause(personView.call(p)).clause(friendView.call(p, p))
+				.build();
+		var actual = Dnf.builder("Actual").parameters(p).clause(friendView.call(p, p)).clause(personView.call(p))
+				.build();
+
+		assertThat(actual.getFingerprint(), not(expected.getFingerprint()));
+	}
 }
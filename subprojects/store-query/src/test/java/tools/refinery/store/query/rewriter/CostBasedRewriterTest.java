@@ -0,0 +1,159 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.term.ParameterDirection;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.store.query.literal.Literals.not;
+import static tools.refinery.store.query.tests.QueryMatchers.structurallyEqualTo;
+
+class CostBasedRewriterTest {
+	private final static Symbol<Boolean> person = Symbol.of("Person", 1);
+	private final static Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private final static Symbol<Boolean> enemy = Symbol.of("enemy", 2);
+	private final static AnySymbolView personView = new KeyOnlyView<>(person);
+	private final static AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private final static AnySymbolView enemyView = new KeyOnlyView<>(enemy);
+
+	@Test
+	void reorderLiteralsTest() {
+		var sut = new CostBasedRewriter();
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2),
+				personView.call(p2),
+				not(enemyView.call(p1, Variable.of())),
+				personView.call(p1)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p2),
+				friendView.call(p1, p2),
+				not(enemyView.call(p1, Variable.of())),
+				personView.call(p1)
+		));
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void pushFilterEarlyTest() {
+		var sut = new CostBasedRewriter();
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				friendView.call(p1, p2),
+				personView.call(p2),
+				not(enemyView.call(p1, Variable.of()))
+		));
+
+		var actual = sut.rewrite(query);
+
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				not(enemyView.call(p1, Variable.of())),
+				friendView.call(p1, p2),
+				personView.call(p2)
+		));
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void cardinalityEstimatorTest() {
+		var sut = new CostBasedRewriter(constraint -> constraint.equals(friendView) ? 10 : 1000);
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				friendView.call(p1, p2)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				friendView.call(p1, p2),
+				personView.call(p1)
+		));
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void reorderClausesTest() {
+		var sut = new CostBasedRewriter();
+		var query = Query.of("Actual", (builder, p1, p2) -> builder
+				.clause(
+						personView.call(p1),
+						personView.call(p2)
+				)
+				.clause(
+						friendView.call(p1, p2)
+				));
+
+		var actual = sut.rewrite(query);
+
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder
+				.clause(
+						friendView.call(p1, p2)
+				)
+				.clause(
+						personView.call(p1),
+						personView.call(p2)
+				));
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void factorCommonLiteralsTest() {
+		var sut = new CostBasedRewriter();
+		var query = Query.of("Actual", (builder, p1, p2) -> builder
+				.clause(
+						personView.call(p1),
+						friendView.call(p1, p2)
+				)
+				.clause(
+						personView.call(p1),
+						enemyView.call(p1, p2)
+				));
+
+		var actual = sut.rewrite(query);
+
+		var helper = Dnf.of("Helper", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+			builder.clause(enemyView.call(x, y));
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				helper.call(p1, p2)
+		));
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void doNotFactorUnboundParameterTest() {
+		var sut = new CostBasedRewriter();
+		var query = Query.of("Actual", (builder, p1, p2) -> builder
+				.clause(
+						personView.call(p1),
+						friendView.call(p1, p2)
+				)
+				.clause(
+						personView.call(p1),
+						personView.call(p2)
+				));
+
+		var actual = sut.rewrite(query);
+
+		assertThat(actual, is(query));
+	}
+}
@@ -0,0 +1,455 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.rewriter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.query.dnf.Dnf;
+import tools.refinery.store.query.dnf.Query;
+import tools.refinery.store.query.term.ParameterDirection;
+import tools.refinery.store.query.term.Variable;
+import tools.refinery.store.query.view.AnySymbolView;
+import tools.refinery.store.query.view.FunctionView;
+import tools.refinery.store.query.view.KeyOnlyView;
+import tools.refinery.store.representation.Symbol;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static tools.refinery.store.query.literal.Literals.check;
+import static tools.refinery.store.query.literal.Literals.not;
+import static tools.refinery.store.query.term.int_.IntTerms.constant;
+import static tools.refinery.store.query.term.int_.IntTerms.greaterEq;
+import static tools.refinery.store.query.tests.QueryMatchers.structurallyEqualTo;
+
+class MagicSetRewriterTest {
+	private final static Symbol<Boolean> person = Symbol.of("Person", 1);
+	private final static Symbol<Boolean> friend = Symbol.of("friend", 2);
+	private final static AnySymbolView personView = new KeyOnlyView<>(person);
+	private final static Symbol<Integer> age = Symbol.of("age", 1, Integer.class);
+	private final static AnySymbolView friendView = new KeyOnlyView<>(friend);
+	private final static FunctionView<Integer> ageView = new FunctionView<>(age);
+
+	private MagicSetRewriter sut;
+
+	@BeforeEach
+	void beforeEach() {
+		sut = new MagicSetRewriter();
+	}
+
+	@Test
+	void unboundCallTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				dnf.call(p1, p2),
+				personView.call(p1)
+		));
+
+		var actual = sut.rewrite(query);
+
+		assertThat(actual, is(query));
+	}
+
+	@Test
+	void boundPositiveCallTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+			builder.clause(friendView.call(y, x));
+		});
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				dnf.call(p1, p2)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+			builder.clause(
+					magic.call(x),
+					friendView.call(y, x)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				expectedSubQuery.call(p1, p2)
+		));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void boundNegativeCallTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var query = Query.of("Actual", (builder, p1) -> builder.clause(
+				personView.call(p1),
+				not(dnf.call(p1, Variable.of()))
+		));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1) -> builder.clause(
+				personView.call(p1),
+				not(expectedSubQuery.call(p1, Variable.of()))
+		));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void negationBoundLaterTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		// The variable p2 is bound by the call itself, so the negation can't be part of the magic query.
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				not(friendView.call(p2, p1)),
+				dnf.call(p1, p2)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				not(friendView.call(p2, p1)),
+				expectedSubQuery.call(p1, p2)
+		));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void negationBoundEarlierTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				not(friendView.call(p1, p1)),
+				dnf.call(p1, p2)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(
+					personView.call(x),
+					not(friendView.call(x, x))
+			);
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				not(friendView.call(p1, p1)),
+				expectedSubQuery.call(p1, p2)
+		));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void checkBoundLaterTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+				personView.call(p1),
+				check(greaterEq(v1, constant(18))),
+				dnf.call(p1, p2),
+				ageView.call(p2, v1)
+		)));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+				personView.call(p1),
+				check(greaterEq(v1, constant(18))),
+				expectedSubQuery.call(p1, p2),
+				ageView.call(p2, v1)
+		)));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void checkBoundEarlierTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		// The check precedes the literal binding its variable, but both of them precede the call.
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+				personView.call(p1),
+				check(greaterEq(v1, constant(18))),
+				ageView.call(p1, v1),
+				dnf.call(p1, p2)
+		)));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(Integer.class, (v1) -> List.of(
+					personView.call(x),
+					check(greaterEq(v1, constant(18))),
+					ageView.call(x, v1)
+			));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(Integer.class, (v1) -> List.of(
+				personView.call(p1),
+				check(greaterEq(v1, constant(18))),
+				ageView.call(p1, v1),
+				expectedSubQuery.call(p1, p2)
+		)));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+
+	@Test
+	void negationOfInputParameterTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		// The input parameter p1 is not bound in the magic query, where it would become quantified inside the
+		// negation instead.
+		var query = Dnf.of("Actual", builder -> {
+			var p1 = builder.parameter("p1", ParameterDirection.IN);
+			var p2 = builder.parameter("p2", ParameterDirection.OUT);
+			builder.clause(p3 -> List.of(
+					personView.call(p2),
+					not(friendView.call(p1, p2)),
+					dnf.call(p2, p3)
+			));
+		});
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Dnf.of("Expected", builder -> {
+			var p1 = builder.parameter("p1", ParameterDirection.IN);
+			var p2 = builder.parameter("p2", ParameterDirection.OUT);
+			builder.clause(p3 -> List.of(
+					personView.call(p2),
+					not(friendView.call(p1, p2)),
+					expectedSubQuery.call(p2, p3)
+			));
+		});
+
+		assertThat(actual, structurallyEqualTo(expected));
+	}
+
+	@Test
+	void checkOfInputParameterTest() {
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var query = Dnf.of("Actual", builder -> {
+			var v1 = builder.parameter("v1", Integer.class, ParameterDirection.IN);
+			var p1 = builder.parameter("p1", ParameterDirection.OUT);
+			builder.clause(Integer.class, (p2, v2) -> List.of(
+					personView.call(p1),
+					ageView.call(p1, v2),
+					check(greaterEq(v2, v1)),
+					dnf.call(p1, p2)
+			));
+		});
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(Integer.class, (v2) -> List.of(
+					personView.call(x),
+					ageView.call(x, v2)
+			));
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					magic.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expected = Dnf.of("Expected", builder -> {
+			var v1 = builder.parameter("v1", Integer.class, ParameterDirection.IN);
+			var p1 = builder.parameter("p1", ParameterDirection.OUT);
+			builder.clause(Integer.class, (p2, v2) -> List.of(
+					personView.call(p1),
+					ageView.call(p1, v2),
+					check(greaterEq(v2, v1)),
+					expectedSubQuery.call(p1, p2)
+			));
+		});
+
+		assertThat(actual, structurallyEqualTo(expected));
+	}
+
+	@Test
+	void transitiveDemandTest() {
+		var innerDnf = Dnf.of("InnerQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(friendView.call(x, y));
+		});
+		var dnf = Dnf.of("SubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(z -> List.of(
+					innerDnf.call(x, z),
+					innerDnf.call(z, y)
+			));
+		});
+		var query = Query.of("Actual", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				dnf.call(p1, p2)
+		));
+
+		var actual = sut.rewrite(query);
+
+		var magic = Dnf.of("Magic", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(personView.call(x));
+		});
+		var innerMagic1 = Dnf.of("InnerMagic1", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			builder.clause(magic.call(x));
+		});
+		var expectedInner1 = Dnf.of("ExpectedInner1", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					innerMagic1.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var innerMagic2 = Dnf.of("InnerMagic2", builder -> {
+			var z = builder.parameter("z", ParameterDirection.OUT);
+			builder.clause(x -> List.of(
+					magic.call(x),
+					expectedInner1.call(x, z)
+			));
+		});
+		var expectedInner2 = Dnf.of("ExpectedInner2", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(
+					innerMagic2.call(x),
+					friendView.call(x, y)
+			);
+		});
+		var expectedSubQuery = Dnf.of("ExpectedSubQuery", builder -> {
+			var x = builder.parameter("x", ParameterDirection.OUT);
+			var y = builder.parameter("y", ParameterDirection.OUT);
+			builder.clause(z -> List.of(
+					magic.call(x),
+					expectedInner1.call(x, z),
+					expectedInner2.call(z, y)
+			));
+		});
+		var expected = Query.of("Expected", (builder, p1, p2) -> builder.clause(
+				personView.call(p1),
+				expectedSubQuery.call(p1, p2)
+		));
+
+		assertThat(actual.getDnf(), structurallyEqualTo(expected.getDnf()));
+	}
+}
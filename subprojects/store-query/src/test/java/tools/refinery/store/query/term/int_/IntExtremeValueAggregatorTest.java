@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.term.int_;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class IntExtremeValueAggregatorTest {
+	@Test
+	void emptyMinimumTest() {
+		var accumulator = IntExtremeValueAggregator.MINIMUM.createEmptyAggregate();
+		assertThat(accumulator.getResult(), is(Integer.MAX_VALUE));
+	}
+
+	@Test
+	void emptyMaximumTest() {
+		var accumulator = IntExtremeValueAggregator.MAXIMUM.createEmptyAggregate();
+		assertThat(accumulator.getResult(), is(Integer.MIN_VALUE));
+	}
+
+	@Test
+	void minimumTest() {
+		var accumulator = IntExtremeValueAggregator.MINIMUM.createEmptyAggregate();
+		accumulator.add(3);
+		accumulator.add(-2);
+		accumulator.add(5);
+		assertThat(accumulator.getResult(), is(-2));
+	}
+
+	@Test
+	void maximumTest() {
+		var accumulator = IntExtremeValueAggregator.MAXIMUM.createEmptyAggregate();
+		accumulator.add(3);
+		accumulator.add(Integer.MIN_VALUE);
+		accumulator.add(5);
+		assertThat(accumulator.getResult(), is(5));
+	}
+
+	@Test
+	void removeDuplicateTest() {
+		var accumulator = IntExtremeValueAggregator.MINIMUM.createEmptyAggregate();
+		accumulator.add(1);
+		accumulator.add(1);
+		accumulator.add(4);
+		accumulator.remove(1);
+		assertThat(accumulator.getResult(), is(1));
+		accumulator.remove(1);
+		assertThat(accumulator.getResult(), is(4));
+	}
+
+	@Test
+	void removeUntilEmptyTest() {
+		var accumulator = IntExtremeValueAggregator.MAXIMUM.createEmptyAggregate();
+		accumulator.add(Integer.MIN_VALUE);
+		accumulator.add(Integer.MAX_VALUE);
+		accumulator.remove(Integer.MAX_VALUE);
+		assertThat(accumulator.getResult(), is(Integer.MIN_VALUE));
+		assertThat(accumulator.isEmpty(), is(false));
+		accumulator.remove(Integer.MIN_VALUE);
+		assertThat(accumulator.isEmpty(), is(true));
+	}
+
+	@Test
+	void deepCopyTest() {
+		var accumulator = IntExtremeValueAggregator.MINIMUM.createEmptyAggregate();
+		accumulator.add(2);
+		var copy = accumulator.deepCopy();
+		copy.add(1);
+		assertThat(accumulator.getResult(), is(2));
+		assertThat(copy.getResult(), is(1));
+	}
+}
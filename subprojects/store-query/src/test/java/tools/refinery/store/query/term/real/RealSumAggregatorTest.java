@@ -0,0 +1,91 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.query.term.real;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.refinery.store.query.term.StatefulAggregate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class RealSumAggregatorTest {
+	private StatefulAggregate<Double, Double> accumulator;
+
+	@BeforeEach
+	void beforeEach() {
+		accumulator = RealSumAggregator.INSTANCE.createEmptyAggregate();
+	}
+
+	@Test
+	void emptyAggregationTest() {
+		assertThat(accumulator.getResult(), is(0.0));
+	}
+
+	@Test
+	void multipleValuesTest() {
+		accumulator.add(1.5);
+		accumulator.add(-0.25);
+		accumulator.add(1.5);
+		assertThat(accumulator.getResult(), is(2.75));
+	}
+
+	@Test
+	void exactSumTest() {
+		accumulator.add(1e100);
+		accumulator.add(1.0);
+		accumulator.add(-1e100);
+		assertThat(accumulator.getResult(), is(1.0));
+	}
+
+	@Test
+	void removeRestoresResultTest() {
+		accumulator.add(0.1);
+		accumulator.add(0.2);
+		accumulator.add(1e-300);
+		accumulator.remove(0.2);
+		accumulator.remove(1e-300);
+		assertThat(accumulator.getResult(), is(0.1));
+	}
+
+	@Test
+	void overflowTest() {
+		accumulator.add(Double.MAX_VALUE);
+		accumulator.add(Double.MAX_VALUE);
+		assertThat(accumulator.getResult(), is(Double.POSITIVE_INFINITY));
+		accumulator.add(-Double.MAX_VALUE);
+		assertThat(accumulator.getResult(), is(Double.MAX_VALUE));
+	}
+
+	@Test
+	void subnormalTest() {
+		accumulator.add(Double.MIN_VALUE);
+		accumulator.add(Double.MIN_VALUE);
+		assertThat(accumulator.getResult(), is(2 * Double.MIN_VALUE));
+	}
+
+	@Test
+	void infinityTest() {
+		accumulator.add(Double.POSITIVE_INFINITY);
+		accumulator.add(1.0);
+		assertThat(accumulator.getResult(), is(Double.POSITIVE_INFINITY));
+		accumulator.add(Double.NEGATIVE_INFINITY);
+		assertThat(accumulator.getResult(), is(Double.NaN));
+		accumulator.remove(Double.POSITIVE_INFINITY);
+		assertThat(accumulator.getResult(), is(Double.NEGATIVE_INFINITY));
+	}
+
+	@Test
+	void containsTest() {
+		accumulator.add(2.0);
+		accumulator.add(2.0);
+		accumulator.remove(2.0);
+		assertThat(accumulator.contains(2.0), is(true));
+		accumulator.remove(2.0);
+		assertThat(accumulator.contains(2.0), is(false));
+		assertThat(accumulator.isEmpty(), is(true));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2021-2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2021-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -40,6 +40,12 @@ class MismatchDescribingDnfEqualityChecker extends DeepDnfEqualityChecker {
 		}
 	}
 
+	@Override
+	protected boolean mayBeEqual(Dnf left, Dnf right) {
+		// Always compare the queries to find the innermost mismatch.
+		return true;
+	}
+
 	@Override
 	protected boolean doCheckEqual(Pair pair) {
 		boolean result = super.doCheckEqual(pair);
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -10,7 +10,7 @@ import tools.refinery.store.statecoding.internal.StateCoderBuilderImpl;
 
 public interface StateCoderAdapter extends ModelAdapter {
 	StateCoderResult calculateStateCode();
-	default int calculateModelCode() {
+	default long calculateModelCode() {
 		return calculateStateCode().modelCode();
 	}
 	default ObjectCode calculateObjectCode() {
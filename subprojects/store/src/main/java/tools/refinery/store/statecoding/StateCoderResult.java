@@ -1,9 +1,9 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.statecoding;
 
-public record StateCoderResult(int modelCode, ObjectCode objectCode) {
+public record StateCoderResult(long modelCode, ObjectCode objectCode) {
 }
@@ -0,0 +1,287 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding.neighbourhood;
+
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.eclipse.collections.api.set.primitive.IntSet;
+import org.eclipse.collections.api.set.primitive.MutableIntSet;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.Model;
+import tools.refinery.store.model.ModelListener;
+import tools.refinery.store.statecoding.ObjectCode;
+import tools.refinery.store.statecoding.StateCodeCalculator;
+import tools.refinery.store.statecoding.StateCoderResult;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calculates the same codes as {@link NeighbourhoodCalculator}, but only recomputes the codes of objects whose
+ * neighbourhood has changed since the last calculation.
+ * <p>
+ * The codes of every round are kept between calculations. Changed tuples are tracked with interpretation listeners,
+ * and only the objects in the changed tuples and the neighbours of objects with changed codes in the previous round
+ * are recomputed in each round. The results calculated for committed versions are cached, so restoring a recently
+ * committed version does not require any recomputation.
+ */
+public class IncrementalNeighbourhoodCalculator extends AbstractNeighbourhoodCalculator
+		implements StateCodeCalculator, ModelListener {
+	// The same number of rounds as the maximum in {@link NeighbourhoodCalculator}.
+	private static final int MAX_ROUNDS = 8;
+	private static final int VERSION_CACHE_SIZE = 1024;
+	// Recalculate a round from scratch if more than 1/{@code FULL_RECALCULATION_RATIO} of the objects are affected.
+	private static final int FULL_RECALCULATION_RATIO = 8;
+
+	private final Layer[] layers = new Layer[MAX_ROUNDS + 1];
+	private final MutableIntSet dirtyObjects = IntSets.mutable.empty();
+	private final Map<Version, StateCoderResult> versionCache = new LinkedHashMap<>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Version, StateCoderResult> eldest) {
+			return size() > VERSION_CACHE_SIZE;
+		}
+	};
+	private boolean initialized;
+	private StateCoderResult lastResult;
+
+	public IncrementalNeighbourhoodCalculator(Model model, List<? extends Interpretation<?>> interpretations,
+											  IntSet individuals) {
+		super(model, interpretations, individuals);
+		for (int i = 0; i < layers.length; i++) {
+			layers[i] = new Layer();
+		}
+		for (var entry : individualHashValues.keyValuesView()) {
+			layers[0].set(entry.getOne(), entry.getTwo());
+		}
+		for (var interpretation : interpretations) {
+			addListener(interpretation);
+		}
+		model.addListener(this);
+	}
+
+	private <T> void addListener(Interpretation<T> interpretation) {
+		interpretation.addListener(this::tupleChanged, true);
+	}
+
+	private <T> void tupleChanged(Tuple key, T fromValue, T toValue, boolean restoring) {
+		lastResult = null;
+		for (int i = 0; i < key.getSize(); i++) {
+			dirtyObjects.add(key.get(i));
+		}
+	}
+
+	@Override
+	public void afterCommit() {
+		if (lastResult != null) {
+			versionCache.put(model.getState(), lastResult);
+		}
+	}
+
+	@Override
+	public void afterRestore() {
+		// If the restored version is not cached, the tuples changed by the restore are already marked as dirty.
+		lastResult = versionCache.get(model.getState());
+	}
+
+	@Override
+	public StateCoderResult calculateCodes() {
+		model.checkCancelled();
+		if (lastResult != null) {
+			return lastResult;
+		}
+		if (initialized) {
+			updateLayers();
+		} else {
+			initializeLayers();
+			initialized = true;
+		}
+		// The rounds in {@link NeighbourhoodCalculator} stop when their number exceeds the number of objects with
+		// non-zero codes, which is the same in every round after the first one.
+		int rounds = Math.min(layers[1].getEffectiveSize() + 1, MAX_ROUNDS);
+		var lastLayer = layers[rounds];
+		long result = calculateModelCode(lastLayer.getSum() * PRIME);
+		lastResult = new StateCoderResult(result, lastLayer.toObjectCode());
+		return lastResult;
+	}
+
+	private void initializeLayers() {
+		dirtyObjects.clear();
+		for (int round = 1; round <= MAX_ROUNDS; round++) {
+			calculateLayer(round);
+		}
+	}
+
+	private void calculateLayer(int round) {
+		model.checkCancelled();
+		var previous = layers[round - 1];
+		var next = new ObjectCodeImpl();
+		for (var impactValueEntry : impactValues.entrySet()) {
+			var interpretation = (Interpretation<?>) impactValueEntry.getKey();
+			long[] impactValue = impactValueEntry.getValue();
+			var cursor = interpretation.getAll();
+			while (cursor.move()) {
+				var tuple = cursor.getKey();
+				long tupleHash = getTupleHash(tuple, cursor.getValue(), previous);
+				for (int i = 0; i < tuple.getSize(); i++) {
+					addHash(next, tuple.get(i), impactValue[i], tupleHash);
+				}
+			}
+		}
+		var layer = layers[round];
+		// Also reset the codes of objects that no longer appear in any tuple.
+		int size = Math.max(layer.getSize(), next.getSize());
+		for (int o = 0; o < size; o++) {
+			layer.set(o, next.get(o));
+		}
+	}
+
+	private void updateLayers() {
+		MutableIntSet changedObjects = IntSets.mutable.empty();
+		for (int round = 1; round <= MAX_ROUNDS; round++) {
+			model.checkCancelled();
+			// Objects in changed tuples and objects adjacent to objects with changed codes in the previous round.
+			MutableIntSet affectedObjects = IntSets.mutable.withAll(dirtyObjects);
+			changedObjects.forEach(object -> addNeighbours(object, affectedObjects));
+			if (affectedObjects.isEmpty()) {
+				break;
+			}
+			if (affectedObjects.size() * FULL_RECALCULATION_RATIO > layers[round].getEffectiveSize()) {
+				// Changes have spread to a large part of the model, so a linear scan of the interpretations is cheaper
+				// than looking up the neighbourhood of each affected object.
+				for (int remainingRound = round; remainingRound <= MAX_ROUNDS; remainingRound++) {
+					calculateLayer(remainingRound);
+				}
+				break;
+			}
+			var previous = layers[round - 1];
+			var layer = layers[round];
+			MutableIntSet nextChangedObjects = IntSets.mutable.empty();
+			affectedObjects.forEach(object -> {
+				long code = calculateObjectCode(object, previous);
+				if (layer.get(object) != code) {
+					layer.set(object, code);
+					nextChangedObjects.add(object);
+				}
+			});
+			changedObjects = nextChangedObjects;
+		}
+		dirtyObjects.clear();
+	}
+
+	private void addNeighbours(int object, MutableIntSet neighbours) {
+		neighbours.add(object);
+		for (var impactValueEntry : impactValues.entrySet()) {
+			var interpretation = (Interpretation<?>) impactValueEntry.getKey();
+			int arity = interpretation.getSymbol().arity();
+			if (arity < 2) {
+				continue;
+			}
+			for (int slot = 0; slot < arity; slot++) {
+				var cursor = interpretation.getAdjacent(slot, object);
+				while (cursor.move()) {
+					var tuple = cursor.getKey();
+					for (int i = 0; i < arity; i++) {
+						neighbours.add(tuple.get(i));
+					}
+				}
+			}
+		}
+	}
+
+	private long calculateObjectCode(int object, ObjectCode previous) {
+		long code = 0;
+		for (var impactValueEntry : impactValues.entrySet()) {
+			var interpretation = (Interpretation<?>) impactValueEntry.getKey();
+			int arity = interpretation.getSymbol().arity();
+			long[] impactValue = impactValueEntry.getValue();
+			for (int slot = 0; slot < arity; slot++) {
+				var cursor = interpretation.getAdjacent(slot, object);
+				while (cursor.move()) {
+					long tupleHash = getTupleHash(cursor.getKey(), cursor.getValue(), previous);
+					code += tupleHash * impactValue[slot];
+					// Mirror {@link ObjectCodeImpl#set(int, long)}, which never stores a code of {@code 0} for objects
+					// appearing in tuples.
+					if (code == 0) {
+						code = 1;
+					}
+				}
+			}
+		}
+		return code;
+	}
+
+	private long getTupleHash(Tuple tuple, Object value, ObjectCode previous) {
+		return switch (tuple.getSize()) {
+			case 1 -> getTupleHash1(tuple, value, previous);
+			case 2 -> getTupleHash2(tuple, value, previous);
+			default -> getTupleHashN(tuple, value, previous);
+		};
+	}
+
+	/**
+	 * Object codes of a single round, which, unlike {@link ObjectCodeImpl}, may be reset to {@code 0} and keep track
+	 * of the sum of the codes.
+	 */
+	private static class Layer implements ObjectCode {
+		private long[] codes = new long[10];
+		private int size;
+		private int effectiveSize;
+		private long sum;
+
+		@Override
+		public long get(int object) {
+			return object < codes.length ? codes[object] : 0;
+		}
+
+		public void set(int object, long code) {
+			if (object >= codes.length) {
+				int newLength = codes.length * 2;
+				while (object >= newLength) {
+					newLength *= 2;
+				}
+				codes = Arrays.copyOf(codes, newLength);
+			}
+			if (object >= size) {
+				size = object + 1;
+			}
+			long oldCode = codes[object];
+			if (oldCode == 0 && code != 0) {
+				effectiveSize++;
+			} else if (oldCode != 0 && code == 0) {
+				effectiveSize--;
+			}
+			sum += code - oldCode;
+			codes[object] = code;
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		public int getEffectiveSize() {
+			return effectiveSize;
+		}
+
+		public long getSum() {
+			return sum;
+		}
+
+		public ObjectCodeImpl toObjectCode() {
+			var objectCode = new ObjectCodeImpl(size);
+			for (int o = 0; o < size; o++) {
+				long code = codes[o];
+				if (code != 0) {
+					objectCode.set(o, code);
+				}
+			}
+			return objectCode;
+		}
+	}
+}
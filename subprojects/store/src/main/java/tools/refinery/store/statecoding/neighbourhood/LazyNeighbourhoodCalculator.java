@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -60,7 +60,7 @@ public class LazyNeighbourhoodCalculator extends AbstractNeighbourhoodCalculator
 
 		long result = calculateModelCode(lastSum);
 
-		return new StateCoderResult((int) result, previousObjectCode);
+		return new StateCoderResult(result, previousObjectCode);
 	}
 
 	private long calculateLastSum(ObjectCodeImpl previous, ObjectCodeImpl next, LongIntMap hash2Amount,
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -44,7 +44,7 @@ public class NeighbourhoodCalculator extends AbstractNeighbourhoodCalculator imp
 		} while (rounds <= 7 && rounds <= previousObjectCode.getEffectiveSize());
 
 		long result = calculateLastSum(previousObjectCode);
-		return new StateCoderResult((int) result, previousObjectCode);
+		return new StateCoderResult(result, previousObjectCode);
 	}
 
 	private long calculateLastSum(ObjectCode codes) {
@@ -58,4 +58,16 @@ public class CycleDetectingMapper<T, R> {
 	public R getAlreadyMapped(T input) {
 		return results.get(input);
 	}
+
+	/**
+	 * Records the result of an input that was mapped elsewhere, unless the input is already mapped.
+	 *
+	 * @param input  The input.
+	 * @param result The result to return for {@code input} from now on.
+	 * @return The result that will be returned for {@code input}.
+	 */
+	public R putAlreadyMapped(T input, R result) {
+		var existingResult = results.putIfAbsent(input, result);
+		return existingResult == null ? result : existingResult;
+	}
 }
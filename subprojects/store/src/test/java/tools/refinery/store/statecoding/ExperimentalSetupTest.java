@@ -1,12 +1,12 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
 package tools.refinery.store.statecoding;
 
-import org.eclipse.collections.api.factory.primitive.IntObjectMaps;
-import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.factory.primitive.LongObjectMaps;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -61,7 +61,7 @@ class ExperimentalSetupTest {
 				.build();
 
 		Set<Version> versions = new HashSet<>();
-		MutableIntObjectMap<List<Version>> codes = IntObjectMaps.mutable.empty();
+		MutableLongObjectMap<List<Version>> codes = LongObjectMaps.mutable.empty();
 
 		var empty = store.createEmptyModel();
 		if (!permuteTypes) {
@@ -123,13 +123,13 @@ class ExperimentalSetupTest {
 		return result;
 	}
 
-	private static void saveAsNewVersion(Set<Version> versions, MutableIntObjectMap<List<Version>> codes,
+	private static void saveAsNewVersion(Set<Version> versions, MutableLongObjectMap<List<Version>> codes,
 										 StateCoderStoreAdapter storeAdapter, ExperimentalSetupResult result,
 										 Model model) {
 		Version version1 = model.commit();
 
 		var stateCode = model.getAdapter(StateCoderAdapter.class).calculateStateCode();
-		int code = stateCode.modelCode();
+		long code = stateCode.modelCode();
 		if (codes.containsKey(code)) {
 			Version similar = codes.get(code).get(0);
 
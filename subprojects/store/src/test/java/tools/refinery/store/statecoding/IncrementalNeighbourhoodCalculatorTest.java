@@ -0,0 +1,75 @@
+/*
+ * SPDX-FileCopyrightText: 2024 The Refinery Authors <https://refinery.tools/>
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package tools.refinery.store.statecoding;
+
+import org.eclipse.collections.api.factory.primitive.IntSets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.refinery.store.map.Version;
+import tools.refinery.store.model.Interpretation;
+import tools.refinery.store.model.ModelStore;
+import tools.refinery.store.representation.Symbol;
+import tools.refinery.store.statecoding.neighbourhood.IncrementalNeighbourhoodCalculator;
+import tools.refinery.store.statecoding.neighbourhood.NeighbourhoodCalculator;
+import tools.refinery.store.tuple.Tuple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IncrementalNeighbourhoodCalculatorTest {
+	Symbol<Boolean> person = new Symbol<>("Person", 1, Boolean.class, false);
+	Symbol<Integer> age = new Symbol<>("age", 1, Integer.class, null);
+	Symbol<Boolean> friend = new Symbol<>("friend", 2, Boolean.class, false);
+	Symbol<Boolean> meeting = new Symbol<>("meeting", 3, Boolean.class, false);
+
+	@ParameterizedTest
+	@ValueSource(ints = {3, 10, 50})
+	void sameCodesAsNeighbourhoodCalculatorTest(int size) {
+		var store = ModelStore.builder()
+				.symbols(person, age, friend, meeting)
+				.build();
+		var model = store.createEmptyModel();
+		var personI = model.getInterpretation(person);
+		var ageI = model.getInterpretation(age);
+		var friendI = model.getInterpretation(friend);
+		var meetingI = model.getInterpretation(meeting);
+		List<Interpretation<?>> interpretations = List.of(personI, ageI, friendI, meetingI);
+		var expected = new NeighbourhoodCalculator(model, interpretations, IntSets.mutable.of(0));
+		var actual = new IncrementalNeighbourhoodCalculator(model, interpretations, IntSets.mutable.of(0));
+
+		var random = new Random(size);
+		var versions = new ArrayList<Version>();
+		for (int step = 0; step < 200; step++) {
+			int a = random.nextInt(size);
+			int b = random.nextInt(size);
+			int c = random.nextInt(size);
+			switch (random.nextInt(6)) {
+				case 0 -> personI.put(Tuple.of(a), random.nextBoolean());
+				case 1 -> ageI.put(Tuple.of(a), random.nextBoolean() ? random.nextInt(3) : null);
+				case 2, 3 -> friendI.put(Tuple.of(a, b), random.nextBoolean());
+				case 4 -> meetingI.put(Tuple.of(a, b, c), random.nextBoolean());
+				default -> {
+					if (versions.isEmpty() || random.nextBoolean()) {
+						versions.add(model.commit());
+					} else {
+						model.restore(versions.get(random.nextInt(versions.size())));
+					}
+				}
+			}
+			assertSameCodes(size, expected.calculateCodes(), actual.calculateCodes());
+		}
+	}
+
+	private static void assertSameCodes(int size, StateCoderResult expected, StateCoderResult actual) {
+		assertEquals(expected.modelCode(), actual.modelCode(), "Model code");
+		for (int i = 0; i < size; i++) {
+			assertEquals(expected.objectCode().get(i), actual.objectCode().get(i), "Object code of " + i);
+		}
+	}
+}
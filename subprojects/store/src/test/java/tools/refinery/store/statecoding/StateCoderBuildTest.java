@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText: 2023 The Refinery Authors <https://refinery.tools/>
+ * SPDX-FileCopyrightText: 2023-2024 The Refinery Authors <https://refinery.tools/>
  *
  * SPDX-License-Identifier: EPL-2.0
  */
@@ -56,7 +56,7 @@ class StateCoderBuildTest {
 		var ageI = model.getInterpretation(age);
 		fill(personI, friendI, ageI);
 
-		int code = stateCoder.calculateStateCode().modelCode();
+		long code = stateCoder.calculateStateCode().modelCode();
 
 		ageI.put(Tuple.of(1), 3);
 		assertEquals(code, stateCoder.calculateStateCode().modelCode());
@@ -81,11 +81,11 @@ class StateCoderBuildTest {
 		var friendI = model.getInterpretation(friend);
 
 		friendI.put(Tuple.of(1, 2), true);
-		int code1 = stateCoder.calculateModelCode();
+		long code1 = stateCoder.calculateModelCode();
 
 		friendI.put(Tuple.of(1, 2), false);
 		friendI.put(Tuple.of(2, 1), true);
-		int code2 = stateCoder.calculateModelCode();
+		long code2 = stateCoder.calculateModelCode();
 
 		assertEquals(code1, code2);
 	}
@@ -104,11 +104,11 @@ class StateCoderBuildTest {
 		var friendI = model.getInterpretation(friend);
 
 		friendI.put(Tuple.of(1, 2), true);
-		int code1 = stateCoder.calculateModelCode();
+		long code1 = stateCoder.calculateModelCode();
 
 		friendI.put(Tuple.of(1, 2), false);
 		friendI.put(Tuple.of(2, 1), true);
-		int code2 = stateCoder.calculateModelCode();
+		long code2 = stateCoder.calculateModelCode();
 
 		assertNotEquals(code1, code2);
 	}